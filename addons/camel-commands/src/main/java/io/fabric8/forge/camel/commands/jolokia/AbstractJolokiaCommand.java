@@ -18,7 +18,7 @@ package io.fabric8.forge.camel.commands.jolokia;
 import java.io.PrintStream;
 import javax.inject.Inject;
 
-import org.apache.camel.commands.jolokia.DefaultJolokiaCamelController;
+import org.apache.camel.commands.CamelCommand;
 import org.apache.camel.commands.jolokia.JolokiaCamelController;
 import org.jboss.forge.addon.configuration.Configuration;
 import org.jboss.forge.addon.projects.ProjectFactory;
@@ -62,18 +62,45 @@ public abstract class AbstractJolokiaCommand extends AbstractProjectCommand {
     }
 
     protected String getJolokiaUrl() {
-        return configuration.getString("CamelJolokiaUrl");
+        return configuration.getString(JolokiaConnections.URL);
+    }
+
+    /**
+     * Returns the shared connection to the remote jolokia agent, or null if not connected.
+     */
+    protected JolokiaConnection getConnection() {
+        return JolokiaConnections.getConnection(configuration);
     }
 
     protected JolokiaCamelController getController() throws Exception {
-        JolokiaCamelController controller = new DefaultJolokiaCamelController();
+        JolokiaConnection connection = getConnection();
+        if (connection == null) {
+            throw new IllegalStateException("Not connected to remote jolokia agent. Use camel-connect command first");
+        }
+        return connection.getController();
+    }
 
-        // optional
-        String username = configuration.getString("CamelJolokiaUsername");
-        String password = configuration.getString("CamelJolokiaPassword");
+    /**
+     * Returns a controller which merges the per route reads into Jolokia bulk requests, recording them in the given stats.
+     */
+    protected JolokiaCamelController getBulkController(JolokiaBulkStats stats) throws Exception {
+        // lets fail if we are not connected
+        getController();
+        return new BulkJolokiaCamelController(getConnection().getClient(), stats);
+    }
+
+    protected JolokiaBulkStats createBulkStats() {
+        return new JolokiaBulkStats(configuration.getInt(JolokiaConnections.BATCH_SIZE, JolokiaConnections.DEFAULT_BATCH_SIZE));
+    }
 
-        controller.connect(getJolokiaUrl(), username, password);
-        return controller;
+    /**
+     * Executes the command using bulk Jolokia requests and prints a timing summary after its output.
+     */
+    protected void executeBulk(CamelCommand command, UIExecutionContext context) throws Exception {
+        JolokiaBulkStats stats = createBulkStats();
+        command.execute(getBulkController(stats), getOutput(context), getError(context));
+        getOutput(context).println();
+        getOutput(context).println(stats.summary());
     }
 
     protected PrintStream getOutput(UIExecutionContext context) {
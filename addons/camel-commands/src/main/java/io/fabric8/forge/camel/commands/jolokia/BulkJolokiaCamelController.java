@@ -0,0 +1,227 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.jolokia;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.management.ObjectName;
+
+import org.apache.camel.commands.jolokia.DefaultJolokiaCamelController;
+import org.jolokia.client.J4pClient;
+import org.jolokia.client.exception.J4pException;
+import org.jolokia.client.request.J4pExecRequest;
+import org.jolokia.client.request.J4pExecResponse;
+import org.jolokia.client.request.J4pQueryParameter;
+import org.jolokia.client.request.J4pReadRequest;
+import org.jolokia.client.request.J4pReadResponse;
+import org.jolokia.client.request.J4pRequest;
+import org.jolokia.client.request.J4pResponse;
+import org.jolokia.client.request.J4pResponseExtractor;
+
+/**
+ * A Jolokia Camel controller which merges the per route reads done by the Camel commands into Jolokia bulk requests.
+ * <ul>
+ *     <li><tt>getRoutes(context)</tt> is answered by pattern reads of the route MBeans, all sent in one http round trip</li>
+ *     <li><tt>getRouteStatsAsXml</tt> dumps the statistics of all the routes of the context in bulk requests of
+ *     at most <tt>batchSize</tt> operations, once a second route of the same context is asked for</li>
+ * </ul>
+ * All other calls are handled by {@link DefaultJolokiaCamelController}. Every http round trip is recorded in the
+ * given {@link JolokiaBulkStats}.
+ */
+public class BulkJolokiaCamelController extends DefaultJolokiaCamelController {
+
+    private final J4pClient client;
+    private final JolokiaBulkStats stats;
+    private final Map<String, Integer> routeStatsCalls = new HashMap<>();
+    private final Map<String, Map<String, String>> routeStats = new HashMap<>();
+
+    /**
+     * Creates a controller sending its requests with the http client of the given (connected) Jolokia client
+     */
+    public BulkJolokiaCamelController(J4pClient client, JolokiaBulkStats stats) {
+        this.client = new RecordingJ4pClient(client, stats);
+        this.stats = stats;
+        using(this.client);
+    }
+
+    @Override
+    public List<Map<String, String>> getRoutes(String camelContextName) throws Exception {
+        List<ObjectName> contexts = findCamelContexts(camelContextName);
+        List<Map<String, String>> answer = new ArrayList<>();
+        if (contexts.isEmpty()) {
+            return answer;
+        }
+
+        List<J4pReadRequest> requests = new ArrayList<>();
+        for (ObjectName context : contexts) {
+            requests.add(new J4pReadRequest(routesPattern(context), "CamelId", "RouteId", "State"));
+        }
+        for (J4pReadResponse response : this.<J4pReadRequest, J4pReadResponse>execute(requests)) {
+            for (ObjectName on : response.getObjectNames()) {
+                Map<String, String> row = new LinkedHashMap<>();
+                row.put("camelContextName", String.valueOf(response.getValue(on, "CamelId")));
+                row.put("routeId", String.valueOf(response.getValue(on, "RouteId")));
+                row.put("state", String.valueOf(response.getValue(on, "State")));
+                answer.add(row);
+            }
+        }
+
+        Collections.sort(answer, new RouteComparator());
+        return answer;
+    }
+
+    @Override
+    public String getRouteStatsAsXml(String routeId, String camelContextName, boolean fullStats, boolean includeProcessors) throws Exception {
+        String answer = getBulkRouteStatsAsXml(routeId, camelContextName, fullStats, includeProcessors);
+        if (answer == null) {
+            answer = super.getRouteStatsAsXml(routeId, camelContextName, fullStats, includeProcessors);
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the route statistics from the bulk dump of the context, or null if the call should go to the remote agent directly.
+     */
+    protected String getBulkRouteStatsAsXml(String routeId, String camelContextName, boolean fullStats, boolean includeProcessors) throws Exception {
+        if (routeId == null || camelContextName == null) {
+            return null;
+        }
+        String key = camelContextName + "|" + fullStats + "|" + includeProcessors;
+        Map<String, String> dump = routeStats.get(key);
+        if (dump == null) {
+            // a single route is cheaper to fetch on its own
+            Integer calls = routeStatsCalls.get(key);
+            routeStatsCalls.put(key, calls == null ? 1 : calls + 1);
+            if (calls == null) {
+                return null;
+            }
+            dump = dumpRouteStats(camelContextName, fullStats, includeProcessors);
+            routeStats.put(key, dump);
+        }
+        return dump.get(routeId);
+    }
+
+    /**
+     * Returns the statistics of all the routes of the given context keyed by route id
+     */
+    protected Map<String, String> dumpRouteStats(String camelContextName, boolean fullStats, boolean includeProcessors) throws Exception {
+        Map<String, String> answer = new HashMap<>();
+        List<ObjectName> contexts = findCamelContexts(camelContextName);
+        if (contexts.isEmpty()) {
+            return answer;
+        }
+
+        J4pReadRequest routes = new J4pReadRequest(routesPattern(contexts.get(0)), "RouteId");
+        J4pReadResponse response = this.<J4pReadRequest, J4pReadResponse>execute(Collections.singletonList(routes)).get(0);
+        List<String> ids = new ArrayList<>();
+        List<J4pExecRequest> requests = new ArrayList<>();
+        for (ObjectName on : response.getObjectNames()) {
+            ids.add(String.valueOf(response.getValue(on, "RouteId")));
+            requests.add(new J4pExecRequest(on, "dumpRouteStatsAsXml(boolean,boolean)", fullStats, includeProcessors));
+        }
+
+        List<J4pExecResponse> responses = execute(requests);
+        for (int i = 0; i < responses.size(); i++) {
+            Object xml = responses.get(i).getValue();
+            if (xml != null) {
+                answer.put(ids.get(i), xml.toString());
+            }
+        }
+        return answer;
+    }
+
+    private List<ObjectName> findCamelContexts(String camelContextName) throws Exception {
+        J4pReadRequest request = new J4pReadRequest("*:type=context,*", "CamelId");
+        J4pReadResponse response = this.<J4pReadRequest, J4pReadResponse>execute(Collections.singletonList(request)).get(0);
+        List<ObjectName> answer = new ArrayList<>();
+        for (ObjectName on : response.getObjectNames()) {
+            if (camelContextName == null || camelContextName.equals(String.valueOf(response.getValue(on, "CamelId")))) {
+                answer.add(on);
+            }
+        }
+        return answer;
+    }
+
+    private static String routesPattern(ObjectName context) {
+        return String.format("%s:context=%s,type=routes,*", context.getDomain(), context.getKeyProperty("context"));
+    }
+
+    /**
+     * Executes the requests as Jolokia bulk requests of at most <tt>batchSize</tt> requests each.
+     */
+    private <REQ extends J4pRequest, RESP extends J4pResponse<REQ>> List<RESP> execute(List<REQ> requests) throws Exception {
+        List<RESP> answer = new ArrayList<>(requests.size());
+        int batchSize = stats.getBatchSize() > 0 ? stats.getBatchSize() : requests.size();
+        for (int i = 0; i < requests.size(); i += batchSize) {
+            List<REQ> batch = requests.subList(i, Math.min(requests.size(), i + batchSize));
+            List<RESP> responses = client.execute(batch);
+            answer.addAll(responses);
+        }
+        return answer;
+    }
+
+    private static final class RouteComparator implements Comparator<Map<String, String>> {
+
+        @Override
+        public int compare(Map<String, String> o1, Map<String, String> o2) {
+            int answer = o1.get("camelContextName").compareTo(o2.get("camelContextName"));
+            if (answer == 0) {
+                answer = o1.get("routeId").compareTo(o2.get("routeId"));
+            }
+            return answer;
+        }
+    }
+
+    /**
+     * A Jolokia client sharing the http client of another which records every round trip in the stats.
+     */
+    private static final class RecordingJ4pClient extends J4pClient {
+
+        private final JolokiaBulkStats stats;
+
+        private RecordingJ4pClient(J4pClient client, JolokiaBulkStats stats) {
+            super(client.getUri().toString(), client.getHttpClient());
+            this.stats = stats;
+        }
+
+        @Override
+        public <RESP extends J4pResponse<REQ>, REQ extends J4pRequest> RESP execute(REQ pRequest, String pMethod,
+                Map<J4pQueryParameter, String> pProcessingOptions, J4pResponseExtractor pExtractor) throws J4pException {
+            long start = System.currentTimeMillis();
+            try {
+                return super.execute(pRequest, pMethod, pProcessingOptions, pExtractor);
+            } finally {
+                stats.record(1, System.currentTimeMillis() - start);
+            }
+        }
+
+        @Override
+        public <RESP extends J4pResponse<REQ>, REQ extends J4pRequest> List<RESP> execute(List<REQ> pRequests,
+                Map<J4pQueryParameter, String> pProcessingOptions, J4pResponseExtractor pExtractor) throws J4pException {
+            long start = System.currentTimeMillis();
+            try {
+                return super.execute(pRequests, pProcessingOptions, pExtractor);
+            } finally {
+                stats.record(pRequests.size(), System.currentTimeMillis() - start);
+            }
+        }
+    }
+}
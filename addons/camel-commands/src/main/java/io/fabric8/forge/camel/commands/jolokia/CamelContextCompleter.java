@@ -20,24 +20,26 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.camel.commands.jolokia.JolokiaCamelController;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.input.InputComponent;
 import org.jboss.forge.addon.ui.input.UICompleter;
 
 public class CamelContextCompleter implements UICompleter<String> {
 
-    private final JolokiaCamelController controller;
+    private final JolokiaConnection connection;
 
-    public CamelContextCompleter(JolokiaCamelController controller) {
-        this.controller = controller;
+    public CamelContextCompleter(JolokiaConnection connection) {
+        this.connection = connection;
     }
 
     @Override
     public Iterable<String> getCompletionProposals(UIContext context, InputComponent<?, String> input, String value) {
         List<String> answer = new ArrayList<>();
+        if (connection == null) {
+            return answer;
+        }
         try {
-            List<Map<String, String>> contexts = controller.getCamelContexts();
+            List<Map<String, String>> contexts = connection.getCamelContexts();
             for (Map<String, String> row : contexts) {
                 final String name = row.get("name");
                 if (value == null || name.startsWith(value)) {
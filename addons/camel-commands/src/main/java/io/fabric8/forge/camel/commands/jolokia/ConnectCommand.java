@@ -17,8 +17,6 @@ package io.fabric8.forge.camel.commands.jolokia;
 
 import javax.inject.Inject;
 
-import org.apache.camel.commands.jolokia.DefaultJolokiaCamelController;
-import org.apache.camel.commands.jolokia.JolokiaCamelController;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.context.UIExecutionContext;
@@ -46,6 +44,11 @@ public class ConnectCommand extends AbstractJolokiaCommand {
     @WithAttributes(label = "Password", required = false, description = "password for authentication", type = InputType.SECRET)
     private UIInput<String> password;
 
+    @Inject
+    @WithAttributes(label = "Batch Size", required = false, defaultValue = "100",
+            description = "maximum number of reads to send to the jolokia agent in one bulk request")
+    private UIInput<Integer> batchSize;
+
     @Override
     public UICommandMetadata getMetadata(UIContext context) {
         return Metadata.forCommand(ConnectCommand.class).name(
@@ -61,21 +64,27 @@ public class ConnectCommand extends AbstractJolokiaCommand {
 
     @Override
     public void initializeUI(UIBuilder builder) throws Exception {
-        builder.add(url).add(username).add(password);
+        builder.add(url).add(username).add(password).add(batchSize);
     }
 
     @Override
     public Result execute(UIExecutionContext uiExecutionContext) throws Exception {
-        configuration.setProperty("CamelJolokiaUrl", url.getValue());
+        // drop any connection we had before so we connect again with the given credentials
+        String oldUrl = getJolokiaUrl();
+        if (oldUrl != null) {
+            JolokiaConnections.removeConnection(oldUrl, configuration.getString(JolokiaConnections.USERNAME));
+        }
+        JolokiaConnections.removeConnection(url.getValue(), username.getValue());
+
+        configuration.setProperty(JolokiaConnections.URL, url.getValue());
         // username and password is optional
-        configuration.setProperty("CamelJolokiaUsername", username.getValue());
-        configuration.setProperty("CamelJolokiaPassword", password.getValue());
+        configuration.setProperty(JolokiaConnections.USERNAME, username.getValue());
+        configuration.setProperty(JolokiaConnections.PASSWORD, password.getValue());
+        configuration.setProperty(JolokiaConnections.BATCH_SIZE, batchSize.getValue());
 
         // ping to see if the connection works
-        JolokiaCamelController controller = new DefaultJolokiaCamelController();
-        controller.connect(url.getValue(), username.getValue(), password.getValue());
-
-        boolean ok = controller.ping();
+        JolokiaConnection connection = JolokiaConnections.getConnection(url.getValue(), username.getValue(), password.getValue());
+        boolean ok = connection.ping();
         if (ok) {
             return Results.success("Connected to " + url.getValue() + (username.getValue() != null ? " using " + username.getValue() : ""));
         } else {
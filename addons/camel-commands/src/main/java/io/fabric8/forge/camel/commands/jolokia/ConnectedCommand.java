@@ -15,7 +15,6 @@
  */
 package io.fabric8.forge.camel.commands.jolokia;
 
-import org.apache.camel.commands.jolokia.JolokiaCamelController;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.context.UIExecutionContext;
@@ -46,16 +45,20 @@ public class ConnectedCommand extends AbstractJolokiaCommand {
             return Results.fail("Not connected to remote jolokia agent. Use camel-connect command first");
         }
 
-        String username = configuration.getString("CamelJolokiaUsername");
+        String username = configuration.getString(JolokiaConnections.USERNAME);
 
-        JolokiaCamelController controller = getController();
-
-        // ping to see if the connection works
-        boolean ok = controller.ping();
+        // ping to see if the connection works (reconnecting if needed)
+        JolokiaConnection connection = getConnection();
+        boolean ok = connection.ping() || reconnect(connection);
         if (ok) {
             return Results.success("Connected to " + url + (username != null ? " using " + username : ""));
         } else {
             return Results.fail("Error connecting to " + url);
         }
     }
+
+    private boolean reconnect(JolokiaConnection connection) {
+        JolokiaConnections.removeConnection(connection.getUrl(), connection.getUsername());
+        return getConnection().ping();
+    }
 }
@@ -51,7 +51,7 @@ public class ContextInflightCommand extends AbstractJolokiaCommand {
 
     @Override
     public void initializeUI(UIBuilder builder) throws Exception {
-        name.setCompleter(new CamelContextCompleter(getController()));
+        name.setCompleter(new CamelContextCompleter(getConnection()));
         builder.add(name).add(limit).add(sortByLongestDuration);
     }
 
@@ -64,7 +64,7 @@ public class ContextInflightCommand extends AbstractJolokiaCommand {
 
         org.apache.camel.commands.ContextInflightCommand command = new org.apache.camel.commands.ContextInflightCommand(name.getValue(), limit.getValue(), sortByLongestDuration.getValue());
 
-        command.execute(getController(), getOutput(context), getError(context));
+        executeBulk(command, context);
         return Results.success();
     }
 }
@@ -48,7 +48,7 @@ public class ContextInfoCommand extends AbstractJolokiaCommand {
 
     @Override
     public void initializeUI(UIBuilder builder) throws Exception {
-        name.setCompleter(new CamelContextCompleter(getController()));
+        name.setCompleter(new CamelContextCompleter(getConnection()));
         builder.add(name).add(verbose);
     }
 
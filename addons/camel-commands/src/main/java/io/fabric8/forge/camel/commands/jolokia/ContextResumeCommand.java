@@ -43,7 +43,7 @@ public class ContextResumeCommand extends AbstractJolokiaCommand {
 
     @Override
     public void initializeUI(UIBuilder builder) throws Exception {
-        name.setCompleter(new CamelContextCompleter(getController()));
+        name.setCompleter(new CamelContextCompleter(getConnection()));
         builder.add(name);
     }
 
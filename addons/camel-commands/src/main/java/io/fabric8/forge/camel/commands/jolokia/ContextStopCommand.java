@@ -43,7 +43,7 @@ public class ContextStopCommand extends AbstractJolokiaCommand {
 
     @Override
     public void initializeUI(UIBuilder builder) throws Exception {
-        name.setCompleter(new CamelContextCompleter(getController()));
+        name.setCompleter(new CamelContextCompleter(getConnection()));
         builder.add(name);
     }
 
@@ -56,6 +56,8 @@ public class ContextStopCommand extends AbstractJolokiaCommand {
 
         org.apache.camel.commands.ContextStopCommand command = new org.apache.camel.commands.ContextStopCommand(name.getValue());
         command.execute(getController(), getOutput(context), getError(context));
+        // the stopped context is no longer listed
+        getConnection().invalidate();
 
         return Results.success("Stopped " + name.getValue());
     }
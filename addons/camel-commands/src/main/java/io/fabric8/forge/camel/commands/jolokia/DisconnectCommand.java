@@ -36,7 +36,10 @@ public class DisconnectCommand extends AbstractJolokiaCommand {
     public Result execute(UIExecutionContext uiExecutionContext) throws Exception {
         String url = getJolokiaUrl();
 
-        configuration.clearProperty("CamelJolokiaUrl");
+        if (url != null) {
+            JolokiaConnections.removeConnection(url, configuration.getString(JolokiaConnections.USERNAME));
+        }
+        configuration.clearProperty(JolokiaConnections.URL);
 
         if (url != null) {
             return Results.success("Disconnected from " + url);
@@ -51,7 +51,7 @@ public class EndpointStatsCommand extends AbstractJolokiaCommand {
 
     @Override
     public void initializeUI(UIBuilder builder) throws Exception {
-        name.setCompleter(new CamelContextCompleter(getController()));
+        name.setCompleter(new CamelContextCompleter(getConnection()));
         builder.add(name);
     }
 
@@ -70,7 +70,7 @@ public class EndpointStatsCommand extends AbstractJolokiaCommand {
         }
 
         org.apache.camel.commands.EndpointStatisticCommand command = new org.apache.camel.commands.EndpointStatisticCommand(name.getValue(), val, val2);
-        command.execute(getController(), getOutput(context), getError(context));
+        executeBulk(command, context);
 
         return Results.success();
     }
@@ -0,0 +1,63 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.jolokia;
+
+/**
+ * Keeps track of how many Jolokia requests a command issued, how many http round trips they took and the time spent.
+ */
+public class JolokiaBulkStats {
+
+    private final int batchSize;
+    private final long started = System.currentTimeMillis();
+    private int requests;
+    private int roundTrips;
+    private long remoteTime;
+
+    public JolokiaBulkStats(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public synchronized void record(int requests, long millis) {
+        this.requests += requests;
+        this.roundTrips++;
+        this.remoteTime += millis;
+    }
+
+    public synchronized int getRequests() {
+        return requests;
+    }
+
+    public synchronized int getRoundTrips() {
+        return roundTrips;
+    }
+
+    public synchronized long getRemoteTime() {
+        return remoteTime;
+    }
+
+    /**
+     * Returns a one line summary such as <tt>120 requests in 3 round trips (batch size 100), 42 ms remote, 57 ms total</tt>
+     */
+    public synchronized String summary() {
+        long total = System.currentTimeMillis() - started;
+        return requests + " requests in " + roundTrips + " round trips (batch size " + batchSize + "), "
+                + remoteTime + " ms remote, " + total + " ms total";
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.jolokia;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.camel.commands.jolokia.DefaultJolokiaCamelController;
+import org.apache.camel.commands.jolokia.JolokiaCamelController;
+import org.jolokia.client.J4pClient;
+
+/**
+ * A long lived connection to a remote Jolokia agent which is shared by all the Jolokia Camel commands
+ * and completers using the same url and username.
+ * <p/>
+ * The underlying controller (and its pooled http client) is only created once and is health checked
+ * (and reconnected if needed) at most once per {@link #HEALTH_CHECK_INTERVAL}. The listings of Camel contexts
+ * and routes used for completion are cached for {@link #LISTING_TTL} so typing does not query the remote agent
+ * on every keystroke.
+ */
+public class JolokiaConnection {
+
+    public static final long HEALTH_CHECK_INTERVAL = 30000;
+    public static final long LISTING_TTL = 5000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Map<String, Listing> routes = new ConcurrentHashMap<>();
+    private volatile JolokiaCamelController controller;
+    private volatile J4pClient client;
+    private volatile long lastChecked;
+    private volatile Listing contexts;
+
+    public JolokiaConnection(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Returns the shared controller, connecting on first use and reconnecting if the last health check failed.
+     */
+    public synchronized JolokiaCamelController getController() throws Exception {
+        long now = System.currentTimeMillis();
+        if (controller == null) {
+            controller = connect();
+            lastChecked = now;
+        } else if (now - lastChecked > HEALTH_CHECK_INTERVAL) {
+            if (!ping()) {
+                invalidate();
+                controller = connect();
+                client = null;
+            }
+            lastChecked = now;
+        }
+        return controller;
+    }
+
+    /**
+     * Returns the shared Jolokia client used for bulk requests.
+     */
+    public synchronized J4pClient getClient() {
+        if (client == null) {
+            client = J4pClient.url(url).user(username).password(password).build();
+        }
+        return client;
+    }
+
+    /**
+     * Pings the remote agent, returning false if the agent cannot be reached.
+     */
+    public synchronized boolean ping() {
+        try {
+            if (controller == null) {
+                controller = connect();
+            }
+            boolean answer = controller.ping();
+            lastChecked = System.currentTimeMillis();
+            return answer;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the Camel contexts in the remote JVM, cached for {@link #LISTING_TTL}.
+     */
+    public List<Map<String, String>> getCamelContexts() throws Exception {
+        Listing answer = contexts;
+        if (answer == null || answer.isExpired()) {
+            answer = new Listing(getController().getCamelContexts());
+            contexts = answer;
+        }
+        return answer.rows;
+    }
+
+    /**
+     * Returns the routes of the given Camel context (or all routes if the name is null), cached for {@link #LISTING_TTL}.
+     */
+    public List<Map<String, String>> getRoutes(String camelContextName) throws Exception {
+        String key = camelContextName != null ? camelContextName : "";
+        Listing answer = routes.get(key);
+        if (answer == null || answer.isExpired()) {
+            answer = new Listing(getController().getRoutes(camelContextName));
+            routes.put(key, answer);
+        }
+        return answer.rows;
+    }
+
+    /**
+     * Discards the cached listings so the next lookup queries the remote agent again.
+     */
+    public void invalidate() {
+        contexts = null;
+        routes.clear();
+    }
+
+    private JolokiaCamelController connect() throws Exception {
+        JolokiaCamelController answer = new DefaultJolokiaCamelController();
+        answer.connect(url, username, password);
+        return answer;
+    }
+
+    private static final class Listing {
+        private final List<Map<String, String>> rows;
+        private final long expires;
+
+        private Listing(List<Map<String, String>> rows) {
+            this.rows = rows != null ? Collections.unmodifiableList(rows) : Collections.<Map<String, String>>emptyList();
+            this.expires = System.currentTimeMillis() + LISTING_TTL;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expires;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.jolokia;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.forge.addon.configuration.Configuration;
+
+/**
+ * Registry of the {@link JolokiaConnection}s in use, keyed by the url and username stored in the Forge
+ * {@link Configuration} by the <tt>camel-connect</tt> command.
+ */
+public final class JolokiaConnections {
+
+    public static final String URL = "CamelJolokiaUrl";
+    public static final String USERNAME = "CamelJolokiaUsername";
+    public static final String PASSWORD = "CamelJolokiaPassword";
+    public static final String BATCH_SIZE = "CamelJolokiaBatchSize";
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final ConcurrentMap<String, JolokiaConnection> CONNECTIONS = new ConcurrentHashMap<>();
+
+    private JolokiaConnections() {
+    }
+
+    /**
+     * Returns the connection for the jolokia settings in the configuration, or null if not connected.
+     */
+    public static JolokiaConnection getConnection(Configuration configuration) {
+        String url = configuration.getString(URL);
+        if (url == null) {
+            return null;
+        }
+        return getConnection(url, configuration.getString(USERNAME), configuration.getString(PASSWORD));
+    }
+
+    /**
+     * Returns the shared connection for the given url and username, replacing it if the password has changed.
+     */
+    public static JolokiaConnection getConnection(String url, String username, String password) {
+        String key = key(url, username);
+        JolokiaConnection answer = CONNECTIONS.get(key);
+        if (answer == null || !equal(answer.getPassword(), password)) {
+            JolokiaConnection connection = new JolokiaConnection(url, username, password);
+            if (answer == null) {
+                answer = CONNECTIONS.putIfAbsent(key, connection);
+                if (answer == null) {
+                    answer = connection;
+                }
+            } else {
+                CONNECTIONS.put(key, connection);
+                answer = connection;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Removes the shared connection for the given url and username.
+     */
+    public static void removeConnection(String url, String username) {
+        JolokiaConnection connection = CONNECTIONS.remove(key(url, username));
+        if (connection != null) {
+            connection.invalidate();
+        }
+    }
+
+    private static String key(String url, String username) {
+        return url + "|" + (username != null ? username : "");
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -20,7 +20,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.camel.commands.jolokia.JolokiaCamelController;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.input.InputComponent;
 import org.jboss.forge.addon.ui.input.UICompleter;
@@ -28,20 +27,23 @@ import org.jboss.forge.addon.ui.input.UIInput;
 
 public class RouteCompleter implements UICompleter<String> {
 
-    private final JolokiaCamelController controller;
+    private final JolokiaConnection connection;
     private final UIInput<String> name;
 
-    public RouteCompleter(JolokiaCamelController controller, UIInput<String> name) {
-        this.controller = controller;
+    public RouteCompleter(JolokiaConnection connection, UIInput<String> name) {
+        this.connection = connection;
         this.name = name;
     }
 
     @Override
     public Iterable<String> getCompletionProposals(UIContext context, InputComponent<?, String> input, String value) {
         List<String> answer = new ArrayList<>();
+        if (connection == null) {
+            return answer;
+        }
         try {
             // limit routes to the context if we have already selected a value
-            List<Map<String, String>> contexts = controller.getRoutes(name.getValue());
+            List<Map<String, String>> contexts = connection.getRoutes(name.getValue());
             for (Map<String, String> row : contexts) {
                 final String name = row.get("routeId");
                 if (value == null || name.startsWith(value)) {
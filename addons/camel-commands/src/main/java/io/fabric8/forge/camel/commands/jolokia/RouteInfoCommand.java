@@ -48,8 +48,8 @@ public class RouteInfoCommand extends AbstractJolokiaCommand {
 
     @Override
     public void initializeUI(UIBuilder builder) throws Exception {
-        name.setCompleter(new CamelContextCompleter(getController()));
-        route.setCompleter(new RouteCompleter(getController(), name));
+        name.setCompleter(new CamelContextCompleter(getConnection()));
+        route.setCompleter(new RouteCompleter(getConnection(), name));
         builder.add(name).add(route);
     }
 
@@ -63,7 +63,7 @@ public class RouteInfoCommand extends AbstractJolokiaCommand {
         org.apache.camel.commands.RouteInfoCommand command = new org.apache.camel.commands.RouteInfoCommand(route.getValue(), name.getValue());
         command.setStringEscape(new NoopStringEscape());
 
-        command.execute(getController(), getOutput(context), getError(context));
+        executeBulk(command, context);
         return Results.success();
     }
 }
@@ -43,7 +43,7 @@ public class RouteListCommand extends AbstractJolokiaCommand {
 
     @Override
     public void initializeUI(UIBuilder builder) throws Exception {
-        name.setCompleter(new CamelContextCompleter(getController()));
+        name.setCompleter(new CamelContextCompleter(getConnection()));
         builder.add(name);
     }
 
@@ -56,7 +56,7 @@ public class RouteListCommand extends AbstractJolokiaCommand {
 
         org.apache.camel.commands.RouteListCommand command = new org.apache.camel.commands.RouteListCommand(name.getValue());
 
-        command.execute(getController(), getOutput(context), getError(context));
+        executeBulk(command, context);
         return Results.success();
     }
 }
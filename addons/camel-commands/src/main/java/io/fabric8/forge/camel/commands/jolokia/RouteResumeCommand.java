@@ -47,8 +47,8 @@ public class RouteResumeCommand extends AbstractJolokiaCommand {
 
     @Override
     public void initializeUI(UIBuilder builder) throws Exception {
-        name.setCompleter(new CamelContextCompleter(getController()));
-        route.setCompleter(new RouteCompleter(getController(), name));
+        name.setCompleter(new CamelContextCompleter(getConnection()));
+        route.setCompleter(new RouteCompleter(getConnection(), name));
         builder.add(name).add(route);
     }
 
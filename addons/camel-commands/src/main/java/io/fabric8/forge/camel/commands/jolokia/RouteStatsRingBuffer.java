@@ -0,0 +1,142 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.jolokia;
+
+/**
+ * A fixed size ring buffer of counter samples for a single route or processor, kept in primitive arrays
+ * so sampling many routes at a short interval does not create garbage.
+ * <p/>
+ * Throughput and latency are computed from the deltas between the oldest and newest sample in the buffer.
+ */
+public class RouteStatsRingBuffer {
+
+    private final String camelContextName;
+    private final String routeId;
+    private final String processorId;
+    private final long[] timestamps;
+    private final long[] completed;
+    private final long[] failed;
+    private final long[] processingTime;
+    private long inflight;
+    private long lastSeen;
+    private int head;
+    private int size;
+
+    public RouteStatsRingBuffer(String camelContextName, String routeId, String processorId, int capacity) {
+        this.camelContextName = camelContextName;
+        this.routeId = routeId;
+        this.processorId = processorId;
+        this.timestamps = new long[capacity];
+        this.completed = new long[capacity];
+        this.failed = new long[capacity];
+        this.processingTime = new long[capacity];
+    }
+
+    public String getCamelContextName() {
+        return camelContextName;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public String getProcessorId() {
+        return processorId;
+    }
+
+    /**
+     * Adds a sample of the cumulative counters, overwriting the oldest sample when the buffer is full.
+     */
+    public void add(long timestamp, long exchangesCompleted, long exchangesFailed, long totalProcessingTime, long exchangesInflight) {
+        if (size > 0 && exchangesCompleted < completed[index(size - 1)]) {
+            // the statistics has been reset so start over
+            size = 0;
+        }
+        int idx = (head + size) % timestamps.length;
+        if (size == timestamps.length) {
+            head = (head + 1) % timestamps.length;
+        } else {
+            size++;
+        }
+        timestamps[idx] = timestamp;
+        completed[idx] = exchangesCompleted;
+        failed[idx] = exchangesFailed;
+        processingTime[idx] = totalProcessingTime;
+        inflight = exchangesInflight;
+        lastSeen = timestamp;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getLastSeen() {
+        return lastSeen;
+    }
+
+    public long getInflight() {
+        return inflight;
+    }
+
+    /**
+     * Completed exchanges per second over the window.
+     */
+    public double getThroughput() {
+        if (size < 2) {
+            return 0;
+        }
+        long millis = timestamps[index(size - 1)] - timestamps[head];
+        return millis > 0 ? (completed[index(size - 1)] - completed[head]) * 1000d / millis : 0;
+    }
+
+    /**
+     * Failed exchanges over the window.
+     */
+    public long getFailures() {
+        return size < 2 ? 0 : failed[index(size - 1)] - failed[head];
+    }
+
+    /**
+     * Mean processing time in millis of the exchanges completed within the window.
+     */
+    public double getMeanLatency() {
+        if (size < 2) {
+            return 0;
+        }
+        long count = completed[index(size - 1)] - completed[head];
+        return count > 0 ? (double) (processingTime[index(size - 1)] - processingTime[head]) / count : 0;
+    }
+
+    /**
+     * The highest mean processing time in millis of any single interval within the window.
+     */
+    public double getMaxLatency() {
+        double answer = 0;
+        for (int i = 1; i < size; i++) {
+            int prev = index(i - 1);
+            int cur = index(i);
+            long count = completed[cur] - completed[prev];
+            if (count > 0) {
+                answer = Math.max(answer, (double) (processingTime[cur] - processingTime[prev]) / count);
+            }
+        }
+        return answer;
+    }
+
+    private int index(int offset) {
+        return (head + offset) % timestamps.length;
+    }
+}
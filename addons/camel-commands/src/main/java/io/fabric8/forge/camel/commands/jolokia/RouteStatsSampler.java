@@ -0,0 +1,152 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.jolokia;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.jolokia.client.J4pClient;
+import org.jolokia.client.request.J4pReadRequest;
+import org.jolokia.client.request.J4pReadResponse;
+
+/**
+ * Samples the route (and optionally processor) counters of the remote Camel contexts with a single Jolokia bulk
+ * request per sample, keeping a {@link RouteStatsRingBuffer} per route and processor.
+ */
+public class RouteStatsSampler {
+
+    public enum SortBy {
+        throughput, mean, max, inflight
+    }
+
+    private static final String[] ROUTE_ATTRIBUTES = {"CamelId", "RouteId",
+            "ExchangesCompleted", "ExchangesFailed", "TotalProcessingTime", "ExchangesInflight"};
+    private static final String[] PROCESSOR_ATTRIBUTES = {"CamelId", "RouteId", "ProcessorId",
+            "ExchangesCompleted", "ExchangesFailed", "TotalProcessingTime", "ExchangesInflight"};
+
+    private final J4pClient client;
+    private final String camelContextName;
+    private final boolean includeProcessors;
+    private final int capacity;
+    private final Map<String, RouteStatsRingBuffer> routes = new LinkedHashMap<>();
+    private final Map<String, RouteStatsRingBuffer> processors = new LinkedHashMap<>();
+
+    public RouteStatsSampler(J4pClient client, String camelContextName, boolean includeProcessors, int capacity) {
+        this.client = client;
+        this.camelContextName = camelContextName;
+        this.includeProcessors = includeProcessors;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Takes a sample of all the routes (and processors) in one round trip.
+     */
+    public void sample() throws Exception {
+        List<J4pReadRequest> requests = new ArrayList<>();
+        requests.add(new J4pReadRequest("*:type=routes,*", ROUTE_ATTRIBUTES));
+        if (includeProcessors) {
+            requests.add(new J4pReadRequest("*:type=processors,*", PROCESSOR_ATTRIBUTES));
+        }
+        List<J4pReadResponse> responses = client.execute(requests);
+
+        long now = System.currentTimeMillis();
+        update(routes, responses.get(0), false, now);
+        if (includeProcessors) {
+            update(processors, responses.get(1), true, now);
+        }
+    }
+
+    public List<RouteStatsRingBuffer> topRoutes(SortBy sortBy, int limit) {
+        return top(routes.values(), sortBy, limit);
+    }
+
+    public List<RouteStatsRingBuffer> topProcessors(SortBy sortBy, int limit) {
+        return top(processors.values(), sortBy, limit);
+    }
+
+    private void update(Map<String, RouteStatsRingBuffer> buffers, J4pReadResponse response, boolean processor, long now) throws MalformedObjectNameException {
+        for (ObjectName on : response.getObjectNames()) {
+            String context = String.valueOf(response.getValue(on, "CamelId"));
+            if (camelContextName != null && !camelContextName.equals(context)) {
+                continue;
+            }
+            String routeId = String.valueOf(response.getValue(on, "RouteId"));
+            String processorId = processor ? String.valueOf(response.getValue(on, "ProcessorId")) : null;
+            String key = context + "/" + routeId + (processorId != null ? "/" + processorId : "");
+
+            RouteStatsRingBuffer buffer = buffers.get(key);
+            if (buffer == null) {
+                buffer = new RouteStatsRingBuffer(context, routeId, processorId, capacity);
+                buffers.put(key, buffer);
+            }
+            buffer.add(now, toLong(response.getValue(on, "ExchangesCompleted")), toLong(response.getValue(on, "ExchangesFailed")),
+                    toLong(response.getValue(on, "TotalProcessingTime")), toLong(response.getValue(on, "ExchangesInflight")));
+        }
+
+        // forget about routes which has been removed
+        for (Iterator<RouteStatsRingBuffer> it = buffers.values().iterator(); it.hasNext(); ) {
+            if (it.next().getLastSeen() != now) {
+                it.remove();
+            }
+        }
+    }
+
+    private static List<RouteStatsRingBuffer> top(Collection<RouteStatsRingBuffer> buffers, final SortBy sortBy, int limit) {
+        List<RouteStatsRingBuffer> answer = new ArrayList<>(buffers);
+        Collections.sort(answer, new Comparator<RouteStatsRingBuffer>() {
+            @Override
+            public int compare(RouteStatsRingBuffer o1, RouteStatsRingBuffer o2) {
+                // highest first
+                return Double.compare(value(o2, sortBy), value(o1, sortBy));
+            }
+        });
+        return limit > 0 && answer.size() > limit ? answer.subList(0, limit) : answer;
+    }
+
+    private static double value(RouteStatsRingBuffer buffer, SortBy sortBy) {
+        switch (sortBy) {
+        case mean:
+            return buffer.getMeanLatency();
+        case max:
+            return buffer.getMaxLatency();
+        case inflight:
+            return buffer.getInflight();
+        default:
+            return buffer.getThroughput();
+        }
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value != null) {
+            try {
+                return Long.parseLong(value.toString());
+            } catch (NumberFormatException e) {
+                // ignore
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.jolokia;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.inject.Inject;
+
+import org.jboss.forge.addon.ui.context.UIBuilder;
+import org.jboss.forge.addon.ui.context.UIContext;
+import org.jboss.forge.addon.ui.context.UIExecutionContext;
+import org.jboss.forge.addon.ui.input.InputComponent;
+import org.jboss.forge.addon.ui.input.UICompleter;
+import org.jboss.forge.addon.ui.input.UIInput;
+import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
+import org.jboss.forge.addon.ui.metadata.WithAttributes;
+import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
+import org.jboss.forge.addon.ui.util.Categories;
+import org.jboss.forge.addon.ui.util.Metadata;
+
+public class RouteTopCommand extends AbstractJolokiaCommand {
+
+    private static final String CLEAR_SCREEN = "\u001B[H\u001B[2J";
+    private static final String ROW_FORMAT = "%-25.25s %-30.30s %12s %10s %10s %9s %8s";
+
+    @Inject
+    @WithAttributes(label = "name", required = false, description = "The name of the Camel context (all contexts if not specified)")
+    private UIInput<String> name;
+
+    @Inject
+    @WithAttributes(label = "sortBy", required = false, defaultValue = "throughput", description = "Sort by throughput, mean, max or inflight")
+    private UIInput<String> sortBy;
+
+    @Inject
+    @WithAttributes(label = "limit", required = false, defaultValue = "10", description = "The number of routes to show")
+    private UIInput<Integer> limit;
+
+    @Inject
+    @WithAttributes(label = "interval", required = false, defaultValue = "2", description = "Seconds between samples")
+    private UIInput<Integer> interval;
+
+    @Inject
+    @WithAttributes(label = "window", required = false, defaultValue = "10", description = "Number of samples to compute throughput and latency over")
+    private UIInput<Integer> window;
+
+    @Inject
+    @WithAttributes(label = "iterations", required = false, defaultValue = "30", description = "Number of times to refresh the table (0 to run until interrupted)")
+    private UIInput<Integer> iterations;
+
+    @Inject
+    @WithAttributes(label = "processors", required = false, defaultValue = "false", description = "Whether to also show the top processors")
+    private UIInput<Boolean> processors;
+
+    @Override
+    public UICommandMetadata getMetadata(UIContext context) {
+        return Metadata.forCommand(RouteTopCommand.class).name(
+                "camel-route-top").category(Categories.create(CATEGORY))
+                .description("Continuously display the Camel routes with the highest throughput, latency or inflight exchanges");
+    }
+
+    @Override
+    public void initializeUI(UIBuilder builder) throws Exception {
+        name.setCompleter(new CamelContextCompleter(getConnection()));
+        sortBy.setCompleter(new UICompleter<String>() {
+            @Override
+            public Iterable<String> getCompletionProposals(UIContext context, InputComponent<?, String> input, String value) {
+                List<String> answer = new ArrayList<>();
+                for (RouteStatsSampler.SortBy sort : RouteStatsSampler.SortBy.values()) {
+                    if (value == null || sort.name().startsWith(value)) {
+                        answer.add(sort.name());
+                    }
+                }
+                return answer;
+            }
+        });
+        builder.add(name).add(sortBy).add(limit).add(interval).add(window).add(iterations).add(processors);
+    }
+
+    @Override
+    public Result execute(UIExecutionContext context) throws Exception {
+        String url = getJolokiaUrl();
+        if (url == null) {
+            return Results.fail("Not connected to remote jolokia agent. Use camel-connect command first");
+        }
+
+        RouteStatsSampler.SortBy sort;
+        try {
+            sort = RouteStatsSampler.SortBy.valueOf(sortBy.getValue() != null ? sortBy.getValue().toLowerCase(Locale.ENGLISH) : "throughput");
+        } catch (IllegalArgumentException e) {
+            return Results.fail("Unknown sortBy " + sortBy.getValue() + ". Use one of throughput, mean, max or inflight");
+        }
+
+        int top = limit.getValue() != null ? limit.getValue() : 10;
+        long delay = Math.max(1, interval.getValue() != null ? interval.getValue() : 2) * 1000L;
+        int samples = Math.max(2, window.getValue() != null ? window.getValue() : 10);
+        int count = iterations.getValue() != null ? iterations.getValue() : 30;
+        boolean includeProcessors = Boolean.TRUE.equals(processors.getValue());
+
+        RouteStatsSampler sampler = new RouteStatsSampler(getConnection().getClient(), name.getValue(), includeProcessors, samples);
+        PrintStream out = getOutput(context);
+
+        // the first sample is only the baseline for the deltas
+        sampler.sample();
+        for (int i = 0; count <= 0 || i < count; i++) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            sampler.sample();
+
+            out.print(CLEAR_SCREEN);
+            out.println("Top " + top + " routes by " + sort + " (sampled every " + delay / 1000 + "s over the last " + samples + " samples)");
+            out.println();
+            printTable(out, "Route", sampler.topRoutes(sort, top), false);
+            if (includeProcessors) {
+                out.println();
+                printTable(out, "Processor", sampler.topProcessors(sort, top), true);
+            }
+            out.flush();
+        }
+
+        return Results.success();
+    }
+
+    private static void printTable(PrintStream out, String title, List<RouteStatsRingBuffer> rows, boolean processor) {
+        out.println(String.format(ROW_FORMAT, "Context", title, "Exchanges/s", "Mean (ms)", "Max (ms)", "Inflight", "Failed"));
+        out.println(String.format(ROW_FORMAT, "-------", dashes(title), "-----------", "---------", "--------", "--------", "------"));
+        for (RouteStatsRingBuffer row : rows) {
+            String id = processor ? row.getRouteId() + "/" + row.getProcessorId() : row.getRouteId();
+            out.println(String.format(ROW_FORMAT, row.getCamelContextName(), id,
+                    String.format("%.2f", row.getThroughput()), String.format("%.1f", row.getMeanLatency()),
+                    String.format("%.1f", row.getMaxLatency()), row.getInflight(), row.getFailures()));
+        }
+    }
+
+    private static String dashes(String text) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            sb.append('-');
+        }
+        return sb.toString();
+    }
+}
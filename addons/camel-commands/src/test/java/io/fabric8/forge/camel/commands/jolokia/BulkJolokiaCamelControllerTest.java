@@ -0,0 +1,164 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.jolokia;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.ObjectName;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.jolokia.client.J4pClient;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the bulk requests against a fake Jolokia agent with a single Camel context
+ */
+public class BulkJolokiaCamelControllerTest {
+
+    private static final String CONTEXT = "camel-1";
+
+    private HttpServer agent;
+    private J4pClient client;
+    private int routeCount;
+    private final AtomicInteger execPosts = new AtomicInteger();
+
+    @Before
+    public void init() throws Exception {
+        agent = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        agent.createContext("/jolokia", new FakeJolokiaHandler());
+        agent.start();
+        client = J4pClient.url("http://localhost:" + agent.getAddress().getPort() + "/jolokia/").build();
+    }
+
+    @After
+    public void cleanUp() {
+        agent.stop(0);
+    }
+
+    @Test
+    public void testRouteStatsAreReadInBatches() throws Exception {
+        assertRouteStatsBatches(25, 10);
+        assertRouteStatsBatches(20, 10);
+        assertRouteStatsBatches(3, 100);
+        assertRouteStatsBatches(1, 1);
+    }
+
+    @Test
+    public void testRoutesAreListedInOneRoundTripPerLookup() throws Exception {
+        routeCount = 12;
+        JolokiaBulkStats stats = new JolokiaBulkStats(5);
+        List<Map<String, String>> routes = new BulkJolokiaCamelController(client, stats).getRoutes(CONTEXT);
+
+        assertEquals(12, routes.size());
+        assertEquals("route-00", routes.get(0).get("routeId"));
+        assertEquals(CONTEXT, routes.get(0).get("camelContextName"));
+        // finding the context then reading the routes of the context
+        assertEquals(2, stats.getRoundTrips());
+    }
+
+    protected void assertRouteStatsBatches(int routes, int batchSize) throws Exception {
+        routeCount = routes;
+        execPosts.set(0);
+        JolokiaBulkStats stats = new JolokiaBulkStats(batchSize);
+        BulkJolokiaCamelController controller = new BulkJolokiaCamelController(client, stats);
+
+        Map<String, String> dump = controller.dumpRouteStats(CONTEXT, true, false);
+
+        int batches = (routes + batchSize - 1) / batchSize;
+        assertEquals(routes, dump.size());
+        assertEquals("<routeStat id=\"route-00\"/>", dump.get("route-00"));
+        assertEquals("exec round trips for " + routes + " routes", batches, execPosts.get());
+        assertEquals(2 + batches, stats.getRoundTrips());
+        assertEquals(2 + routes, stats.getRequests());
+    }
+
+    protected String routeId(int i) {
+        return String.format("route-%02d", i);
+    }
+
+    protected ObjectName routeName(int i) throws Exception {
+        return new ObjectName("org.apache.camel:context=" + CONTEXT + ",type=routes,name=\"" + routeId(i) + "\"");
+    }
+
+    private class FakeJolokiaHandler implements HttpHandler {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                JSONArray requests = (JSONArray) new JSONParser().parse(new InputStreamReader(exchange.getRequestBody(), "UTF-8"));
+                JSONArray responses = new JSONArray();
+                boolean exec = false;
+                for (Object element : requests) {
+                    JSONObject request = (JSONObject) element;
+                    String mbean = (String) request.get("mbean");
+                    JSONObject response = new JSONObject();
+                    response.put("request", request);
+                    response.put("status", 200L);
+                    response.put("timestamp", System.currentTimeMillis() / 1000);
+                    if ("exec".equalsIgnoreCase((String) request.get("type"))) {
+                        exec = true;
+                        response.put("value", "<routeStat id=\"" + new ObjectName(mbean).getKeyProperty("name").replace("\"", "") + "\"/>");
+                    } else if (mbean.contains("type=context")) {
+                        JSONObject value = new JSONObject();
+                        JSONObject attributes = new JSONObject();
+                        attributes.put("CamelId", CONTEXT);
+                        value.put(new ObjectName("org.apache.camel:context=" + CONTEXT + ",type=context,name=\"" + CONTEXT + "\"").getCanonicalName(), attributes);
+                        response.put("value", value);
+                    } else {
+                        JSONObject value = new JSONObject();
+                        for (int i = 0; i < routeCount; i++) {
+                            JSONObject attributes = new JSONObject();
+                            attributes.put("CamelId", CONTEXT);
+                            attributes.put("RouteId", routeId(i));
+                            attributes.put("State", "Started");
+                            value.put(routeName(i).getCanonicalName(), attributes);
+                        }
+                        response.put("value", value);
+                    }
+                    responses.add(response);
+                }
+                if (exec) {
+                    execPosts.incrementAndGet();
+                }
+                byte[] json = responses.toJSONString().getBytes("UTF-8");
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, json.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(json);
+                out.close();
+            } catch (Exception e) {
+                exchange.sendResponseHeaders(500, -1);
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+}
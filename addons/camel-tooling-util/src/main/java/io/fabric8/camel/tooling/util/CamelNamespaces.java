@@ -27,17 +27,12 @@ import de.pdark.decentxml.Parent;
 import de.pdark.decentxml.Text;
 import de.pdark.decentxml.Token;
 import de.pdark.decentxml.XMLWriter;
-import org.apache.camel.spring.CamelEndpointFactoryBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.FileCopyUtils;
 import org.xml.sax.SAXException;
 
-import javax.xml.XMLConstants;
-import javax.xml.transform.Source;
-import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
@@ -58,7 +53,6 @@ public class CamelNamespaces {
     public static final Namespace springNamespace = new Namespace("", "http://www.springframework.org/schema/beans");
     public static final Namespace droolsNamespace = new Namespace("drools", "http://drools.org/schema/drools-spring");
     public static Logger LOG = LoggerFactory.getLogger(CamelNamespaces.class);
-    private static Schema _schema;
 
     private static Set<String> elementsWithDescription;
 
@@ -87,23 +81,22 @@ public class CamelNamespaces {
     }
 
     public static List<Node> nodesByNamespace(Document doc, final String namespaceUri, final String localName) {
-        NodeFilter<Node> filter = new NodeFilter<Node>() {
-            @Override
-            public boolean matches(Node n) {
-                if (n instanceof Element) {
-                    Namespace ns = ((Element) n).getNamespace();
-                    // TODO this doesn't work with empty prefixes!
-                    if (!((Element) n).getName().equals(localName)) {
-                        return false;
-                    } else {
-                        String uri = getNamespaceURI(n);
-                        return ns != null;// && namespaceUri.equals(uri); // (!)
-                    }
-                }
-                return false;
+        return nodesByNamespace(ElementIndex.index(doc), namespaceUri, localName);
+    }
+
+    /**
+     * Returns the elements with the given local name which have a namespace using an index created
+     * from a single walk of the document; so that many lookups on the same document are cheap
+     */
+    public static List<Node> nodesByNamespace(ElementIndex index, final String namespaceUri, final String localName) {
+        List<Node> answer = new ArrayList<Node>();
+        for (Element element : index.getElements(localName)) {
+            // TODO this doesn't match on the namespace URI yet; see ElementIndex.getElements(uri, localName)
+            if (element.getNamespace() != null) {
+                answer.add(element);
             }
-        };
-        return findNodes(doc, filter);
+        }
+        return answer;
     }
 
     public static List<Node> findNodes(NodeWithChildren node, NodeFilter<Node> filter) {
@@ -289,48 +282,15 @@ public class CamelNamespaces {
         }
     }
 
-    private static void loadSchemas(SchemaFinder loader) throws SAXException, IOException {
-        SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-
-        XsdDetails[] xsds = new XsdDetails[]{
-                new XsdDetails("camel-spring.xsd", "http://camel.apache.org/schema/spring/camel-spring.xsd", CamelEndpointFactoryBean.class),
-                new XsdDetails("camel-blueprint.xsd", "http://camel.apache.org/schema/blueprint/camel-blueprint.xsd", org.apache.camel.blueprint.CamelEndpointFactoryBean.class)
-        };
-
-        List<Source> sources = new ArrayList<Source>(xsds.length);
-
-        for (XsdDetails xsdd : xsds) {
-            URL url = loader.findSchema(xsdd);
-            if (url != null) {
-                sources.add(new StreamSource(url.openStream(), xsdd.getUri()));
-            } else {
-                System.out.println("Warning could not find local resource " + xsdd.getPath() + " on classpath");
-                sources.add(new StreamSource(xsdd.getUri()));
-            }
-        }
-
-        _schema = factory.newSchema(sources.toArray(new Source[sources.size()]));
-    }
-
+    /**
+     * Returns the compiled Camel XSDs which are cached by {@link CamelSchemas}
+     */
     public static Schema camelSchemas() throws IOException, SAXException {
-        if (_schema == null) {
-            loadSchemas(new SchemaFinder() {
-                @Override
-                public URL findSchema(XsdDetails details) {
-                    return details.getClassLoader().getResource(details.getPath());
-                }
-            });
-        }
-        return _schema;
+        return CamelSchemas.getSchema();
     }
 
     public void loadSchemasWith(final SchemaFinder finder) throws IOException, SAXException {
-        loadSchemas(new SchemaFinder() {
-            @Override
-            public URL findSchema(XsdDetails xsd) {
-                return finder.findSchema(xsd);
-            }
-        });
+        CamelSchemas.load(finder);
     }
 
 }
@@ -0,0 +1,135 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.camel.tooling.util;
+
+import org.apache.camel.spring.CamelEndpointFactoryBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A cache of the compiled Camel spring and blueprint XSDs.
+ * <p/>
+ * The schema is compiled lazily the first time its used and then shared; as a {@link Validator} is not thread safe
+ * each thread reuses its own validator until the schema is reloaded.
+ */
+public final class CamelSchemas {
+    private static final transient Logger LOG = LoggerFactory.getLogger(CamelSchemas.class);
+
+    private static final XsdDetails[] XSDS = new XsdDetails[]{
+            new XsdDetails("camel-spring.xsd", "http://camel.apache.org/schema/spring/camel-spring.xsd", CamelEndpointFactoryBean.class),
+            new XsdDetails("camel-blueprint.xsd", "http://camel.apache.org/schema/blueprint/camel-blueprint.xsd", org.apache.camel.blueprint.CamelEndpointFactoryBean.class)
+    };
+
+    private static final SchemaFinder CLASSPATH_FINDER = new SchemaFinder() {
+        @Override
+        public URL findSchema(XsdDetails details) {
+            return details.getClassLoader().getResource(details.getPath());
+        }
+    };
+
+    private static final Object lock = new Object();
+    private static volatile Schema schema;
+
+    private static final ThreadLocal<CachedValidator> validators = new ThreadLocal<CachedValidator>();
+
+    private CamelSchemas() {
+    }
+
+    /**
+     * Returns the compiled schema, compiling it from the classpath if it has not been loaded yet
+     */
+    public static Schema getSchema() throws IOException, SAXException {
+        Schema answer = schema;
+        if (answer == null) {
+            synchronized (lock) {
+                answer = schema;
+                if (answer == null) {
+                    answer = compile(CLASSPATH_FINDER);
+                    schema = answer;
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Compiles the schema using the given finder to locate the XSDs, replacing any previously loaded schema
+     */
+    public static Schema load(SchemaFinder finder) throws IOException, SAXException {
+        synchronized (lock) {
+            Schema answer = compile(finder);
+            schema = answer;
+            return answer;
+        }
+    }
+
+    /**
+     * Returns a validator for the schema which is reused by the calling thread; it is reset before its returned
+     */
+    public static Validator getValidator() throws IOException, SAXException {
+        Schema current = getSchema();
+        CachedValidator cached = validators.get();
+        if (cached == null || cached.schema != current) {
+            cached = new CachedValidator(current, current.newValidator());
+            validators.set(cached);
+        } else {
+            cached.validator.reset();
+        }
+        return cached.validator;
+    }
+
+    private static Schema compile(SchemaFinder finder) throws IOException, SAXException {
+        long start = System.currentTimeMillis();
+        SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+
+        List<Source> sources = new ArrayList<Source>(XSDS.length);
+        for (XsdDetails xsdd : XSDS) {
+            URL url = finder.findSchema(xsdd);
+            if (url != null) {
+                sources.add(new StreamSource(url.openStream(), xsdd.getUri()));
+            } else {
+                LOG.warn("Could not find local resource " + xsdd.getPath() + " on classpath so using " + xsdd.getUri());
+                sources.add(new StreamSource(xsdd.getUri()));
+            }
+        }
+
+        Schema answer = factory.newSchema(sources.toArray(new Source[sources.size()]));
+        LOG.debug("Compiled the Camel XSDs in {} millis", System.currentTimeMillis() - start);
+        return answer;
+    }
+
+    private static final class CachedValidator {
+        private final Schema schema;
+        private final Validator validator;
+
+        private CachedValidator(Schema schema, Validator validator) {
+            this.schema = schema;
+            this.validator = validator;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.camel.tooling.util;
+
+import de.pdark.decentxml.Attribute;
+import de.pdark.decentxml.Element;
+import de.pdark.decentxml.Node;
+import de.pdark.decentxml.NodeWithChildren;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the elements of a document which is created by walking the document once and bucketing
+ * each element by its local name and by its namespace URI and local name; so that looking up elements by name
+ * does not require a walk of the whole document each time.
+ * <p/>
+ * The elements in each bucket are in document order. Namespace URIs are resolved from the <code>xmlns</code>
+ * attributes in scope for each element as the document is walked.
+ */
+public class ElementIndex {
+    private final Map<String, List<Element>> elementsByName = new HashMap<String, List<Element>>();
+    private final Map<String, List<Element>> elementsByNamespace = new HashMap<String, List<Element>>();
+
+    private ElementIndex() {
+    }
+
+    /**
+     * Creates an index of all the elements inside the given document or element
+     */
+    public static ElementIndex index(NodeWithChildren root) {
+        ElementIndex answer = new ElementIndex();
+        answer.indexChildren(root, Collections.<String, String>emptyMap());
+        return answer;
+    }
+
+    /**
+     * Returns the elements with the given local name in any namespace
+     */
+    public List<Element> getElements(String localName) {
+        return bucket(elementsByName, localName);
+    }
+
+    /**
+     * Returns the elements with the given namespace URI and local name
+     */
+    public List<Element> getElements(String namespaceUri, String localName) {
+        return bucket(elementsByNamespace, createKey(namespaceUri, localName));
+    }
+
+    protected static List<Element> bucket(Map<String, List<Element>> map, String key) {
+        List<Element> answer = map.get(key);
+        if (answer == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(answer);
+    }
+
+    private void indexChildren(NodeWithChildren parent, Map<String, String> namespaces) {
+        for (Node node : parent.getNodes()) {
+            if (node instanceof Element) {
+                Element element = (Element) node;
+                Map<String, String> scope = addNamespaces(element, namespaces);
+                String localName = element.getName();
+                add(elementsByName, localName, element);
+                add(elementsByNamespace, createKey(scope.get(getPrefix(element)), localName), element);
+                indexChildren(element, scope);
+            }
+        }
+    }
+
+    /**
+     * Returns the namespaces in scope for the given element; only creating a new map if the element declares namespaces
+     */
+    private static Map<String, String> addNamespaces(Element element, Map<String, String> namespaces) {
+        Map<String, String> answer = namespaces;
+        for (Attribute attribute : element.getAttributes()) {
+            String name = attribute.getName();
+            String prefix;
+            if (name.equals("xmlns")) {
+                prefix = "";
+            } else if (name.startsWith("xmlns:")) {
+                prefix = name.substring(6);
+            } else {
+                continue;
+            }
+            if (answer == namespaces) {
+                answer = new HashMap<String, String>(namespaces);
+            }
+            answer.put(prefix, attribute.getValue());
+        }
+        return answer;
+    }
+
+    private static String getPrefix(Element element) {
+        String name = element.getBeginName();
+        int idx = name != null ? name.indexOf(':') : -1;
+        return idx > 0 ? name.substring(0, idx) : "";
+    }
+
+    private static void add(Map<String, List<Element>> map, String key, Element element) {
+        List<Element> list = map.get(key);
+        if (list == null) {
+            list = new ArrayList<Element>();
+            map.put(key, list);
+        }
+        list.add(element);
+    }
+
+    protected static String createKey(String namespaceUri, String localName) {
+        return "{" + (namespaceUri != null ? namespaceUri : "") + "}" + localName;
+    }
+}
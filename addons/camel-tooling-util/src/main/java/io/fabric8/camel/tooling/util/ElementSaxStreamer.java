@@ -0,0 +1,202 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.camel.tooling.util;
+
+import de.pdark.decentxml.Attribute;
+import de.pdark.decentxml.Comment;
+import de.pdark.decentxml.Element;
+import de.pdark.decentxml.Node;
+import de.pdark.decentxml.Parent;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.fabric8.camel.tooling.util.CamelNamespaces.xmlToText;
+
+/**
+ * Streams an element of a parsed document as SAX events to a {@link ContentHandler} such as a JAXB
+ * {@link javax.xml.bind.UnmarshallerHandler}, so that the element does not need to be written as text and parsed again.
+ * <p/>
+ * Namespace URIs can be remapped while streaming; such as to read blueprint XML using the spring model classes.
+ */
+public class ElementSaxStreamer {
+    private static final String[] NO_PREFIX = {"", null};
+
+    private final ContentHandler handler;
+    private final Map<String, String> namespaceMappings;
+
+    public ElementSaxStreamer(ContentHandler handler, Map<String, String> namespaceMappings) {
+        this.handler = handler;
+        this.namespaceMappings = namespaceMappings != null ? namespaceMappings : Collections.<String, String>emptyMap();
+    }
+
+    /**
+     * Streams the given element as a whole document, using any namespace declarations from the parents of the
+     * given namespaces element which are in scope
+     */
+    public void stream(Element element, Element namespacesElement) throws SAXException, IOException {
+        Map<String, String> namespaces = new HashMap<String, String>();
+        List<Element> ancestors = new ArrayList<Element>();
+        if (namespacesElement != null) {
+            for (Parent parent = namespacesElement.getParent(); parent instanceof Element; parent = ((Element) parent).getParent()) {
+                ancestors.add(0, (Element) parent);
+            }
+        }
+        for (Element ancestor : ancestors) {
+            addNamespaces(ancestor, namespaces);
+        }
+
+        handler.startDocument();
+        for (Map.Entry<String, String> entry : namespaces.entrySet()) {
+            handler.startPrefixMapping(entry.getKey(), entry.getValue());
+        }
+        streamElement(element, namespaces);
+        for (String prefix : namespaces.keySet()) {
+            handler.endPrefixMapping(prefix);
+        }
+        handler.endDocument();
+    }
+
+    protected void streamElement(Element element, Map<String, String> parentNamespaces) throws SAXException, IOException {
+        Map<String, String> declared = new HashMap<String, String>();
+        addNamespaces(element, declared);
+        Map<String, String> namespaces = parentNamespaces;
+        if (!declared.isEmpty()) {
+            namespaces = new HashMap<String, String>(parentNamespaces);
+            namespaces.putAll(declared);
+            for (Map.Entry<String, String> entry : declared.entrySet()) {
+                handler.startPrefixMapping(entry.getKey(), entry.getValue());
+            }
+        }
+
+        AttributesImpl attributes = new AttributesImpl();
+        for (Attribute attribute : element.getAttributes()) {
+            String name = attribute.getName();
+            if (isNamespaceDeclaration(name)) {
+                continue;
+            }
+            String[] qname = splitName(name);
+            String uri = qname[1] != null ? namespaceUri(namespaces, qname[0]) : "";
+            attributes.addAttribute(uri, qname[1] != null ? qname[1] : name, name, "CDATA", attributeValue(attribute));
+        }
+
+        String qName = element.getBeginName() != null ? element.getBeginName() : element.getName();
+        String[] name = splitName(qName);
+        String uri = namespaceUri(namespaces, name[0]);
+        String localName = element.getName();
+        handler.startElement(uri, localName, qName, attributes);
+
+        for (Node node : element.getNodes()) {
+            if (node instanceof Element) {
+                streamElement((Element) node, namespaces);
+            } else if (!(node instanceof Comment)) {
+                streamText(node);
+            }
+        }
+
+        handler.endElement(uri, localName, qName);
+        for (String prefix : declared.keySet()) {
+            handler.endPrefixMapping(prefix);
+        }
+    }
+
+    /**
+     * Streams the characters of a text, CDATA or entity node using its source text so that it is
+     * decoded exactly as a parser would
+     */
+    protected void streamText(Node node) throws SAXException, IOException {
+        String text = xmlToText(node);
+        if (text.startsWith("<![CDATA[") && text.endsWith("]]>")) {
+            text = text.substring(9, text.length() - 3);
+        } else if (text.startsWith("<")) {
+            // processing instructions, doc types and so forth
+            return;
+        } else {
+            text = XmlHelper.unescape(text);
+        }
+        if (text.length() > 0) {
+            handler.characters(text.toCharArray(), 0, text.length());
+        }
+    }
+
+    /**
+     * Returns the value of the attribute decoded once from its source text as a parser would. The value decentxml
+     * decodes is not used as it decodes the entities one after the other (so <code>&amp;amp;lt;</code> ends up as
+     * <code>&lt;</code>) and leaves character references alone
+     */
+    protected String attributeValue(Attribute attribute) throws IOException {
+        String xml = xmlToText(attribute);
+        int quote = attribute.getQuoteChar();
+        int start = xml.indexOf(quote, xml.indexOf('='));
+        int end = xml.lastIndexOf(quote);
+        if (start < 0 || end <= start) {
+            return attribute.getValue();
+        }
+        String raw = xml.substring(start + 1, end);
+        // a parser normalizes literal white space in attribute values to spaces
+        StringBuilder sb = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char ch = raw.charAt(i);
+            if (ch == '\r' && i + 1 < raw.length() && raw.charAt(i + 1) == '\n') {
+                continue;
+            }
+            sb.append(ch == '\t' || ch == '\n' || ch == '\r' ? ' ' : ch);
+        }
+        return XmlHelper.unescape(sb.toString());
+    }
+
+    protected void addNamespaces(Element element, Map<String, String> namespaces) {
+        for (Attribute attribute : element.getAttributes()) {
+            String name = attribute.getName();
+            if (isNamespaceDeclaration(name)) {
+                String prefix = name.length() > 5 ? name.substring(6) : "";
+                namespaces.put(prefix, remap(attribute.getValue()));
+            }
+        }
+    }
+
+    protected String namespaceUri(Map<String, String> namespaces, String prefix) {
+        String answer = namespaces.get(prefix);
+        return answer != null ? answer : "";
+    }
+
+    protected String remap(String uri) {
+        String answer = namespaceMappings.get(uri);
+        return answer != null ? answer : uri;
+    }
+
+    protected static boolean isNamespaceDeclaration(String name) {
+        return name.equals("xmlns") || name.startsWith("xmlns:");
+    }
+
+    /**
+     * Returns the prefix and local name of the given name; or an empty prefix and null local name if there is no prefix
+     */
+    protected static String[] splitName(String name) {
+        int idx = name.indexOf(':');
+        if (idx > 0) {
+            return new String[]{name.substring(0, idx), name.substring(idx + 1)};
+        }
+        return NO_PREFIX;
+    }
+}
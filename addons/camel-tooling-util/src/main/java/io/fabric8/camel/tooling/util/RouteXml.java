@@ -36,11 +36,13 @@ import org.apache.camel.spring.CamelRouteContextFactoryBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.UnmarshallerHandler;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -48,9 +50,9 @@ import javax.xml.transform.TransformerFactory;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.StringReader;
 import java.io.StringWriter;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -60,7 +62,7 @@ import java.util.Map;
 import static io.fabric8.camel.tooling.util.CamelNamespaces.blueprintNS;
 import static io.fabric8.camel.tooling.util.CamelNamespaces.findResource;
 import static io.fabric8.camel.tooling.util.CamelNamespaces.getNamespaceURI;
-import static io.fabric8.camel.tooling.util.CamelNamespaces.nodeWithNamespacesToText;
+import static io.fabric8.camel.tooling.util.CamelNamespaces.moveCommentsIntoDescriptionElements;
 import static io.fabric8.camel.tooling.util.CamelNamespaces.nodesByNamespace;
 import static io.fabric8.camel.tooling.util.CamelNamespaces.replaceChild;
 import static io.fabric8.camel.tooling.util.CamelNamespaces.springNS;
@@ -75,8 +77,8 @@ public class RouteXml {
     public static Logger LOG = LoggerFactory.getLogger(RouteXml.class);
     protected TransformerFactory transformerFactory = TransformerFactory.newInstance();
     protected DocumentBuilder documentBuilder = createDocumentBuilder();
+    private static JAXBContext _defaultJaxbContext;
     private JAXBContext _jaxbContext;
-    private ClassLoader classLoader = CamelContextFactoryBean.class.getClassLoader();
 
     protected DocumentBuilder documentBuilder(ErrorHandler handler) {
         DocumentBuilder db = createDocumentBuilder();
@@ -86,12 +88,24 @@ public class RouteXml {
 
     public JAXBContext jaxbContext() throws JAXBException {
         if (_jaxbContext == null) {
-            String packageName = Constants.JAXB_CONTEXT_PACKAGES + ":org.apache.camel.spring";
-            _jaxbContext = JAXBContext.newInstance(packageName, classLoader);
+            _jaxbContext = defaultJaxbContext();
         }
         return _jaxbContext;
     }
 
+    /**
+     * Returns the JAXB context for the Camel spring model; its expensive to create so its shared by all instances
+     */
+    public static JAXBContext defaultJaxbContext() throws JAXBException {
+        synchronized (RouteXml.class) {
+            if (_defaultJaxbContext == null) {
+                String packageName = Constants.JAXB_CONTEXT_PACKAGES + ":org.apache.camel.spring";
+                _defaultJaxbContext = JAXBContext.newInstance(packageName, CamelContextFactoryBean.class.getClassLoader());
+            }
+            return _defaultJaxbContext;
+        }
+    }
+
     public void setJaxbContext(JAXBContext jaxbContext) {
         this._jaxbContext = jaxbContext;
     }
@@ -161,7 +175,9 @@ public class RouteXml {
 
         // lets pull out the spring beans...
         // TODO: shouldn't we use http://www.springframework.org/schema/beans namespace instead??
-        List<Node> beanElems = nodesByNamespace(doc, springNS, "bean");
+        // index the document once rather than walking it for each lookup
+        ElementIndex index = ElementIndex.index(doc);
+        List<Node> beanElems = nodesByNamespace(index, springNS, "bean");
 
         for (Node n : beanElems) {
             if (n instanceof Element) {
@@ -185,15 +201,14 @@ public class RouteXml {
 
         List<Node> found = new LinkedList<Node>();
 
+        // prefer elements in the right namespace, then fall back to matching on the local name only
+        // as the unresolved namespace lookups always have done
         for (String[] pair : search) {
-            List<Node> nodes = nodesByNamespace(doc, pair[0], pair[1]);
-            int n = nodes.size();
-            if (n != 0) {
-                if (n > 1) {
-                    LOG.warn(message + " contains " + n + " <" + pair[1] + "> elements. Only the first one will be used");
-                }
-                Node node = nodes.get(0);
-                found.add(node);
+            addFirstElement(found, new ArrayList<Node>(index.getElements(pair[0], pair[1])), pair[1], message);
+        }
+        if (found.isEmpty()) {
+            for (String[] pair : search) {
+                addFirstElement(found, nodesByNamespace(index, pair[0], pair[1]), pair[1], message);
             }
         }
 
@@ -201,17 +216,10 @@ public class RouteXml {
             Node n = found.get(0);
             if (n != null) {
                 String ns = getNamespaceURI(n);
-                Node parseNode;
-                if (!ns.equals(springNS)) {
-                    parseNode = cloneAndReplaceNamespace(n, ns, springNS);
-                } else {
-                    parseNode = n;
-                }
 
                 boolean justRoutes = false;
                 boolean routesContext = false;
-                String xmlText = nodeWithNamespacesToText(parseNode, (Element) n);
-                Object object = unmarshaller.unmarshal(new StringReader(xmlText));
+                Object object = unmarshalElement(unmarshaller, (Element) n, ns);
                 CamelContextFactoryBean sc;
                 if (object instanceof CamelContextFactoryBean) {
                     LOG.debug("Found a valid CamelContextFactoryBean! {}", object);
@@ -242,6 +250,33 @@ public class RouteXml {
         return null; // ?
     }
 
+    /**
+     * Unmarshals the given element by streaming a copy of it straight into JAXB, mapping the namespace
+     * of the element to the spring namespace on the fly; rather than writing it as text and parsing it again
+     */
+    protected Object unmarshalElement(Unmarshaller unmarshaller, Element element, String ns) throws Exception {
+        Element copy = (Element) element.copy();
+        moveCommentsIntoDescriptionElements(copy, element);
+
+        Map<String, String> namespaceMappings = new HashMap<String, String>();
+        if (!ns.equals(springNS)) {
+            namespaceMappings.put(ns, springNS);
+        }
+        UnmarshallerHandler handler = unmarshaller.getUnmarshallerHandler();
+        new ElementSaxStreamer(handler, namespaceMappings).stream(copy, element);
+        return handler.getResult();
+    }
+
+    private static void addFirstElement(List<Node> found, List<Node> nodes, String localName, String message) {
+        int n = nodes.size();
+        if (n != 0) {
+            if (n > 1) {
+                LOG.warn(message + " contains " + n + " <" + localName + "> elements. Only the first one will be used");
+            }
+            found.add(nodes.get(0));
+        }
+    }
+
     protected Node cloneAndReplaceNamespace(Node node, String oldNS, String newNS) {
         Node answer = node.copy();
         return replaceNamespace(answer, oldNS, newNS);
@@ -396,13 +431,11 @@ public class RouteXml {
         marshaller.marshal(value, buffer);
 
         // now lets parse the XML and insert the root element into the doc
-        String xml = buffer.toString();
+        Document camelDoc = parse(new XMLStringSource(buffer.toString()));
+        Element camelElem = camelDoc.getRootElement();
         if (!model.getNs().equals(springNS)) {
-            // !!!
-            xml = xml.replaceAll(springNS, model.getNs());
+            remapNamespace(camelElem, springNS, model.getNs());
         }
-        Document camelDoc = parse(new XMLStringSource(xml));
-        Node camelElem = camelDoc.getRootElement();
 
         // TODO
         //val camelElem = doc.importNode(element, true)
@@ -421,6 +454,37 @@ public class RouteXml {
         }
     }
 
+    /**
+     * Replaces the given namespace on the newly marshalled elements; JAXB only declares namespaces
+     * on elements so there's no need to search the whole text of the document
+     */
+    protected static void remapNamespace(Element element, String oldNS, String newNS) {
+        Namespace namespace = element.getNamespace();
+        if (namespace != null && oldNS.equals(namespace.getURI())) {
+            element.setNamespace(new Namespace(namespace.getPrefix(), newNS));
+        }
+        for (Attribute attr : element.getAttributes()) {
+            if (attr.getName().startsWith("xmlns") && oldNS.equals(attr.getValue())) {
+                attr.setValue(newNS);
+            }
+        }
+        for (Node node : element.getNodes()) {
+            if (node instanceof Element) {
+                remapNamespace((Element) node, oldNS, newNS);
+            }
+        }
+    }
+
+    /**
+     * Validates the camel elements in the given XML text against the cached Camel XSDs;
+     * any errors contain the line numbers in the text
+     */
+    public ValidationHandler validate(String text) throws IOException, SAXException {
+        ValidationHandler handler = new ValidationHandler();
+        handler.validate(parse(new XMLStringSource(text)));
+        return handler;
+    }
+
     public void writeXml(Document doc, File file) throws IOException {
         File parentDir = file.getParentFile();
         if (parentDir != null) {
@@ -433,23 +497,10 @@ public class RouteXml {
     }
 
     protected DocumentBuilder createDocumentBuilder() {
-//        String JAXP_SCHEMA_LANGUAGE = "http://java.sun.com/xml/jaxp/properties/schemaLanguage";
-//        String JAXP_SCHEMA_SOURCE = "http://java.sun.com/xml/jaxp/properties/schemaSource";
-//        String W3C_XML_SCHEMA = "http://www.w3.org/2001/XMLSchema";
-
+        // the camel elements are usually inside spring or blueprint XML which the Camel XSDs do not cover,
+        // so rather than a validating parser use validate(String) which only validates the camel elements
         DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
 
-//        boolean validating = false;
-//        if (validating) {
-//            try {
-//                dbf.setAttribute(JAXP_SCHEMA_LANGUAGE, W3C_XML_SCHEMA);
-//                dbf.setAttribute(JAXP_SCHEMA_SOURCE, CamelNamespaces.camelSchemas());
-//                dbf.setValidating(validating);
-//            } catch (Exception e) {
-//                // ignore
-//            }
-//        }
-
         dbf.setExpandEntityReferences(false);
         dbf.setIgnoringComments(false);
         dbf.setIgnoringElementContentWhitespace(false);
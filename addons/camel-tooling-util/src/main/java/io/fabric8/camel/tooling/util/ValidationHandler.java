@@ -32,9 +32,9 @@ import java.util.LinkedList;
 import java.util.List;
 
 import static io.fabric8.camel.tooling.util.CamelNamespaces.camelNamespaces;
-import static io.fabric8.camel.tooling.util.CamelNamespaces.camelSchemas;
+import static io.fabric8.camel.tooling.util.CamelNamespaces.addParentNamespaces;
 import static io.fabric8.camel.tooling.util.CamelNamespaces.getNamespaceURI;
-import static io.fabric8.camel.tooling.util.CamelNamespaces.nodeWithNamespacesToText;
+import static io.fabric8.camel.tooling.util.CamelNamespaces.xmlToText;
 
 public class ValidationHandler implements ErrorHandler {
 
@@ -92,24 +92,74 @@ public class ValidationHandler implements ErrorHandler {
     }
 
     public void validate(Document doc) throws IOException, SAXException {
-        Validator validator = camelSchemas().newValidator();
+        Validator validator = CamelSchemas.getValidator();
         validator.setErrorHandler(this);
 
-        validate(validator, doc.getRootElement());
+        validate(validator, doc, doc.getRootElement(), null);
     }
 
-    private void validate(Validator validator, Element e) throws IOException, SAXException {
+    private String validate(Validator validator, Document doc, Element e, String docText) throws IOException, SAXException {
         String uri = getNamespaceURI(e);
         if (uri != null && Arrays.asList(camelNamespaces).contains(uri)) {
-            String text = nodeWithNamespacesToText(e, e);
-            validator.validate(new StreamSource(new StringReader(text)));
+            if (docText == null) {
+                docText = xmlToText(doc);
+            }
+            validator.validate(new StreamSource(new StringReader(textWithLineNumbers(e, docText))));
         } else {
             for (Node node : e.getNodes()) {
                 if (node instanceof Element) {
-                    validate(validator, (Element) node);
+                    docText = validate(validator, doc, (Element) node, docText);
                 }
             }
         }
+        return docText;
+    }
+
+    /**
+     * Returns the text of the element with the namespaces in scope; padded with empty lines and spaces so that the
+     * line and column numbers the validator reports for any errors are those in the document
+     */
+    protected static String textWithLineNumbers(Element e, String docText) throws IOException {
+        Element copy = (Element) e.copy();
+        addParentNamespaces(copy, e.getParent());
+        String text = xmlToText(copy);
+
+        int idx = offsetInDocument(e, docText);
+        if (idx <= 0) {
+            return text;
+        }
+        StringBuilder buffer = new StringBuilder(idx + text.length());
+        for (int i = 0; i < idx; i++) {
+            buffer.append(docText.charAt(i) == '\n' ? '\n' : ' ');
+        }
+        return buffer.append(text).toString();
+    }
+
+    /**
+     * Returns the offset of the element in the document text or -1 if it is not known; using the position the element
+     * was parsed from unless the document has been changed since, in which case the element text must be unique
+     */
+    protected static int offsetInDocument(Element e, String docText) throws IOException {
+        String elementText = xmlToText(e);
+        int offset = e.getStartOffset();
+        if (offset >= 0 && docText.startsWith(elementText, offset)) {
+            return offset;
+        }
+        int idx = docText.indexOf(elementText);
+        if (idx >= 0 && docText.indexOf(elementText, idx + 1) < 0) {
+            return idx;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a description of the error including its line and column number
+     */
+    public static String describe(SAXParseException e) {
+        if (e.getLineNumber() > 0) {
+            return "line " + e.getLineNumber() + ", column " + e.getColumnNumber() + ": " + e.getMessage();
+        }
+        return e.getMessage();
     }
 
     public boolean hasErrors() {
@@ -120,10 +170,10 @@ public class ValidationHandler implements ErrorHandler {
         if (hasErrors()) {
             StringWriter sw = new StringWriter();
             for (SAXParseException ex : errors) {
-                sw.append(", ").append(ex.getMessage());
+                sw.append(", ").append(describe(ex));
             }
             for (SAXParseException ex : fatalErrors) {
-                sw.append(", ").append(ex.getMessage());
+                sw.append(", ").append(describe(ex));
             }
             String text = sw.toString();
             if (text.length() > 2) {
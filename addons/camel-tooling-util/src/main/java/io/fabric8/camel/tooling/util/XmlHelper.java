@@ -70,12 +70,50 @@ public class XmlHelper {
     }
 
     public static String unescape(String text) {
-        // TODO would be much more efficient to find all & first!
-        String answer = text;
-        for (Map.Entry<Character, String> e : encodingMap.entrySet()) {
-            answer = answer.replaceAll(e.getValue(), e.getKey().toString());
+        int idx = text.indexOf('&');
+        if (idx < 0) {
+            return text;
         }
-        return answer;
+        // decode in a single pass so that escaped entities like &amp;lt; are only decoded once
+        StringBuilder sb = new StringBuilder(text.length());
+        int start = 0;
+        while (idx >= 0) {
+            int end = text.indexOf(';', idx);
+            if (end < 0) {
+                break;
+            }
+            String decoded = decodeEntity(text.substring(idx + 1, end));
+            if (decoded != null) {
+                sb.append(text, start, idx).append(decoded);
+                start = end + 1;
+            }
+            idx = text.indexOf('&', decoded != null ? start : idx + 1);
+        }
+        sb.append(text, start, text.length());
+        return sb.toString();
+    }
+
+    private static String decodeEntity(String name) {
+        if (name.equals("amp")) {
+            return "&";
+        } else if (name.equals("lt")) {
+            return "<";
+        } else if (name.equals("gt")) {
+            return ">";
+        } else if (name.equals("quot")) {
+            return "\"";
+        } else if (name.equals("apos")) {
+            return "'";
+        } else if (name.startsWith("#") && name.length() > 1) {
+            try {
+                int codePoint = name.charAt(1) == 'x' || name.charAt(1) == 'X'
+                        ? Integer.parseInt(name.substring(2), 16) : Integer.parseInt(name.substring(1));
+                return new String(Character.toChars(codePoint));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
     }
 
     private static StringBuffer escape(char c, StringBuffer buffer) {
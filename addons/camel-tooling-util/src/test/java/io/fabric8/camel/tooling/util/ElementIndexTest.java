@@ -0,0 +1,61 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.camel.tooling.util;
+
+import java.io.File;
+import java.util.List;
+
+import de.pdark.decentxml.Document;
+import de.pdark.decentxml.Element;
+import de.pdark.decentxml.XMLIOSource;
+import io.fabric8.camel.tooling.util.parser.PatchedXMLParser;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ElementIndexTest extends RouteXmlTestSupport {
+
+    @Test
+    public void testIndexesPrefixedElementsByNamespace() throws Exception {
+        ElementIndex index = ElementIndex.index(parse("src/test/resources/camelPrefixOnRoot.xml"));
+
+        List<Element> contexts = index.getElements(CamelNamespaces.springNS, "camelContext");
+        assertEquals(1, contexts.size());
+        assertEquals("camel:camelContext", contexts.get(0).getBeginName());
+
+        assertEquals(0, index.getElements(CamelNamespaces.blueprintNS, "camelContext").size());
+        assertEquals(1, index.getElements("camelContext").size());
+        assertEquals(1, index.getElements("beans").size());
+        assertEquals(1, index.getElements("http://www.springframework.org/schema/beans", "beans").size());
+    }
+
+    @Test
+    public void testIndexesDefaultNamespaces() throws Exception {
+        ElementIndex index = ElementIndex.index(parse("src/test/resources/blueprint.xml"));
+
+        assertEquals(1, index.getElements(CamelNamespaces.blueprintNS, "camelContext").size());
+        assertEquals(0, index.getElements(CamelNamespaces.springNS, "camelContext").size());
+
+        List<Element> beans = index.getElements("http://www.osgi.org/xmlns/blueprint/v1.0.0", "bean");
+        assertEquals(2, beans.size());
+        assertEquals("devBean1", beans.get(0).getAttributeValue("id"));
+        assertEquals("devBean2", beans.get(1).getAttributeValue("id"));
+    }
+
+    protected Document parse(String name) throws Exception {
+        return new PatchedXMLParser().parse(new XMLIOSource(new File(getBaseDir(), name)));
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.camel.tooling.util;
+
+import java.io.StringReader;
+import java.util.Collections;
+import javax.xml.parsers.SAXParserFactory;
+
+import de.pdark.decentxml.Document;
+import de.pdark.decentxml.XMLStringSource;
+import io.fabric8.camel.tooling.util.parser.PatchedXMLParser;
+import org.junit.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class ElementSaxStreamerTest {
+
+    private static final String XML = "<camelContext xmlns=\"http://camel.apache.org/schema/spring\">"
+            + "<route id=\"a&amp;b\" group=\"&quot;x&quot; &lt; &#65;\n&#10;\">"
+            + "<description>x &lt; y &amp;amp; &#65;&#x42;<![CDATA[<z> &amp;]]></description>"
+            + "<to uri=\"jms:queue:foo?selector=a&amp;lt;b&amp;x=&apos;1&apos;\"/>"
+            + "</route>"
+            + "</camelContext>";
+
+    @Test
+    public void testEntitiesInAttributesAndTextAreDecodedOnce() throws Exception {
+        String actual = stream(XML);
+
+        assertThat(actual, equalTo("{http://camel.apache.org/schema/spring}camelContext()"
+                + "{http://camel.apache.org/schema/spring}route(id=a&b,group=\"x\" < A \n)"
+                + "{http://camel.apache.org/schema/spring}description()"
+                + "[x < y &amp; AB<z> &amp;]"
+                + "/description"
+                + "{http://camel.apache.org/schema/spring}to(uri=jms:queue:foo?selector=a&lt;b&x='1')"
+                + "/to"
+                + "/route"
+                + "/camelContext"));
+    }
+
+    @Test
+    public void testSameEventsAsAnXmlParser() throws Exception {
+        RecordingHandler parsed = new RecordingHandler();
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.newSAXParser().parse(new InputSource(new StringReader(XML)), parsed);
+
+        assertThat(stream(XML), equalTo(parsed.toString()));
+    }
+
+    protected String stream(String xml) throws Exception {
+        Document doc = new PatchedXMLParser().parse(new XMLStringSource(xml));
+        RecordingHandler handler = new RecordingHandler();
+        new ElementSaxStreamer(handler, Collections.<String, String>emptyMap()).stream(doc.getRootElement(), doc.getRootElement());
+        return handler.toString();
+    }
+
+    /**
+     * Records the elements, attributes and (merged) characters
+     */
+    private static class RecordingHandler extends DefaultHandler {
+        private final StringBuilder events = new StringBuilder();
+        private final StringBuilder text = new StringBuilder();
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            flushText();
+            events.append("{").append(uri).append("}").append(localName).append("(");
+            for (int i = 0; i < attributes.getLength(); i++) {
+                if (i > 0) {
+                    events.append(",");
+                }
+                events.append(attributes.getLocalName(i)).append("=").append(attributes.getValue(i));
+            }
+            events.append(")");
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            flushText();
+            events.append("/").append(localName);
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            text.append(ch, start, length);
+        }
+
+        @Override
+        public String toString() {
+            flushText();
+            return events.toString();
+        }
+
+        private void flushText() {
+            if (text.length() > 0) {
+                events.append("[").append(text).append("]");
+                text.setLength(0);
+            }
+        }
+    }
+}
@@ -16,11 +16,14 @@
 package io.fabric8.camel.tooling.util;
 
 import java.io.File;
+import java.nio.file.Files;
 
 import org.junit.Test;
 import org.xml.sax.SAXParseException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class InvalidSchemaXmlTest extends RouteXmlTestSupport {
 
@@ -37,4 +40,41 @@ public class InvalidSchemaXmlTest extends RouteXmlTestSupport {
         assertEquals("Should have validation errors: " + status, true, status.hasErrors());
     }
 
+    @Test
+    public void testValidationErrorsHaveDocumentLineNumbers() throws Exception {
+        String text = new String(Files.readAllBytes(new File(getBaseDir(), "src/test/resources/invalidSchemaRoute.xml").toPath()), "UTF-8");
+        ValidationHandler status = tool.validate(text);
+        assertTrue("Should have validation errors", status.hasErrors());
+
+        SAXParseException error = status.getErrors().get(0);
+        System.out.println("Error: " + ValidationHandler.describe(error));
+        assertEquals("line of <patternDoesNotExist/>", 34, error.getLineNumber());
+    }
+
+    @Test
+    public void testValidationErrorsOfRepeatedElementsHaveTheirOwnLineNumbers() throws Exception {
+        String camelContext = "  <camelContext xmlns=\"http://camel.apache.org/schema/spring\">\n"
+                + "    <route><from uri=\"seda:a\"/><patternDoesNotExist/></route>\n"
+                + "  </camelContext>\n";
+        String text = "<beans xmlns=\"http://www.springframework.org/schema/beans\">\n"
+                + camelContext
+                + camelContext
+                + "</beans>\n";
+        ValidationHandler status = tool.validate(text);
+
+        assertEquals("errors " + status.getErrors(), 2, status.getErrors().size());
+        SAXParseException first = status.getErrors().get(0);
+        SAXParseException second = status.getErrors().get(1);
+        assertEquals("line of the first <patternDoesNotExist/>", 3, first.getLineNumber());
+        assertEquals("line of the second <patternDoesNotExist/>", 6, second.getLineNumber());
+        assertEquals("column of <patternDoesNotExist/>", first.getColumnNumber(), second.getColumnNumber());
+        assertTrue("column of <patternDoesNotExist/> " + first.getColumnNumber(), first.getColumnNumber() > "    <route><from uri=\"seda:a\"/>".length());
+    }
+
+    @Test
+    public void testSchemaAndValidatorsAreReused() throws Exception {
+        assertSame(CamelSchemas.getSchema(), CamelSchemas.getSchema());
+        assertSame(CamelSchemas.getValidator(), CamelSchemas.getValidator());
+    }
+
 }
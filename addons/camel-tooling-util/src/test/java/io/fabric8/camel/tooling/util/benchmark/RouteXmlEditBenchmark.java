@@ -0,0 +1,82 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.camel.tooling.util.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.camel.tooling.util.RouteXml;
+import io.fabric8.camel.tooling.util.XmlModel;
+import org.apache.camel.model.RouteDefinition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the time and allocations of a typical edit of a large route file; loading the routes, changing a route
+ * then writing the routes back into the document.
+ * <p/>
+ * Run the {@link #main(String[])} method which enables the GC profiler so the allocation rate per operation
+ * (<code>gc.alloc.rate.norm</code>) is reported.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RouteXmlEditBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int size;
+
+    private RouteXml tool;
+    private String xml;
+
+    @Setup
+    public void setup() {
+        tool = new RouteXml();
+        xml = RouteXmlUnmarshalBenchmark.generateSpringXml(size, size);
+    }
+
+    @Benchmark
+    public String editRoute() throws Exception {
+        XmlModel model = tool.unmarshal(xml);
+        List<RouteDefinition> routes = model.getRouteDefinitionList();
+        routes.get(0).setGroup("edited");
+        return tool.marshalToText(model);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(RouteXmlEditBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
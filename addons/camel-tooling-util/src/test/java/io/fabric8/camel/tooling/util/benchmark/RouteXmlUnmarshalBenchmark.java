@@ -0,0 +1,102 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.camel.tooling.util.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.camel.tooling.util.RouteXml;
+import io.fabric8.camel.tooling.util.XmlModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures how long it takes to unmarshal a generated Spring XML file with lots of beans and routes.
+ * <p/>
+ * Run it from the IDE or via <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=io.fabric8.camel.tooling.util.benchmark.RouteXmlUnmarshalBenchmark</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RouteXmlUnmarshalBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int size;
+
+    private RouteXml tool;
+    private String xml;
+
+    @Setup
+    public void setup() {
+        tool = new RouteXml();
+        xml = generateSpringXml(size, size);
+    }
+
+    @Benchmark
+    public XmlModel unmarshal() throws Exception {
+        return tool.unmarshal(xml);
+    }
+
+    public static String generateSpringXml(int beanCount, int routeCount) {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        buffer.append("<beans xmlns=\"http://www.springframework.org/schema/beans\"\n");
+        buffer.append("       xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">\n");
+        for (int i = 0; i < beanCount; i++) {
+            buffer.append("  <bean id=\"bean").append(i).append("\" class=\"org.example.MyBean").append(i).append("\">\n");
+            buffer.append("    <property name=\"name\" value=\"bean").append(i).append("\"/>\n");
+            buffer.append("  </bean>\n");
+        }
+        buffer.append("  <camelContext xmlns=\"http://camel.apache.org/schema/spring\">\n");
+        for (int i = 0; i < routeCount; i++) {
+            buffer.append("    <route id=\"route").append(i).append("\">\n");
+            buffer.append("      <from uri=\"seda:in").append(i).append("\"/>\n");
+            buffer.append("      <choice>\n");
+            buffer.append("        <when><simple>${header.foo} == ").append(i).append("</simple>\n");
+            buffer.append("          <to uri=\"bean:bean").append(i % Math.max(beanCount, 1)).append("\"/>\n");
+            buffer.append("        </when>\n");
+            buffer.append("        <otherwise><to uri=\"log:route").append(i).append("\"/></otherwise>\n");
+            buffer.append("      </choice>\n");
+            buffer.append("      <to uri=\"seda:out").append(i).append("\"/>\n");
+            buffer.append("    </route>\n");
+        }
+        buffer.append("  </camelContext>\n");
+        buffer.append("</beans>\n");
+        return buffer.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(RouteXmlUnmarshalBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
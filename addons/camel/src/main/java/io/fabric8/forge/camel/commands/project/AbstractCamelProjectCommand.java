@@ -266,7 +266,7 @@ public abstract class AbstractCamelProjectCommand extends AbstractProjectCommand
 
     protected Element getSelectedCamelElementNode(Project project, String xmlResourceName, String key) throws Exception {
         FileResource file = getXmlResourceFile(project, xmlResourceName);
-        Document root = XmlLineNumberParser.parseXml(file.getResourceInputStream(), "camelContext,routes,rests", "http://camel.apache.org/schema/spring");
+        Document root = XmlLineNumberParser.parseXml(file.getResourceInputStream(), "camelContext,routes,rests", "http://camel.apache.org/schema/spring", true);
         Element selectedElement = null;
         if (root != null) {
             Node selectedNode = CamelXmlHelper.findCamelNodeInDocument(root, key);
@@ -18,6 +18,7 @@ package io.fabric8.forge.camel.commands.project;
 import java.util.List;
 
 import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.addon.utils.XmlEditBuffer;
 import io.fabric8.forge.addon.utils.XmlLineNumberParser;
 import io.fabric8.forge.camel.commands.project.dto.NodeDto;
 import io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper;
@@ -58,13 +59,13 @@ public class AddFromOrToEndpointXmlStep extends ConfigureEndpointPropertiesStep
     }
 
     @Override
-    protected Result addOrEditEndpointXml(FileResource file, String uri, String endpointUrl, String endpointInstanceName, String xml, String lineNumber, String lineNumberEnd) throws Exception {
+    protected Result addOrEditEndpointXml(XmlEditBuffer buffer, FileResource file, String uri, String endpointUrl, String endpointInstanceName, String xml, String lineNumber, String lineNumberEnd) throws Exception {
         String key = parentNode.getKey();
         if (Strings.isNullOrBlank(key)) {
             return Results.fail("Parent node has no key! " + parentNode + " in file " + file.getName());
         }
 
-        Document root = XmlLineNumberParser.parseXml(file.getResourceInputStream());
+        Document root = buffer.getDocument();
         if (root != null) {
             Node selectedNode = CamelXmlHelper.findCamelNodeInDocument(root, key);
             if (selectedNode != null) {
@@ -82,25 +83,18 @@ public class AddFromOrToEndpointXmlStep extends ConfigureEndpointPropertiesStep
                         line = String.format("<to uri=\"%s\"/>", uri);
                     }
 
-                    // read all the lines
-                    List<String> lines = LineNumberHelper.readLines(file.getResourceInputStream());
-
                     // the list is 0-based, and line number is 1-based
                     // if from then use the start line number, otherwise use the end line number
                     int idx = isFrom ? Integer.valueOf(lineNumber) : Integer.valueOf(lineNumberEnd);
                     // use the same indent from the parent line
-                    int spaces = LineNumberHelper.leadingSpaces(lines, idx - 1);
+                    int spaces = buffer.leadingSpaces(idx - 1);
                     if (isFrom) {
                         // and append 2 if we are starting a new route with <from>
                         spaces += 2;
                     }
                     line = LineNumberHelper.padString(line, spaces);
                     // add the line at the position
-                    lines.add(idx, line);
-
-                    // and save the file back
-                    String content = LineNumberHelper.linesToString(lines);
-                    file.setContents(content);
+                    buffer.insertLines(idx, line);
                     return Results.success("Added: " + line.trim());
                 }
             }
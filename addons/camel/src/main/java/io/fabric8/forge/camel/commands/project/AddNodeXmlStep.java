@@ -18,6 +18,7 @@ package io.fabric8.forge.camel.commands.project;
 import java.util.List;
 
 import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.addon.utils.XmlEditBuffer;
 import org.apache.camel.catalog.CamelCatalog;
 import org.jboss.forge.addon.projects.ProjectFactory;
 import org.jboss.forge.addon.resource.FileResource;
@@ -47,23 +48,19 @@ public class AddNodeXmlStep extends ConfigureEipPropertiesStep {
     }
 
     @Override
-    protected Result addModelXml(List<String> lines, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
+    protected Result addModelXml(XmlEditBuffer buffer, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
         // the list is 0-based, and line number is 1-based
         int idx = Integer.valueOf(lineNumberEnd);
         // use the same indent from the parent line
-        int spaces = LineNumberHelper.leadingSpaces(lines, idx - 1);
+        int spaces = buffer.leadingSpaces(idx - 1);
         String line = LineNumberHelper.padString(modelXml, spaces);
         // add the line at the position
-        lines.add(idx, line);
-
-        // and save the file back
-        String content = LineNumberHelper.linesToString(lines);
-        file.setContents(content);
+        buffer.insertLines(idx, line);
         return Results.success("Added: " + modelXml);
     }
 
     @Override
-    protected Result editModelXml(List<String> lines, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
+    protected Result editModelXml(XmlEditBuffer buffer, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
         // noop
         return null;
     }
@@ -19,6 +19,7 @@ package io.fabric8.forge.camel.commands.project;
 import java.util.List;
 
 import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.addon.utils.XmlEditBuffer;
 import io.fabric8.forge.addon.utils.XmlLineNumberParser;
 import org.apache.camel.catalog.CamelCatalog;
 import org.jboss.forge.addon.projects.ProjectFactory;
@@ -55,8 +56,8 @@ public class AddRouteFromEndpointXmlStep extends ConfigureEndpointPropertiesStep
     }
 
     @Override
-    protected Result addOrEditEndpointXml(FileResource file, String uri, String endpointUrl, String endpointInstanceName, String xml, String lineNumber, String lineNumberEnd) throws Exception {
-        Document root = XmlLineNumberParser.parseXml(file.getResourceInputStream());
+    protected Result addOrEditEndpointXml(XmlEditBuffer buffer, FileResource file, String uri, String endpointUrl, String endpointInstanceName, String xml, String lineNumber, String lineNumberEnd) throws Exception {
+        Document root = buffer.getDocument();
         if (root != null) {
             NodeList camels = root.getElementsByTagName("camelContext");
             // TODO: what about 2+ camel's ?
@@ -94,33 +95,24 @@ public class AddRouteFromEndpointXmlStep extends ConfigureEndpointPropertiesStep
                     String line2 = String.format("<from uri=\"%s\"/>", uri);
                     String line3 = "</route>";
 
-                    // if we created a new endpoint, then insert a new line with the endpoint details
-                    List<String> lines = LineNumberHelper.readLines(file.getResourceInputStream());
-
                     // the list is 0-based, and line number is 1-based
                     int idx = Integer.valueOf(lineNumberEnd) - 1;
-                    int spaces = LineNumberHelper.leadingSpaces(lines, idx);
+                    int spaces = buffer.leadingSpaces(idx);
 
                     line3 = LineNumberHelper.padString(line3, spaces + 2);
                     line2 = LineNumberHelper.padString(line2, spaces + 4);
                     line1 = LineNumberHelper.padString(line1, spaces + 2);
 
                     // check if previous line is empty or not
-                    String text = lines.get(idx - 1);
+                    String text = buffer.getLine(idx - 1);
                     boolean emptyLine = text == null || text.trim().isEmpty();
 
-                    lines.add(idx, "");
-                    lines.add(idx, line3);
-                    lines.add(idx, line2);
-                    lines.add(idx, line1);
-                    if (!emptyLine) {
+                    if (emptyLine) {
+                        buffer.insertLines(idx, line1, line2, line3, "");
+                    } else {
                         // insert empty lines around the added route (if needed to avoid 2x empty lines)
-                        lines.add(idx, "");
+                        buffer.insertLines(idx, "", line1, line2, line3, "");
                     }
-
-                    // and save the file back
-                    String content = LineNumberHelper.linesToString(lines);
-                    file.setContents(content);
                 }
                 return Results.success("Added route");
             }
@@ -18,12 +18,13 @@ package io.fabric8.forge.camel.commands.project;
 import java.util.List;
 import javax.inject.Inject;
 
-import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.addon.utils.XmlEditBuffer;
 import io.fabric8.forge.addon.utils.XmlLineNumberParser;
 import io.fabric8.forge.camel.commands.project.dto.ContextDto;
 import io.fabric8.forge.camel.commands.project.dto.NodeDto;
 import io.fabric8.forge.camel.commands.project.helper.CamelCommandsHelper;
 import io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper;
+import io.fabric8.forge.camel.commands.project.helper.XmlEditBuffers;
 import io.fabric8.utils.Strings;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.resource.FileResource;
@@ -92,7 +93,8 @@ public class CamelDeleteNodeXmlCommand extends AbstractCamelProjectCommand {
             return Results.fail("No file found for: " + xmlResourceName);
         }
 
-        Document root = XmlLineNumberParser.parseXml(file.getResourceInputStream());
+        XmlEditBuffer buffer = XmlEditBuffers.getBuffer(context.getUIContext(), file);
+        Document root = buffer.getDocument();
         if (root != null) {
             Node selectedNode = CamelXmlHelper.findCamelNodeInDocument(root, key);
             if (selectedNode != null) {
@@ -103,23 +105,19 @@ public class CamelDeleteNodeXmlCommand extends AbstractCamelProjectCommand {
 
                 if (lineNumber != null && lineNumberEnd != null) {
 
-                    // read all the lines
-                    List<String> lines = LineNumberHelper.readLines(file.getResourceInputStream());
-
                     // the list is 0-based, and line number is 1-based
                     int idx = Integer.valueOf(lineNumber) - 1;
                     int idx2 = Integer.valueOf(lineNumberEnd) - 1;
                     int delta = (idx2 - idx) + 1;
 
                     // remove the lines
-                    while (delta > 0) {
-                        delta--;
-                        lines.remove(idx);
-                    }
+                    buffer.removeLines(idx, delta);
 
                     // and save the file back
-                    String content = LineNumberHelper.linesToString(lines);
-                    file.setContents(content);
+                    Result invalid = XmlEditBuffers.save(context.getUIContext(), file, buffer);
+                    if (invalid != null) {
+                        return invalid;
+                    }
                     return Results.success("Removed node");
                 }
             }
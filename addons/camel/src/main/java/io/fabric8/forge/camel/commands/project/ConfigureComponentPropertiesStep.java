@@ -46,7 +46,6 @@ import org.jboss.forge.addon.ui.result.Results;
 import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
 import org.jboss.forge.addon.ui.wizard.UIWizardStep;
-import org.jboss.forge.roaster.Roaster;
 import org.jboss.forge.roaster.model.source.JavaClassSource;
 import org.jboss.forge.roaster.model.util.Strings;
 
@@ -168,13 +167,6 @@ public class ConfigureComponentPropertiesStep extends AbstractCamelProjectComman
                 return Results.fail("A class with name " + fqn + " already exists");
             }
 
-            // need to parse to be able to extends another class
-            final JavaClassSource javaClass = Roaster.create(JavaClassSource.class);
-            javaClass.setName(generateClassName);
-            if (generatePackageName != null) {
-                javaClass.setPackage(generatePackageName);
-            }
-
             // generate the correct class payload based on the style...
             StringBuilder buffer = new StringBuilder();
             for (InputComponent input : inputs) {
@@ -205,10 +197,11 @@ public class ConfigureComponentPropertiesStep extends AbstractCamelProjectComman
                 }
             }
             String configurationCode = buffer.toString();
+            JavaClassSource javaClass;
             if (kind.equals("cdi")) {
-                CamelCommandsHelper.createCdiComponentProducerClass(javaClass, details, camelComponentName, componentInstanceName, configurationCode);
+                javaClass = CamelCommandsHelper.createCdiComponentProducerClass(generatePackageName, generateClassName, details, camelComponentName, componentInstanceName, configurationCode);
             } else {
-                CamelCommandsHelper.createSpringComponentFactoryClass(javaClass, details, camelComponentName, componentInstanceName, configurationCode);
+                javaClass = CamelCommandsHelper.createSpringComponentFactoryClass(generatePackageName, generateClassName, details, camelComponentName, componentInstanceName, configurationCode);
             }
 
             facet.saveJavaSource(javaClass);
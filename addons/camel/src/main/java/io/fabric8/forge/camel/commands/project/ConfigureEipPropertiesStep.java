@@ -20,7 +20,8 @@ import java.util.List;
 import java.util.Map;
 
 import io.fabric8.forge.addon.utils.CamelProjectHelper;
-import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.addon.utils.XmlEditBuffer;
+import io.fabric8.forge.camel.commands.project.helper.XmlEditBuffers;
 import org.apache.camel.catalog.CamelCatalog;
 import org.apache.camel.util.IntrospectionSupport;
 import org.jboss.forge.addon.dependencies.Dependency;
@@ -241,21 +242,26 @@ public abstract class ConfigureEipPropertiesStep extends AbstractCamelProjectCom
         if (file == null || !file.exists()) {
             return Results.fail("Cannot find XML file " + xml);
         }
-        return addOrEditModelXml(file, modelXml, xml, lineNumber, lineNumberEnd, mode);
+        return addOrEditModelXml(context.getUIContext(), file, modelXml, xml, lineNumber, lineNumberEnd, mode);
     }
 
-    protected Result addOrEditModelXml(FileResource file, String modelXml, String xml, String lineNumber, String lineNumberEnd, String mode) throws Exception {
-        List<String> lines = LineNumberHelper.readLines(file.getResourceInputStream());
+    protected Result addOrEditModelXml(UIContext context, FileResource file, String modelXml, String xml, String lineNumber, String lineNumberEnd, String mode) throws Exception {
+        XmlEditBuffer buffer = XmlEditBuffers.getBuffer(context, file);
+        Result result;
         if ("add".equals(mode)) {
-            return addModelXml(lines, lineNumber, lineNumberEnd, modelXml, file, xml);
+            result = addModelXml(buffer, lineNumber, lineNumberEnd, modelXml, file, xml);
         } else {
-            return editModelXml(lines, lineNumber, lineNumberEnd, modelXml, file, xml);
+            result = editModelXml(buffer, lineNumber, lineNumberEnd, modelXml, file, xml);
         }
+
+        // and save the file back
+        Result invalid = XmlEditBuffers.save(context, file, buffer);
+        return invalid != null ? invalid : result;
     }
 
-    protected abstract Result addModelXml(List<String> lines, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception;
+    protected abstract Result addModelXml(XmlEditBuffer buffer, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception;
 
-    protected abstract Result editModelXml(List<String> lines, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception;
+    protected abstract Result editModelXml(XmlEditBuffer buffer, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception;
 
     /**
      * Returns the mandatory String value of the given name
@@ -23,9 +23,11 @@ import java.util.regex.Pattern;
 
 import io.fabric8.forge.addon.utils.CamelProjectHelper;
 import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.addon.utils.XmlEditBuffer;
 import io.fabric8.forge.addon.utils.XmlLineNumberParser;
 import io.fabric8.forge.camel.commands.project.helper.CamelJavaParserHelper;
 import io.fabric8.forge.camel.commands.project.helper.StringHelper;
+import io.fabric8.forge.camel.commands.project.helper.XmlEditBuffers;
 import io.fabric8.forge.camel.commands.project.model.CamelComponentDetails;
 import org.apache.camel.catalog.CamelCatalog;
 import org.jboss.forge.addon.dependencies.Dependency;
@@ -272,38 +274,37 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
         if (file == null || !file.exists()) {
             return Results.fail("Cannot find XML file " + xml);
         }
-        return addOrEditEndpointXml(file, uri, endpointUrl, endpointInstanceName, xml, lineNumber, lineNumberEnd);
+        XmlEditBuffer buffer = XmlEditBuffers.getBuffer(context.getUIContext(), file);
+        Result answer = addOrEditEndpointXml(buffer, file, uri, endpointUrl, endpointInstanceName, xml, lineNumber, lineNumberEnd);
+
+        // and save the file back
+        Result invalid = XmlEditBuffers.save(context.getUIContext(), file, buffer);
+        return invalid != null ? invalid : answer;
     }
 
-    protected Result addOrEditEndpointXml(FileResource file, String uri, String endpointUrl, String endpointInstanceName, String xml, String lineNumber, String lineNumberEnd) throws Exception {
+    protected Result addOrEditEndpointXml(XmlEditBuffer buffer, FileResource file, String uri, String endpointUrl, String endpointInstanceName, String xml, String lineNumber, String lineNumberEnd) throws Exception {
         // if we have a line number then use that to edit the existing value
         if (lineNumber != null) {
-            List<String> lines = LineNumberHelper.readLines(file.getResourceInputStream());
-            return editEndpointXml(lines, lineNumber, endpointUrl, uri, file, xml);
+            return editEndpointXml(buffer, lineNumber, endpointUrl, uri, xml);
         } else {
-            // we are in add mode, so parse dom to find <camelContext> and insert the endpoint where its needed
-            Document root = XmlLineNumberParser.parseXml(file.getResourceInputStream());
-            return addEndpointXml(root, endpointInstanceName, uri, file, xml);
+            // we are in add mode, so use the dom to find <camelContext> and insert the endpoint where its needed
+            return addEndpointXml(buffer.getDocument(), buffer, endpointInstanceName, uri, xml);
         }
     }
 
-    private Result editEndpointXml(List<String> lines, String lineNumber, String endpointUrl, String uri, FileResource file, String xml) {
+    private Result editEndpointXml(XmlEditBuffer buffer, String lineNumber, String endpointUrl, String uri, String xml) {
         // the list is 0-based, and line number is 1-based
         int idx = Integer.valueOf(lineNumber) - 1;
-        String line = lines.get(idx);
+        String line = buffer.getLine(idx);
 
         // replace uri with new value
         line = StringHelper.replaceAll(line, endpointUrl, uri);
-        lines.set(idx, line);
-
-        // and save the file back
-        String content = LineNumberHelper.linesToString(lines);
-        file.setContents(content);
+        buffer.setLine(idx, line);
 
         return Results.success("Update endpoint uri: " + uri + " in file " + xml);
     }
 
-    private Result addEndpointXml(Document root, String endpointInstanceName, String uri, FileResource file, String xml) throws Exception {
+    private Result addEndpointXml(Document root, XmlEditBuffer buffer, String endpointInstanceName, String uri, String xml) throws Exception {
         String lineNumber;
 
         // The DOM api is so fucking terrible!
@@ -356,23 +357,18 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
                 lineNumber = (String) found.getUserData(XmlLineNumberParser.LINE_NUMBER);
 
                 // if we created a new endpoint, then insert a new line with the endpoint details
-                List<String> lines = LineNumberHelper.readLines(file.getResourceInputStream());
                 String line = String.format("<endpoint id=\"%s\" uri=\"%s\"/>", endpointInstanceName, uri);
 
                 // the list is 0-based, and line number is 1-based
                 int idx = lineNumber != null ? Integer.valueOf(lineNumber) - 1 : 0;
                 idx += extraLines;
-                int spaces = LineNumberHelper.leadingSpaces(lines, idx) + extraSpaces;
+                int spaces = buffer.leadingSpaces(idx) + extraSpaces;
                 line = LineNumberHelper.padString(line, spaces);
                 if (created) {
-                    lines.add(idx, line);
+                    buffer.insertLines(idx, line);
                 } else {
-                    lines.set(idx, line);
+                    buffer.setLine(idx, line);
                 }
-
-                // and save the file back
-                String content = LineNumberHelper.linesToString(lines);
-                file.setContents(content);
             }
         }
 
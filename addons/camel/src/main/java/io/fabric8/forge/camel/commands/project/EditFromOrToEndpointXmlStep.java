@@ -17,7 +17,7 @@ package io.fabric8.forge.camel.commands.project;
 
 import java.util.List;
 
-import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.addon.utils.XmlEditBuffer;
 import io.fabric8.forge.addon.utils.XmlLineNumberParser;
 import io.fabric8.forge.camel.commands.project.dto.NodeDto;
 import io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper;
@@ -59,13 +59,13 @@ public class EditFromOrToEndpointXmlStep extends ConfigureEndpointPropertiesStep
     }
 
     @Override
-    protected Result addOrEditEndpointXml(FileResource file, String uri, String endpointUrl, String endpointInstanceName, String xml, String lineNumber, String lineNumberEnd) throws Exception {
+    protected Result addOrEditEndpointXml(XmlEditBuffer buffer, FileResource file, String uri, String endpointUrl, String endpointInstanceName, String xml, String lineNumber, String lineNumberEnd) throws Exception {
         String key = parentNode.getKey();
         if (Strings.isNullOrBlank(key)) {
             return Results.fail("Parent node has no key! " + parentNode + " in file " + file.getName());
         }
 
-        Document root = XmlLineNumberParser.parseXml(file.getResourceInputStream());
+        Document root = buffer.getDocument();
         if (root != null) {
             Node selectedNode = CamelXmlHelper.findCamelNodeInDocument(root, key);
             if (selectedNode != null) {
@@ -76,20 +76,13 @@ public class EditFromOrToEndpointXmlStep extends ConfigureEndpointPropertiesStep
 
                 if (lineNumber != null && lineNumberEnd != null) {
 
-                    // read all the lines
-                    List<String> lines = LineNumberHelper.readLines(file.getResourceInputStream());
-
                     // the list is 0-based, and line number is 1-based
                     int idx = Integer.valueOf(lineNumber) - 1;
-                    String line = lines.get(idx);
+                    String line = buffer.getLine(idx);
 
                     // replace uri with new value
                     line = StringHelper.replaceAll(line, endpointUrl, uri);
-                    lines.set(idx, line);
-
-                    // and save the file back
-                    String content = LineNumberHelper.linesToString(lines);
-                    file.setContents(content);
+                    buffer.setLine(idx, line);
                     return Results.success("Updated: " + line.trim());
                 }
             }
@@ -15,9 +15,11 @@
  */
 package io.fabric8.forge.camel.commands.project;
 
+import java.util.Collections;
 import java.util.List;
 
 import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.addon.utils.XmlEditBuffer;
 import org.apache.camel.catalog.CamelCatalog;
 import org.jboss.forge.addon.projects.ProjectFactory;
 import org.jboss.forge.addon.resource.FileResource;
@@ -47,33 +49,23 @@ public class EditNodeXmlStep extends ConfigureEipPropertiesStep {
     }
 
     @Override
-    protected Result editModelXml(List<String> lines, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
+    protected Result editModelXml(XmlEditBuffer buffer, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
         // the list is 0-based, and line number is 1-based
         int idx = Integer.valueOf(lineNumber) - 1;
         int idx2 = Integer.valueOf(lineNumberEnd) - 1;
         int delta = (idx2 - idx) + 1;
 
         // use the same indent from the eip we are replacing
-        int spaces = LineNumberHelper.leadingSpaces(lines, idx);
+        int spaces = buffer.leadingSpaces(idx);
         String line = LineNumberHelper.padString(modelXml, spaces);
 
-        // remove the lines
-        while (delta > 0) {
-            delta--;
-            lines.remove(idx);
-        }
-
-        // add the new line at the old starting position
-        lines.add(idx, line);
-
-        // and save the file back
-        String content = LineNumberHelper.linesToString(lines);
-        file.setContents(content);
+        // replace the lines of the eip with the new line at the old starting position
+        buffer.replaceLines(idx, delta, Collections.singletonList(line));
         return Results.success("Edited: " + modelXml);
     }
 
     @Override
-    protected Result addModelXml(List<String> lines, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
+    protected Result addModelXml(XmlEditBuffer buffer, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
         // noop
         return null;
     }
@@ -0,0 +1,50 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.project.archetype;
+
+import java.util.concurrent.Callable;
+import javax.inject.Inject;
+
+import org.apache.maven.archetype.catalog.ArchetypeCatalog;
+import org.jboss.forge.addon.maven.archetype.ArchetypeCatalogFactory;
+
+/**
+ * Warms up the fabric8 and camel archetype catalogs so the first new project does not need to resolve them.
+ * <p/>
+ * This service is looked up by name by the fabric8-forge warm up so it must not be renamed.
+ */
+public class ArchetypeCatalogWarmup implements Callable<String> {
+
+    @Inject
+    private FabricArchetypeCatalogFactory fabricArchetypeCatalogFactory;
+
+    @Inject
+    private CamelArchetypeCatalogFactory camelArchetypeCatalogFactory;
+
+    @Override
+    public String call() throws Exception {
+        int count = countArchetypes(fabricArchetypeCatalogFactory) + countArchetypes(camelArchetypeCatalogFactory);
+        return "Loaded " + count + " archetypes";
+    }
+
+    protected int countArchetypes(ArchetypeCatalogFactory factory) {
+        ArchetypeCatalog catalog = factory.getArchetypeCatalog();
+        if (catalog != null && catalog.getArchetypes() != null) {
+            return catalog.getArchetypes().size();
+        }
+        return 0;
+    }
+}
@@ -18,6 +18,7 @@ package io.fabric8.forge.camel.commands.project.archetype;
 import java.io.StringReader;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.inject.Singleton;
 
 import org.apache.camel.catalog.DefaultCamelCatalog;
 import org.apache.maven.archetype.catalog.ArchetypeCatalog;
@@ -27,6 +28,7 @@ import org.jboss.forge.addon.maven.archetype.ArchetypeCatalogFactory;
 /**
  * The Apache Camel archetypes
  */
+@Singleton
 public class CamelArchetypeCatalogFactory implements ArchetypeCatalogFactory {
 
     private final Logger logger = Logger.getLogger(getClass().getName());
@@ -21,6 +21,7 @@ import java.net.URLClassLoader;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 
 import io.fabric8.forge.addon.utils.VersionHelper;
 import org.apache.maven.archetype.catalog.ArchetypeCatalog;
@@ -36,6 +37,7 @@ import org.jboss.forge.furnace.services.Imported;
 /**
  * The Fabric8 archetypes
  */
+@Singleton
 public class FabricArchetypeCatalogFactory implements ArchetypeCatalogFactory {
 
     private static final Logger LOG = Logger.getLogger(FabricArchetypeCatalogFactory.class.getName());
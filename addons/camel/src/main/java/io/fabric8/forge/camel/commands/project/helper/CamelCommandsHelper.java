@@ -18,6 +18,7 @@ package io.fabric8.forge.camel.commands.project.helper;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +26,7 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 
 import io.fabric8.forge.addon.utils.CamelProjectHelper;
+import io.fabric8.forge.addon.utils.SourceTemplate;
 import io.fabric8.forge.camel.commands.project.completer.CamelComponentsCompleter;
 import io.fabric8.forge.camel.commands.project.completer.CamelComponentsLabelCompleter;
 import io.fabric8.forge.camel.commands.project.completer.CamelEipsCompleter;
@@ -48,7 +50,6 @@ import org.jboss.forge.addon.ui.input.UISelectOne;
 import org.jboss.forge.addon.ui.result.Result;
 import org.jboss.forge.addon.ui.result.Results;
 import org.jboss.forge.roaster.model.source.JavaClassSource;
-import org.jboss.forge.roaster.model.source.MethodSource;
 import org.jboss.forge.roaster.model.util.Strings;
 
 import static io.fabric8.forge.addon.utils.UIHelper.createUIInput;
@@ -56,6 +57,9 @@ import static io.fabric8.forge.camel.commands.project.helper.CamelCatalogHelper.
 
 public final class CamelCommandsHelper {
 
+    public static final String CDI_COMPONENT_PRODUCER_TEMPLATE = "/templates/cdi-component-producer.java.template";
+    public static final String SPRING_COMPONENT_FACTORY_TEMPLATE = "/templates/spring-component-factory.java.template";
+
     public static Iterable<String> createComponentLabelValues(Project project, CamelCatalog camelCatalog) {
         return new CamelComponentsLabelCompleter(project, camelCatalog).getValueChoices();
     }
@@ -185,54 +189,24 @@ public final class CamelCommandsHelper {
         return CamelProjectHelper.findCamelBlueprintDependency(project) != null;
     }
 
-    public static void createCdiComponentProducerClass(JavaClassSource javaClass, CamelComponentDetails details, String camelComponentName, String componentInstanceName, String configurationCode) {
-        javaClass.addImport("javax.enterprise.inject.Produces");
-        javaClass.addImport("javax.inject.Singleton");
-        javaClass.addImport("javax.inject.Named");
-        javaClass.addImport(details.getComponentClassQName());
-
-        String componentClassName = details.getComponentClassName();
-        String methodName = "create" + Strings.capitalize(componentInstanceName) + "Component";
-
-        String body = componentClassName + " component = new " + componentClassName + "();" + configurationCode + "\nreturn component;";
-
-        MethodSource<JavaClassSource> method = javaClass.addMethod()
-                .setPublic()
-                .setReturnType(componentClassName)
-                .setName(methodName)
-                .setBody(body)
-                .addThrows(Exception.class);
-
-        method.addAnnotation("Named").setStringValue(camelComponentName);
-        method.addAnnotation("Produces");
-        method.addAnnotation("Singleton");
+    public static JavaClassSource createCdiComponentProducerClass(String packageName, String className, CamelComponentDetails details, String camelComponentName, String componentInstanceName, String configurationCode) {
+        return createComponentClass(CDI_COMPONENT_PRODUCER_TEMPLATE, packageName, className, details, camelComponentName, componentInstanceName, configurationCode);
     }
 
-    public static void createSpringComponentFactoryClass(JavaClassSource javaClass, CamelComponentDetails details, String camelComponentName, String componentInstanceName, String configurationCode) {
-        javaClass.addAnnotation("Component");
-
-        javaClass.addImport("org.springframework.beans.factory.config.BeanDefinition");
-        javaClass.addImport("org.springframework.beans.factory.annotation.Qualifier");
-        javaClass.addImport("org.springframework.context.annotation.Bean");
-        javaClass.addImport("org.springframework.context.annotation.Scope");
-        javaClass.addImport("org.springframework.stereotype.Component");
-        javaClass.addImport(details.getComponentClassQName());
-
-        String componentClassName = details.getComponentClassName();
-        String methodName = "create" + Strings.capitalize(componentInstanceName) + "Component";
-
-        String body = componentClassName + " component = new " + componentClassName + "();" + configurationCode + "\nreturn component;";
-
-        MethodSource<JavaClassSource> method = javaClass.addMethod()
-                .setPublic()
-                .setReturnType(componentClassName)
-                .setName(methodName)
-                .setBody(body)
-                .addThrows(Exception.class);
+    public static JavaClassSource createSpringComponentFactoryClass(String packageName, String className, CamelComponentDetails details, String camelComponentName, String componentInstanceName, String configurationCode) {
+        return createComponentClass(SPRING_COMPONENT_FACTORY_TEMPLATE, packageName, className, details, camelComponentName, componentInstanceName, configurationCode);
+    }
 
-        method.addAnnotation("Qualifier").setStringValue(camelComponentName);
-        method.addAnnotation("Bean");
-        method.addAnnotation("Scope").setLiteralValue("BeanDefinition.SCOPE_SINGLETON");
+    protected static JavaClassSource createComponentClass(String template, String packageName, String className, CamelComponentDetails details, String camelComponentName, String componentInstanceName, String configurationCode) {
+        Map<String, String> values = new HashMap<>();
+        values.put("packageDeclaration", SourceTemplate.packageDeclaration(packageName));
+        values.put("className", className);
+        values.put("componentClassQName", details.getComponentClassQName());
+        values.put("componentClassName", details.getComponentClassName());
+        values.put("componentName", SourceTemplate.escapeJavaString(camelComponentName));
+        values.put("methodName", "create" + Strings.capitalize(componentInstanceName) + "Component");
+        values.put("configurationCode", configurationCode != null ? configurationCode.replace("\n", "\n        ") : "");
+        return SourceTemplate.load(CamelCommandsHelper.class, template).renderJava(JavaClassSource.class, values);
     }
 
     /**
@@ -0,0 +1,31 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.project.helper;
+
+import javax.enterprise.event.Observes;
+
+import org.jboss.forge.furnace.event.PreShutdown;
+
+/**
+ * Clears the shared Camel model JAXB contexts when the addon is stopped, so that reloading the addon does not
+ * keep the class loaders of the old addon alive
+ */
+public class CamelJaxbLifecycle {
+
+    public void shutdown(@Observes PreShutdown event) {
+        CamelXmlHelper.clearJaxbContexts();
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.project.helper;
+
+import java.util.concurrent.Callable;
+
+import io.fabric8.camel.tooling.util.RouteXml;
+import org.apache.camel.catalog.CamelCatalog;
+
+/**
+ * Warms up the JAXB contexts of the Camel model which are used when editing Camel XML files.
+ * <p/>
+ * This service is looked up by name by the fabric8-forge warm up so it must not be renamed.
+ */
+public class CamelJaxbWarmup implements Callable<String> {
+
+    @Override
+    public String call() throws Exception {
+        CamelXmlHelper.getJaxbContext(CamelCatalog.class.getClassLoader());
+        RouteXml.defaultJaxbContext();
+        return "Created the Camel model JAXB contexts";
+    }
+}
@@ -17,10 +17,13 @@ package io.fabric8.forge.camel.commands.project.helper;
 
 import java.io.File;
 import java.io.StringWriter;
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
@@ -68,6 +71,30 @@ public final class CamelXmlHelper {
             + "org.apache.camel.model.loadbalancer:"
             + "org.apache.camel.model.rest";
 
+    // JAXB contexts are expensive to create and thread safe so lets share them; the class loaders are weakly
+    // and the contexts (which refer to their class loader) softly referenced so neither is pinned by the cache
+    private static final Map<ClassLoader, SoftReference<JAXBContext>> jaxbContexts = Collections.synchronizedMap(new WeakHashMap<ClassLoader, SoftReference<JAXBContext>>());
+
+    /**
+     * Returns the shared JAXB context for the Camel model using the given class loader
+     */
+    public static JAXBContext getJaxbContext(ClassLoader classLoader) throws JAXBException {
+        SoftReference<JAXBContext> reference = jaxbContexts.get(classLoader);
+        JAXBContext answer = reference != null ? reference.get() : null;
+        if (answer == null) {
+            answer = JAXBContext.newInstance(JAXB_CONTEXT_PACKAGES, classLoader);
+            jaxbContexts.put(classLoader, new SoftReference<>(answer));
+        }
+        return answer;
+    }
+
+    /**
+     * Removes the shared JAXB contexts; such as when the addon is stopped
+     */
+    public static void clearJaxbContexts() {
+        jaxbContexts.clear();
+    }
+
     public static Node findEndpointById(Document dom, String endpointId) {
         NodeList list = dom.getElementsByTagName("endpoint");
         for (int i = 0; i < list.getLength(); i++) {
@@ -109,69 +136,47 @@ public final class CamelXmlHelper {
     }
 
     public static List<Node> findAllEndpoints(Document dom) {
+        return findAllEndpoints(DomElementIndex.index(dom));
+    }
+
+    /**
+     * Finds all the endpoints using an index of the document, which avoids walking the whole document
+     * for each kind of element which can contain endpoint uris
+     */
+    public static List<Node> findAllEndpoints(DomElementIndex index) {
         List<Node> nodes = new ArrayList<>();
 
-        NodeList list = dom.getElementsByTagName("endpoint");
-        for (int i = 0; i < list.getLength(); i++) {
-            Node child = list.item(i);
-            if ("endpoint".equals(child.getNodeName())) {
-                // it may not be a camel namespace, so skip those
-                String ns = child.getNamespaceURI();
-                if (ns == null) {
-                    NamedNodeMap attrs = child.getAttributes();
-                    if (attrs != null) {
-                        Node node = attrs.getNamedItem("xmlns");
-                        if (node != null) {
-                            ns = node.getNodeValue();
-                        }
+        for (Element child : index.getElements("endpoint")) {
+            // it may not be a camel namespace, so skip those
+            String ns = child.getNamespaceURI();
+            if (ns == null) {
+                NamedNodeMap attrs = child.getAttributes();
+                if (attrs != null) {
+                    Node node = attrs.getNamedItem("xmlns");
+                    if (node != null) {
+                        ns = node.getNodeValue();
                     }
                 }
-                // assume no namespace its for camel
-                if (ns == null || ns.contains("camel")) {
-                    nodes.add(child);
-                }
+            }
+            // assume no namespace its for camel
+            if (ns == null || ns.contains("camel")) {
+                nodes.add(child);
             }
         }
 
-        list = dom.getElementsByTagName("onException");
-        for (int i = 0; i < list.getLength(); i++) {
-            Node child = list.item(i);
-            findAllUrisRecursive(child, nodes);
-        }
-        list = dom.getElementsByTagName("onCompletion");
-        for (int i = 0; i < list.getLength(); i++) {
-            Node child = list.item(i);
-            findAllUrisRecursive(child, nodes);
-        }
-        list = dom.getElementsByTagName("intercept");
-        for (int i = 0; i < list.getLength(); i++) {
-            Node child = list.item(i);
-            findAllUrisRecursive(child, nodes);
-        }
-        list = dom.getElementsByTagName("interceptFrom");
-        for (int i = 0; i < list.getLength(); i++) {
-            Node child = list.item(i);
-            findAllUrisRecursive(child, nodes);
-        }
-        list = dom.getElementsByTagName("interceptSendToEndpoint");
-        for (int i = 0; i < list.getLength(); i++) {
-            Node child = list.item(i);
-            findAllUrisRecursive(child, nodes);
-        }
-        list = dom.getElementsByTagName("rest");
-        for (int i = 0; i < list.getLength(); i++) {
-            Node child = list.item(i);
-            if ("route".equals(child.getNodeName()) || "to".equals(child.getNodeName())) {
+        for (String name : new String[]{"onException", "onCompletion", "intercept", "interceptFrom", "interceptSendToEndpoint"}) {
+            for (Element child : index.getElements(name)) {
                 findAllUrisRecursive(child, nodes);
             }
         }
-        list = dom.getElementsByTagName("route");
-        for (int i = 0; i < list.getLength(); i++) {
-            Node child = list.item(i);
-            if ("route".equals(child.getNodeName())) {
+        for (Element child : index.getElements("rest")) {
+            if ("route".equals(child.getNodeName()) || "to".equals(child.getNodeName())) {
                 findAllUrisRecursive(child, nodes);
             }
         }
+        for (Element child : index.getElements("route")) {
+            findAllUrisRecursive(child, nodes);
+        }
 
         return nodes;
     }
@@ -195,14 +200,14 @@ public final class CamelXmlHelper {
     }
 
     public static List<Node> findAllSimpleExpressions(Document dom) {
+        return findAllSimpleExpressions(DomElementIndex.index(dom));
+    }
+
+    public static List<Node> findAllSimpleExpressions(DomElementIndex index) {
         List<Node> nodes = new ArrayList<>();
 
-        NodeList list = dom.getElementsByTagName("route");
-        for (int i = 0; i < list.getLength(); i++) {
-            Node child = list.item(i);
-            if ("route".equals(child.getNodeName())) {
-                findAllSimpleExpressionsRecursive(child, nodes);
-            }
+        for (Element child : index.getElements("route")) {
+            findAllSimpleExpressionsRecursive(child, nodes);
         }
 
         return nodes;
@@ -416,7 +421,7 @@ public final class CamelXmlHelper {
      * @throws JAXBException is throw if error marshalling to XML
      */
     public static String dumpModelAsXml(Object definition, ClassLoader classLoader) throws JAXBException, XMLStreamException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(JAXB_CONTEXT_PACKAGES, classLoader);
+        JAXBContext jaxbContext = getJaxbContext(classLoader);
 
         StringWriter buffer = new StringWriter();
 
@@ -452,7 +457,7 @@ public final class CamelXmlHelper {
      * @throws JAXBException is throw if error unmarshalling XML to Object
      */
     public static Object xmlAsModel(Node node, ClassLoader classLoader) throws JAXBException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(JAXB_CONTEXT_PACKAGES, classLoader);
+        JAXBContext jaxbContext = getJaxbContext(classLoader);
 
         Unmarshaller marshaller = jaxbContext.createUnmarshaller();
         Object answer = marshaller.unmarshal(node);
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.project.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.fabric8.camel.tooling.util.RouteXml;
+import io.fabric8.camel.tooling.util.ValidationHandler;
+import io.fabric8.utils.Strings;
+import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Optionally validates edited Camel XML against the Camel XSDs before its written back to the file.
+ * <p/>
+ * Validation is disabled by default and is enabled by setting the {@link #ENV_VALIDATE_XML} environment variable
+ * or the {@link #VALIDATE_XML_PROPERTY} system property to <code>true</code>.
+ */
+public final class CamelXmlValidationHelper {
+
+    public static final String ENV_VALIDATE_XML = "FABRIC8_CAMEL_VALIDATE_XML";
+    public static final String VALIDATE_XML_PROPERTY = "fabric8.camel.validateXml";
+
+    private static final RouteXml routeXml = new RouteXml();
+
+    private CamelXmlValidationHelper() {
+    }
+
+    public static boolean isValidationEnabled() {
+        String value = System.getenv(ENV_VALIDATE_XML);
+        if (Strings.isNullOrBlank(value)) {
+            value = System.getProperty(VALIDATE_XML_PROPERTY);
+        }
+        return "true".equalsIgnoreCase(value);
+    }
+
+    /**
+     * Validates the edited XML content if validation is enabled
+     *
+     * @return a failed result describing the errors with their line numbers, or <tt>null</tt> if the content is valid
+     * or validation is disabled
+     */
+    public static Result validateXml(String content, String fileName) {
+        if (!isValidationEnabled()) {
+            return null;
+        }
+        try {
+            ValidationHandler handler = routeXml.validate(content);
+            if (handler.hasErrors()) {
+                List<String> messages = new ArrayList<>();
+                for (SAXParseException e : handler.getFatalErrors()) {
+                    messages.add(ValidationHandler.describe(e));
+                }
+                for (SAXParseException e : handler.getErrors()) {
+                    messages.add(ValidationHandler.describe(e));
+                }
+                return Results.fail("The changes to " + fileName + " are not valid Camel XML so they have not been saved: "
+                        + Strings.join(messages, "; "));
+            }
+        } catch (Exception e) {
+            return Results.fail("Cannot validate the changes to " + fileName + " due " + e.getMessage(), e);
+        }
+        return null;
+    }
+}
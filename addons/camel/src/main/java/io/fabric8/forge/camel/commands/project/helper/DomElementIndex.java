@@ -0,0 +1,72 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.project.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * An index of the elements in a DOM document by tag name which is created from a single walk of the document,
+ * so looking up several kinds of elements does not need a {@link Document#getElementsByTagName(String)} walk for each.
+ * <p/>
+ * The elements for each tag name are in document order just like {@link Document#getElementsByTagName(String)}.
+ */
+public final class DomElementIndex {
+
+    private final Map<String, List<Element>> elements = new HashMap<>();
+
+    private DomElementIndex() {
+    }
+
+    public static DomElementIndex index(Document dom) {
+        DomElementIndex answer = new DomElementIndex();
+        answer.indexChildren(dom);
+        return answer;
+    }
+
+    /**
+     * Returns the elements with the given tag name
+     */
+    public List<Element> getElements(String tagName) {
+        List<Element> answer = elements.get(tagName);
+        if (answer == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(answer);
+    }
+
+    private void indexChildren(Node parent) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                String name = child.getNodeName();
+                List<Element> list = elements.get(name);
+                if (list == null) {
+                    list = new ArrayList<>();
+                    elements.put(name, list);
+                }
+                list.add((Element) child);
+                indexChildren(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.project.helper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import io.fabric8.forge.addon.utils.XmlEditBuffer;
+import org.jboss.forge.addon.resource.FileResource;
+import org.jboss.forge.addon.ui.context.UIContext;
+import org.jboss.forge.addon.ui.result.Result;
+
+/**
+ * Shares an {@link XmlEditBuffer} for each XML file between the steps of a command via the attribute map
+ * of the {@link UIContext}, so the file is read and parsed once and written back once.
+ */
+public final class XmlEditBuffers {
+
+    private static final String KEY_PREFIX = XmlEditBuffer.class.getName() + ":";
+
+    private XmlEditBuffers() {
+    }
+
+    /**
+     * Returns the edit buffer of the file, reading the file if there is no buffer or the file has changed since it was read
+     */
+    public static XmlEditBuffer getBuffer(UIContext context, FileResource file) throws IOException {
+        Map<Object, Object> attributeMap = context.getAttributeMap();
+        String key = getKey(file);
+        Object value = attributeMap.get(key);
+        if (value instanceof CachedBuffer) {
+            CachedBuffer cached = (CachedBuffer) value;
+            if (cached.lastModified == file.getLastModified()) {
+                return cached.buffer;
+            }
+        }
+        XmlEditBuffer buffer = XmlEditBuffer.read(file.getResourceInputStream());
+        attributeMap.put(key, new CachedBuffer(buffer, file.getLastModified()));
+        return buffer;
+    }
+
+    /**
+     * Writes the buffer back to the file if it has been modified; validating it first if validation is enabled.
+     * <p/>
+     * The buffer stays shared after its been written so later steps keep using it rather than reading and parsing
+     * the file again; if the changes are not valid they are reverted so the file and the buffer stay in sync.
+     * Wizards should only save from their last step so the file is written once.
+     *
+     * @return a failed result if the changes are not valid, or <tt>null</tt> if they have been saved
+     */
+    public static Result save(UIContext context, FileResource file, XmlEditBuffer buffer) throws IOException {
+        if (buffer.isModified()) {
+            String content = buffer.getText();
+            Result invalid = CamelXmlValidationHelper.validateXml(content, file.getName());
+            if (invalid != null) {
+                buffer.revert();
+                return invalid;
+            }
+            file.setContents(new ByteArrayInputStream(buffer.getBytes()));
+            buffer.saved();
+            // lets remember the new timestamp so the buffer is not read again
+            context.getAttributeMap().put(getKey(file), new CachedBuffer(buffer, file.getLastModified()));
+        }
+        return null;
+    }
+
+    private static String getKey(FileResource file) {
+        return KEY_PREFIX + file.getFullyQualifiedName();
+    }
+
+    private static final class CachedBuffer {
+        private final XmlEditBuffer buffer;
+        private final long lastModified;
+
+        private CachedBuffer(XmlEditBuffer buffer, long lastModified) {
+            this.buffer = buffer;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel;
+
+import io.fabric8.forge.camel.benchmark.ComponentClassGenerationBenchmark;
+import io.fabric8.forge.camel.commands.project.helper.CamelCommandsHelper;
+import org.jboss.forge.roaster.model.source.JavaClassSource;
+import org.jboss.forge.roaster.model.source.MethodSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that rendering the component producer template generates the same class as building it up with Roaster
+ */
+public class ComponentClassGenerationTest {
+
+    @Test
+    public void testTemplateGeneratesSameClass() throws Exception {
+        JavaClassSource expected = ComponentClassGenerationBenchmark.createWithRoaster();
+        JavaClassSource actual = ComponentClassGenerationBenchmark.createWithTemplate();
+
+        Assert.assertEquals(expected.getQualifiedName(), actual.getQualifiedName());
+        Assert.assertTrue(actual.hasImport("javax.enterprise.inject.Produces"));
+        Assert.assertTrue(actual.hasImport("org.apache.activemq.camel.component.ActiveMQComponent"));
+        MethodSource<JavaClassSource> expectedMethod = expected.getMethod("createMyBrokerComponent");
+        MethodSource<JavaClassSource> method = actual.getMethod("createMyBrokerComponent");
+        Assert.assertNotNull(method);
+        Assert.assertEquals(expectedMethod.getReturnType().getName(), method.getReturnType().getName());
+        Assert.assertEquals("activemq", method.getAnnotation("Named").getStringValue());
+        Assert.assertNotNull(method.getAnnotation("Produces"));
+        Assert.assertNotNull(method.getAnnotation("Singleton"));
+        Assert.assertEquals(expectedMethod.getBody().replaceAll("\\s+", ""), method.getBody().replaceAll("\\s+", ""));
+    }
+
+    @Test
+    public void testComponentNameIsEscaped() throws Exception {
+        String name = "my\") @Deprecated(\"broker\\";
+        String literal = "\"my\\\") @Deprecated(\\\"broker\\\\\"";
+        JavaClassSource cdi = CamelCommandsHelper.createCdiComponentProducerClass("com.acme", "MyBrokerComponentProducer",
+                ComponentClassGenerationBenchmark.createDetails(), name, "myBroker", null);
+        MethodSource<JavaClassSource> method = cdi.getMethod("createMyBrokerComponent");
+        Assert.assertEquals(literal, method.getAnnotation("Named").getLiteralValue());
+        Assert.assertNull(method.getAnnotation("Deprecated"));
+
+        JavaClassSource spring = CamelCommandsHelper.createSpringComponentFactoryClass("com.acme", "MyBrokerComponentFactory",
+                ComponentClassGenerationBenchmark.createDetails(), name, "myBroker", null);
+        method = spring.getMethod("createMyBrokerComponent");
+        Assert.assertEquals(literal, method.getAnnotation("Qualifier").getLiteralValue());
+        Assert.assertNull(method.getAnnotation("Deprecated"));
+    }
+}
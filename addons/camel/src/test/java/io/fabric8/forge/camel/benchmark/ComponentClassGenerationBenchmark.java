@@ -0,0 +1,114 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.forge.camel.commands.project.helper.CamelCommandsHelper;
+import io.fabric8.forge.camel.commands.project.model.CamelComponentDetails;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.source.JavaClassSource;
+import org.jboss.forge.roaster.model.source.MethodSource;
+import org.jboss.forge.roaster.model.util.Strings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares generating a CDI component producer class by building it up with Roaster (as it used to be done)
+ * against rendering the shared template.
+ * <p/>
+ * Run the {@link #main(String[])} method which enables the GC profiler so the allocation rate per operation
+ * (<code>gc.alloc.rate.norm</code>) is reported.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ComponentClassGenerationBenchmark {
+
+    public static final String CONFIGURATION_CODE = "\ncomponent.setHost(\"localhost\");\ncomponent.setPort(61616);";
+
+    @Benchmark
+    public String roaster() {
+        return createWithRoaster().toString();
+    }
+
+    @Benchmark
+    public String template() {
+        return createWithTemplate().toString();
+    }
+
+    public static CamelComponentDetails createDetails() {
+        CamelComponentDetails details = new CamelComponentDetails();
+        details.setComponentClassQName("org.apache.activemq.camel.component.ActiveMQComponent");
+        return details;
+    }
+
+    public static JavaClassSource createWithTemplate() {
+        return CamelCommandsHelper.createCdiComponentProducerClass("com.acme", "MyBrokerComponentProducer", createDetails(), "activemq", "myBroker", CONFIGURATION_CODE);
+    }
+
+    /**
+     * How the class used to be generated
+     */
+    public static JavaClassSource createWithRoaster() {
+        CamelComponentDetails details = createDetails();
+        JavaClassSource javaClass = Roaster.create(JavaClassSource.class);
+        javaClass.setName("MyBrokerComponentProducer");
+        javaClass.setPackage("com.acme");
+        javaClass.addImport("javax.enterprise.inject.Produces");
+        javaClass.addImport("javax.inject.Singleton");
+        javaClass.addImport("javax.inject.Named");
+        javaClass.addImport(details.getComponentClassQName());
+
+        String componentClassName = details.getComponentClassName();
+        String methodName = "create" + Strings.capitalize("myBroker") + "Component";
+        String body = componentClassName + " component = new " + componentClassName + "();" + CONFIGURATION_CODE + "\nreturn component;";
+
+        MethodSource<JavaClassSource> method = javaClass.addMethod()
+                .setPublic()
+                .setReturnType(componentClassName)
+                .setName(methodName)
+                .setBody(body)
+                .addThrows(Exception.class);
+
+        method.addAnnotation("Named").setStringValue("activemq");
+        method.addAnnotation("Produces");
+        method.addAnnotation("Singleton");
+        return javaClass;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(ComponentClassGenerationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -55,6 +55,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
@@ -68,6 +69,7 @@ import static io.fabric8.forge.addon.utils.CamelProjectHelper.findCamelCoreDepen
 public abstract class AbstractDevOpsCommand extends AbstractProjectCommand implements UICommand {
     private static final transient Logger LOG = LoggerFactory.getLogger(AbstractDevOpsCommand.class);
     public static final int ROOT_LEVEL = 1;
+    public static final int MAX_SCAN_LEVELS = 3;
 
     public static String CATEGORY = "DevOps";
 
@@ -258,11 +260,25 @@ public abstract class AbstractDevOpsCommand extends AbstractProjectCommand imple
     }
 
     protected ProjectOverviewDTO getProjectOverview(UIContext uiContext) {
-        ProjectOverviewDTO projectOveriew = new ProjectOverviewDTO();
         File rootFolder = getSelectionFolder(uiContext);
+        String fingerprint = null;
+        if (rootFolder != null) {
+            try {
+                fingerprint = ProjectOverviewCache.fingerprint(rootFolder, MAX_SCAN_LEVELS);
+            } catch (IOException e) {
+                LOG.debug("Could not fingerprint " + rootFolder + " so not caching its overview: " + e, e);
+            }
+            if (fingerprint != null) {
+                ProjectOverviewDTO cached = ProjectOverviewCache.getOverview(rootFolder, fingerprint);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+        ProjectOverviewDTO projectOveriew = new ProjectOverviewDTO();
         if (rootFolder != null) {
             List<GetOverviewCommand.FileProcessor> processors = loadFileMatches();
-            scanProject(rootFolder, processors, projectOveriew, 0, 3);
+            scanProject(rootFolder, processors, projectOveriew, 0, MAX_SCAN_LEVELS);
         }
         if (hasProjectFile(uiContext, "pom.xml")) {
             projectOveriew.addBuilder("maven");
@@ -275,6 +291,9 @@ public abstract class AbstractDevOpsCommand extends AbstractProjectCommand imple
                 }
             }
         }
+        if (fingerprint != null) {
+            ProjectOverviewCache.putOverview(rootFolder, fingerprint, projectOveriew);
+        }
         return projectOveriew;
     }
 
@@ -350,25 +369,7 @@ public abstract class AbstractDevOpsCommand extends AbstractProjectCommand imple
     }
 
     protected void scanProject(File file, List<GetOverviewCommand.FileProcessor> processors, ProjectOverviewDTO overview, int level, int maxLevels) {
-        if (file.isFile()) {
-            String name = file.getName();
-            String extension = Files.getExtension(name);
-            for (GetOverviewCommand.FileProcessor processor : new ArrayList<>(processors)) {
-                if (processor.processes(overview, file, name, extension, level)) {
-                    processors.remove(processor);
-                }
-            }
-        } else if (file.isDirectory()) {
-            int newLevel = level + 1;
-            if (newLevel <= maxLevels && !processors.isEmpty()) {
-                File[] files = file.listFiles();
-                if (files != null) {
-                    for (File child : files) {
-                        scanProject(child, processors, overview, newLevel, maxLevels);
-                    }
-                }
-            }
-        }
+        ProjectOverviewCache.scan(file, processors, overview, level, maxLevels);
     }
 
     protected boolean hasProjectFile(UIContext context, String fileName) {
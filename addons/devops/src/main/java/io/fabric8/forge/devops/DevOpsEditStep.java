@@ -20,21 +20,23 @@ import io.fabric8.devops.ProjectConfigs;
 import io.fabric8.devops.connector.DevOpsConnector;
 import io.fabric8.forge.addon.utils.CommandHelpers;
 import io.fabric8.forge.addon.utils.MavenHelpers;
+import io.fabric8.forge.devops.directory.ChatRoomLoader;
+import io.fabric8.forge.devops.directory.DirectoryCache;
+import io.fabric8.forge.devops.directory.DirectoryCaches;
+import io.fabric8.forge.devops.directory.IssueProjectLoader;
 import io.fabric8.forge.devops.dto.PipelineDTO;
-import io.fabric8.forge.devops.dto.PipelineMetadata;
 import io.fabric8.forge.devops.dto.ProjectOverviewDTO;
+import io.fabric8.forge.devops.dto.ProvisionJobDTO;
+import io.fabric8.forge.devops.provision.ProvisionStep;
+import io.fabric8.forge.devops.provision.ProvisioningEngine;
 import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.letschat.LetsChatClient;
 import io.fabric8.letschat.LetsChatKubernetes;
-import io.fabric8.letschat.RoomDTO;
-import io.fabric8.taiga.ProjectDTO;
 import io.fabric8.taiga.TaigaClient;
 import io.fabric8.taiga.TaigaKubernetes;
 import io.fabric8.utils.Files;
-import io.fabric8.utils.Filter;
 import io.fabric8.utils.GitHelpers;
 import io.fabric8.utils.IOHelpers;
-import io.fabric8.utils.Objects;
 import io.fabric8.utils.Strings;
 import org.apache.maven.model.Model;
 import org.jboss.forge.addon.convert.Converter;
@@ -72,10 +74,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.TreeSet;
-
-import static io.fabric8.kubernetes.api.KubernetesHelper.loadYaml;
 
 public class DevOpsEditStep extends AbstractDevOpsCommand implements UIWizardStep {
     private static final transient Logger LOG = LoggerFactory.getLogger(DevOpsEditStep.class);
@@ -138,9 +136,10 @@ public class DevOpsEditStep extends AbstractDevOpsCommand implements UIWizardSte
         pipeline.addValueChangeListener(new ValueChangeListener() {
             @Override
             public void valueChanged(ValueChangeEvent event) {
-                String value = event.getNewValue() != null ? event.getNewValue().toString() : null;
+                Object newValue = event.getNewValue();
+                String value = newValue instanceof PipelineDTO ? ((PipelineDTO) newValue).getValue() : newValue != null ? newValue.toString() : null;
                 if (value != null) {
-                    String description = getDescriptionForFlow(value);
+                    String description = getDescriptionForFlow(context, value);
                     pipeline.setNote(description != null ? description : "");
                 } else {
                     pipeline.setNote("");
@@ -431,13 +430,50 @@ public class DevOpsEditStep extends AbstractDevOpsCommand implements UIWizardSte
             }
         });
 */
-        try {
-            connector.execute();
-        } catch (Exception e) {
-            LOG.error("Failed to update DevOps resources: " + e, e);
-        }
+        // lets create the build, webhooks, chat room and issue tracker project in the background so that
+        // a slow or unavailable service does not block the command
+        final String masterUrl = getMasterUrl();
+        List<ProvisionStep> steps = new ArrayList<>();
+        steps.add(new ProvisionStep() {
+            @Override
+            public String getName() {
+                return "devops-connector";
+            }
+
+            @Override
+            public boolean isRetryable() {
+                // running the connector again could create a second chat room, issue project or webhook
+                return false;
+            }
+
+            @Override
+            public void execute() throws Exception {
+                connector.execute();
+            }
+        });
+        steps.add(new ProvisionStep() {
+            @Override
+            public String getName() {
+                return "refresh-directories";
+            }
+
+            @Override
+            public boolean isRetryable() {
+                // this only expires the cached entries so there is nothing to retry
+                return false;
+            }
 
-        return Results.success(message);
+            @Override
+            public void execute() throws Exception {
+                // the connector may have created the chat room or issue project
+                DirectoryCaches.refresh(masterUrl, namespace);
+            }
+        });
+        String jobKey = ProvisioningEngine.getJobKey(namespace, named);
+        ProvisionJobDTO job = ProvisioningEngine.getInstance().submit(jobKey, ProvisioningEngine.getJournalFile(basedir), steps);
+        attributeMap.put("devopsProvisionJob", job.getId());
+
+        return Results.success(message + ". Provisioning the DevOps resources in job " + job.getId());
     }
 
 
@@ -454,8 +490,9 @@ public class DevOpsEditStep extends AbstractDevOpsCommand implements UIWizardSte
         return null;
     }
 
-    protected String getDescriptionForFlow(String flow) {
-        return null;
+    protected String getDescriptionForFlow(UIContext context, String flow) {
+        PipelineCatalog catalog = getPipelineCatalog(context);
+        return catalog != null ? catalog.getDescription(flow) : null;
     }
 
     protected String getFlowContent(String flow, UIContext context) {
@@ -475,6 +512,11 @@ public class DevOpsEditStep extends AbstractDevOpsCommand implements UIWizardSte
 
     protected PipelineDTO getPipelineForValue(UIContext context, String value) {
         if (Strings.isNotBlank(value)) {
+            PipelineCatalog catalog = getPipelineCatalog(context);
+            PipelineDTO answer = catalog != null ? catalog.getPipeline(value) : null;
+            if (answer != null) {
+                return answer;
+            }
             Iterable<PipelineDTO> pipelines = getPipelines(context, false);
             for (PipelineDTO pipelineDTO : pipelines) {
                 if (pipelineDTO.getValue().equals(value) || pipelineDTO.toString().equals(value)) {
@@ -486,94 +528,52 @@ public class DevOpsEditStep extends AbstractDevOpsCommand implements UIWizardSte
     }
 
     protected Iterable<PipelineDTO> getPipelines(UIContext context, boolean filterPipelines) {
-        Set<String> builders =  null;
-        ProjectOverviewDTO projectOveriew = null;
-        if (filterPipelines) {
-            projectOveriew = getProjectOverview(context);
-            builders = projectOveriew.getBuilders();
+        PipelineCatalog catalog = getPipelineCatalog(context);
+        if (catalog == null) {
+            LOG.warn("No jenkinsWorkflowFolder!");
+            return new ArrayList<>();
         }
-        File dir = getJenkinsWorkflowFolder(context);
+        List<PipelineDTO> pipelines = catalog.getPipelines();
+        if (!filterPipelines) {
+            return pipelines;
+        }
+
+        ProjectOverviewDTO projectOveriew = getProjectOverview(context);
+        Set<String> builders = projectOveriew.getBuilders();
         Set<String> buildersFound = new HashSet<>();
-        if (dir != null) {
-            Filter<File> filter = new Filter<File>() {
-                @Override
-                public boolean matches(File file) {
-                    return file.isFile() && Objects.equal(JENKINSFILE, file.getName());
-                }
-            };
-            Set<File> files =  Files.findRecursive(dir, filter);
-            List<PipelineDTO> pipelines = new ArrayList<>();
-            for (File file : files) {
-                try {
-                    String relativePath = Files.getRelativePath(dir, file);
-                    String value = Strings.stripPrefix(relativePath, "/");
-                    String label = value;
-                    String postfix = "/" + JENKINSFILE;
-                    if (label.endsWith(postfix)) {
-                        label = label.substring(0, label.length() - postfix.length());
-                    }
-                    if (label.startsWith(jenkinsFilePrefix)) {
-                        label = label.substring(jenkinsFilePrefix.length());
-                    }
-                    // Lets ignore the fabric8 specific pipelines
-                    if (label.startsWith("fabric8-release/")) {
-                        continue;
-                    }
-                    String builder = null;
-                    int idx = label.indexOf("/");
-                    if (idx > 0) {
-                        builder = label.substring(0, idx);
-                        if (filterPipelines && !builders.contains(builder)) {
-                            // ignore this builder
-                            continue;
-                        } else {
-                            buildersFound.add(builder);
-                        }
-                    }
-                    String descriptionMarkdown = null;
-                    File markdownFile = new File(file.getParentFile(), "ReadMe.md");
-                    if (Files.isFile(markdownFile)) {
-                        descriptionMarkdown = IOHelpers.readFully(markdownFile);
-                    }
-                    PipelineDTO pipeline = new PipelineDTO(value, label, builder, descriptionMarkdown);
-
-                    File yamlFile = new File(file.getParentFile(), "metadata.yml");
-                    if (Files.isFile(yamlFile)) {
-                        PipelineMetadata metadata = null;
-                        try {
-                            metadata = loadYaml(yamlFile, PipelineMetadata.class);
-                        } catch (IOException e) {
-                            LOG.warn("Failed to parse yaml file " + yamlFile + ". " + e, e);
-                        }
-                        if (metadata != null) {
-                            metadata.configurePipeline(pipeline);
-                        }
-                    }
-                    pipelines.add(pipeline);
-                } catch (IOException e) {
-                    LOG.warn("Failed to find relative path for folder " + dir + " and file " + file + ". " + e, e);
+        List<PipelineDTO> answer = new ArrayList<>();
+        for (PipelineDTO pipeline : pipelines) {
+            String builder = pipeline.getBuilder();
+            if (builder != null) {
+                if (!builders.contains(builder)) {
+                    // ignore this builder
+                    continue;
                 }
+                buildersFound.add(builder);
             }
-            if (buildersFound.size() == 1) {
-                // lets trim the builder prefix from the labels
-                for (String first : buildersFound) {
-                    String prefix = first + "/";
-                    for (PipelineDTO pipeline : pipelines) {
-                        String label = pipeline.getLabel();
-                        if (label.startsWith(prefix)) {
-                            label = label.substring(prefix.length());
-                            pipeline.setLabel(label);
-                        }
-                    }
-                    break;
+            answer.add(pipeline);
+        }
+        if (buildersFound.size() == 1) {
+            // lets trim the builder prefix from the labels using copies as the catalog is shared
+            String prefix = buildersFound.iterator().next() + "/";
+            for (int i = 0; i < answer.size(); i++) {
+                PipelineDTO pipeline = answer.get(i);
+                String label = pipeline.getLabel();
+                if (label.startsWith(prefix)) {
+                    PipelineDTO copy = new PipelineDTO(pipeline.getValue(), label.substring(prefix.length()), pipeline.getBuilder(), pipeline.getDescriptionMarkdown());
+                    copy.setStages(pipeline.getStages());
+                    copy.setEnvironments(pipeline.getEnvironments());
+                    answer.set(i, copy);
                 }
             }
-            Collections.sort(pipelines);
-            return pipelines;
-        } else {
-            LOG.warn("No jenkinsWorkflowFolder!");
-            return new ArrayList<>();
+            Collections.sort(answer);
         }
+        return answer;
+    }
+
+    protected PipelineCatalog getPipelineCatalog(UIContext context) {
+        File dir = getJenkinsWorkflowFolder(context);
+        return dir != null ? PipelineCatalog.getCatalog(dir, jenkinsFilePrefix) : null;
     }
 
     protected File getJenkinsWorkflowFolder(UIContext context) {
@@ -586,64 +586,40 @@ public class DevOpsEditStep extends AbstractDevOpsCommand implements UIWizardSte
     }
 
     protected String getDescriptionForIssueProject(String value) {
-        return null;
+        return getIssueProjectDirectory().getDescription(value);
     }
 
     protected Iterable<String> getIssueProjectNames() {
-        Set<String> answer = new TreeSet<>();
-        try {
-            TaigaClient letschat = getTaiga();
-            if (letschat != null) {
-                List<ProjectDTO> projects = null;
-                try {
-                    projects = letschat.getProjects();
-                } catch (Exception e) {
-                    LOG.warn("Failed to load chat projects! " + e, e);
-                }
-                if (projects != null) {
-                    for (ProjectDTO project : projects) {
-                        String name = project.getName();
-                        if (name != null) {
-                            answer.add(name);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            LOG.warn("Failed to get issue project names: " + e, e);
-        }
-        return answer;
-
+        return getIssueProjectDirectory().getNames();
     }
 
     protected String getDescriptionForChatRoom(String chatRoom) {
-        return null;
+        return getChatRoomDirectory().getDescription(chatRoom);
     }
 
     protected Iterable<String> getChatRoomNames() {
-        Set<String> answer = new TreeSet<>();
-        try {
-            LetsChatClient letschat = getLetsChat();
-            if (letschat != null) {
-                List<RoomDTO> rooms = null;
-                try {
-                    rooms = letschat.getRooms();
-                } catch (Exception e) {
-                    LOG.warn("Failed to load chat rooms! " + e, e);
-                }
-                if (rooms != null) {
-                    for (RoomDTO room : rooms) {
-                        String name = room.getSlug();
-                        if (name != null) {
-                            answer.add(name);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            LOG.warn("Failed to find chat room names: " + e, e);
-        }
-        return answer;
+        return getChatRoomDirectory().getNames();
+    }
+
+    /**
+     * Returns the URL of the kubernetes master so that the shared directory caches of different clusters are kept apart
+     */
+    protected String getMasterUrl() {
+        return String.valueOf(getKubernetes().getMasterUrl());
+    }
+
+    /**
+     * Returns the cached issue tracker projects so that completion and descriptions don't call Taiga each time
+     */
+    protected DirectoryCache getIssueProjectDirectory() {
+        return DirectoryCaches.getCache(DirectoryCaches.ISSUE_PROJECTS, getMasterUrl(), namespace, new IssueProjectLoader(getKubernetes(), namespace));
+    }
+
+    /**
+     * Returns the cached chat rooms so that completion and descriptions don't call Let's Chat each time
+     */
+    protected DirectoryCache getChatRoomDirectory() {
+        return DirectoryCaches.getCache(DirectoryCaches.CHAT_ROOMS, getMasterUrl(), namespace, new ChatRoomLoader(getKubernetes()));
     }
 
     public LetsChatClient getLetsChat() {
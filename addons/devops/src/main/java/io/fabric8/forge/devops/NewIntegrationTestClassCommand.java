@@ -16,6 +16,7 @@
 package io.fabric8.forge.devops;
 
 import io.fabric8.forge.addon.utils.MavenHelpers;
+import io.fabric8.forge.addon.utils.SourceTemplate;
 import io.fabric8.forge.addon.utils.completer.TestPackageNameCompleter;
 import io.fabric8.forge.addon.utils.validator.ClassNameValidator;
 import io.fabric8.forge.addon.utils.validator.PackageNameValidator;
@@ -43,12 +44,13 @@ import org.jboss.forge.addon.ui.result.Result;
 import org.jboss.forge.addon.ui.result.Results;
 import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
-import org.jboss.forge.roaster.Roaster;
 import org.jboss.forge.roaster.model.source.JavaClassSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import static io.fabric8.forge.addon.utils.MavenHelpers.createCoordinate;
@@ -59,6 +61,8 @@ import static io.fabric8.forge.addon.utils.MavenHelpers.createCoordinate;
 public class NewIntegrationTestClassCommand extends AbstractDevOpsCommand {
     private static final transient Logger LOG = LoggerFactory.getLogger(NewIntegrationTestClassCommand.class);
 
+    public static final String TEMPLATE = "/templates/kubernetes-integration-test.java.template";
+
     @Inject
     @WithAttributes(label = "targetPackage", required = false,
             description = "The package name where the new test class will be created")
@@ -185,65 +189,25 @@ public class NewIntegrationTestClassCommand extends AbstractDevOpsCommand {
         String generatePackageName = targetPackage.getValue();
         String generateClassName = className.getValue();
 
-        JavaClassSource javaClass = Roaster.create(JavaClassSource.class);
-        javaClass.setName(generateClassName);
+        JavaClassSource javaClass = createIntegrationTestClass(generatePackageName, generateClassName);
         if (Strings.isNotBlank(generatePackageName)) {
-            javaClass.setPackage(generatePackageName);
             generateClassName = generatePackageName + "." + generateClassName;
         }
-        javaClass.addImport("io.fabric8.arquillian.kubernetes.Session");
-        javaClass.addImport("io.fabric8.kubernetes.api.KubernetesClient");
-        javaClass.addImport("io.fabric8.kubernetes.api.model.Pod");
-        javaClass.addImport("org.assertj.core.api.Condition");
-        javaClass.addImport("org.jboss.arquillian.junit.Arquillian");
-        javaClass.addImport("org.jboss.arquillian.test.api.ArquillianResource");
-        javaClass.addImport("org.junit.Test");
-        javaClass.addImport("org.junit.runner.RunWith");
-        javaClass.addImport("io.fabric8.kubernetes.assertions.Assertions.assertThat").setStatic(true);
-
-        javaClass.addAnnotation("RunWith").setLiteralValue("Arquillian.class");
-
-        javaClass.getJavaDoc().setText("Tests that the Kubernetes resources\n" +
-                "* (Services, Replication Controllers and Pods)\n" +
-                "* can be provisioned and start up correctly.\n" +
-                "* \n" +
-                "* This test creates a new Kubernetes Namespace for the duration of the test.\n" +
-                "* For more information see: http://fabric8.io/guide/testing.html" );
-
-        javaClass.addField().
-                setProtected().
-                setType("KubernetesClient").
-                setName("kubernetes").
-                addAnnotation("ArquillianResource");
-
-        javaClass.addField().
-                setProtected().
-                setType("Session").
-                setName("session").
-                addAnnotation("ArquillianResource");
-
-        String testBody = "assertThat(kubernetes).pods()\n" +
-                "        .runningStatus()\n" +
-                "        .filterNamespace(session.getNamespace())\n" +
-                "        .haveAtLeast(1, new Condition<Pod>() {\n" +
-                "            @Override\n" +
-                "            public boolean matches(Pod pod) {\n" +
-                "                return true;\n" +
-                "            }\n" +
-                "        });";
-
-        javaClass.addMethod().
-                setPublic().
-                setReturnTypeVoid().
-                setName("testKubernetesProvisionsAtLeastOnePod").
-                setBody(testBody).
-                addThrows("Exception").
-                addAnnotation("Test");
 
         facet.saveTestJavaSource(javaClass);
 
         return Results.success("Created new class " + generateClassName);
     }
 
+    /**
+     * Creates the kubernetes integration test class from the shared template
+     */
+    public static JavaClassSource createIntegrationTestClass(String packageName, String className) {
+        Map<String, String> values = new HashMap<>();
+        values.put("packageDeclaration", SourceTemplate.packageDeclaration(packageName));
+        values.put("className", className);
+        return SourceTemplate.load(NewIntegrationTestClassCommand.class, TEMPLATE).renderJava(JavaClassSource.class, values);
+    }
+
 }
 
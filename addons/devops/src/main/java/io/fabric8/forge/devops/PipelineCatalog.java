@@ -0,0 +1,219 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops;
+
+import io.fabric8.forge.devops.dto.PipelineDTO;
+import io.fabric8.forge.devops.dto.PipelineMetadata;
+import io.fabric8.utils.Files;
+import io.fabric8.utils.Filter;
+import io.fabric8.utils.IOHelpers;
+import io.fabric8.utils.Objects;
+import io.fabric8.utils.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static io.fabric8.kubernetes.api.KubernetesHelper.loadYaml;
+
+/**
+ * An in memory index of the pipelines in a checkout of the Jenkins workflow library.
+ * <p/>
+ * The index is only rebuilt when the HEAD commit of the checkout changes (e.g. after the library has been pulled)
+ * so completions, conversions and descriptions don't need to walk the folder and read the files again.
+ */
+public class PipelineCatalog {
+    private static final transient Logger LOG = LoggerFactory.getLogger(PipelineCatalog.class);
+
+    private static final ConcurrentMap<File, PipelineCatalog> catalogs = new ConcurrentHashMap<>();
+
+    private final File dir;
+    private final String jenkinsFilePrefix;
+    private String version;
+    private List<PipelineDTO> pipelines = Collections.emptyList();
+    private Map<String, PipelineDTO> pipelinesByValue = Collections.emptyMap();
+
+    public PipelineCatalog(File dir, String jenkinsFilePrefix) {
+        this.dir = dir;
+        this.jenkinsFilePrefix = jenkinsFilePrefix;
+    }
+
+    /**
+     * Returns the shared catalog for the given workflow library folder
+     */
+    public static PipelineCatalog getCatalog(File dir, String jenkinsFilePrefix) {
+        File key = dir.getAbsoluteFile();
+        PipelineCatalog answer = catalogs.get(key);
+        if (answer == null) {
+            PipelineCatalog catalog = new PipelineCatalog(key, jenkinsFilePrefix);
+            answer = catalogs.putIfAbsent(key, catalog);
+            if (answer == null) {
+                answer = catalog;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns all the pipelines sorted by label
+     */
+    public List<PipelineDTO> getPipelines() {
+        return index().pipelines;
+    }
+
+    /**
+     * Returns the pipeline for the given value (the path of its Jenkinsfile) or null if there is none
+     */
+    public PipelineDTO getPipeline(String value) {
+        return value != null ? index().pipelinesByValue.get(value) : null;
+    }
+
+    /**
+     * Returns the markdown description of the pipeline for the given value or null if there is none
+     */
+    public String getDescription(String value) {
+        PipelineDTO pipeline = getPipeline(value);
+        return pipeline != null ? pipeline.getDescriptionMarkdown() : null;
+    }
+
+    /**
+     * Returns the HEAD commit of the library the index was built from
+     */
+    public synchronized String getVersion() {
+        return version;
+    }
+
+    protected synchronized PipelineCatalog index() {
+        String currentVersion = findVersion(dir);
+        if (currentVersion == null || !currentVersion.equals(version)) {
+            long start = System.currentTimeMillis();
+            List<PipelineDTO> list = loadPipelines();
+            Map<String, PipelineDTO> map = new HashMap<>(list.size() * 2);
+            for (PipelineDTO pipeline : list) {
+                map.put(pipeline.getValue(), pipeline);
+            }
+            pipelines = Collections.unmodifiableList(list);
+            pipelinesByValue = map;
+            version = currentVersion;
+            LOG.debug("Indexed " + list.size() + " pipelines in " + dir + " at " + currentVersion + " in " + (System.currentTimeMillis() - start) + " ms");
+        }
+        return this;
+    }
+
+    protected List<PipelineDTO> loadPipelines() {
+        List<PipelineDTO> answer = new ArrayList<>();
+        if (!dir.isDirectory()) {
+            return answer;
+        }
+        Filter<File> filter = new Filter<File>() {
+            @Override
+            public boolean matches(File file) {
+                return file.isFile() && Objects.equal(DevOpsEditStep.JENKINSFILE, file.getName());
+            }
+        };
+        Set<File> files = Files.findRecursive(dir, filter);
+        for (File file : files) {
+            try {
+                String relativePath = Files.getRelativePath(dir, file);
+                String value = Strings.stripPrefix(relativePath, "/");
+                String label = value;
+                String postfix = "/" + DevOpsEditStep.JENKINSFILE;
+                if (label.endsWith(postfix)) {
+                    label = label.substring(0, label.length() - postfix.length());
+                }
+                if (label.startsWith(jenkinsFilePrefix)) {
+                    label = label.substring(jenkinsFilePrefix.length());
+                }
+                // Lets ignore the fabric8 specific pipelines
+                if (label.startsWith("fabric8-release/")) {
+                    continue;
+                }
+                String builder = null;
+                int idx = label.indexOf("/");
+                if (idx > 0) {
+                    builder = label.substring(0, idx);
+                }
+                String descriptionMarkdown = null;
+                File markdownFile = new File(file.getParentFile(), "ReadMe.md");
+                if (Files.isFile(markdownFile)) {
+                    descriptionMarkdown = IOHelpers.readFully(markdownFile);
+                }
+                PipelineDTO pipeline = new PipelineDTO(value, label, builder, descriptionMarkdown);
+
+                File yamlFile = new File(file.getParentFile(), "metadata.yml");
+                if (Files.isFile(yamlFile)) {
+                    PipelineMetadata metadata = null;
+                    try {
+                        metadata = loadYaml(yamlFile, PipelineMetadata.class);
+                    } catch (IOException e) {
+                        LOG.warn("Failed to parse yaml file " + yamlFile + ". " + e, e);
+                    }
+                    if (metadata != null) {
+                        metadata.configurePipeline(pipeline);
+                    }
+                }
+                answer.add(pipeline);
+            } catch (IOException e) {
+                LOG.warn("Failed to find relative path for folder " + dir + " and file " + file + ". " + e, e);
+            }
+        }
+        Collections.sort(answer);
+        return answer;
+    }
+
+    /**
+     * Returns the HEAD commit of the git checkout in the given folder, or null if its not a git checkout
+     * in which case the index is rebuilt every time
+     */
+    protected static String findVersion(File dir) {
+        File gitDir = new File(dir, ".git");
+        File headFile = new File(gitDir, "HEAD");
+        if (headFile.isFile()) {
+            try {
+                String head = IOHelpers.readFully(headFile).trim();
+                if (!head.startsWith("ref:")) {
+                    return head;
+                }
+                String ref = head.substring(4).trim();
+                File refFile = new File(gitDir, ref);
+                if (refFile.isFile()) {
+                    return IOHelpers.readFully(refFile).trim();
+                }
+                File packedRefs = new File(gitDir, "packed-refs");
+                if (packedRefs.isFile()) {
+                    for (String line : IOHelpers.readFully(packedRefs).split("\n")) {
+                        if (line.endsWith(" " + ref)) {
+                            return line.substring(0, line.indexOf(' '));
+                        }
+                    }
+                }
+                return head;
+            } catch (IOException e) {
+                LOG.debug("Failed to read git HEAD of " + dir + ". " + e, e);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops;
+
+import io.fabric8.forge.devops.dto.ProjectOverviewDTO;
+import io.fabric8.utils.Files;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.CRC32;
+
+/**
+ * Caches the {@link ProjectOverviewDTO} of project folders keyed by the folder and a fingerprint of the
+ * modification times of the scanned directories and the contents of the pom.xml so that unchanged projects
+ * are not scanned again
+ */
+public class ProjectOverviewCache {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ProjectOverviewCache.class);
+
+    public static final int MAX_ENTRIES = 100;
+
+    private static final ForkJoinPool pool = new ForkJoinPool(Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final Map<String, Entry> cache = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private ProjectOverviewCache() {
+    }
+
+    /**
+     * Returns a copy of the cached overview of the given folder if its fingerprint has not changed or null if it needs scanning
+     */
+    public static ProjectOverviewDTO getOverview(File rootFolder, String fingerprint) {
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(rootFolder.getPath());
+        }
+        if (entry != null && entry.fingerprint.equals(fingerprint)) {
+            return copy(entry.overview);
+        }
+        return null;
+    }
+
+    public static void putOverview(File rootFolder, String fingerprint, ProjectOverviewDTO overview) {
+        synchronized (cache) {
+            cache.put(rootFolder.getPath(), new Entry(fingerprint, copy(overview)));
+        }
+    }
+
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Returns a cheap fingerprint of the folder from the modification times of the directories a scan of the given depth
+     * would list, which change whenever files are added, removed or renamed, along with the contents of the pom.xml
+     */
+    public static String fingerprint(File rootFolder, int maxLevels) throws IOException {
+        final Path root = rootFolder.toPath();
+        final CRC32 crc = new CRC32();
+        java.nio.file.Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), Math.max(maxLevels - 1, 0), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                update(dir, attrs);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isDirectory()) {
+                    update(file, attrs);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                return FileVisitResult.CONTINUE;
+            }
+
+            private void update(Path dir, BasicFileAttributes attrs) {
+                crc.update(root.relativize(dir).toString().getBytes());
+                long time = attrs.lastModifiedTime().toMillis();
+                for (int i = 0; i < 8; i++) {
+                    crc.update((int) (time >>> (i * 8)));
+                }
+            }
+        });
+        String answer = Long.toHexString(crc.getValue());
+        File pom = new File(rootFolder, "pom.xml");
+        if (Files.isFile(pom)) {
+            CRC32 pomCrc = new CRC32();
+            pomCrc.update(java.nio.file.Files.readAllBytes(pom.toPath()));
+            answer += "-" + Long.toHexString(pomCrc.getValue());
+        }
+        return answer;
+    }
+
+    /**
+     * Scans the given folder to the given depth invoking the processors on each file, removing each processor once it
+     * has matched a file. Sibling directories are scanned in parallel.
+     */
+    public static void scan(File rootFolder, List<AbstractDevOpsCommand.FileProcessor> processors, ProjectOverviewDTO overview, int level, int maxLevels) {
+        Set<AbstractDevOpsCommand.FileProcessor> remaining = Collections.newSetFromMap(new ConcurrentHashMap<AbstractDevOpsCommand.FileProcessor, Boolean>());
+        remaining.addAll(processors);
+        pool.invoke(new ScanTask(rootFolder, remaining, overview, level, maxLevels));
+        processors.retainAll(remaining);
+    }
+
+    protected static ProjectOverviewDTO copy(ProjectOverviewDTO overview) {
+        ProjectOverviewDTO answer = new ProjectOverviewDTO();
+        answer.setBuilders(new TreeSet<>(overview.getBuilders()));
+        answer.setPerspectives(new TreeSet<>(overview.getPerspectives()));
+        return answer;
+    }
+
+    private static class Entry {
+        private final String fingerprint;
+        private final ProjectOverviewDTO overview;
+
+        Entry(String fingerprint, ProjectOverviewDTO overview) {
+            this.fingerprint = fingerprint;
+            this.overview = overview;
+        }
+    }
+
+    private static class ScanTask extends RecursiveAction {
+        private final File file;
+        private final Set<AbstractDevOpsCommand.FileProcessor> processors;
+        private final ProjectOverviewDTO overview;
+        private final int level;
+        private final int maxLevels;
+
+        ScanTask(File file, Set<AbstractDevOpsCommand.FileProcessor> processors, ProjectOverviewDTO overview, int level, int maxLevels) {
+            this.file = file;
+            this.processors = processors;
+            this.overview = overview;
+            this.level = level;
+            this.maxLevels = maxLevels;
+        }
+
+        @Override
+        protected void compute() {
+            if (file.isFile()) {
+                processFile(file, level);
+            } else if (file.isDirectory()) {
+                int newLevel = level + 1;
+                if (newLevel <= maxLevels && !processors.isEmpty()) {
+                    File[] files = file.listFiles();
+                    if (files != null) {
+                        Collection<ScanTask> tasks = new ArrayList<>();
+                        for (File child : files) {
+                            if (child.isDirectory()) {
+                                tasks.add(new ScanTask(child, processors, overview, newLevel, maxLevels));
+                            } else {
+                                processFile(child, newLevel);
+                            }
+                        }
+                        if (!tasks.isEmpty()) {
+                            invokeAll(tasks);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void processFile(File child, int fileLevel) {
+            String name = child.getName();
+            String extension = Files.getExtension(name);
+            for (AbstractDevOpsCommand.FileProcessor processor : processors) {
+                boolean matched;
+                synchronized (overview) {
+                    matched = processor.processes(overview, child, name, extension, fileLevel);
+                }
+                if (matched) {
+                    processors.remove(processor);
+                    LOG.debug("Matched " + child + " at level " + fileLevel);
+                }
+            }
+        }
+    }
+}
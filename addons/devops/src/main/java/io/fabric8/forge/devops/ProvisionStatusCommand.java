@@ -0,0 +1,102 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.fabric8.forge.addon.utils.dto.OutputFormat;
+import io.fabric8.forge.devops.dto.ProvisionJobDTO;
+import io.fabric8.forge.devops.dto.ProvisionStepDTO;
+import io.fabric8.forge.devops.provision.ProvisioningEngine;
+import io.fabric8.kubernetes.api.KubernetesHelper;
+import io.fabric8.utils.TablePrinter;
+import org.jboss.forge.addon.ui.context.UIBuilder;
+import org.jboss.forge.addon.ui.context.UIContext;
+import org.jboss.forge.addon.ui.context.UIExecutionContext;
+import org.jboss.forge.addon.ui.input.UISelectOne;
+import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
+import org.jboss.forge.addon.ui.metadata.WithAttributes;
+import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
+import org.jboss.forge.addon.ui.util.Categories;
+import org.jboss.forge.addon.ui.util.Metadata;
+
+import javax.inject.Inject;
+import java.io.File;
+
+import static io.fabric8.forge.addon.utils.OutputFormatHelper.addTableTextOutput;
+import static io.fabric8.forge.addon.utils.OutputFormatHelper.toJson;
+
+/**
+ * Shows the state of each step of the latest job provisioning the DevOps resources of the current project
+ */
+public class ProvisionStatusCommand extends AbstractDevOpsCommand {
+
+    @Inject
+    @WithAttributes(label = "Format", defaultValue = "Text", description = "Format output as text or json")
+    private UISelectOne<OutputFormat> format;
+
+    @Override
+    public UICommandMetadata getMetadata(UIContext context) {
+        return Metadata.forCommand(ProvisionStatusCommand.class).name(
+                "DevOps: Provision Status").category(Categories.create(CATEGORY))
+                .description("Shows the progress of provisioning the build, webhooks, chat room and issue tracker of this project");
+    }
+
+    @Override
+    public void initializeUI(UIBuilder builder) throws Exception {
+        builder.add(format);
+    }
+
+    @Override
+    public Result execute(UIExecutionContext context) throws Exception {
+        File basedir = getSelectionFolder(context.getUIContext());
+        if (basedir == null) {
+            return Results.fail("No project folder selected");
+        }
+        String jobKey = ProvisioningEngine.getJobKey(KubernetesHelper.defaultNamespace(), basedir.getName());
+        ProvisionJobDTO job = ProvisioningEngine.getInstance().getJob(jobKey, ProvisioningEngine.getJournalFile(basedir));
+        if (job == null) {
+            return Results.success("No DevOps provisioning job found for " + basedir.getName());
+        }
+        return Results.success(formatResult(job));
+    }
+
+    protected String formatResult(ProvisionJobDTO job) throws JsonProcessingException {
+        OutputFormat outputFormat = format.getValue();
+        switch (outputFormat) {
+            case JSON:
+                return toJson(job);
+            default:
+                return textResult(job);
+        }
+    }
+
+    protected String textResult(ProvisionJobDTO job) {
+        StringBuilder buffer = new StringBuilder("\n\n");
+        buffer.append("Job ").append(job.getId()).append(" is ").append(job.getStatus()).append("\n");
+
+        TablePrinter table = new TablePrinter();
+        table.columns("step", "status", "attempts", "last attempt ms", "total ms", "error");
+        for (ProvisionStepDTO step : job.getSteps()) {
+            Long lastAttempt = step.getLastAttemptMillis();
+            String error = step.getLastError();
+            table.row(step.getName(), step.getStatus(), "" + step.getAttempts(),
+                    lastAttempt != null ? "" + lastAttempt : "", "" + step.getTotalMillis(), error != null ? error : "");
+        }
+        addTableTextOutput(buffer, null, table);
+        return buffer.toString();
+    }
+}
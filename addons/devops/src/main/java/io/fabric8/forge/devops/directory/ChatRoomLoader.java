@@ -0,0 +1,57 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.directory;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.letschat.LetsChatClient;
+import io.fabric8.letschat.LetsChatKubernetes;
+import io.fabric8.letschat.RoomDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Loads the slugs and descriptions of the Let's Chat rooms.
+ * <p/>
+ * The loader is held by a shared {@link DirectoryCache} so it only keeps the kubernetes client and creates
+ * a new Let's Chat client on each load.
+ */
+public class ChatRoomLoader implements DirectoryLoader {
+    private final KubernetesClient kubernetes;
+
+    public ChatRoomLoader(KubernetesClient kubernetes) {
+        this.kubernetes = kubernetes;
+    }
+
+    @Override
+    public Map<String, String> load() throws Exception {
+        Map<String, String> answer = new TreeMap<>();
+        LetsChatClient letsChat = LetsChatKubernetes.createLetsChat(kubernetes);
+        if (letsChat != null) {
+            List<RoomDTO> rooms = letsChat.getRooms();
+            if (rooms != null) {
+                for (RoomDTO room : rooms) {
+                    String name = room.getSlug();
+                    if (name != null) {
+                        answer.put(name, room.getDescription());
+                    }
+                }
+            }
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.directory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Caches the entries of a {@link DirectoryLoader} for a time to live.
+ * <p/>
+ * Only one load runs at a time; callers arriving while a load is in flight get the previous entries if there are any,
+ * otherwise they wait for the load. If the load fails the previous entries (or no entries) are kept for the shorter
+ * <code>failureTtlMillis</code> so that a service which is down is not called on every keystroke.
+ */
+public class DirectoryCache {
+    private static final transient Logger LOG = LoggerFactory.getLogger(DirectoryCache.class);
+
+    public static final long DEFAULT_TTL_MILLIS = 60 * 1000L;
+    public static final long DEFAULT_FAILURE_TTL_MILLIS = 15 * 1000L;
+
+    private final String name;
+    private final DirectoryLoader loader;
+    private final long ttlMillis;
+    private final long failureTtlMillis;
+    private Map<String, String> entries;
+    private long expires;
+    private FutureTask<Map<String, String>> loading;
+    private String lastError;
+    private long loadCount;
+
+    public DirectoryCache(String name, DirectoryLoader loader) {
+        this(name, loader, DEFAULT_TTL_MILLIS, DEFAULT_FAILURE_TTL_MILLIS);
+    }
+
+    public DirectoryCache(String name, DirectoryLoader loader, long ttlMillis, long failureTtlMillis) {
+        this.name = name;
+        this.loader = loader;
+        this.ttlMillis = ttlMillis;
+        this.failureTtlMillis = failureTtlMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "DirectoryCache{" + name + "}";
+    }
+
+    /**
+     * Returns the sorted names of the entries
+     */
+    public List<String> getNames() {
+        return new ArrayList<>(getEntries().keySet());
+    }
+
+    /**
+     * Returns the description of the given entry or null if there is none
+     */
+    public String getDescription(String entryName) {
+        return entryName != null ? getEntries().get(entryName) : null;
+    }
+
+    /**
+     * Returns the entries sorted by name, loading them if they have expired
+     */
+    public Map<String, String> getEntries() {
+        FutureTask<Map<String, String>> task;
+        boolean run = false;
+        synchronized (this) {
+            if (entries != null && currentTimeMillis() < expires) {
+                return entries;
+            }
+            if (loading == null) {
+                loading = new FutureTask<>(new Callable<Map<String, String>>() {
+                    @Override
+                    public Map<String, String> call() throws Exception {
+                        return doLoad();
+                    }
+                });
+                run = true;
+            } else if (entries != null) {
+                // serve the stale entries while another caller reloads them
+                return entries;
+            }
+            task = loading;
+        }
+        if (run) {
+            task.run();
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyMap();
+        } catch (ExecutionException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Discards the entries so the next call loads them again
+     */
+    public synchronized void refresh() {
+        expires = 0;
+    }
+
+    public synchronized String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Returns the number of times the loader has been invoked
+     */
+    public synchronized long getLoadCount() {
+        return loadCount;
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private Map<String, String> doLoad() {
+        Map<String, String> loaded = null;
+        Exception failure = null;
+        try {
+            Map<String, String> map = loader.load();
+            loaded = Collections.unmodifiableMap(map != null ? new TreeMap<>(map) : new TreeMap<String, String>());
+        } catch (Exception e) {
+            failure = e;
+            LOG.warn("Failed to load " + name + ": " + e, e);
+        } finally {
+            // lets always end the load, even on an error, so that the next caller can load again
+            synchronized (this) {
+                loadCount++;
+                if (loaded != null) {
+                    entries = loaded;
+                    expires = currentTimeMillis() + ttlMillis;
+                    lastError = null;
+                } else {
+                    if (entries == null) {
+                        entries = Collections.emptyMap();
+                    }
+                    expires = currentTimeMillis() + failureTtlMillis;
+                    lastError = failure != null ? failure.toString() : "Load did not complete";
+                }
+                loading = null;
+            }
+        }
+        synchronized (this) {
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.directory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The shared {@link DirectoryCache}s so that all the wizards using the same service share the cached entries
+ */
+public final class DirectoryCaches {
+    public static final String CHAT_ROOMS = "chatRooms";
+    public static final String ISSUE_PROJECTS = "issueProjects";
+
+    private static final ConcurrentMap<String, DirectoryCache> caches = new ConcurrentHashMap<>();
+
+    private DirectoryCaches() {
+    }
+
+    /**
+     * Returns the cache of the given kind of directory for the given cluster and namespace, creating it with the given
+     * loader if required. The loader is kept by the cache so it must only refer to the given cluster.
+     */
+    public static DirectoryCache getCache(String kind, String masterUrl, String namespace, DirectoryLoader loader) {
+        String key = getKey(kind, masterUrl, namespace);
+        DirectoryCache answer = caches.get(key);
+        if (answer == null) {
+            DirectoryCache cache = new DirectoryCache(kind + " in " + namespace + " at " + masterUrl, loader);
+            answer = caches.putIfAbsent(key, cache);
+            if (answer == null) {
+                answer = cache;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Replaces the cache of the given kind of directory for the given cluster and namespace, e.g. to use an in memory directory in tests
+     */
+    public static void setCache(String kind, String masterUrl, String namespace, DirectoryCache cache) {
+        String key = getKey(kind, masterUrl, namespace);
+        if (cache != null) {
+            caches.put(key, cache);
+        } else {
+            caches.remove(key);
+        }
+    }
+
+    /**
+     * Refreshes all the caches of the given cluster and namespace
+     */
+    public static void refresh(String masterUrl, String namespace) {
+        String postfix = "|" + masterUrl + "|" + namespace;
+        for (String key : caches.keySet()) {
+            if (key.endsWith(postfix)) {
+                DirectoryCache cache = caches.get(key);
+                if (cache != null) {
+                    cache.refresh();
+                }
+            }
+        }
+    }
+
+    private static String getKey(String kind, String masterUrl, String namespace) {
+        return kind + "|" + masterUrl + "|" + namespace;
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.directory;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.taiga.ProjectDTO;
+import io.fabric8.taiga.TaigaClient;
+import io.fabric8.taiga.TaigaKubernetes;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Loads the names and descriptions of the Taiga projects of a namespace.
+ * <p/>
+ * The loader is held by a shared {@link DirectoryCache} so it only keeps the kubernetes client and namespace
+ * and creates a new Taiga client on each load.
+ */
+public class IssueProjectLoader implements DirectoryLoader {
+    private final KubernetesClient kubernetes;
+    private final String namespace;
+
+    public IssueProjectLoader(KubernetesClient kubernetes, String namespace) {
+        this.kubernetes = kubernetes;
+        this.namespace = namespace;
+    }
+
+    @Override
+    public Map<String, String> load() throws Exception {
+        Map<String, String> answer = new TreeMap<>();
+        TaigaClient taiga = TaigaKubernetes.createTaiga(kubernetes, namespace);
+        if (taiga != null) {
+            List<ProjectDTO> projects = taiga.getProjects();
+            if (projects != null) {
+                for (ProjectDTO project : projects) {
+                    String name = project.getName();
+                    if (name != null) {
+                        answer.put(name, project.getDescription());
+                    }
+                }
+            }
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The journal of a job provisioning the DevOps resources of a project
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class ProvisionJobDTO {
+    private String id;
+    private String project;
+    private long created;
+    private Long finished;
+    private List<ProvisionStepDTO> steps = new ArrayList<>();
+
+    public ProvisionJobDTO() {
+    }
+
+    public ProvisionJobDTO(String id, String project, long created) {
+        this.id = id;
+        this.project = project;
+        this.created = created;
+    }
+
+    public ProvisionJobDTO(ProvisionJobDTO copy) {
+        this.id = copy.id;
+        this.project = copy.project;
+        this.created = copy.created;
+        this.finished = copy.finished;
+        for (ProvisionStepDTO step : copy.steps) {
+            this.steps.add(new ProvisionStepDTO(step));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ProvisionJobDTO{" +
+                "id='" + id + '\'' +
+                ", status='" + getStatus() + '\'' +
+                ", steps=" + steps +
+                '}';
+    }
+
+    /**
+     * Returns the overall status; failed or cancelled if any step was, running until all the steps are done
+     */
+    public String getStatus() {
+        boolean done = true;
+        boolean started = false;
+        String answer = ProvisionStepDTO.SUCCEEDED;
+        for (ProvisionStepDTO step : steps) {
+            String status = step.getStatus();
+            if (!step.isDone()) {
+                done = false;
+            }
+            if (!ProvisionStepDTO.PENDING.equals(status)) {
+                started = true;
+            }
+            if (ProvisionStepDTO.FAILED.equals(status)) {
+                answer = ProvisionStepDTO.FAILED;
+            } else if (ProvisionStepDTO.CANCELLED.equals(status) && !ProvisionStepDTO.FAILED.equals(answer)) {
+                answer = ProvisionStepDTO.CANCELLED;
+            }
+        }
+        if (!done) {
+            return started ? ProvisionStepDTO.RUNNING : ProvisionStepDTO.PENDING;
+        }
+        return answer;
+    }
+
+    public void setStatus(String status) {
+        // derived from the steps
+    }
+
+    @JsonIgnore
+    public boolean isDone() {
+        for (ProvisionStepDTO step : steps) {
+            if (!step.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public ProvisionStepDTO getStep(String name) {
+        for (ProvisionStepDTO step : steps) {
+            if (name.equals(step.getName())) {
+                return step;
+            }
+        }
+        return null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getProject() {
+        return project;
+    }
+
+    public void setProject(String project) {
+        this.project = project;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public Long getFinished() {
+        return finished;
+    }
+
+    public void setFinished(Long finished) {
+        this.finished = finished;
+    }
+
+    public List<ProvisionStepDTO> getSteps() {
+        return steps;
+    }
+
+    public void setSteps(List<ProvisionStepDTO> steps) {
+        this.steps = steps;
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The state of a step of a {@link ProvisionJobDTO}
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class ProvisionStepDTO {
+    public static final String PENDING = "Pending";
+    public static final String RUNNING = "Running";
+    public static final String RETRYING = "Retrying";
+    public static final String SUCCEEDED = "Succeeded";
+    public static final String FAILED = "Failed";
+    public static final String CANCELLED = "Cancelled";
+
+    private String name;
+    private String status = PENDING;
+    private int attempts;
+    private String lastError;
+    private Long started;
+    private Long finished;
+    private Long lastAttemptMillis;
+    private long totalMillis;
+
+    public ProvisionStepDTO() {
+    }
+
+    public ProvisionStepDTO(String name) {
+        this.name = name;
+    }
+
+    public ProvisionStepDTO(ProvisionStepDTO copy) {
+        this.name = copy.name;
+        this.status = copy.status;
+        this.attempts = copy.attempts;
+        this.lastError = copy.lastError;
+        this.started = copy.started;
+        this.finished = copy.finished;
+        this.lastAttemptMillis = copy.lastAttemptMillis;
+        this.totalMillis = copy.totalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ProvisionStepDTO{" +
+                "name='" + name + '\'' +
+                ", status='" + status + '\'' +
+                ", attempts=" + attempts +
+                '}';
+    }
+
+    @JsonIgnore
+    public boolean isDone() {
+        return SUCCEEDED.equals(status) || FAILED.equals(status) || CANCELLED.equals(status);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Long getStarted() {
+        return started;
+    }
+
+    public void setStarted(Long started) {
+        this.started = started;
+    }
+
+    public Long getFinished() {
+        return finished;
+    }
+
+    public void setFinished(Long finished) {
+        this.finished = finished;
+    }
+
+    public Long getLastAttemptMillis() {
+        return lastAttemptMillis;
+    }
+
+    public void setLastAttemptMillis(Long lastAttemptMillis) {
+        this.lastAttemptMillis = lastAttemptMillis;
+    }
+
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    public void setTotalMillis(long totalMillis) {
+        this.totalMillis = totalMillis;
+    }
+}
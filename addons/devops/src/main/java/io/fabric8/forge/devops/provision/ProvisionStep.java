@@ -0,0 +1,32 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.provision;
+
+/**
+ * A step of provisioning the DevOps resources of a project. Retryable steps may be run more than once so must
+ * be idempotent.
+ */
+public interface ProvisionStep {
+
+    String getName();
+
+    /**
+     * Returns true if the step is idempotent so that it can be retried after it failed
+     */
+    boolean isRetryable();
+
+    void execute() throws Exception;
+}
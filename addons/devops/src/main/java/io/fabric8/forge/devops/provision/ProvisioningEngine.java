@@ -0,0 +1,350 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.provision;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.forge.devops.dto.ProvisionJobDTO;
+import io.fabric8.forge.devops.dto.ProvisionStepDTO;
+import io.fabric8.utils.Files;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@link ProvisionStep}s of a project in the background on a small pool of threads, retrying failed
+ * {@link ProvisionStep#isRetryable()} steps with an exponential backoff. The state of each job is kept in a
+ * {@link ProvisionJobDTO} which is written as a journal file after every change so that the outcome can be
+ * inspected later.
+ * <p/>
+ * Jobs are keyed by the namespace and name of the project, see {@link #getJobKey(String, String)}. Submitting a new
+ * job for a project cancels the remaining steps of its previous job. Only the state of a job is kept once it is done
+ * and that is evicted after <code>finishedJobRetentionMillis</code>; after which it is read back from the journal.
+ */
+public class ProvisioningEngine {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ProvisioningEngine.class);
+
+    public static final String JOURNAL_FILE_NAME = "fabric8-devops-journal.json";
+
+    public static final int DEFAULT_THREADS = 2;
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+    public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 2000L;
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 60 * 1000L;
+    public static final long DEFAULT_FINISHED_JOB_RETENTION_MILLIS = 10 * 60 * 1000L;
+
+    private static final ProvisioningEngine instance = new ProvisioningEngine(DEFAULT_THREADS, DEFAULT_MAX_ATTEMPTS,
+            DEFAULT_INITIAL_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS, DEFAULT_FINISHED_JOB_RETENTION_MILLIS);
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long finishedJobRetentionMillis;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Job> jobs = new HashMap<>();
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public ProvisioningEngine(int threads, int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, long finishedJobRetentionMillis) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.finishedJobRetentionMillis = finishedJobRetentionMillis;
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "devops-provisioning-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public static ProvisioningEngine getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the key of the jobs of the given project
+     */
+    public static String getJobKey(String namespace, String projectName) {
+        return namespace + "/" + projectName;
+    }
+
+    /**
+     * Returns the journal file for the given project folder; inside the .git folder so it is never committed
+     * or null if the project is not a git checkout
+     */
+    public static File getJournalFile(File basedir) {
+        if (basedir != null) {
+            File gitFolder = new File(basedir, ".git");
+            if (gitFolder.isDirectory()) {
+                return new File(gitFolder, JOURNAL_FILE_NAME);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Submits the steps to be run in order for the given project returning the initial state of the job
+     */
+    public ProvisionJobDTO submit(String project, File journalFile, List<? extends ProvisionStep> steps) {
+        String id = project + "-" + System.currentTimeMillis() + "-" + counter.incrementAndGet();
+        ProvisionJobDTO dto = new ProvisionJobDTO(id, project, System.currentTimeMillis());
+        for (ProvisionStep step : steps) {
+            dto.getSteps().add(new ProvisionStepDTO(step.getName()));
+        }
+        Job job = new Job(dto, new ArrayList<>(steps), journalFile);
+        Job previous;
+        synchronized (jobs) {
+            previous = jobs.put(project, job);
+        }
+        if (previous != null) {
+            previous.cancel();
+        }
+        job.writeJournal();
+        LOG.info("Submitted provisioning job " + id);
+        executor.execute(job.stepRunner(0, 1));
+        return job.getStatus();
+    }
+
+    /**
+     * Returns the state of the latest job of the given project or null if there is none
+     */
+    public ProvisionJobDTO getJob(String project) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(project);
+        }
+        return job != null ? job.getStatus() : null;
+    }
+
+    /**
+     * Returns the state of the latest job of the given project, falling back to its journal file
+     * if the job was run by a previous process
+     */
+    public ProvisionJobDTO getJob(String project, File journalFile) {
+        ProvisionJobDTO answer = getJob(project);
+        if (answer == null && Files.isFile(journalFile)) {
+            try {
+                answer = mapper.readValue(journalFile, ProvisionJobDTO.class);
+            } catch (IOException e) {
+                LOG.warn("Failed to read provisioning journal " + journalFile + ": " + e, e);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Waits for the latest job of the given project to complete, returning false if it did not complete in time
+     */
+    public boolean waitUntilDone(String project, long timeoutMillis) throws InterruptedException {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(project);
+        }
+        return job == null || job.waitUntilDone(timeoutMillis);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the number of jobs whose state is kept in memory
+     */
+    public int getJobCount() {
+        synchronized (jobs) {
+            return jobs.size();
+        }
+    }
+
+    protected long backoffMillis(int attempt) {
+        long answer = initialBackoffMillis;
+        for (int i = 1; i < attempt && answer < maxBackoffMillis; i++) {
+            answer *= 2;
+        }
+        return Math.min(answer, maxBackoffMillis);
+    }
+
+    protected void evictWhenRetentionExpires(final String project, final Job job) {
+        Runnable evict = new Runnable() {
+            @Override
+            public void run() {
+                synchronized (jobs) {
+                    // a newer job of the project is kept
+                    if (jobs.get(project) == job) {
+                        jobs.remove(project);
+                    }
+                }
+            }
+        };
+        if (finishedJobRetentionMillis <= 0) {
+            evict.run();
+        } else if (!executor.isShutdown()) {
+            executor.schedule(evict, finishedJobRetentionMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    protected class Job {
+        private final ProvisionJobDTO dto;
+        private final File journalFile;
+        private volatile List<ProvisionStep> steps;
+        private boolean cancelled;
+
+        Job(ProvisionJobDTO dto, List<ProvisionStep> steps, File journalFile) {
+            this.dto = dto;
+            this.steps = steps;
+            this.journalFile = journalFile;
+        }
+
+        synchronized ProvisionJobDTO getStatus() {
+            return new ProvisionJobDTO(dto);
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            for (ProvisionStepDTO step : dto.getSteps()) {
+                if (!step.isDone()) {
+                    step.setStatus(ProvisionStepDTO.CANCELLED);
+                }
+            }
+            finish();
+        }
+
+        synchronized boolean waitUntilDone(long timeoutMillis) throws InterruptedException {
+            long end = System.currentTimeMillis() + timeoutMillis;
+            while (!dto.isDone()) {
+                long remaining = end - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+            return true;
+        }
+
+        Runnable stepRunner(final int index, final int attempt) {
+            return new Runnable() {
+                @Override
+                public void run() {
+                    runStep(index, attempt);
+                }
+            };
+        }
+
+        void runStep(int index, int attempt) {
+            List<ProvisionStep> steps = this.steps;
+            if (index >= steps.size()) {
+                return;
+            }
+            ProvisionStep step = steps.get(index);
+            ProvisionStepDTO stepDto = dto.getSteps().get(index);
+            long start = System.currentTimeMillis();
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                stepDto.setStatus(ProvisionStepDTO.RUNNING);
+                stepDto.setAttempts(attempt);
+                if (stepDto.getStarted() == null) {
+                    stepDto.setStarted(start);
+                }
+                writeJournal();
+            }
+            Throwable failure = null;
+            try {
+                step.execute();
+            } catch (Throwable e) {
+                // lets record errors too so the step is never left running
+                failure = e;
+            }
+            long end = System.currentTimeMillis();
+            boolean retry = false;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                long millis = end - start;
+                stepDto.setLastAttemptMillis(millis);
+                stepDto.setTotalMillis(stepDto.getTotalMillis() + millis);
+                if (failure == null) {
+                    stepDto.setStatus(ProvisionStepDTO.SUCCEEDED);
+                    stepDto.setLastError(null);
+                    stepDto.setFinished(end);
+                } else {
+                    stepDto.setLastError(failure.toString());
+                    if (attempt < maxAttempts && step.isRetryable() && !(failure instanceof Error)) {
+                        stepDto.setStatus(ProvisionStepDTO.RETRYING);
+                        retry = true;
+                    } else {
+                        stepDto.setStatus(ProvisionStepDTO.FAILED);
+                        stepDto.setFinished(end);
+                    }
+                }
+                if (index + 1 >= steps.size() && stepDto.isDone()) {
+                    finish();
+                } else {
+                    writeJournal();
+                }
+            }
+            if (retry) {
+                long delay = backoffMillis(attempt);
+                LOG.warn("Step " + step.getName() + " of " + dto.getId() + " failed on attempt " + attempt + " so retrying in " + delay + "ms: " + failure, failure);
+                executor.schedule(stepRunner(index, attempt + 1), delay, TimeUnit.MILLISECONDS);
+            } else {
+                if (failure != null) {
+                    LOG.error("Step " + step.getName() + " of " + dto.getId() + " failed after " + attempt + " attempts: " + failure, failure);
+                }
+                // the steps are independent so carry on with the next one even if this one failed
+                executor.execute(stepRunner(index + 1, 1));
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+        }
+
+        private void finish() {
+            // the steps may refer to clients and credentials so only keep the state of the job
+            steps = Collections.emptyList();
+            dto.setFinished(System.currentTimeMillis());
+            writeJournal();
+            LOG.info("Provisioning job " + dto.getId() + " is " + dto.getStatus());
+            notifyAll();
+            evictWhenRetentionExpires(dto.getProject(), this);
+        }
+
+        synchronized void writeJournal() {
+            if (journalFile != null) {
+                try {
+                    mapper.writerWithDefaultPrettyPrinter().writeValue(journalFile, dto);
+                } catch (IOException e) {
+                    LOG.warn("Failed to write provisioning journal " + journalFile + ": " + e, e);
+                }
+            }
+        }
+    }
+}
@@ -15,18 +15,15 @@
  */
 package io.fabric8.forge.devops.setup;
 
-import io.fabric8.forge.addon.utils.CamelProjectHelper;
 import io.fabric8.forge.addon.utils.MavenHelpers;
 import io.fabric8.forge.addon.utils.VersionHelper;
 import io.fabric8.utils.Strings;
 import org.apache.maven.model.Model;
 import org.jboss.forge.addon.dependencies.Coordinate;
 import org.jboss.forge.addon.dependencies.builder.CoordinateBuilder;
-import org.jboss.forge.addon.maven.plugins.Configuration;
 import org.jboss.forge.addon.maven.plugins.ConfigurationBuilder;
 import org.jboss.forge.addon.maven.plugins.ConfigurationElement;
 import org.jboss.forge.addon.maven.plugins.ConfigurationElementBuilder;
-import org.jboss.forge.addon.maven.plugins.MavenPlugin;
 import org.jboss.forge.addon.maven.plugins.MavenPluginBuilder;
 import org.jboss.forge.addon.maven.projects.MavenFacet;
 import org.jboss.forge.addon.maven.projects.MavenPluginFacet;
@@ -62,11 +59,9 @@ public class DockerSetupHelper {
     }
 
     public static void setupDocker(Project project, String organization, String fromImage, String main) {
-        MavenFacet maven = project.getFacet(MavenFacet.class);
-        Model pom = maven.getModel();
-
-        boolean springBoot = hasSpringBootMavenPlugin(project);
-        String packaging = getProjectPackaging(project);
+        ProjectFacts facts = ProjectFacts.getFacts(project);
+        boolean springBoot = facts.isSpringBoot();
+        String packaging = facts.getPackaging();
         boolean war = packaging != null && packaging.equals("war");
         boolean bundle = packaging != null && packaging.equals("bundle");
         boolean jar = packaging == null || packaging.equals("jar"); // jar is default packaging
@@ -84,8 +79,7 @@ public class DockerSetupHelper {
 
         MavenPluginBuilder pluginBuilder;
         ConfigurationBuilder configurationBuilder;
-        MavenPlugin plugin = MavenHelpers.findPlugin(project, "org.jolokia", "docker-maven-plugin");
-        if (plugin != null) {
+        if (facts.hasDockerMavenPlugin()) {
             // if there is an existing then leave it as-is
             LOG.info("Found existing docker-maven-plugin");
             pluginBuilder = null;
@@ -207,24 +201,14 @@ public class DockerSetupHelper {
 
     public static String getDockerFromImage(Project project) {
         if (project != null) {
-            // update properties section in pom.xml
-            MavenFacet maven = project.getFacet(MavenFacet.class);
-            if (maven != null) {
-                Model pom = maven.getModel();
-                if (pom != null) {
-                    Properties properties = pom.getProperties();
-                    return properties.getProperty("docker.from");
-                }
-            }
+            return ProjectFacts.getFacts(project).getDockerFromImage();
         }
         return null;
     }
 
     public static boolean hasSpringBootMavenPlugin(Project project) {
         if (project != null) {
-            MavenPluginFacet pluginFacet = project.getFacet(MavenPluginFacet.class);
-            Coordinate coor = CoordinateBuilder.create("org.springframework.boot:spring-boot-maven-plugin");
-            return pluginFacet.hasPlugin(coor);
+            return ProjectFacts.getFacts(project).isSpringBoot();
         }
         return false;
     }
@@ -244,8 +228,7 @@ public class DockerSetupHelper {
 
     private static String getProjectPackaging(Project project) {
         if (project != null) {
-            MavenFacet maven = project.getFacet(MavenFacet.class);
-            return maven.getModel().getPackaging();
+            return ProjectFacts.getFacts(project).getPackaging();
         }
         return null;
     }
@@ -277,45 +260,22 @@ public class DockerSetupHelper {
      * @return the suggested main class, or <tt>null</tt> if not possible to guess/find a good candidate
      */
     public static String defaultMainClass(Project project) {
-        // try to guess a default main class
-        MavenFacet maven = project.getFacet(MavenFacet.class);
-        if (maven != null) {
-            String answer = null;
-            MavenPlugin plugin = MavenHelpers.findPlugin(project, "org.jolokia", "docker-maven-plugin");
-            if (plugin != null) {
-                Configuration config = plugin.getConfig();
-                ConfigurationElement element = MavenHelpers.getConfigurationElement(config, "images", "image", "build", "env", "JAVA_MAIN_CLASS");
-                if (element != null) {
-                    answer = element.getText();
-                }
-            }
-
-            if (Strings.isNullOrBlank(answer)) {
-                Model pom = maven.getModel();
-                if (pom != null) {
-                    Properties properties = pom.getProperties();
-                    answer = properties.getProperty("docker.env.MAIN");
-                    if (Strings.isNullOrBlank(answer)) {
-                        answer = properties.getProperty("fabric8.env.MAIN");
-                    }
-                }
-            }
-            if (Strings.isNotBlank(answer)) {
-                return answer;
-            }
+        // try to guess a default main class from the docker-maven-plugin or pom properties
+        ProjectFacts facts = ProjectFacts.getFacts(project);
+        String answer = facts.getConfiguredMainClass();
+        if (Strings.isNotBlank(answer)) {
+            return answer;
         }
 
-        // if camel-spring is on classpath
-        if (CamelProjectHelper.findCamelCDIDependency(project) != null) {
-            return "org.apache.camel.cdi.Main";
-        } else if (CamelProjectHelper.findCamelSpringDependency(project) != null) {
-            return "org.apache.camel.spring.Main";
-        } else if (CamelProjectHelper.findCamelBlueprintDependency(project) != null) {
-            return "org.apache.camel.test.blueprint.Main";
+        // if camel-cdi, camel-spring or camel-blueprint is on classpath
+        answer = facts.getCamelMainClass();
+        if (answer != null) {
+            return answer;
         }
 
-        // TODO: what about spring-boot / docker-swarm??
-        return null;
+        // otherwise look for a spring boot application or a class with a main method in the source code
+        MainClassIndex index = MainClassIndex.getIndex(project);
+        return index != null ? index.getBestMainClass() : null;
     }
 
 }
@@ -69,10 +69,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static io.fabric8.forge.addon.utils.MavenHelpers.ensureMavenDependencyAdded;
-import static io.fabric8.forge.devops.setup.DockerSetupHelper.getDockerFromImage;
-import static io.fabric8.forge.devops.setup.DockerSetupHelper.hasSpringBootMavenPlugin;
 import static io.fabric8.forge.devops.setup.DockerSetupHelper.setupDocker;
-import static io.fabric8.forge.devops.setup.SetupProjectHelper.findCamelArtifacts;
 
 @FacetConstraint({MavenFacet.class, MavenPluginFacet.class, ResourcesFacet.class})
 public class Fabric8SetupStep extends AbstractFabricProjectCommand implements UIWizardStep {
@@ -150,14 +147,15 @@ public class Fabric8SetupStep extends AbstractFabricProjectCommand implements UI
         builder.add(organization);
 
         final Project project = getSelectedProject(builder.getUIContext());
+        final ProjectFacts facts = project != null ? ProjectFacts.getFacts(project) : null;
 
-        String packaging = getProjectPackaging(project);
-        boolean springBoot = hasSpringBootMavenPlugin(project);
+        String packaging = facts != null ? facts.getPackaging() : null;
+        boolean springBoot = facts != null && facts.isSpringBoot();
 
         // limit the choices depending on the project packaging
         final List<String> choices = new ArrayList<String>();
         if (packaging == null || springBoot || "jar".equals(packaging)) {
-            String currentImage = getDockerFromImage(project);
+            String currentImage = facts != null ? facts.getDockerFromImage() : null;
             if (currentImage != null) {
                 choices.add(currentImage);
             } else {
@@ -210,6 +208,15 @@ public class Fabric8SetupStep extends AbstractFabricProjectCommand implements UI
             main.setEnabled(jarImage);
             if (project != null) {
                 main.setDefaultValue(DockerSetupHelper.defaultMainClass(project));
+                final MainClassIndex mainClassIndex = MainClassIndex.getIndex(project);
+                if (mainClassIndex != null) {
+                    main.setCompleter(new UICompleter<String>() {
+                        @Override
+                        public Iterable<String> getCompletionProposals(UIContext context, InputComponent<?, String> input, String value) {
+                            return mainClassIndex.getMainClasses(value);
+                        }
+                    });
+                }
             }
             main.addValidator(new ClassNameOrMavenPropertyValidator(true));
             main.addValueChangeListener(new ValueChangeListener() {
@@ -255,7 +262,7 @@ public class Fabric8SetupStep extends AbstractFabricProjectCommand implements UI
             @Override
             public String call() throws Exception {
                 // favor Camel if there is a Camel dependency
-                if (!findCamelArtifacts(project).isEmpty()) {
+                if (facts != null && facts.isCamel()) {
                     return "camel";
                 }
 
@@ -483,8 +490,7 @@ public class Fabric8SetupStep extends AbstractFabricProjectCommand implements UI
 
     private static String getProjectPackaging(Project project) {
         if (project != null) {
-            MavenFacet maven = project.getFacet(MavenFacet.class);
-            return maven.getModel().getPackaging();
+            return ProjectFacts.getFacts(project).getPackaging();
         }
         return null;
     }
@@ -0,0 +1,290 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.setup;
+
+import io.fabric8.utils.Strings;
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.resource.Resource;
+import org.jboss.forge.addon.resource.util.ResourceUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An index of the classes in a project's <code>src/main/java</code> folder which could be used as the main class,
+ * i.e. which have a <code>public static void main(String[])</code> method or are annotated with
+ * <code>@SpringBootApplication</code>.
+ * <p/>
+ * The sources are parsed with a few regular expressions rather than a full Java parser. Only the files whose
+ * modification time or size changed since the last refresh are parsed again.
+ */
+public class MainClassIndex {
+    private static final transient Logger LOG = LoggerFactory.getLogger(MainClassIndex.class);
+
+    public static final long DEFAULT_REFRESH_INTERVAL_MILLIS = 2000L;
+
+    private static final ConcurrentMap<String, MainClassIndex> indexes = new ConcurrentHashMap<>();
+
+    private static final Pattern COMMENT_PATTERN = Pattern.compile("/\\*.*?\\*/|//[^\\n]*", Pattern.DOTALL);
+    private static final Pattern PACKAGE_PATTERN = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+    private static final Pattern MAIN_PATTERN = Pattern.compile(
+            "((?:(?:public|static|final)\\s+)+)void\\s+main\\s*\\(\\s*(?:final\\s+)?(?:java\\.lang\\.)?String(?:\\s*(?:\\[\\s*\\]|\\.\\.\\.)\\s*\\w+|\\s+\\w+\\s*\\[\\s*\\])\\s*\\)");
+    private static final Pattern SPRING_BOOT_PATTERN = Pattern.compile("@(?:org\\.springframework\\.boot\\.autoconfigure\\.)?SpringBootApplication\\b");
+
+    private final File sourceDir;
+    private final long refreshIntervalMillis;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private List<String> mainClasses = Collections.emptyList();
+    private long lastRefresh;
+    private int parseCount;
+
+    public MainClassIndex(File sourceDir, long refreshIntervalMillis) {
+        this.sourceDir = sourceDir;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Returns the shared index of the <code>src/main/java</code> folder of the given project folder
+     */
+    public static MainClassIndex getIndex(File projectDir) {
+        String key = projectDir.getAbsolutePath();
+        MainClassIndex answer = indexes.get(key);
+        if (answer == null) {
+            MainClassIndex index = new MainClassIndex(new File(projectDir, "src/main/java"), DEFAULT_REFRESH_INTERVAL_MILLIS);
+            answer = indexes.putIfAbsent(key, index);
+            if (answer == null) {
+                answer = index;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the shared index of the given project or null if it is not a folder on disk
+     */
+    public static MainClassIndex getIndex(Project project) {
+        Resource<?> root = project.getRoot();
+        if (root != null) {
+            File dir = ResourceUtil.getContextFile(root);
+            if (dir != null && dir.isDirectory()) {
+                return getIndex(dir);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the candidate main classes ranked so that the most likely comes first, refreshing the index
+     * if it has not been refreshed recently
+     */
+    public synchronized List<String> getMainClasses() {
+        if (lastRefresh == 0 || System.currentTimeMillis() - lastRefresh >= refreshIntervalMillis) {
+            refresh();
+        }
+        return mainClasses;
+    }
+
+    /**
+     * Returns the candidate main classes starting with the given text
+     */
+    public List<String> getMainClasses(String prefix) {
+        List<String> classes = getMainClasses();
+        if (Strings.isNullOrBlank(prefix)) {
+            return classes;
+        }
+        List<String> answer = new ArrayList<>();
+        for (String name : classes) {
+            if (name.startsWith(prefix)) {
+                answer.add(name);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the most likely main class or null if there are none
+     */
+    public String getBestMainClass() {
+        List<String> classes = getMainClasses();
+        return classes.isEmpty() ? null : classes.get(0);
+    }
+
+    /**
+     * Returns the number of source files parsed since the index was created
+     */
+    public synchronized int getParseCount() {
+        return parseCount;
+    }
+
+    /**
+     * Walks the source folder parsing any new or changed files and dropping any removed files
+     */
+    public synchronized void refresh() {
+        lastRefresh = System.currentTimeMillis();
+        final Set<String> found = new HashSet<>();
+        if (sourceDir.isDirectory()) {
+            try {
+                java.nio.file.Files.walkFileTree(sourceDir.toPath(), new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                        String path = file.toString();
+                        if (attrs.isRegularFile() && path.endsWith(".java")) {
+                            found.add(path);
+                            long modified = attrs.lastModifiedTime().toMillis();
+                            Entry entry = entries.get(path);
+                            if (entry == null || entry.modified != modified || entry.size != attrs.size()) {
+                                entries.put(path, parse(file, modified, attrs.size()));
+                            }
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                LOG.warn("Failed to scan " + sourceDir + " for main classes: " + e, e);
+            }
+        }
+        entries.keySet().retainAll(found);
+
+        List<Entry> candidates = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.className != null) {
+                candidates.add(entry);
+            }
+        }
+        Collections.sort(candidates, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry e1, Entry e2) {
+                int answer = e2.rank() - e1.rank();
+                if (answer == 0) {
+                    answer = packageDepth(e1.className) - packageDepth(e2.className);
+                }
+                if (answer == 0) {
+                    answer = e1.className.compareTo(e2.className);
+                }
+                return answer;
+            }
+        });
+        List<String> answer = new ArrayList<>(candidates.size());
+        for (Entry candidate : candidates) {
+            answer.add(candidate.className);
+        }
+        mainClasses = Collections.unmodifiableList(answer);
+    }
+
+    protected Entry parse(Path file, long modified, long size) {
+        parseCount++;
+        String source;
+        try {
+            source = new String(java.nio.file.Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOG.debug("Failed to read " + file + ": " + e, e);
+            return new Entry(modified, size, null, false, false);
+        }
+        String fileName = file.getFileName().toString();
+        String simpleName = fileName.substring(0, fileName.length() - ".java".length());
+        return parseSource(source, simpleName, modified, size);
+    }
+
+    /**
+     * Parses the given source code of the given class returning the entry for the index
+     */
+    protected static Entry parseSource(String source, String simpleName, long modified, long size) {
+        String code = COMMENT_PATTERN.matcher(source).replaceAll(" ");
+        boolean springBoot = SPRING_BOOT_PATTERN.matcher(code).find();
+        boolean main = false;
+        Matcher mainMatcher = MAIN_PATTERN.matcher(code);
+        while (!main && mainMatcher.find()) {
+            String modifiers = mainMatcher.group(1);
+            main = modifiers.contains("public") && modifiers.contains("static");
+        }
+        String className = null;
+        if (springBoot || main) {
+            className = simpleName;
+            Matcher matcher = PACKAGE_PATTERN.matcher(code);
+            if (matcher.find()) {
+                className = matcher.group(1) + "." + simpleName;
+            }
+        }
+        return new Entry(modified, size, className, main, springBoot);
+    }
+
+    private static int packageDepth(String className) {
+        int answer = 0;
+        for (int i = 0; i < className.length(); i++) {
+            if (className.charAt(i) == '.') {
+                answer++;
+            }
+        }
+        return answer;
+    }
+
+    protected static class Entry {
+        private final long modified;
+        private final long size;
+        private final String className;
+        private final boolean main;
+        private final boolean springBoot;
+
+        Entry(long modified, long size, String className, boolean main, boolean springBoot) {
+            this.modified = modified;
+            this.size = size;
+            this.className = className;
+            this.main = main;
+            this.springBoot = springBoot;
+        }
+
+        /**
+         * Spring Boot applications first, then classes named like a main class
+         */
+        int rank() {
+            int answer = 0;
+            if (springBoot) {
+                answer += 4;
+            }
+            if (main) {
+                answer += 2;
+            }
+            if (className.endsWith("Main") || className.endsWith("Application") || className.endsWith("App")) {
+                answer += 1;
+            }
+            return answer;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.setup;
+
+import io.fabric8.forge.addon.utils.MavenHelpers;
+import io.fabric8.utils.Files;
+import io.fabric8.utils.Strings;
+import org.apache.maven.model.Model;
+import org.jboss.forge.addon.dependencies.Coordinate;
+import org.jboss.forge.addon.dependencies.Dependency;
+import org.jboss.forge.addon.dependencies.builder.CoordinateBuilder;
+import org.jboss.forge.addon.maven.plugins.ConfigurationElement;
+import org.jboss.forge.addon.maven.plugins.MavenPlugin;
+import org.jboss.forge.addon.maven.projects.MavenFacet;
+import org.jboss.forge.addon.maven.projects.MavenPluginFacet;
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.projects.facets.DependencyFacet;
+import org.jboss.forge.addon.resource.Resource;
+import org.jboss.forge.addon.resource.util.ResourceUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * A snapshot of the facts about a project which the setup wizards need such as its packaging, plugins and
+ * Camel flavour. The snapshot is computed once per revision of the pom.xml so that the wizards don't keep
+ * querying the Maven facets. The effective dependencies are only resolved when a Camel fact is first needed.
+ */
+public class ProjectFacts {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ProjectFacts.class);
+
+    public static final int MAX_ENTRIES = 50;
+
+    private static final Map<String, ProjectFacts> cache = new LinkedHashMap<String, ProjectFacts>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ProjectFacts> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private final String revision;
+    private final String packaging;
+    private final boolean springBoot;
+    private final boolean dockerMavenPlugin;
+    private final boolean fabric8MavenPlugin;
+    private final String dockerFromImage;
+    private final String dockerMainClass;
+    private final String propertyMainClass;
+    private Project project;
+    private Set<String> camelArtifacts;
+
+    public ProjectFacts(String revision, String packaging, boolean springBoot, boolean dockerMavenPlugin, boolean fabric8MavenPlugin,
+                        String dockerFromImage, String dockerMainClass, String propertyMainClass, Project project) {
+        this.revision = revision;
+        this.packaging = packaging;
+        this.springBoot = springBoot;
+        this.dockerMavenPlugin = dockerMavenPlugin;
+        this.fabric8MavenPlugin = fabric8MavenPlugin;
+        this.dockerFromImage = dockerFromImage;
+        this.dockerMainClass = dockerMainClass;
+        this.propertyMainClass = propertyMainClass;
+        this.project = project;
+    }
+
+    /**
+     * Returns the facts for the given project, reusing the previous snapshot if the pom.xml has not changed since
+     */
+    public static ProjectFacts getFacts(Project project) {
+        File pom = getPomFile(project);
+        String revision = pom != null ? pomRevision(pom) : null;
+        if (revision == null) {
+            return loadFacts(project, null);
+        }
+        String key = pom.getAbsolutePath();
+        ProjectFacts answer;
+        synchronized (cache) {
+            answer = cache.get(key);
+        }
+        if (answer == null || !revision.equals(answer.getRevision())) {
+            answer = loadFacts(project, revision);
+            synchronized (cache) {
+                cache.put(key, answer);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Computes a new snapshot of the facts of the project
+     */
+    public static ProjectFacts loadFacts(Project project, String revision) {
+        String packaging = null;
+        String dockerFromImage = null;
+        String propertyMainClass = null;
+        MavenFacet maven = project.getFacet(MavenFacet.class);
+        if (maven != null) {
+            Model pom = maven.getModel();
+            if (pom != null) {
+                packaging = pom.getPackaging();
+                Properties properties = pom.getProperties();
+                dockerFromImage = properties.getProperty("docker.from");
+                propertyMainClass = properties.getProperty("docker.env.MAIN");
+                if (Strings.isNullOrBlank(propertyMainClass)) {
+                    propertyMainClass = properties.getProperty("fabric8.env.MAIN");
+                }
+            }
+        }
+
+        boolean springBoot = false;
+        if (project.hasFacet(MavenPluginFacet.class)) {
+            MavenPluginFacet pluginFacet = project.getFacet(MavenPluginFacet.class);
+            Coordinate coor = CoordinateBuilder.create("org.springframework.boot:spring-boot-maven-plugin");
+            springBoot = pluginFacet.hasPlugin(coor);
+        }
+
+        String dockerMainClass = null;
+        MavenPlugin dockerPlugin = MavenHelpers.findPlugin(project, "org.jolokia", "docker-maven-plugin");
+        if (dockerPlugin != null) {
+            ConfigurationElement element = MavenHelpers.getConfigurationElement(dockerPlugin.getConfig(), "images", "image", "build", "env", "JAVA_MAIN_CLASS");
+            if (element != null) {
+                dockerMainClass = element.getText();
+            }
+        }
+        boolean fabric8MavenPlugin = MavenHelpers.findPlugin(project, "io.fabric8", "fabric8-maven-plugin") != null;
+        return new ProjectFacts(revision, packaging, springBoot, dockerPlugin != null, fabric8MavenPlugin,
+                dockerFromImage, dockerMainClass, propertyMainClass, project);
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectFacts{" +
+                "packaging='" + packaging + '\'' +
+                ", springBoot=" + springBoot +
+                ", dockerMavenPlugin=" + dockerMavenPlugin +
+                ", fabric8MavenPlugin=" + fabric8MavenPlugin +
+                '}';
+    }
+
+    /**
+     * Returns the main class configured in the docker-maven-plugin or the pom properties if there is one
+     */
+    public String getConfiguredMainClass() {
+        if (Strings.isNotBlank(dockerMainClass)) {
+            return dockerMainClass;
+        }
+        if (Strings.isNotBlank(propertyMainClass)) {
+            return propertyMainClass;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the main class of the Camel flavour used by the project if there is one
+     */
+    public String getCamelMainClass() {
+        Set<String> camelArtifacts = getCamelArtifacts();
+        if (camelArtifacts.contains("camel-cdi")) {
+            return "org.apache.camel.cdi.Main";
+        } else if (camelArtifacts.contains("camel-spring")) {
+            return "org.apache.camel.spring.Main";
+        } else if (camelArtifacts.contains("camel-blueprint")) {
+            return "org.apache.camel.test.blueprint.Main";
+        }
+        return null;
+    }
+
+    public boolean hasCamelArtifact(String artifactId) {
+        return getCamelArtifacts().contains(artifactId);
+    }
+
+    public boolean isCamel() {
+        return !getCamelArtifacts().isEmpty();
+    }
+
+    public String getRevision() {
+        return revision;
+    }
+
+    public String getPackaging() {
+        return packaging;
+    }
+
+    public boolean isSpringBoot() {
+        return springBoot;
+    }
+
+    public boolean hasDockerMavenPlugin() {
+        return dockerMavenPlugin;
+    }
+
+    public boolean hasFabric8MavenPlugin() {
+        return fabric8MavenPlugin;
+    }
+
+    public String getDockerFromImage() {
+        return dockerFromImage;
+    }
+
+    public String getDockerMainClass() {
+        return dockerMainClass;
+    }
+
+    public String getPropertyMainClass() {
+        return propertyMainClass;
+    }
+
+    /**
+     * Returns the artifact ids of the org.apache.camel effective dependencies, resolving them the first time
+     */
+    public synchronized Set<String> getCamelArtifacts() {
+        if (camelArtifacts == null) {
+            Set<String> answer = new LinkedHashSet<>();
+            if (project != null && project.hasFacet(DependencyFacet.class)) {
+                List<Dependency> dependencies = project.getFacet(DependencyFacet.class).getEffectiveDependencies();
+                for (Dependency d : dependencies) {
+                    if ("org.apache.camel".equals(d.getCoordinate().getGroupId())) {
+                        answer.add(d.getCoordinate().getArtifactId());
+                    }
+                }
+            }
+            camelArtifacts = Collections.unmodifiableSet(answer);
+            // no need to keep the project around now
+            project = null;
+        }
+        return camelArtifacts;
+    }
+
+    protected static File getPomFile(Project project) {
+        Resource<?> root = project.getRoot();
+        if (root != null) {
+            File dir = ResourceUtil.getContextFile(root);
+            if (dir != null) {
+                File pom = new File(dir, "pom.xml");
+                if (Files.isFile(pom)) {
+                    return pom;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a checksum of the pom.xml or null if it could not be read
+     */
+    protected static String pomRevision(File pom) {
+        try {
+            CRC32 crc = new CRC32();
+            crc.update(java.nio.file.Files.readAllBytes(pom.toPath()));
+            return pom.length() + "-" + Long.toHexString(crc.getValue());
+        } catch (IOException e) {
+            LOG.debug("Failed to read " + pom + ": " + e, e);
+            return null;
+        }
+    }
+}
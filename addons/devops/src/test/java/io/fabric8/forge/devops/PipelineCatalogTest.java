@@ -0,0 +1,86 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops;
+
+import io.fabric8.forge.devops.dto.PipelineDTO;
+import io.fabric8.utils.Files;
+import io.fabric8.utils.IOHelpers;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ */
+public class PipelineCatalogTest {
+    private File dir;
+
+    @Before
+    public void init() throws Exception {
+        String basedir = System.getProperty("basedir", ".");
+        dir = new File(basedir, "target/test-data/pipelineCatalog");
+        Files.recursiveDelete(dir);
+        writeFile(".git/HEAD", "ref: refs/heads/master\n");
+        writeFile(".git/refs/heads/master", "1111111111111111111111111111111111111111\n");
+        writeFile("workflows/maven/CanaryRelease/Jenkinsfile", "node {}");
+        writeFile("workflows/maven/CanaryRelease/ReadMe.md", "Canary release");
+        writeFile("workflows/maven/CanaryRelease/metadata.yml", "stages:\n- Build\n- Test\n");
+        writeFile("workflows/fabric8-release/Release/Jenkinsfile", "node {}");
+    }
+
+    @Test
+    public void testIndexesPipelines() throws Exception {
+        PipelineCatalog catalog = new PipelineCatalog(dir, "workflows/");
+
+        List<PipelineDTO> pipelines = catalog.getPipelines();
+        assertEquals("pipelines " + pipelines, 1, pipelines.size());
+
+        String value = "workflows/maven/CanaryRelease/Jenkinsfile";
+        PipelineDTO pipeline = catalog.getPipeline(value);
+        assertNotNull("Should find pipeline " + value, pipeline);
+        assertEquals("maven/CanaryRelease", pipeline.getLabel());
+        assertEquals("maven", pipeline.getBuilder());
+        assertEquals("Canary release", catalog.getDescription(value));
+        assertEquals(2, pipeline.getStages().size());
+        assertNull(catalog.getPipeline("workflows/fabric8-release/Release/Jenkinsfile"));
+        assertEquals("1111111111111111111111111111111111111111", catalog.getVersion());
+    }
+
+    @Test
+    public void testRefreshesOnlyWhenHeadChanges() throws Exception {
+        PipelineCatalog catalog = new PipelineCatalog(dir, "workflows/");
+        List<PipelineDTO> pipelines = catalog.getPipelines();
+
+        writeFile("workflows/maven/Deploy/Jenkinsfile", "node {}");
+        assertSame("Should not rescan until HEAD changes", pipelines, catalog.getPipelines());
+
+        writeFile(".git/refs/heads/master", "2222222222222222222222222222222222222222\n");
+        assertEquals(2, catalog.getPipelines().size());
+        assertNotNull(catalog.getPipeline("workflows/maven/Deploy/Jenkinsfile"));
+    }
+
+    protected void writeFile(String path, String text) throws Exception {
+        File file = new File(dir, path);
+        file.getParentFile().mkdirs();
+        IOHelpers.writeFully(file, text);
+    }
+}
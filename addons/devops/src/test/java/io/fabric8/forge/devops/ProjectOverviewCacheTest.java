@@ -0,0 +1,128 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops;
+
+import io.fabric8.forge.devops.dto.ProjectOverviewDTO;
+import io.fabric8.utils.Files;
+import io.fabric8.utils.IOHelpers;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class ProjectOverviewCacheTest {
+    private File dir;
+
+    @Before
+    public void init() throws Exception {
+        String basedir = System.getProperty("basedir", ".");
+        dir = new File(basedir, "target/test-data/projectOverviewCache");
+        Files.recursiveDelete(dir);
+        new File(dir, "web").mkdirs();
+        IOHelpers.writeFully(new File(dir, "pom.xml"), "<project/>");
+        IOHelpers.writeFully(new File(dir, "web/app.js"), "");
+        ProjectOverviewCache.clear();
+    }
+
+    @Test
+    public void testScanFindsBuilders() throws Exception {
+        IOHelpers.writeFully(new File(dir, "Jenkinsfile"), "");
+        ProjectOverviewDTO overview = scan();
+        assertEquals("[jenkinsfile, node]", overview.getBuilders().toString());
+    }
+
+    @Test
+    public void testScanIgnoresFilesBelowMaxLevels() throws Exception {
+        new File(dir, "a/b/c").mkdirs();
+        IOHelpers.writeFully(new File(dir, "a/b/c/main.go"), "");
+        IOHelpers.writeFully(new File(dir, "a/b/hello.rb"), "");
+        ProjectOverviewDTO overview = scan();
+        assertEquals("[node, ruby]", overview.getBuilders().toString());
+    }
+
+    @Test
+    public void testCachedUntilFingerprintChanges() throws Exception {
+        String fingerprint = ProjectOverviewCache.fingerprint(dir, AbstractDevOpsCommand.MAX_SCAN_LEVELS);
+        assertNull(ProjectOverviewCache.getOverview(dir, fingerprint));
+
+        ProjectOverviewDTO overview = scan();
+        ProjectOverviewCache.putOverview(dir, fingerprint, overview);
+        assertEquals(fingerprint, ProjectOverviewCache.fingerprint(dir, AbstractDevOpsCommand.MAX_SCAN_LEVELS));
+        ProjectOverviewDTO cached = ProjectOverviewCache.getOverview(dir, fingerprint);
+        assertNotNull(cached);
+        assertEquals(overview.getBuilders(), cached.getBuilders());
+
+        // changing the pom changes the fingerprint
+        IOHelpers.writeFully(new File(dir, "pom.xml"), "<project><packaging>war</packaging></project>");
+        String newFingerprint = ProjectOverviewCache.fingerprint(dir, AbstractDevOpsCommand.MAX_SCAN_LEVELS);
+        assertNotEquals(fingerprint, newFingerprint);
+        assertNull(ProjectOverviewCache.getOverview(dir, newFingerprint));
+    }
+
+    @Test
+    public void testAddingFileChangesFingerprint() throws Exception {
+        File folder = new File(dir, "web");
+        String fingerprint = ProjectOverviewCache.fingerprint(dir, AbstractDevOpsCommand.MAX_SCAN_LEVELS);
+        IOHelpers.writeFully(new File(folder, "hello.swift"), "");
+        // make sure the change is visible even on file systems with coarse timestamps
+        folder.setLastModified(folder.lastModified() + 2000);
+        assertNotEquals(fingerprint, ProjectOverviewCache.fingerprint(dir, AbstractDevOpsCommand.MAX_SCAN_LEVELS));
+    }
+
+    protected ProjectOverviewDTO scan() {
+        final String[] extensions = {"js", "rb", "go"};
+        final String[] builders = {"node", "ruby", "golang"};
+        List<AbstractDevOpsCommand.FileProcessor> processors = new ArrayList<>();
+        processors.add(new AbstractDevOpsCommand.FileProcessor() {
+            @Override
+            public boolean processes(ProjectOverviewDTO overview, File file, String name, String extension, int level) {
+                if (level == AbstractDevOpsCommand.ROOT_LEVEL && "Jenkinsfile".equals(name)) {
+                    overview.addBuilder("jenkinsfile");
+                    return true;
+                }
+                return false;
+            }
+        });
+        for (int i = 0; i < extensions.length; i++) {
+            final String extension = extensions[i];
+            final String builder = builders[i];
+            processors.add(new AbstractDevOpsCommand.FileProcessor() {
+                @Override
+                public boolean processes(ProjectOverviewDTO overview, File file, String name, String fileExtension, int level) {
+                    if (extension.equals(fileExtension)) {
+                        overview.addBuilder(builder);
+                        return true;
+                    }
+                    return false;
+                }
+            });
+        }
+        ProjectOverviewDTO overview = new ProjectOverviewDTO();
+        ProjectOverviewCache.scan(dir, processors, overview, 0, AbstractDevOpsCommand.MAX_SCAN_LEVELS);
+        assertTrue(processors.size() < 4);
+        return overview;
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.directory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class DirectoryCacheTest {
+    private InMemoryDirectoryLoader loader;
+    private long now;
+    private DirectoryCache cache;
+
+    @Before
+    public void init() {
+        loader = new InMemoryDirectoryLoader();
+        loader.put("beta", "Beta room");
+        loader.put("alpha", "Alpha room");
+        now = 1000;
+        cache = new DirectoryCache("test", loader, 100, 10) {
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void testEntriesCachedUntilExpired() throws Exception {
+        assertEquals(Arrays.asList("alpha", "beta"), cache.getNames());
+        assertEquals("Beta room", cache.getDescription("beta"));
+        assertNull(cache.getDescription("gamma"));
+        assertEquals(1, loader.getLoads());
+
+        loader.put("gamma", "Gamma room");
+        now += 50;
+        assertEquals(2, cache.getNames().size());
+        assertEquals(1, loader.getLoads());
+
+        now += 100;
+        assertEquals(Arrays.asList("alpha", "beta", "gamma"), cache.getNames());
+        assertEquals(2, loader.getLoads());
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        cache.getNames();
+        loader.put("gamma", "Gamma room");
+        cache.refresh();
+        assertEquals("Gamma room", cache.getDescription("gamma"));
+        assertEquals(2, loader.getLoads());
+    }
+
+    @Test
+    public void testFailuresAreCachedBriefly() throws Exception {
+        loader.setDown(true);
+        assertTrue(cache.getNames().isEmpty());
+        assertNotNull(cache.getLastError());
+        assertTrue(cache.getNames().isEmpty());
+        assertEquals(1, loader.getLoads());
+
+        loader.setDown(false);
+        now += 20;
+        assertEquals(2, cache.getNames().size());
+        assertNull(cache.getLastError());
+        assertEquals(2, loader.getLoads());
+
+        // keeps the last good entries while the service is down
+        loader.setDown(true);
+        cache.refresh();
+        assertEquals(2, cache.getNames().size());
+        assertEquals(3, loader.getLoads());
+    }
+
+    @Test
+    public void testErrorDoesNotBlockLaterLoads() throws Exception {
+        DirectoryLoader failingOnce = new DirectoryLoader() {
+            private int calls;
+
+            @Override
+            public Map<String, String> load() throws Exception {
+                if (++calls == 1) {
+                    throw new NoClassDefFoundError("io/fabric8/taiga/Missing");
+                }
+                return loader.load();
+            }
+        };
+        cache = new DirectoryCache("test", failingOnce, 100, 10) {
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+        };
+
+        assertTrue(cache.getNames().isEmpty());
+        assertTrue(cache.getLastError().contains("Load did not complete"));
+        assertEquals(1, cache.getLoadCount());
+
+        now += 20;
+        assertEquals(Arrays.asList("alpha", "beta"), cache.getNames());
+        assertNull(cache.getLastError());
+        assertEquals(2, cache.getLoadCount());
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneLoad() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        loader.setBlockLatch(latch);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Map<String, String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(new Callable<Map<String, String>>() {
+                    @Override
+                    public Map<String, String> call() throws Exception {
+                        return cache.getEntries();
+                    }
+                }));
+            }
+            Thread.sleep(200);
+            latch.countDown();
+            for (Future<Map<String, String>> future : futures) {
+                assertEquals(2, future.get(5, TimeUnit.SECONDS).size());
+            }
+            assertEquals(1, loader.getLoads());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.directory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in memory {@link DirectoryLoader} standing in for Taiga or Let's Chat in tests
+ */
+public class InMemoryDirectoryLoader implements DirectoryLoader {
+    private final Map<String, String> entries = new TreeMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile boolean down;
+    private volatile CountDownLatch blockLatch;
+
+    @Override
+    public Map<String, String> load() throws Exception {
+        loads.incrementAndGet();
+        CountDownLatch latch = blockLatch;
+        if (latch != null) {
+            latch.await();
+        }
+        if (down) {
+            throw new IOException("Service is down");
+        }
+        synchronized (entries) {
+            return new TreeMap<>(entries);
+        }
+    }
+
+    public void put(String name, String description) {
+        synchronized (entries) {
+            entries.put(name, description);
+        }
+    }
+
+    public void setDown(boolean down) {
+        this.down = down;
+    }
+
+    /**
+     * Makes loads block until the given latch is released
+     */
+    public void setBlockLatch(CountDownLatch blockLatch) {
+        this.blockLatch = blockLatch;
+    }
+
+    public int getLoads() {
+        return loads.get();
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.provision;
+
+import io.fabric8.forge.devops.dto.ProvisionJobDTO;
+import io.fabric8.forge.devops.dto.ProvisionStepDTO;
+import io.fabric8.utils.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class ProvisioningEngineTest {
+    private ProvisioningEngine engine;
+    private File journalFile;
+
+    @Before
+    public void init() throws Exception {
+        String basedir = System.getProperty("basedir", ".");
+        File dir = new File(basedir, "target/test-data/provisioningEngine");
+        Files.recursiveDelete(dir);
+        dir.mkdirs();
+        journalFile = new File(dir, ProvisioningEngine.JOURNAL_FILE_NAME);
+        engine = new ProvisioningEngine(2, 3, 10, 100, 60000);
+    }
+
+    @After
+    public void shutdown() {
+        engine.shutdown();
+    }
+
+    @Test
+    public void testRetriesUntilSuccess() throws Exception {
+        CountingStep flaky = new CountingStep("flaky", 2);
+        CountingStep ok = new CountingStep("ok", 0);
+        engine.submit("test", journalFile, Arrays.asList(flaky, ok));
+
+        assertTrue(engine.waitUntilDone("test", 5000));
+        ProvisionJobDTO job = engine.getJob("test");
+        assertEquals(ProvisionStepDTO.SUCCEEDED, job.getStatus());
+        assertEquals(3, job.getStep("flaky").getAttempts());
+        assertEquals(1, job.getStep("ok").getAttempts());
+        assertNotNull(job.getFinished());
+
+        // the journal can be read back by a later process
+        ProvisionJobDTO journal = new ProvisioningEngine(1, 1, 1, 1, 1).getJob("test", journalFile);
+        assertEquals(job.getId(), journal.getId());
+        assertEquals(ProvisionStepDTO.SUCCEEDED, journal.getStatus());
+        assertEquals(3, journal.getStep("flaky").getAttempts());
+    }
+
+    @Test
+    public void testFailedStepDoesNotStopLaterSteps() throws Exception {
+        CountingStep broken = new CountingStep("broken", Integer.MAX_VALUE);
+        CountingStep ok = new CountingStep("ok", 0);
+        engine.submit("test", journalFile, Arrays.asList(broken, ok));
+
+        assertTrue(engine.waitUntilDone("test", 5000));
+        ProvisionJobDTO job = engine.getJob("test");
+        assertEquals(ProvisionStepDTO.FAILED, job.getStatus());
+        assertEquals(ProvisionStepDTO.FAILED, job.getStep("broken").getStatus());
+        assertEquals(3, broken.calls.get());
+        assertNotNull(job.getStep("broken").getLastError());
+        assertEquals(ProvisionStepDTO.SUCCEEDED, job.getStep("ok").getStatus());
+    }
+
+    @Test
+    public void testStepWhichIsNotRetryableRunsOnce() throws Exception {
+        CountingStep once = new CountingStep("once", 1, false);
+        CountingStep ok = new CountingStep("ok", 0);
+        engine.submit("test", journalFile, Arrays.asList(once, ok));
+
+        assertTrue(engine.waitUntilDone("test", 5000));
+        ProvisionJobDTO job = engine.getJob("test");
+        assertEquals(1, once.calls.get());
+        assertEquals(ProvisionStepDTO.FAILED, job.getStep("once").getStatus());
+        assertEquals(1, job.getStep("once").getAttempts());
+        assertEquals(ProvisionStepDTO.SUCCEEDED, job.getStep("ok").getStatus());
+    }
+
+    @Test
+    public void testNewJobCancelsPreviousJob() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        ProvisionStep blocking = new ProvisionStep() {
+            @Override
+            public String getName() {
+                return "blocking";
+            }
+
+            @Override
+            public boolean isRetryable() {
+                return true;
+            }
+
+            @Override
+            public void execute() throws Exception {
+                latch.await(5, TimeUnit.SECONDS);
+            }
+        };
+        CountingStep later = new CountingStep("later", 0);
+        ProvisionJobDTO first = engine.submit("test", journalFile, Arrays.asList(blocking, later));
+        ProvisionJobDTO second = engine.submit("test", journalFile, Arrays.asList(new CountingStep("again", 0)));
+        latch.countDown();
+
+        assertTrue(engine.waitUntilDone("test", 5000));
+        assertEquals(second.getId(), engine.getJob("test").getId());
+        assertEquals(ProvisionStepDTO.SUCCEEDED, engine.getJob("test").getStatus());
+        assertEquals(0, later.calls.get());
+        assertTrue(!first.getId().equals(second.getId()));
+    }
+
+    @Test
+    public void testStepFailingWithAnErrorFinishesTheJob() throws Exception {
+        ProvisionStep broken = new ProvisionStep() {
+            @Override
+            public String getName() {
+                return "broken";
+            }
+
+            @Override
+            public boolean isRetryable() {
+                return true;
+            }
+
+            @Override
+            public void execute() throws Exception {
+                throw new NoClassDefFoundError("io/fabric8/devops/connector/Missing");
+            }
+        };
+        CountingStep ok = new CountingStep("ok", 0);
+        engine.submit("test", journalFile, Arrays.asList(broken, ok));
+
+        assertTrue(engine.waitUntilDone("test", 5000));
+        ProvisionJobDTO job = engine.getJob("test");
+        assertEquals(ProvisionStepDTO.FAILED, job.getStep("broken").getStatus());
+        assertEquals(1, job.getStep("broken").getAttempts());
+        assertTrue(job.getStep("broken").getLastError().contains("Missing"));
+        assertEquals(ProvisionStepDTO.SUCCEEDED, job.getStep("ok").getStatus());
+    }
+
+    @Test
+    public void testFinishedJobsAreEvicted() throws Exception {
+        ProvisioningEngine evicting = new ProvisioningEngine(1, 1, 1, 1, 50);
+        try {
+            evicting.submit("test", journalFile, Arrays.asList(new CountingStep("ok", 0)));
+            assertTrue(evicting.waitUntilDone("test", 5000));
+
+            long end = System.currentTimeMillis() + 5000;
+            while (evicting.getJobCount() > 0 && System.currentTimeMillis() < end) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, evicting.getJobCount());
+            assertNull(evicting.getJob("test"));
+            // the outcome is still available from the journal
+            assertEquals(ProvisionStepDTO.SUCCEEDED, evicting.getJob("test", journalFile).getStatus());
+        } finally {
+            evicting.shutdown();
+        }
+    }
+
+    protected static class CountingStep implements ProvisionStep {
+        private final String name;
+        private final int failures;
+        private final boolean retryable;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        public CountingStep(String name, int failures) {
+            this(name, failures, true);
+        }
+
+        public CountingStep(String name, int failures, boolean retryable) {
+            this.name = name;
+            this.failures = failures;
+            this.retryable = retryable;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isRetryable() {
+            return retryable;
+        }
+
+        @Override
+        public void execute() throws Exception {
+            if (calls.incrementAndGet() <= failures) {
+                throw new IllegalStateException(name + " is not available");
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.setup;
+
+import io.fabric8.utils.Files;
+import io.fabric8.utils.IOHelpers;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ */
+public class MainClassIndexTest {
+    private File dir;
+    private MainClassIndex index;
+
+    @Before
+    public void init() throws Exception {
+        String basedir = System.getProperty("basedir", ".");
+        dir = new File(basedir, "target/test-data/mainClassIndex/src/main/java");
+        Files.recursiveDelete(dir);
+        writeFile("com/acme/tool/Tool.java", "package com.acme.tool;\n\npublic class Tool {\n    public static void main(String[] args) {\n    }\n}\n");
+        writeFile("com/acme/Application.java", "package com.acme;\n\n@SpringBootApplication\npublic class Application {\n}\n");
+        writeFile("com/acme/Helper.java", "package com.acme;\n\npublic class Helper {\n    public void main(String[] args) {\n    }\n}\n");
+        writeFile("com/acme/Commented.java", "package com.acme;\n\npublic class Commented {\n    // public static void main(String[] args) {}\n    /* public static void main(String... args) {} */\n}\n");
+        writeFile("com/acme/tool/VarArgs.java", "package com.acme.tool;\n\npublic class VarArgs {\n    static public void main(final String... args) {\n    }\n}\n");
+        index = new MainClassIndex(dir, 0);
+    }
+
+    @Test
+    public void testFindsAndRanksMainClasses() throws Exception {
+        assertEquals(Arrays.asList("com.acme.Application", "com.acme.tool.Tool", "com.acme.tool.VarArgs"), index.getMainClasses());
+        assertEquals("com.acme.Application", index.getBestMainClass());
+        assertEquals(Arrays.asList("com.acme.tool.Tool", "com.acme.tool.VarArgs"), index.getMainClasses("com.acme.tool."));
+    }
+
+    @Test
+    public void testOnlyChangedFilesAreParsedAgain() throws Exception {
+        index.getMainClasses();
+        assertEquals(5, index.getParseCount());
+
+        index.refresh();
+        assertEquals(5, index.getParseCount());
+
+        File tool = writeFile("com/acme/tool/Tool.java", "package com.acme.tool;\n\npublic class Tool {\n}\n");
+        tool.setLastModified(tool.lastModified() + 2000);
+        index.refresh();
+        assertEquals(6, index.getParseCount());
+        assertEquals(Arrays.asList("com.acme.Application", "com.acme.tool.VarArgs"), index.getMainClasses());
+
+        new File(dir, "com/acme/Application.java").delete();
+        new File(dir, "com/acme/tool/VarArgs.java").delete();
+        index.refresh();
+        assertEquals(Collections.<String>emptyList(), index.getMainClasses());
+    }
+
+    protected File writeFile(String path, String text) throws Exception {
+        File file = new File(dir, path);
+        file.getParentFile().mkdirs();
+        IOHelpers.writeFully(file, text);
+        return file;
+    }
+}
@@ -16,11 +16,8 @@
 package io.fabric8.forge.kubernetes;
 
 import io.fabric8.kubernetes.api.KubernetesHelper;
-import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.kubernetes.client.ConfigBuilder;
 import io.fabric8.utils.Objects;
-import io.fabric8.utils.Strings;
 import io.fabric8.utils.TablePrinter;
 import org.jboss.forge.addon.projects.ProjectFactory;
 import org.jboss.forge.addon.projects.ui.AbstractProjectCommand;
@@ -69,17 +66,19 @@ public abstract class AbstractKubernetesCommand extends AbstractProjectCommand i
 
     public KubernetesClient getKubernetes() {
         if (kubernetes == null) {
-            String kubernetesAddress = kubernetesUrl.getValue();
-            if (Strings.isNotBlank(kubernetesAddress)) {
-                kubernetes = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl(kubernetesAddress).build());
-            } else {
-                kubernetes = new DefaultKubernetesClient();
-            }
+            kubernetes = KubernetesClients.getClient(kubernetesUrl.getValue());
         }
         Objects.notNull(kubernetes, "kubernetes");
         return kubernetes;
     }
 
+    /**
+     * Returns the watch fed cache of pods, services and replication controllers of the current namespace
+     */
+    public NamespaceCache getNamespaceCache() {
+        return KubernetesClients.getNamespaceCache(kubernetesUrl.getValue(), getNamespace());
+    }
+
     public void setKubernetes(KubernetesClient kubernetes) {
         this.kubernetes = kubernetes;
     }
@@ -113,6 +112,16 @@ public abstract class AbstractKubernetesCommand extends AbstractProjectCommand i
         return Results.success();
     }
 
+    /**
+     * Prints the given table followed by how fresh the cached data is and returns success
+     */
+    protected Result tableResults(TablePrinter table, ResourceCache<?> cache) {
+        table.print(getOut());
+        getOut().println();
+        getOut().println(cache.getStatus());
+        return Results.success();
+    }
+
     public PrintStream getOut() {
         UIOutput output = getOutput();
         if (output != null) {
@@ -15,7 +15,7 @@
  */
 package io.fabric8.forge.kubernetes;
 
-import io.fabric8.kubernetes.api.Controller;
+import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.utils.Files;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIContext;
@@ -26,12 +26,14 @@ import org.jboss.forge.addon.ui.input.UIInput;
 import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
 import org.jboss.forge.addon.ui.metadata.WithAttributes;
 import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
 import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
 import org.jboss.forge.addon.ui.validate.UIValidator;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.util.List;
 
 /**
  * Apploies a given JSON configuration to kubernetes
@@ -42,6 +44,11 @@ public class Apply extends AbstractKubernetesCommand {
             description = "The JSON file of configuration to apply to Kubernetes.", required = true)
     UIInput<File> file;
 
+    @Inject
+    @WithAttributes(name = "threads", label = "Threads", defaultValue = "4",
+            description = "The maximum number of resources to apply in parallel.")
+    UIInput<Integer> threads;
+
     @Override
     public UICommandMetadata getMetadata(UIContext context) {
         return Metadata.from(super.getMetadata(context), getClass())
@@ -96,15 +103,28 @@ public class Apply extends AbstractKubernetesCommand {
             }
         });
 
-        builder.add(file);
+        builder.add(file).add(threads);
     }
 
     @Override
     public Result execute(UIExecutionContext context) throws Exception {
         File applyFile = file.getValue();
-        Controller controller = new Controller(getKubernetes());
-        controller.applyJson(applyFile);
-        return null;
+        Object dto = KubernetesHelper.loadJson(applyFile);
+        if (dto == null) {
+            return Results.fail("Cannot load kubernetes json: " + applyFile);
+        }
+
+        int poolSize = threads.getValue() != null ? threads.getValue() : 4;
+        ApplyEngine engine = new ApplyEngine(getKubernetes(), getNamespace(), poolSize);
+        List<ApplyEngine.ResourceResult> results = engine.apply(dto, applyFile.getName());
+        tableResults(ApplyEngine.resultsAsTable(results));
+
+        for (ApplyEngine.ResourceResult result : results) {
+            if (result.getError() != null) {
+                return Results.fail("Failed to apply " + result.getKind() + " " + result.getName() + ": " + result.getError().getMessage(), result.getError());
+            }
+        }
+        return Results.success("Applied " + results.size() + " resources from " + applyFile.getName());
     }
 }
 
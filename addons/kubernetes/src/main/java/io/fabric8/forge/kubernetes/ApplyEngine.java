@@ -0,0 +1,268 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes;
+
+import io.fabric8.kubernetes.api.Controller;
+import io.fabric8.kubernetes.api.KubernetesHelper;
+import io.fabric8.kubernetes.api.UserConfigurationCompare;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.utils.Strings;
+import io.fabric8.utils.TablePrinter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Applies a list of kubernetes resources in dependency order: namespaces first, then secrets and other configuration,
+ * then services and finally the controllers and pods which use them.
+ * <p/>
+ * The resources of each group are applied in parallel on a bounded thread pool and the time taken for each resource
+ * is recorded. Resources of the {@link #COMPARED_KINDS} are compared with the live object first so that unchanged
+ * resources are skipped; other kinds are always applied.
+ */
+public class ApplyEngine {
+    private static final List<List<String>> GROUPS = Arrays.asList(
+            Arrays.asList("Namespace", "Project", "ProjectRequest"),
+            Arrays.asList("Secret", "ServiceAccount", "ConfigMap", "PersistentVolume", "PersistentVolumeClaim",
+                    "SecurityContextConstraints", "ImageStream"),
+            Arrays.asList("Service", "Route", "OAuthClient", "Template"),
+            Arrays.asList("ReplicationController", "DeploymentConfig", "Deployment", "BuildConfig", "Pod"));
+
+    /**
+     * The kinds whose live object is looked up by {@link #getLive(String, String, String)}
+     */
+    public static final Set<String> COMPARED_KINDS = new HashSet<>(Arrays.asList(
+            "Namespace", "Secret", "ServiceAccount", "PersistentVolume", "PersistentVolumeClaim", "ImageStream",
+            "Service", "Route", "ReplicationController", "DeploymentConfig", "BuildConfig", "Pod"));
+
+    public static final String STATUS_CREATED = "created";
+    public static final String STATUS_UPDATED = "updated";
+    public static final String STATUS_UNCHANGED = "unchanged";
+    public static final String STATUS_APPLIED = "applied";
+    public static final String STATUS_FAILED = "failed";
+
+    private final KubernetesClient kubernetes;
+    private final String namespace;
+    private final int threads;
+
+    public ApplyEngine(KubernetesClient kubernetes, String namespace, int threads) {
+        this.kubernetes = kubernetes;
+        this.namespace = namespace;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * The outcome of applying a single resource; the status is {@link #STATUS_CREATED}, {@link #STATUS_UPDATED} or
+     * {@link #STATUS_UNCHANGED} for the compared kinds, {@link #STATUS_APPLIED} for kinds which are applied without
+     * a comparison, or {@link #STATUS_FAILED}
+     */
+    public static class ResourceResult {
+        private final String kind;
+        private final String name;
+        private final String status;
+        private final long millis;
+        private final Throwable error;
+
+        public ResourceResult(String kind, String name, String status, long millis, Throwable error) {
+            this.kind = kind;
+            this.name = name;
+            this.status = status;
+            this.millis = millis;
+            this.error = error;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+    }
+
+    /**
+     * Applies the given DTO which is either a single resource, a list of resources or a template
+     */
+    public List<ResourceResult> apply(Object dto, String sourceName) throws Exception {
+        List<HasMetadata> items;
+        if (dto instanceof HasMetadata && "Template".equals(((HasMetadata) dto).getKind())) {
+            // templates need processing by the controller as a whole
+            items = Collections.singletonList((HasMetadata) dto);
+        } else {
+            items = KubernetesHelper.toItemList(dto);
+        }
+        List<ResourceResult> answer = new ArrayList<>();
+        if (items.isEmpty()) {
+            return answer;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, items.size()));
+        try {
+            for (List<HasMetadata> group : groupByDependencyOrder(items)) {
+                List<Future<ResourceResult>> futures = new ArrayList<>(group.size());
+                for (HasMetadata item : group) {
+                    futures.add(executor.submit(createTask(item, sourceName)));
+                }
+                for (Future<ResourceResult> future : futures) {
+                    answer.add(future.get());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the results as a table followed by a summary line
+     */
+    public static TablePrinter resultsAsTable(List<ResourceResult> results) {
+        TablePrinter table = new TablePrinter();
+        table.columns("kind", "name", "status", "time (ms)");
+        Map<String, Integer> counts = new TreeMap<>();
+        long total = 0;
+        for (ResourceResult result : results) {
+            String status = result.getStatus();
+            if (result.getError() != null) {
+                status += ": " + result.getError().getMessage();
+            }
+            table.row(result.getKind(), result.getName(), status, "" + result.getMillis());
+            Integer count = counts.get(result.getStatus());
+            counts.put(result.getStatus(), count == null ? 1 : count + 1);
+            total += result.getMillis();
+        }
+        table.row("", "", "", "");
+        table.row("total", "" + results.size(), counts.toString(), "" + total);
+        return table;
+    }
+
+    /**
+     * Splits the items into the non empty {@link #GROUPS} in the order they need to be applied
+     */
+    protected List<List<HasMetadata>> groupByDependencyOrder(List<HasMetadata> items) {
+        List<List<HasMetadata>> answer = new ArrayList<>();
+        for (int i = 0; i < GROUPS.size(); i++) {
+            answer.add(new ArrayList<HasMetadata>());
+        }
+        for (HasMetadata item : items) {
+            answer.get(groupIndex(item.getKind())).add(item);
+        }
+        List<List<HasMetadata>> nonEmpty = new ArrayList<>();
+        for (List<HasMetadata> group : answer) {
+            if (!group.isEmpty()) {
+                nonEmpty.add(group);
+            }
+        }
+        return nonEmpty;
+    }
+
+    private static int groupIndex(String kind) {
+        for (int i = 0; i < GROUPS.size(); i++) {
+            if (GROUPS.get(i).contains(kind)) {
+                return i;
+            }
+        }
+        // anything we don't know about goes with the services before the controllers
+        return 2;
+    }
+
+    private Callable<ResourceResult> createTask(final HasMetadata item, final String sourceName) {
+        return new Callable<ResourceResult>() {
+            @Override
+            public ResourceResult call() throws Exception {
+                String kind = item.getKind();
+                ObjectMeta metadata = item.getMetadata();
+                String name = metadata != null ? metadata.getName() : null;
+                String ns = metadata != null && Strings.isNotBlank(metadata.getNamespace()) ? metadata.getNamespace() : namespace;
+                long start = System.currentTimeMillis();
+                try {
+                    boolean compare = COMPARED_KINDS.contains(kind) && Strings.isNotBlank(name);
+                    Object live = compare ? getLive(kind, ns, name) : null;
+                    if (live != null && UserConfigurationCompare.configEqual(item, live)) {
+                        return new ResourceResult(kind, name, STATUS_UNCHANGED, System.currentTimeMillis() - start, null);
+                    }
+                    Controller controller = new Controller(kubernetes);
+                    controller.setNamespace(ns);
+                    controller.setThrowExceptionOnError(true);
+                    controller.apply(item, sourceName);
+                    String status = !compare ? STATUS_APPLIED : live != null ? STATUS_UPDATED : STATUS_CREATED;
+                    return new ResourceResult(kind, name, status, System.currentTimeMillis() - start, null);
+                } catch (Exception e) {
+                    return new ResourceResult(kind, name, STATUS_FAILED, System.currentTimeMillis() - start, e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the live object of one of the {@link #COMPARED_KINDS}, or null if it does not exist
+     */
+    protected Object getLive(String kind, String ns, String name) {
+        if ("Namespace".equals(kind)) {
+            return kubernetes.namespaces().withName(name).get();
+        } else if ("Secret".equals(kind)) {
+            return kubernetes.secrets().inNamespace(ns).withName(name).get();
+        } else if ("ServiceAccount".equals(kind)) {
+            return kubernetes.serviceAccounts().inNamespace(ns).withName(name).get();
+        } else if ("PersistentVolume".equals(kind)) {
+            return kubernetes.persistentVolumes().withName(name).get();
+        } else if ("PersistentVolumeClaim".equals(kind)) {
+            return kubernetes.persistentVolumeClaims().inNamespace(ns).withName(name).get();
+        } else if ("Service".equals(kind)) {
+            return kubernetes.services().inNamespace(ns).withName(name).get();
+        } else if ("ReplicationController".equals(kind)) {
+            return kubernetes.replicationControllers().inNamespace(ns).withName(name).get();
+        } else if ("Pod".equals(kind)) {
+            return kubernetes.pods().inNamespace(ns).withName(name).get();
+        }
+        OpenShiftClient openShift = kubernetes.adapt(OpenShiftClient.class);
+        if ("ImageStream".equals(kind)) {
+            return openShift.imageStreams().inNamespace(ns).withName(name).get();
+        } else if ("Route".equals(kind)) {
+            return openShift.routes().inNamespace(ns).withName(name).get();
+        } else if ("DeploymentConfig".equals(kind)) {
+            return openShift.deploymentConfigs().inNamespace(ns).withName(name).get();
+        } else if ("BuildConfig".equals(kind)) {
+            return openShift.buildConfigs().inNamespace(ns).withName(name).get();
+        }
+        throw new IllegalArgumentException("Cannot compare resources of kind " + kind);
+    }
+}
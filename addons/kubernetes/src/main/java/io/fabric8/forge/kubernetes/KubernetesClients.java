@@ -0,0 +1,91 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes;
+
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.utils.Strings;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps one {@link KubernetesClient} (and so one pool of http connections) per kubernetes master URL,
+ * together with the watch based {@link NamespaceCache}s of each namespace used through it.
+ */
+public final class KubernetesClients {
+    private static final String DEFAULT_MASTER = "";
+
+    private static final ConcurrentMap<String, KubernetesClient> clients = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, NamespaceCache> caches = new ConcurrentHashMap<>();
+
+    private KubernetesClients() {
+    }
+
+    /**
+     * Returns the shared client for the given master URL, or for the default configuration if the URL is blank
+     */
+    public static KubernetesClient getClient(String masterUrl) {
+        String key = Strings.isNotBlank(masterUrl) ? masterUrl : DEFAULT_MASTER;
+        KubernetesClient answer = clients.get(key);
+        if (answer == null) {
+            KubernetesClient client;
+            if (key.equals(DEFAULT_MASTER)) {
+                client = new DefaultKubernetesClient();
+            } else {
+                client = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl(masterUrl).build());
+            }
+            answer = clients.putIfAbsent(key, client);
+            if (answer == null) {
+                answer = client;
+            } else {
+                client.close();
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the watch fed cache of the given namespace for the given master URL
+     */
+    public static NamespaceCache getNamespaceCache(String masterUrl, String namespace) {
+        String key = (Strings.isNotBlank(masterUrl) ? masterUrl : DEFAULT_MASTER) + "|" + namespace;
+        NamespaceCache answer = caches.get(key);
+        if (answer == null) {
+            NamespaceCache cache = new NamespaceCache(getClient(masterUrl), namespace);
+            answer = caches.putIfAbsent(key, cache);
+            if (answer == null) {
+                answer = cache;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Closes all the watches and clients
+     */
+    public static void closeAll() {
+        for (NamespaceCache cache : caches.values()) {
+            cache.close();
+        }
+        caches.clear();
+        for (KubernetesClient client : clients.values()) {
+            client.close();
+        }
+        clients.clear();
+    }
+}
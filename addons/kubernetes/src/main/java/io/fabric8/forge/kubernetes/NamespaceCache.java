@@ -0,0 +1,92 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.ReplicationControllerList;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+
+/**
+ * The watch fed caches of the pods, services and replication controllers in a namespace
+ */
+public class NamespaceCache {
+    private final ResourceCache<Pod> pods;
+    private final ResourceCache<Service> services;
+    private final ResourceCache<ReplicationController> replicationControllers;
+
+    public NamespaceCache(KubernetesClient client, String namespace) {
+        pods = new ResourceCache<Pod>(client, namespace, "pods") {
+            @Override
+            protected Listing<Pod> list(KubernetesClient client, String namespace) {
+                PodList list = client.pods().inNamespace(namespace).list();
+                return new Listing<>(list.getItems(), list.getMetadata());
+            }
+
+            @Override
+            protected Watch watch(KubernetesClient client, String namespace, String resourceVersion, Watcher<Pod> watcher) {
+                return client.pods().inNamespace(namespace).watch(resourceVersion, watcher);
+            }
+        };
+        services = new ResourceCache<Service>(client, namespace, "services") {
+            @Override
+            protected Listing<Service> list(KubernetesClient client, String namespace) {
+                ServiceList list = client.services().inNamespace(namespace).list();
+                return new Listing<>(list.getItems(), list.getMetadata());
+            }
+
+            @Override
+            protected Watch watch(KubernetesClient client, String namespace, String resourceVersion, Watcher<Service> watcher) {
+                return client.services().inNamespace(namespace).watch(resourceVersion, watcher);
+            }
+        };
+        replicationControllers = new ResourceCache<ReplicationController>(client, namespace, "replication controllers") {
+            @Override
+            protected Listing<ReplicationController> list(KubernetesClient client, String namespace) {
+                ReplicationControllerList list = client.replicationControllers().inNamespace(namespace).list();
+                return new Listing<>(list.getItems(), list.getMetadata());
+            }
+
+            @Override
+            protected Watch watch(KubernetesClient client, String namespace, String resourceVersion, Watcher<ReplicationController> watcher) {
+                return client.replicationControllers().inNamespace(namespace).watch(resourceVersion, watcher);
+            }
+        };
+    }
+
+    public ResourceCache<Pod> getPods() {
+        return pods;
+    }
+
+    public ResourceCache<Service> getServices() {
+        return services;
+    }
+
+    public ResourceCache<ReplicationController> getReplicationControllers() {
+        return replicationControllers;
+    }
+
+    public void close() {
+        pods.close();
+        services.close();
+        replicationControllers.close();
+    }
+}
@@ -34,7 +34,6 @@ import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
 
 import javax.inject.Inject;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -63,19 +62,17 @@ public class PodsList extends AbstractKubernetesCommand {
 
     @Override
     public Result execute(UIExecutionContext uiExecutionContext) throws Exception {
-        PodList pods = getKubernetes().pods().inNamespace(getNamespace()).list();
-        KubernetesHelper.removeEmptyPods(pods);
-        TablePrinter table = podsAsTable(pods);
-        return tableResults(table);
+        ResourceCache<Pod> pods = getNamespaceCache().getPods();
+        PodList podList = new PodList();
+        podList.setItems(pods.getItems());
+        KubernetesHelper.removeEmptyPods(podList);
+        TablePrinter table = podsAsTable(podList.getItems());
+        return tableResults(table, pods);
     }
 
-    protected TablePrinter podsAsTable(PodList pods) {
+    protected TablePrinter podsAsTable(List<Pod> items) {
         TablePrinter table = new TablePrinter();
         table.columns("id", "image(s)", "host", "labels", "status");
-        List<Pod> items = pods.getItems();
-        if (items == null) {
-            items = Collections.EMPTY_LIST;
-        }
         Filter<Pod> filter = KubernetesHelper.createPodFilter(filterText.getValue());
         for (Pod item : items) {
             if (filter.matches(item)) {
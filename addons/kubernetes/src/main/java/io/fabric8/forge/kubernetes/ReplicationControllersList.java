@@ -17,7 +17,6 @@ package io.fabric8.forge.kubernetes;
 
 import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.kubernetes.api.model.ReplicationController;
-import io.fabric8.kubernetes.api.model.ReplicationControllerList;
 import io.fabric8.kubernetes.api.model.ReplicationControllerSpec;
 import io.fabric8.kubernetes.api.model.ReplicationControllerStatus;
 import io.fabric8.utils.Filter;
@@ -33,8 +32,6 @@ import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
 
 import javax.inject.Inject;
-import java.io.PrintStream;
-import java.util.Collections;
 import java.util.List;
 
 import static io.fabric8.kubernetes.api.KubernetesHelper.toPositiveNonZeroText;
@@ -64,18 +61,13 @@ public class ReplicationControllersList extends AbstractKubernetesCommand {
 
     @Override
     public Result execute(UIExecutionContext uiExecutionContext) throws Exception {
-        ReplicationControllerList replicationControllers = getKubernetes().replicationControllers().inNamespace(getNamespace()).list();
-        printReplicationControllers(replicationControllers, System.out);
-        return null;
+        ResourceCache<ReplicationController> replicationControllers = getNamespaceCache().getReplicationControllers();
+        return tableResults(replicationControllersAsTable(replicationControllers.getItems()), replicationControllers);
     }
 
-    private void printReplicationControllers(ReplicationControllerList replicationControllers, PrintStream out) {
+    private TablePrinter replicationControllersAsTable(List<ReplicationController> items) {
         TablePrinter table = new TablePrinter();
         table.columns("id", "labels", "replicas", "replica selector");
-        List<ReplicationController> items = replicationControllers.getItems();
-        if (items == null) {
-            items = Collections.EMPTY_LIST;
-        }
         Filter<ReplicationController> filter = KubernetesHelper.createReplicationControllerFilter(filterText.getValue());
         for (ReplicationController item : items) {
             if (filter.matches(item)) {
@@ -94,7 +86,7 @@ public class ReplicationControllersList extends AbstractKubernetesCommand {
                 table.row(id, labels, toPositiveNonZeroText(replicas), selector);
             }
         }
-        table.print();
+        return table;
     }
 }
 
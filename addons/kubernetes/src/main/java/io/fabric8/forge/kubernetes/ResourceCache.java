@@ -0,0 +1,188 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ListMeta;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A local copy of one kind of resource in a namespace which is listed once and then kept up to date by a watch
+ * which starts from the <code>resourceVersion</code> of the listing so that no changes are missed in between.
+ * <p/>
+ * If the watch is closed by the server the cache is marked as stale and the next access lists the resources again
+ * and opens a new watch.
+ */
+public abstract class ResourceCache<T extends HasMetadata> implements Watcher<T> {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ResourceCache.class);
+
+    private final KubernetesClient client;
+    private final String namespace;
+    private final String kind;
+    private final Map<String, T> items = new TreeMap<>();
+    private Watch watch;
+    private long lastSynced;
+    private long lastEvent;
+    private String closedReason;
+
+    public ResourceCache(KubernetesClient client, String namespace, String kind) {
+        this.client = client;
+        this.namespace = namespace;
+        this.kind = kind;
+    }
+
+    /**
+     * Lists the resources from the API server
+     */
+    protected abstract Listing<T> list(KubernetesClient client, String namespace);
+
+    /**
+     * Opens a watch on the resources of the namespace for the changes after the given resource version,
+     * which may be null if the listing did not include one
+     */
+    protected abstract Watch watch(KubernetesClient client, String namespace, String resourceVersion, Watcher<T> watcher);
+
+    /**
+     * Returns the cached resources sorted by name, syncing with the API server first if the cache is stale
+     */
+    public List<T> getItems() {
+        synchronized (this) {
+            if (isStale()) {
+                sync();
+            }
+            return new ArrayList<>(items.values());
+        }
+    }
+
+    /**
+     * Returns the sorted names of the cached resources
+     */
+    public List<String> getNames() {
+        List<String> answer = new ArrayList<>();
+        for (T item : getItems()) {
+            answer.add(getName(item));
+        }
+        return answer;
+    }
+
+    public synchronized boolean isStale() {
+        return watch == null;
+    }
+
+    /**
+     * Returns a short description of how fresh the cached data is, to show next to listings
+     */
+    public synchronized String getStatus() {
+        long now = System.currentTimeMillis();
+        if (watch == null) {
+            return kind + ": stale" + (closedReason != null ? " (" + closedReason + ")" : "");
+        }
+        StringBuilder sb = new StringBuilder(kind).append(": watching, synced ").append((now - lastSynced) / 1000).append("s ago");
+        if (lastEvent > 0) {
+            sb.append(", last change ").append((now - lastEvent) / 1000).append("s ago");
+        }
+        return sb.toString();
+    }
+
+    public synchronized void close() {
+        if (watch != null) {
+            watch.close();
+            watch = null;
+        }
+        closedReason = "closed";
+    }
+
+    @Override
+    public synchronized void eventReceived(Action action, T resource) {
+        String name = getName(resource);
+        if (name == null) {
+            return;
+        }
+        lastEvent = System.currentTimeMillis();
+        if (action == Action.DELETED) {
+            items.remove(name);
+        } else if (action == Action.ADDED || action == Action.MODIFIED) {
+            items.put(name, resource);
+        }
+    }
+
+    @Override
+    public synchronized void onClose(KubernetesClientException cause) {
+        watch = null;
+        closedReason = cause != null ? "watch closed: " + cause.getMessage() : "watch closed";
+        if (cause != null) {
+            LOG.debug("Watch of " + kind + " in namespace " + namespace + " closed: " + cause, cause);
+        }
+    }
+
+    private void sync() {
+        Listing<T> listing = list(client, namespace);
+        items.clear();
+        if (listing.items != null) {
+            for (T item : listing.items) {
+                String name = getName(item);
+                if (name != null) {
+                    items.put(name, item);
+                }
+            }
+        }
+        lastSynced = System.currentTimeMillis();
+        lastEvent = 0;
+        closedReason = null;
+        try {
+            watch = watch(client, namespace, listing.resourceVersion, this);
+        } catch (KubernetesClientException e) {
+            // we can still serve the listing, but will list again next time
+            closedReason = "cannot watch: " + e.getMessage();
+            LOG.debug("Failed to watch " + kind + " in namespace " + namespace + ": " + e, e);
+        }
+    }
+
+    private static String getName(HasMetadata resource) {
+        ObjectMeta metadata = resource != null ? resource.getMetadata() : null;
+        return metadata != null ? metadata.getName() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceCache{" + kind + " in " + namespace + "}";
+    }
+
+    /**
+     * The items of a listing along with the resource version to watch from
+     */
+    protected static class Listing<T> {
+        private final List<T> items;
+        private final String resourceVersion;
+
+        public Listing(List<T> items, ListMeta metadata) {
+            this.items = items;
+            this.resourceVersion = metadata != null ? metadata.getResourceVersion() : null;
+        }
+    }
+}
@@ -17,7 +17,6 @@ package io.fabric8.forge.kubernetes;
 
 import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.kubernetes.api.model.Service;
-import io.fabric8.kubernetes.api.model.ServiceList;
 import io.fabric8.utils.Filter;
 import io.fabric8.utils.Strings;
 import io.fabric8.utils.TablePrinter;
@@ -32,9 +31,7 @@ import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
 
 import javax.inject.Inject;
-import java.io.PrintStream;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -66,18 +63,13 @@ public class ServicesList extends AbstractKubernetesCommand {
 
     @Override
     public Result execute(UIExecutionContext uiExecutionContext) throws Exception {
-        ServiceList services = getKubernetes().services().list();
-        printServices(services, System.out);
-        return null;
+        ResourceCache<Service> services = getNamespaceCache().getServices();
+        return tableResults(servicesAsTable(services.getItems()), services);
     }
 
-    private void printServices(ServiceList services, PrintStream out) {
+    private TablePrinter servicesAsTable(List<Service> items) {
         TablePrinter table = new TablePrinter();
         table.columns("id", "labels", "selector", "port");
-        List<Service> items = services.getItems();
-        if (items == null) {
-            items = Collections.EMPTY_LIST;
-        }
         Filter<Service> filter = KubernetesHelper.createServiceFilter(filterText.getValue());
         for (Service service : items) {
             if (filter.matches(service)) {
@@ -95,7 +87,7 @@ public class ServicesList extends AbstractKubernetesCommand {
                 table.row(KubernetesHelper.getName(service), labels, selector, portText);
             }
         }
-        table.print();
+        return table;
     }
 }
 
@@ -0,0 +1,84 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes;
+
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.Service;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ApplyEngineTest {
+    private final ApplyEngine engine = new ApplyEngine(null, "default", 1);
+
+    @Test
+    public void testGroupsAreInDependencyOrder() throws Exception {
+        Pod pod = named(new Pod(), "Pod", "pod");
+        Service service = named(new Service(), "Service", "service");
+        Namespace namespace = named(new Namespace(), "Namespace", "namespace");
+        Secret secret = named(new Secret(), "Secret", "secret");
+        ReplicationController controller = named(new ReplicationController(), "ReplicationController", "rc");
+
+        List<List<HasMetadata>> groups = engine.groupByDependencyOrder(Arrays.<HasMetadata>asList(pod, service, namespace, secret, controller));
+
+        assertEquals(4, groups.size());
+        assertEquals(Arrays.<HasMetadata>asList(namespace), groups.get(0));
+        assertEquals(Arrays.<HasMetadata>asList(secret), groups.get(1));
+        assertEquals(Arrays.<HasMetadata>asList(service), groups.get(2));
+        assertEquals(Arrays.<HasMetadata>asList(pod, controller), groups.get(3));
+    }
+
+    @Test
+    public void testUnknownKindsAreAppliedWithTheServices() throws Exception {
+        Service service = named(new Service(), "Service", "service");
+        Endpoints endpoints = named(new Endpoints(), "Endpoints", "endpoints");
+        Pod pod = named(new Pod(), "Pod", "pod");
+
+        List<List<HasMetadata>> groups = engine.groupByDependencyOrder(Arrays.<HasMetadata>asList(pod, endpoints, service));
+
+        assertEquals(2, groups.size());
+        assertEquals(Arrays.<HasMetadata>asList(endpoints, service), groups.get(0));
+        assertEquals(Arrays.<HasMetadata>asList(pod), groups.get(1));
+    }
+
+    @Test
+    public void testEmptyGroupsAreSkipped() throws Exception {
+        assertEquals(0, engine.groupByDependencyOrder(new ArrayList<HasMetadata>()).size());
+
+        Endpoints endpoints = named(new Endpoints(), "Endpoints", "endpoints");
+        List<List<HasMetadata>> groups = engine.groupByDependencyOrder(Arrays.<HasMetadata>asList(endpoints));
+        assertEquals(1, groups.size());
+        assertEquals(Arrays.<HasMetadata>asList(endpoints), groups.get(0));
+    }
+
+    protected static <T extends HasMetadata> T named(T resource, String kind, String name) {
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setName(name);
+        resource.setMetadata(metadata);
+        assertEquals(kind, resource.getKind());
+        return resource;
+    }
+}
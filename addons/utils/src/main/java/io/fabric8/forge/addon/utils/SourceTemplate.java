@@ -0,0 +1,210 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.addon.utils;
+
+import io.fabric8.utils.IOHelpers;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.source.JavaSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A skeleton of source code with <code>${name}</code> parameters. The text is split into its literal and parameter
+ * parts once when the template is parsed; rendering then only concatenates the parts with the parameter values,
+ * so generating a class parses the Java source once rather than building it up with many Roaster calls.
+ * <p/>
+ * Templates are immutable and thread safe. Use {@link #load(Class, String)} to share templates loaded from the classpath.
+ */
+public final class SourceTemplate {
+    private static final ConcurrentMap<String, SourceTemplate> templates = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final String[] literals;
+    private final String[] parameters;
+
+    private SourceTemplate(String name, String[] literals, String[] parameters) {
+        this.name = name;
+        this.literals = literals;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Returns the template for the given classpath resource, loading and parsing it the first time
+     */
+    public static SourceTemplate load(Class<?> owner, String resource) {
+        String key = owner.getName() + ":" + resource;
+        SourceTemplate answer = templates.get(key);
+        if (answer == null) {
+            InputStream in = owner.getResourceAsStream(resource);
+            if (in == null) {
+                throw new IllegalArgumentException("Could not find template " + resource + " on the classpath of " + owner.getName());
+            }
+            String text;
+            try {
+                text = IOHelpers.readFully(in);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to load template " + resource + ". " + e, e);
+            }
+            SourceTemplate template = parse(resource, text);
+            answer = templates.putIfAbsent(key, template);
+            if (answer == null) {
+                answer = template;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Parses the given template text
+     *
+     * @throws IllegalArgumentException if a parameter is not closed
+     */
+    public static SourceTemplate parse(String name, String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> parameters = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int idx = text.indexOf("${", start);
+            if (idx < 0) {
+                break;
+            }
+            int end = text.indexOf('}', idx + 2);
+            if (end < 0 || !isParameterName(text.substring(idx + 2, end))) {
+                throw new IllegalArgumentException("Template " + name + " has an unclosed parameter at offset " + idx);
+            }
+            literals.add(text.substring(start, idx));
+            parameters.add(text.substring(idx + 2, end).trim());
+            start = end + 1;
+        }
+        literals.add(text.substring(start));
+        return new SourceTemplate(name, literals.toArray(new String[literals.size()]), parameters.toArray(new String[parameters.size()]));
+    }
+
+    private static boolean isParameterName(String name) {
+        // the closing brace of a parameter which is not closed would be found in the code which follows it
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (ch == '{' || ch == '$' || ch == '\n' || ch == '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a package declaration for the given package name, or an empty string for the default package
+     */
+    public static String packageDeclaration(String packageName) {
+        if (packageName == null || packageName.trim().isEmpty()) {
+            return "";
+        }
+        return "package " + packageName + ";\n\n";
+    }
+
+    /**
+     * Escapes the given text so it can be used inside a Java string literal such as <code>"${name}"</code>
+     */
+    public static String escapeJavaString(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder buffer = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            switch (ch) {
+                case '"':
+                    buffer.append("\\\"");
+                    break;
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                default:
+                    if (ch < ' ' || ch > '~') {
+                        buffer.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        buffer.append(ch);
+                    }
+            }
+        }
+        return buffer.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "SourceTemplate{" + name + "}";
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the names of the parameters in the order they first appear
+     */
+    public Set<String> getParameterNames() {
+        Set<String> answer = new LinkedHashSet<>();
+        Collections.addAll(answer, parameters);
+        return answer;
+    }
+
+    /**
+     * Renders the template with the given parameter values
+     *
+     * @throws IllegalArgumentException if a parameter has no value
+     */
+    public String render(Map<String, String> values) {
+        int size = 0;
+        for (String literal : literals) {
+            size += literal.length();
+        }
+        StringBuilder buffer = new StringBuilder(size + 64 * parameters.length);
+        for (int i = 0; i < parameters.length; i++) {
+            buffer.append(literals[i]);
+            String value = values.get(parameters[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("No value for parameter " + parameters[i] + " of template " + name);
+            }
+            buffer.append(value);
+        }
+        buffer.append(literals[literals.length - 1]);
+        return buffer.toString();
+    }
+
+    /**
+     * Renders the template with the given parameter values and parses the result as Java source
+     */
+    public <T extends JavaSource<?>> T renderJava(Class<T> type, Map<String, String> values) {
+        return Roaster.parse(type, render(values));
+    }
+}
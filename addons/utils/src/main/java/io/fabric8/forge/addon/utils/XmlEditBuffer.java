@@ -0,0 +1,271 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.addon.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+/**
+ * An in memory buffer of the lines of an XML file which several edits can be applied to before its written back once.
+ * <p/>
+ * The file is read once and is only parsed with {@link XmlLineNumberParser} the first time the {@link #getDocument()}
+ * is used. After each edit the line numbers of the elements in the document are updated rather than parsing the file
+ * again; elements whose lines are removed are removed from the document. Any elements added by an edit are only in
+ * the document after {@link #refresh()}.
+ * <p/>
+ * The text is decoded and encoded using the encoding declared in the XML declaration, or UTF-8 if there is none.
+ */
+public class XmlEditBuffer {
+
+    private static final Pattern ENCODING_PATTERN = Pattern.compile("^<\\?xml[^>]*\\sencoding\\s*=\\s*[\"']([A-Za-z0-9._:-]+)[\"']");
+
+    private final List<String> lines;
+    private final Charset charset;
+    private byte[] data;
+    private byte[] savedData;
+    private Document document;
+    private boolean modified;
+
+    protected XmlEditBuffer(byte[] data) throws IOException {
+        this.data = data;
+        this.savedData = data;
+        this.charset = declaredCharset(data);
+        this.lines = LineNumberHelper.readLines(new InputStreamReader(new ByteArrayInputStream(data), charset));
+    }
+
+    /**
+     * Returns the encoding declared in the XML declaration or UTF-8 if there is none or its not supported
+     */
+    protected static Charset declaredCharset(byte[] data) {
+        // the declaration is ASCII in all the encodings we support
+        String head = new String(data, 0, Math.min(data.length, 200), StandardCharsets.ISO_8859_1);
+        Matcher matcher = ENCODING_PATTERN.matcher(head);
+        if (matcher.find()) {
+            try {
+                return Charset.forName(matcher.group(1));
+            } catch (IllegalArgumentException e) {
+                // fall back to UTF-8
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Reads the XML from the given stream which is closed afterwards
+     */
+    public static XmlEditBuffer read(InputStream is) throws IOException {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] bytes = new byte[8192];
+            int n;
+            while ((n = is.read(bytes)) > 0) {
+                buffer.write(bytes, 0, n);
+            }
+            return new XmlEditBuffer(buffer.toByteArray());
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * Returns the parsed document with line numbers, parsing the XML the first time its called
+     */
+    public Document getDocument() throws Exception {
+        if (document == null) {
+            document = XmlLineNumberParser.parseXml(new ByteArrayInputStream(getData()));
+        }
+        return document;
+    }
+
+    /**
+     * Parses the current content again so that any added elements are in the {@link #getDocument()}
+     */
+    public Document refresh() throws Exception {
+        document = null;
+        return getDocument();
+    }
+
+    /**
+     * Returns a read only view of the lines
+     */
+    public List<String> getLines() {
+        return Collections.unmodifiableList(lines);
+    }
+
+    public int getLineCount() {
+        return lines.size();
+    }
+
+    /**
+     * Returns the line at the given 0-based index
+     */
+    public String getLine(int index) {
+        return lines.get(index);
+    }
+
+    /**
+     * Returns the number of leading spaces of the last non empty line up to the given 0-based index
+     */
+    public int leadingSpaces(int index) {
+        return LineNumberHelper.leadingSpaces(lines, index);
+    }
+
+    /**
+     * Replaces the line at the given 0-based index
+     */
+    public void setLine(int index, String line) {
+        replaceLines(index, 1, Collections.singletonList(line));
+    }
+
+    /**
+     * Inserts the lines before the given 0-based index
+     */
+    public void insertLines(int index, String... newLines) {
+        List<String> list = new ArrayList<>(newLines.length);
+        Collections.addAll(list, newLines);
+        replaceLines(index, 0, list);
+    }
+
+    /**
+     * Removes the given number of lines from the given 0-based index
+     */
+    public void removeLines(int index, int count) {
+        replaceLines(index, count, Collections.<String>emptyList());
+    }
+
+    /**
+     * Replaces the given number of lines from the given 0-based index with the new lines
+     */
+    public void replaceLines(int index, int count, List<String> newLines) {
+        List<String> range = lines.subList(index, index + count);
+        range.clear();
+        range.addAll(newLines);
+        data = null;
+        modified = true;
+        if (document != null && count != newLines.size()) {
+            updateLineNumbers(document, index, count, newLines.size());
+        }
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Marks the buffer as saved after its {@link #getBytes()} have been written back to the file; the document is
+     * parsed again on next use so that it includes any added elements
+     */
+    public void saved() {
+        savedData = getData();
+        document = null;
+        modified = false;
+    }
+
+    /**
+     * Discards any changes since the buffer was read or last saved
+     */
+    public void revert() throws IOException {
+        lines.clear();
+        lines.addAll(LineNumberHelper.readLines(new InputStreamReader(new ByteArrayInputStream(savedData), charset)));
+        data = savedData;
+        document = null;
+        modified = false;
+    }
+
+    /**
+     * Returns the charset used to decode and encode the text
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Returns the text of the XML
+     */
+    public String getText() {
+        return LineNumberHelper.linesToString(lines);
+    }
+
+    /**
+     * Returns the text encoded in the {@link #getCharset()} of the XML
+     */
+    public byte[] getBytes() {
+        return getData().clone();
+    }
+
+    protected byte[] getData() {
+        if (data == null) {
+            data = getText().getBytes(charset);
+        }
+        return data;
+    }
+
+    /**
+     * Updates the line numbers of the elements after lines have been replaced; removing any elements which
+     * were entirely within the replaced lines
+     */
+    protected static void updateLineNumbers(Node parent, int index, int removed, int added) {
+        int delta = added - removed;
+        Node child = parent.getFirstChild();
+        while (child != null) {
+            Node next = child.getNextSibling();
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                int start = lineNumber(child, XmlLineNumberParser.LINE_NUMBER);
+                int end = lineNumber(child, XmlLineNumberParser.LINE_NUMBER_END);
+                // line numbers are 1-based
+                if (start > index && start <= index + removed && end <= index + removed) {
+                    parent.removeChild(child);
+                } else {
+                    if (start > index + removed) {
+                        setLineNumber(child, XmlLineNumberParser.LINE_NUMBER, start + delta);
+                    }
+                    if (end > index + removed) {
+                        setLineNumber(child, XmlLineNumberParser.LINE_NUMBER_END, end + delta);
+                    } else if (end > index) {
+                        setLineNumber(child, XmlLineNumberParser.LINE_NUMBER_END, Math.max(start, index + added));
+                    }
+                    // only elements which end after the change can contain elements which need updating
+                    if (end > index) {
+                        updateLineNumbers(child, index, removed, added);
+                    }
+                }
+            }
+            child = next;
+        }
+    }
+
+    private static int lineNumber(Node node, String key) {
+        Object value = node.getUserData(key);
+        return value != null ? Integer.parseInt(value.toString()) : 0;
+    }
+
+    private static void setLineNumber(Node node, String key, int value) {
+        node.setUserData(key, Integer.toString(value), null);
+    }
+}
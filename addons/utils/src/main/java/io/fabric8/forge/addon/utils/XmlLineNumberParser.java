@@ -21,6 +21,7 @@ import java.io.StringReader;
 import java.util.Stack;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
@@ -51,6 +52,11 @@ public final class XmlLineNumberParser {
     public static final String LINE_NUMBER_END = "lineNumberEnd";
     public static final String COLUMN_NUMBER_END = "colNumberEnd";
 
+    // looking up the factories is expensive so lets only do it once; the parsers are cheap to create from them
+    // and are created per call so that no thread keeps a reference to this class loader
+    private static final SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
+    private static final DocumentBuilderFactory documentBuilderFactory = createDocumentBuilderFactory();
+
     /**
      * Parses the XML.
      *
@@ -73,22 +79,26 @@ public final class XmlLineNumberParser {
      * @throws Exception is thrown if error parsing
      */
     public static Document parseXml(final InputStream is, final String rootNames, final String forceNamespace) throws Exception {
+        return parseXml(is, rootNames, forceNamespace, false);
+    }
+
+    /**
+     * Parses the XML.
+     *
+     * @param is the XML content as an input stream
+     * @param rootNames one or more root names that is used as baseline for beginning the parsing, for example camelContext to start parsing
+     *                  when Camel is discovered. Multiple names can be defined separated by comma
+     * @param forceNamespace an optional namespace to force assign to each node. This may be needed for JAXB unmarshalling from XML -> POJO.
+     * @param stopAfterRoot whether to stop parsing as soon as the root element has been closed, so the rest of the XML is not parsed
+     *                      (for example the bean definitions after a camelContext in a large spring XML file)
+     * @return the DOM model
+     * @throws Exception is thrown if error parsing
+     */
+    public static Document parseXml(final InputStream is, final String rootNames, final String forceNamespace, final boolean stopAfterRoot) throws Exception {
         final Document doc;
-        SAXParser parser;
-        final SAXParserFactory factory = SAXParserFactory.newInstance();
-        parser = factory.newSAXParser();
-        final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-        // turn off validator and loading external dtd
-        dbf.setValidating(false);
-        dbf.setNamespaceAware(true);
-        dbf.setFeature("http://xml.org/sax/features/namespaces", false);
-        dbf.setFeature("http://xml.org/sax/features/validation", false);
-        dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
-        dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-        dbf.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-        dbf.setFeature("http://xml.org/sax/features/external-general-entities", false);
-        final DocumentBuilder docBuilder = dbf.newDocumentBuilder();
-        doc = docBuilder.newDocument();
+        SAXParser parser = getSaxParser();
+        doc = getDocumentBuilder().newDocument();
+        final String[] roots = rootNames != null ? rootNames.split(",") : null;
 
         final Stack<Element> elementStack = new Stack<Element>();
         final StringBuilder textBuffer = new StringBuilder();
@@ -103,7 +113,7 @@ public final class XmlLineNumberParser {
             }
 
             private boolean isRootName(String qName) {
-                for (String root : rootNames.split(",")) {
+                for (String root : roots) {
                     if (qName.equals(root)) {
                         return true;
                     }
@@ -140,7 +150,7 @@ public final class XmlLineNumberParser {
             }
 
             @Override
-            public void endElement(final String uri, final String localName, final String qName) {
+            public void endElement(final String uri, final String localName, final String qName) throws SAXException {
                 if (!found) {
                     return;
                 }
@@ -159,6 +169,11 @@ public final class XmlLineNumberParser {
 
                     closedEl.setUserData(LINE_NUMBER_END, String.valueOf(this.locator.getLineNumber()), null);
                     closedEl.setUserData(COLUMN_NUMBER_END, String.valueOf(this.locator.getColumnNumber()), null);
+
+                    if (stopAfterRoot && rootNames != null && elementStack.isEmpty()) {
+                        // we have the root element so there is no need to parse the rest of the XML
+                        throw new RootElementClosedException();
+                    }
                 }
             }
 
@@ -185,9 +200,58 @@ public final class XmlLineNumberParser {
                 }
             }
         };
-        parser.parse(is, handler);
+        try {
+            parser.parse(is, handler);
+        } catch (RootElementClosedException e) {
+            // ignore as we stopped parsing on purpose
+        }
 
         return doc;
     }
 
+    private static SAXParser getSaxParser() throws Exception {
+        // the factories are not guaranteed to be thread safe
+        synchronized (saxParserFactory) {
+            return saxParserFactory.newSAXParser();
+        }
+    }
+
+    private static DocumentBuilder getDocumentBuilder() throws Exception {
+        synchronized (documentBuilderFactory) {
+            return documentBuilderFactory.newDocumentBuilder();
+        }
+    }
+
+    private static DocumentBuilderFactory createDocumentBuilderFactory() {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        // turn off validator and loading external dtd
+        dbf.setValidating(false);
+        dbf.setNamespaceAware(true);
+        try {
+            dbf.setFeature("http://xml.org/sax/features/namespaces", false);
+            dbf.setFeature("http://xml.org/sax/features/validation", false);
+            dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
+            dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            dbf.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            dbf.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Cannot configure the DocumentBuilderFactory: " + e.getMessage(), e);
+        }
+        return dbf;
+    }
+
+    /**
+     * Thrown to stop parsing once the root element has been closed
+     */
+    private static final class RootElementClosedException extends SAXException {
+        RootElementClosedException() {
+            super("Root element closed");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
 }
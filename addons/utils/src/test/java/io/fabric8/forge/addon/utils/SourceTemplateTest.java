@@ -0,0 +1,79 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.addon.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ */
+public class SourceTemplateTest {
+
+    @Test
+    public void testRender() throws Exception {
+        SourceTemplate template = SourceTemplate.parse("test", "${packageDeclaration}public class ${className} {\n    ${className}() {}\n}\n");
+        assertEquals(new LinkedHashSet<>(Arrays.asList("packageDeclaration", "className")), template.getParameterNames());
+
+        Map<String, String> values = new HashMap<>();
+        values.put("packageDeclaration", SourceTemplate.packageDeclaration("com.acme"));
+        values.put("className", "Foo");
+        assertEquals("package com.acme;\n\npublic class Foo {\n    Foo() {}\n}\n", template.render(values));
+
+        values.put("packageDeclaration", SourceTemplate.packageDeclaration(""));
+        values.put("className", "Bar");
+        assertEquals("public class Bar {\n    Bar() {}\n}\n", template.render(values));
+    }
+
+    @Test
+    public void testNoParameters() throws Exception {
+        SourceTemplate template = SourceTemplate.parse("test", "class Foo {}");
+        assertEquals("class Foo {}", template.render(new HashMap<String, String>()));
+    }
+
+    @Test
+    public void testMissingValue() throws Exception {
+        SourceTemplate template = SourceTemplate.parse("test", "class ${className} {}");
+        try {
+            template.render(new HashMap<String, String>());
+            fail("Should have failed as there is no className");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testEscapeJavaString() throws Exception {
+        assertEquals("activemq", SourceTemplate.escapeJavaString("activemq"));
+        assertEquals("a\\\"b\\\\c\\nd\\u00e9", SourceTemplate.escapeJavaString("a\"b\\c\nd\u00e9"));
+
+        SourceTemplate template = SourceTemplate.parse("test", "String name = \"${name}\";");
+        Map<String, String> values = new HashMap<>();
+        values.put("name", SourceTemplate.escapeJavaString("x\"); System.exit(1); //"));
+        assertEquals("String name = \"x\\\"); System.exit(1); //\";", template.render(values));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnclosedParameter() throws Exception {
+        SourceTemplate.parse("test", "class ${className {}");
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.addon.utils;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ */
+public class XmlEditBufferTest {
+    private static final String XML = "<camelContext>\n"
+            + "  <route id=\"a\">\n"
+            + "    <from uri=\"seda:a\"/>\n"
+            + "    <to uri=\"log:a\"/>\n"
+            + "  </route>\n"
+            + "  <route id=\"b\">\n"
+            + "    <from uri=\"seda:b\"/>\n"
+            + "  </route>\n"
+            + "</camelContext>\n";
+
+    @Test
+    public void testLineNumbersUpdatedAfterInsert() throws Exception {
+        XmlEditBuffer buffer = XmlEditBuffer.read(new ByteArrayInputStream(XML.getBytes()));
+        Document document = buffer.getDocument();
+
+        buffer.insertLines(3, "    <to uri=\"log:b\"/>", "    <to uri=\"log:c\"/>");
+
+        assertLines(routes(document, 0), 2, 7);
+        assertLines(routes(document, 1), 8, 10);
+        assertLines(document.getDocumentElement(), 1, 11);
+        assertEquals("    <to uri=\"log:b\"/>", buffer.getLine(3));
+
+        // the added elements are only in the document after its refreshed
+        assertEquals(3, buffer.refresh().getElementsByTagName("to").getLength());
+        assertLines(routes(buffer.getDocument(), 1), 8, 10);
+    }
+
+    @Test
+    public void testRemovedElementsRemovedFromDocument() throws Exception {
+        XmlEditBuffer buffer = XmlEditBuffer.read(new ByteArrayInputStream(XML.getBytes()));
+        Document document = buffer.getDocument();
+
+        // remove the first route
+        buffer.removeLines(1, 4);
+
+        assertEquals(1, document.getElementsByTagName("route").getLength());
+        assertLines(routes(document, 0), 2, 4);
+        assertLines(document.getDocumentElement(), 1, 5);
+        assertEquals(5, buffer.getLineCount());
+    }
+
+    @Test
+    public void testDeclaredEncodingIsUsed() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<camelContext>\n  <route id=\"caf\u00e9\"/>\n</camelContext>\n";
+        XmlEditBuffer buffer = XmlEditBuffer.read(new ByteArrayInputStream(xml.getBytes("ISO-8859-1")));
+        assertEquals("ISO-8859-1", buffer.getCharset().name());
+        assertEquals("  <route id=\"caf\u00e9\"/>", buffer.getLine(2));
+        assertEquals("caf\u00e9", routes(buffer.getDocument(), 0).getAttribute("id"));
+
+        buffer.setLine(2, "  <route id=\"na\u00efve\"/>");
+        String expected = xml.replace("caf\u00e9", "na\u00efve").replace("\n", System.lineSeparator());
+        assertEquals(expected, new String(buffer.getBytes(), "ISO-8859-1"));
+    }
+
+    @Test
+    public void testUtf8IsUsedByDefault() throws Exception {
+        String xml = "<camelContext>\n  <route id=\"\u00fcber\"/>\n</camelContext>\n";
+        XmlEditBuffer buffer = XmlEditBuffer.read(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+        assertEquals("UTF-8", buffer.getCharset().name());
+        assertEquals("\u00fcber", routes(buffer.getDocument(), 0).getAttribute("id"));
+    }
+
+    @Test
+    public void testRevertDiscardsUnsavedChanges() throws Exception {
+        XmlEditBuffer buffer = XmlEditBuffer.read(new ByteArrayInputStream(XML.getBytes("UTF-8")));
+        buffer.removeLines(1, 4);
+        buffer.saved();
+        buffer.insertLines(1, "  <oops>");
+        assertEquals(true, buffer.isModified());
+
+        buffer.revert();
+        assertEquals(false, buffer.isModified());
+        assertEquals(5, buffer.getLineCount());
+        assertEquals(1, buffer.getDocument().getElementsByTagName("route").getLength());
+    }
+
+    protected static Element routes(Document document, int index) {
+        return (Element) document.getElementsByTagName("route").item(index);
+    }
+
+    protected static void assertLines(Element element, int start, int end) {
+        assertEquals("start line of " + element.getTagName(), Integer.toString(start), element.getUserData(XmlLineNumberParser.LINE_NUMBER));
+        assertEquals("end line of " + element.getTagName(), Integer.toString(end), element.getUserData(XmlLineNumberParser.LINE_NUMBER_END));
+    }
+}
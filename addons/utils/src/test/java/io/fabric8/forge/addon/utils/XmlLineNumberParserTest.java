@@ -0,0 +1,67 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.addon.utils;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ */
+public class XmlLineNumberParserTest {
+    private static final String XML = "<beans>\n"
+            + "  <bean id=\"a\"/>\n"
+            + "  <camelContext>\n"
+            + "    <route><from uri=\"seda:a\"/></route>\n"
+            + "  </camelContext>\n"
+            + "  <bean id=\"b\"/>\n"
+            // not well formed so parsing the whole file would fail
+            + "  <bean id=\"c\">\n";
+
+    @Test
+    public void testStopsParsingAfterRootElement() throws Exception {
+        Document doc = XmlLineNumberParser.parseXml(new ByteArrayInputStream(XML.getBytes()), "camelContext,routes,rests", null, true);
+        Element root = doc.getDocumentElement();
+        assertEquals("camelContext", root.getTagName());
+        assertEquals("3", root.getUserData(XmlLineNumberParser.LINE_NUMBER));
+        assertEquals("5", root.getUserData(XmlLineNumberParser.LINE_NUMBER_END));
+        assertEquals(1, doc.getElementsByTagName("route").getLength());
+    }
+
+    @Test
+    public void testParsesTheWholeXmlByDefault() throws Exception {
+        try {
+            XmlLineNumberParser.parseXml(new ByteArrayInputStream(XML.getBytes()), "camelContext,routes,rests", null);
+            fail("Should have failed to parse the elements after the root element");
+        } catch (Exception e) {
+            // expected as the whole XML is parsed
+        }
+    }
+
+    @Test
+    public void testParsesRepeatedly() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Document doc = XmlLineNumberParser.parseXml(new ByteArrayInputStream("<a>\n<b/>\n</a>".getBytes()));
+            assertEquals("a", doc.getDocumentElement().getTagName());
+            assertEquals("2", doc.getElementsByTagName("b").item(0).getUserData(XmlLineNumberParser.LINE_NUMBER));
+        }
+    }
+}
@@ -25,6 +25,7 @@ import io.fabric8.forge.rest.dto.WizardResultsDTO;
 import io.fabric8.forge.rest.git.GitContext;
 import io.fabric8.forge.rest.git.GitLockManager;
 import io.fabric8.forge.rest.git.GitOperation;
+import io.fabric8.forge.rest.git.GitPushQueue;
 import io.fabric8.forge.rest.git.RepositoriesResource;
 import io.fabric8.forge.rest.git.RepositoryResource;
 import io.fabric8.forge.rest.hooks.CommandCompletePostProcessor;
@@ -32,6 +33,8 @@ import io.fabric8.forge.rest.main.GitUserHelper;
 import io.fabric8.forge.rest.main.ProjectFileSystem;
 import io.fabric8.forge.rest.main.RepositoryCache;
 import io.fabric8.forge.rest.main.UserDetails;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
+import io.fabric8.forge.rest.producer.FurnaceProducer;
 import io.fabric8.forge.rest.ui.RestUIContext;
 import io.fabric8.forge.rest.ui.RestUIFunction;
 import io.fabric8.forge.rest.ui.RestUIRuntime;
@@ -51,8 +54,6 @@ import org.jboss.forge.addon.ui.controller.WizardCommandController;
 import org.jboss.forge.addon.ui.output.UIMessage;
 import org.jboss.forge.addon.ui.result.Result;
 import org.jboss.forge.furnace.Furnace;
-import org.jboss.forge.furnace.addons.AddonRegistry;
-import org.jboss.forge.furnace.services.Imported;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -106,10 +107,7 @@ public class CommandsResource {
     private Furnace furnace;
 
     @Inject
-    private CommandControllerFactory commandControllerFactory;
-
-    @Inject
-    private CommandFactory commandFactory;
+    private FurnaceProducer furnaceProducer;
 
     @Inject
     private CommandCompletePostProcessor commandCompletePostProcessor;
@@ -129,6 +127,12 @@ public class CommandsResource {
     @Inject
     private GitLockManager lockManager;
 
+    @Inject
+    private MetricsRegistry metricsRegistry;
+
+    @Inject
+    private GitPushQueue pushQueue;
+
     @Context
     private HttpServletRequest request;
 
@@ -146,7 +150,7 @@ public class CommandsResource {
     public List<String> getCommandNames() {
         List<String> answer = new ArrayList<>();
         try (RestUIContext context = new RestUIContext()) {
-            for (String commandName : commandFactory.getCommandNames(context)) {
+            for (String commandName : getCommandFactory().getCommandNames(context)) {
                 answer.add(commandName);
             }
         }
@@ -175,7 +179,7 @@ public class CommandsResource {
             @Override
             public List<CommandInfoDTO> apply(RestUIContext context) {
                 List<CommandInfoDTO> answer = new ArrayList<>();
-                for (String name : commandFactory.getCommandNames(context)) {
+                for (String name : getCommandFactory().getCommandNames(context)) {
                     try {
                         CommandInfoDTO dto = createCommandInfoDTO(context, name);
                         if (dto != null && dto.isEnabled()) {
@@ -301,6 +305,7 @@ public class CommandsResource {
                     map.put(TARGET_LOCATION_PROPERTY, projectFileSystem.getUserProjectFolderLocation(userDetails));
                 }
             }
+            long start = System.nanoTime();
             CommandController controller = createController(context, command);
             configureAttributeMaps(userDetails, controller, executionRequest);
             ExecutionResult answer = null;
@@ -379,8 +384,11 @@ public class CommandsResource {
                 LOG.debug("Invoked command " + name + " with " + executionRequest + " result: " + result);
                 answer = UICommands.createExecutionResult(context, result, false);
             }
+            metricsRegistry.timer("forge_command_execute", "command", name).updateSince(start);
             if (answer.isCommandCompleted() && postProcessor != null) {
+                start = System.nanoTime();
                 postProcessor.firePostCompleteActions(name, executionRequest, context, controller, answer, request);
+                metricsRegistry.timer("forge_command_post_complete", "command", name).updateSince(start);
             }
             context.setCommitMessage(ExecutionRequest.createCommitMessage(name, executionRequest));
             return Response.ok(answer).build();
@@ -544,12 +552,12 @@ public class CommandsResource {
     }
 
     protected UICommand getCommandByName(RestUIContext context, String name) {
-        return commandFactory.getCommandByName(context, name);
+        return getCommandFactory().getCommandByName(context, name);
     }
 
     protected CommandController createController(RestUIContext context, UICommand command) throws Exception {
         RestUIRuntime runtime = new RestUIRuntime();
-        CommandController controller = commandControllerFactory.createController(context, runtime,
+        CommandController controller = getControllerFactory().createController(context, runtime,
                 command);
         controller.initialize();
         return controller;
@@ -562,7 +570,7 @@ public class CommandsResource {
     protected <T> T withUIContext(final String namespace, final String projectName, String resourcePath, boolean write, final RestUIFunction<T> function, final GitContext gitContext) throws Exception {
         final ResourceFactory resourceFactory = getResourceFactory();
         if (Strings.isNotBlank(namespace) && Strings.isNotBlank(projectName) && resourceFactory != null) {
-            RepositoriesResource repositoriesResource = new RepositoriesResource(gitUserHelper, repositoryCache, projectFileSystem, lockManager, kubernetes);
+            RepositoriesResource repositoriesResource = new RepositoriesResource(gitUserHelper, repositoryCache, projectFileSystem, lockManager, kubernetes, metricsRegistry, pushQueue);
             repositoriesResource.setRequest(request);
             final RepositoryResource projectResource = repositoriesResource.projectRepositoryResource(namespace, projectName);
             if (projectResource == null) {
@@ -607,29 +615,23 @@ public class CommandsResource {
         return new RestUIContext(selection);
     }
 
+    protected CommandFactory getCommandFactory() {
+        return furnaceProducer.getCommandFactory();
+    }
+
+    protected CommandControllerFactory getControllerFactory() {
+        return furnaceProducer.getControllerFactory();
+    }
+
     protected ResourceFactory getResourceFactory() {
-        AddonRegistry addonRegistry = furnace.getAddonRegistry();
-        Imported<ResourceFactory> resourceFactoryImport = addonRegistry.getServices(ResourceFactory.class);
-        ResourceFactory resourceFactory = null;
-        try {
-            resourceFactory = resourceFactoryImport.get();
-        } catch (Exception e) {
-            LOG.warn("Failed to get ResourceFactory injected: " + e, e);
-        }
-        if (resourceFactory == null) {
-            // lets try one more time - might work this time?
-            resourceFactory = resourceFactoryImport.get();
-        }
-        return resourceFactory;
+        return furnaceProducer.getResourceFactory();
     }
 
     public ConverterFactory getConverterFactory() {
-        if (converterFactory == null) {
-            AddonRegistry addonRegistry = furnace.getAddonRegistry();
-            Imported<ConverterFactory> converterFactoryImport = addonRegistry.getServices(ConverterFactory.class);
-            converterFactory = converterFactoryImport.get();
+        if (converterFactory != null) {
+            return converterFactory;
         }
-        return converterFactory;
+        return furnaceProducer.getConverterFactory();
     }
 
     public void setConverterFactory(ConverterFactory converterFactory) {
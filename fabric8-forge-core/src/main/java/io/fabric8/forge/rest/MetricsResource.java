@@ -0,0 +1,90 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest;
+
+import io.fabric8.forge.rest.dto.CounterDTO;
+import io.fabric8.forge.rest.dto.MetricsDTO;
+import io.fabric8.forge.rest.dto.TimerDTO;
+import io.fabric8.forge.rest.dto.WorkflowSyncStatusDTO;
+import io.fabric8.forge.rest.main.ProjectFileSystem;
+import io.fabric8.forge.rest.metrics.Counter;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
+import io.fabric8.forge.rest.metrics.PrometheusTextFormat;
+import io.fabric8.forge.rest.metrics.Timer;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exposes the metrics recorded by fabric8-forge in the Prometheus text format or as JSON
+ */
+@Singleton
+@Path("/api/forge/metrics")
+public class MetricsResource {
+    private final MetricsRegistry metricsRegistry;
+    private final ProjectFileSystem projectFileSystem;
+
+    @Inject
+    public MetricsResource(MetricsRegistry metricsRegistry, ProjectFileSystem projectFileSystem) {
+        this.metricsRegistry = metricsRegistry;
+        this.projectFileSystem = projectFileSystem;
+    }
+
+    @GET
+    @Produces(MediaType.TEXT_PLAIN)
+    public Response getPrometheusMetrics() {
+        StreamingOutput output = new StreamingOutput() {
+            @Override
+            public void write(OutputStream out) throws IOException {
+                PrometheusTextFormat.write(new OutputStreamWriter(out, "UTF-8"), metricsRegistry);
+            }
+        };
+        return Response.ok(output, PrometheusTextFormat.CONTENT_TYPE).build();
+    }
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public MetricsDTO getMetrics() {
+        List<TimerDTO> timers = new ArrayList<>();
+        for (Timer timer : metricsRegistry.getTimers()) {
+            timers.add(new TimerDTO(timer.getName(), timer.getLabels(), timer.getCount(),
+                    timer.getTotalMillis(), timer.getMaxMillis(), timer.getMeanMillis()));
+        }
+        List<CounterDTO> counters = new ArrayList<>();
+        for (Counter counter : metricsRegistry.getCounters()) {
+            counters.add(new CounterDTO(counter.getName(), counter.getLabels(), counter.getCount()));
+        }
+        return new MetricsDTO(timers, counters);
+    }
+
+    @GET
+    @Path("/workflowSync")
+    @Produces(MediaType.APPLICATION_JSON)
+    public WorkflowSyncStatusDTO getWorkflowSyncStatus() {
+        return projectFileSystem.getJenkinsWorkflowSyncStatus();
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest;
+
+import io.fabric8.forge.rest.dto.WarmupStatusDTO;
+import io.fabric8.forge.rest.main.WarmupManager;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+/**
+ * Reports whether the startup warm up has completed along with the progress and timings of each warm up stage.
+ * <p/>
+ * Returns a 503 status code until the warm up is complete so it can be used as a readiness probe. Stages which
+ * failed or timed out do not keep Forge unready; they are reported as degraded instead.
+ */
+@Singleton
+@Path("/api/forge/readiness")
+@Produces(MediaType.APPLICATION_JSON)
+public class ReadinessResource {
+    private final WarmupManager warmupManager;
+
+    @Inject
+    public ReadinessResource(WarmupManager warmupManager) {
+        this.warmupManager = warmupManager;
+    }
+
+    @GET
+    public Response readiness() {
+        WarmupStatusDTO status = warmupManager.getStatus();
+        Status code = status.isReady() ? Status.OK : Status.SERVICE_UNAVAILABLE;
+        return Response.status(code).entity(status).build();
+    }
+}
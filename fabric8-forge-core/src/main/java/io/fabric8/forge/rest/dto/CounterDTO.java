@@ -0,0 +1,57 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Represents a snapshot of the number of times some event has occurred
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class CounterDTO {
+    private final String name;
+    private final Map<String, String> labels;
+    private final long count;
+
+    public CounterDTO(String name, Map<String, String> labels, long count) {
+        this.name = name;
+        this.labels = labels;
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return "CounterDTO{" +
+                "name='" + name + '\'' +
+                ", labels=" + labels +
+                ", count=" + count +
+                '}';
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
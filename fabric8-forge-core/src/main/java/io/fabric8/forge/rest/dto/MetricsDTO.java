@@ -0,0 +1,47 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.dto;
+
+import java.util.List;
+
+/**
+ * Represents a snapshot of all the metrics recorded by fabric8-forge
+ */
+public class MetricsDTO {
+    private final List<TimerDTO> timers;
+    private final List<CounterDTO> counters;
+
+    public MetricsDTO(List<TimerDTO> timers, List<CounterDTO> counters) {
+        this.timers = timers;
+        this.counters = counters;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsDTO{" +
+                "timers=" + timers +
+                ", counters=" + counters +
+                '}';
+    }
+
+    public List<TimerDTO> getTimers() {
+        return timers;
+    }
+
+    public List<CounterDTO> getCounters() {
+        return counters;
+    }
+}
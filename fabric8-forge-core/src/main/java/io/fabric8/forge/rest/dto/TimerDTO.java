@@ -0,0 +1,78 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Represents a snapshot of the durations recorded for some operation
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class TimerDTO {
+    private final String name;
+    private final Map<String, String> labels;
+    private final long count;
+    private final double totalMillis;
+    private final double maxMillis;
+    private final double meanMillis;
+
+    public TimerDTO(String name, Map<String, String> labels, long count, double totalMillis, double maxMillis, double meanMillis) {
+        this.name = name;
+        this.labels = labels;
+        this.count = count;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+        this.meanMillis = meanMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "TimerDTO{" +
+                "name='" + name + '\'' +
+                ", labels=" + labels +
+                ", count=" + count +
+                ", totalMillis=" + totalMillis +
+                ", maxMillis=" + maxMillis +
+                ", meanMillis=" + meanMillis +
+                '}';
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+}
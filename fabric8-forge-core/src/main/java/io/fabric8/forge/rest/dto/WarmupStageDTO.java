@@ -0,0 +1,62 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Represents the progress of a single stage of the startup warm up
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class WarmupStageDTO {
+    private final String name;
+    private final String status;
+    private final long durationMillis;
+    private final String message;
+
+    public WarmupStageDTO(String name, String status, long durationMillis, String message) {
+        this.name = name;
+        this.status = status;
+        this.durationMillis = durationMillis;
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "WarmupStageDTO{" +
+                "name='" + name + '\'' +
+                ", status='" + status + '\'' +
+                ", durationMillis=" + durationMillis +
+                ", message='" + message + '\'' +
+                '}';
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
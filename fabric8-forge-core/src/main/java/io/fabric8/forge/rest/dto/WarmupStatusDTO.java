@@ -0,0 +1,83 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.dto;
+
+import java.util.List;
+
+/**
+ * Represents the overall progress of the startup warm up
+ */
+public class WarmupStatusDTO {
+    private final boolean enabled;
+    private final boolean ready;
+    private final boolean degraded;
+    private final int completedStages;
+    private final int totalStages;
+    private final long elapsedMillis;
+    private final List<WarmupStageDTO> stages;
+
+    public WarmupStatusDTO(boolean enabled, boolean ready, boolean degraded, int completedStages, int totalStages, long elapsedMillis, List<WarmupStageDTO> stages) {
+        this.enabled = enabled;
+        this.ready = ready;
+        this.degraded = degraded;
+        this.completedStages = completedStages;
+        this.totalStages = totalStages;
+        this.elapsedMillis = elapsedMillis;
+        this.stages = stages;
+    }
+
+    @Override
+    public String toString() {
+        return "WarmupStatusDTO{" +
+                "ready=" + ready +
+                ", degraded=" + degraded +
+                ", completedStages=" + completedStages +
+                ", totalStages=" + totalStages +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns true if any stage failed or timed out; so that its work will be done lazily by the first request which needs it
+     */
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    public int getCompletedStages() {
+        return completedStages;
+    }
+
+    public int getTotalStages() {
+        return totalStages;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public List<WarmupStageDTO> getStages() {
+        return stages;
+    }
+}
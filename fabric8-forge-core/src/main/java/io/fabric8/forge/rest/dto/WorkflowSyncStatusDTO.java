@@ -0,0 +1,94 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.dto;
+
+import java.util.Date;
+
+/**
+ * Represents the status of the background clone or pull of the Jenkins workflow library
+ */
+public class WorkflowSyncStatusDTO {
+    private final boolean syncing;
+    private final long syncCount;
+    private final long requestCount;
+    private final long skippedCount;
+    private final Date lastSyncTime;
+    private final long lastDurationMillis;
+    private final String lastResult;
+    private final String lastError;
+
+    public WorkflowSyncStatusDTO(boolean syncing, long syncCount, long requestCount, long skippedCount, Date lastSyncTime, long lastDurationMillis, String lastResult, String lastError) {
+        this.syncing = syncing;
+        this.syncCount = syncCount;
+        this.requestCount = requestCount;
+        this.skippedCount = skippedCount;
+        this.lastSyncTime = lastSyncTime;
+        this.lastDurationMillis = lastDurationMillis;
+        this.lastResult = lastResult;
+        this.lastError = lastError;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkflowSyncStatusDTO{" +
+                "syncing=" + syncing +
+                ", syncCount=" + syncCount +
+                ", requestCount=" + requestCount +
+                ", skippedCount=" + skippedCount +
+                ", lastSyncTime=" + lastSyncTime +
+                ", lastDurationMillis=" + lastDurationMillis +
+                ", lastResult='" + lastResult + '\'' +
+                '}';
+    }
+
+    public boolean isSyncing() {
+        return syncing;
+    }
+
+    public long getSyncCount() {
+        return syncCount;
+    }
+
+    /**
+     * Returns the number of times a sync was requested
+     */
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Returns the number of requests which did not start a sync as one was running or had run recently
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public Date getLastSyncTime() {
+        return lastSyncTime;
+    }
+
+    public long getLastDurationMillis() {
+        return lastDurationMillis;
+    }
+
+    public String getLastResult() {
+        return lastResult;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
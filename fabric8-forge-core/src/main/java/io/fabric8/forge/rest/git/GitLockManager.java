@@ -15,9 +15,11 @@
  */
 package io.fabric8.forge.rest.git;
 
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.File;
 import java.io.IOException;
@@ -33,11 +35,21 @@ import java.util.concurrent.locks.ReentrantLock;
 public class GitLockManager {
     private static final transient Logger LOG = LoggerFactory.getLogger(GitLockManager.class);
 
+    private final MetricsRegistry metricsRegistry;
     private Map<String, ReentrantLock> locks = new HashMap<>();
 
+    @Inject
+    public GitLockManager(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
     public <T> T withLock(File gitFolder, Callable<T> block) throws Exception {
         ReentrantLock lock = getLock(gitFolder);
+        String repository = getRepositoryLabel(gitFolder);
+        long start = System.nanoTime();
         lock.lock();
+        long acquired = System.nanoTime();
+        metricsRegistry.timer("forge_git_lock_wait", "repository", repository).update(acquired - start);
         try {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Started lock for " + gitFolder + " instance " + lock);
@@ -45,12 +57,29 @@ public class GitLockManager {
             return block.call();
         } finally {
             lock.unlock();
+            metricsRegistry.timer("forge_git_lock_held", "repository", repository).updateSince(acquired);
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Ended lock for " + gitFolder + " instance " + lock);
             }
         }
     }
 
+    /**
+     * Returns the owner and name of the repository for the given git folder which is either the
+     * <code>.git</code> folder or the project folder itself
+     */
+    protected static String getRepositoryLabel(File gitFolder) {
+        File projectFolder = ".git".equals(gitFolder.getName()) ? gitFolder.getParentFile() : gitFolder;
+        if (projectFolder == null) {
+            return gitFolder.getName();
+        }
+        File ownerFolder = projectFolder.getParentFile();
+        if (ownerFolder == null) {
+            return projectFolder.getName();
+        }
+        return ownerFolder.getName() + "/" + projectFolder.getName();
+    }
+
     private ReentrantLock getLock(File gitFolder) throws IOException {
         String key = gitFolder.getCanonicalPath();
         synchronized (locks) {
@@ -0,0 +1,324 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.git;
+
+import io.fabric8.forge.rest.git.dto.PushStatusDTO;
+import io.fabric8.forge.rest.main.UserDetails;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
+import io.fabric8.utils.Strings;
+import org.apache.deltaspike.core.api.config.ConfigProperty;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.PushCommand;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.transport.PushResult;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.fabric8.forge.rest.main.GitHelpers.configureCommand;
+
+/**
+ * Pushes local commits to the remote repository asynchronously when <code>FORGE_ASYNC_PUSH</code> is enabled.
+ * <p/>
+ * Each repository has at most one push scheduled or running at a time so that a burst of commits is coalesced
+ * into a single push; failed pushes are retried with an exponential backoff. The push runs outside of the
+ * {@link GitLockManager} lock so that a slow remote does not block other requests on the same repository.
+ */
+@Singleton
+public class GitPushQueue {
+    private static final transient Logger LOG = LoggerFactory.getLogger(GitPushQueue.class);
+
+    public static final String STATUS_IDLE = "IDLE";
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_PUSHING = "PUSHING";
+    public static final String STATUS_RETRYING = "RETRYING";
+    public static final String STATUS_FAILED = "FAILED";
+
+    protected static final long MAX_RETRY_DELAY_MILLIS = 60 * 1000L;
+
+    private final MetricsRegistry metricsRegistry;
+    private final boolean enabled;
+    private final long delayMillis;
+    private final int maxRetries;
+    private final long retryDelayMillis;
+    private final ScheduledExecutorService executorService;
+    private final Map<String, RepositoryPush> pushes = new LinkedHashMap<>();
+
+    @Inject
+    public GitPushQueue(MetricsRegistry metricsRegistry,
+                        @ConfigProperty(name = "FORGE_ASYNC_PUSH", defaultValue = "false") boolean enabled,
+                        @ConfigProperty(name = "FORGE_ASYNC_PUSH_DELAY", defaultValue = "500") long delayMillis,
+                        @ConfigProperty(name = "FORGE_ASYNC_PUSH_MAX_RETRIES", defaultValue = "5") int maxRetries,
+                        @ConfigProperty(name = "FORGE_ASYNC_PUSH_RETRY_DELAY", defaultValue = "1000") long retryDelayMillis) {
+        this.metricsRegistry = metricsRegistry;
+        this.enabled = enabled;
+        this.delayMillis = Math.max(0, delayMillis);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryDelayMillis = Math.max(1, retryDelayMillis);
+        this.executorService = Executors.newScheduledThreadPool(2, new PushThreadFactory());
+        if (enabled) {
+            LOG.info("Asynchronous git push is enabled with a delay of " + delayMillis + " millis and " + maxRetries + " retries");
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executorService.shutdown();
+    }
+
+    /**
+     * Returns true if commits should be pushed asynchronously via {@link #schedulePush(File, UserDetails, String, String)}
+     * rather than inside the request
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Requests that the given branch of the repository is pushed to the remote; if a push is already
+     * pending for the repository then this request is coalesced into it
+     */
+    public void schedulePush(File gitFolder, UserDetails userDetails, String remote, String branch) {
+        String key = getKey(gitFolder);
+        synchronized (pushes) {
+            RepositoryPush push = pushes.get(key);
+            if (push == null) {
+                push = new RepositoryPush(gitFolder);
+                pushes.put(key, push);
+            }
+            push.userDetails = userDetails;
+            push.remote = remote;
+            push.branch = branch;
+            push.pendingRequests++;
+            metricsRegistry.counter("forge_git_push_requests").increment();
+            if (push.running) {
+                push.dirty = true;
+                metricsRegistry.counter("forge_git_push_coalesced").increment();
+            } else if (push.scheduled) {
+                metricsRegistry.counter("forge_git_push_coalesced").increment();
+            } else {
+                push.attempts = 0;
+                schedule(push, STATUS_PENDING, delayMillis);
+            }
+        }
+    }
+
+    /**
+     * Returns the push status of the given repository or null if it has never been pushed asynchronously
+     */
+    public PushStatusDTO getStatus(File gitFolder) {
+        String key = getKey(gitFolder);
+        synchronized (pushes) {
+            RepositoryPush push = pushes.get(key);
+            return push != null ? push.toDTO() : null;
+        }
+    }
+
+    public List<PushStatusDTO> getStatuses() {
+        synchronized (pushes) {
+            List<PushStatusDTO> answer = new ArrayList<>();
+            for (RepositoryPush push : pushes.values()) {
+                answer.add(push.toDTO());
+            }
+            return answer;
+        }
+    }
+
+    /**
+     * Waits until there are no pushes pending, running or waiting to be retried
+     *
+     * @return true if all pushes completed or failed within the timeout
+     */
+    public boolean waitUntilIdle(long timeoutMillis) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeoutMillis;
+        synchronized (pushes) {
+            while (true) {
+                boolean busy = false;
+                for (RepositoryPush push : pushes.values()) {
+                    if (push.scheduled || push.running) {
+                        busy = true;
+                        break;
+                    }
+                }
+                if (!busy) {
+                    return true;
+                }
+                long remaining = end - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                pushes.wait(remaining);
+            }
+        }
+    }
+
+    /**
+     * Schedules the push; must be called while holding the lock on {@link #pushes}
+     */
+    private void schedule(final RepositoryPush push, String status, long delay) {
+        push.scheduled = true;
+        push.status = status;
+        executorService.schedule(new Runnable() {
+            @Override
+            public void run() {
+                runPush(push);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void runPush(RepositoryPush push) {
+        UserDetails userDetails;
+        String remote;
+        String branch;
+        int requests;
+        synchronized (pushes) {
+            push.scheduled = false;
+            push.running = true;
+            push.dirty = false;
+            push.status = STATUS_PUSHING;
+            userDetails = push.userDetails;
+            remote = push.remote;
+            branch = push.branch;
+            requests = push.pendingRequests;
+        }
+        Exception failure = null;
+        long start = System.nanoTime();
+        try {
+            doPush(push.gitFolder, userDetails, remote, branch);
+        } catch (Exception e) {
+            failure = e;
+        }
+        String outcome = failure == null ? "success" : "failure";
+        metricsRegistry.timer("forge_git_push", "outcome", outcome).updateSince(start);
+
+        synchronized (pushes) {
+            push.running = false;
+            if (failure == null) {
+                push.attempts = 0;
+                push.lastError = null;
+                push.lastPushTime = new Date();
+                push.pushCount++;
+                push.pendingRequests = Math.max(0, push.pendingRequests - requests);
+                if (push.dirty) {
+                    schedule(push, STATUS_PENDING, delayMillis);
+                } else {
+                    push.status = STATUS_IDLE;
+                }
+            } else {
+                push.attempts++;
+                push.lastError = failure.toString();
+                if (push.attempts <= maxRetries) {
+                    long delay = Math.min(MAX_RETRY_DELAY_MILLIS, retryDelayMillis << Math.min(20, push.attempts - 1));
+                    LOG.warn("Failed to push " + push.gitFolder + " attempt " + push.attempts + " so retrying in " + delay + " millis: " + failure, failure);
+                    schedule(push, STATUS_RETRYING, delay);
+                } else {
+                    LOG.error("Failed to push " + push.gitFolder + " after " + push.attempts + " attempts: " + failure, failure);
+                    push.status = STATUS_FAILED;
+                }
+            }
+            pushes.notifyAll();
+        }
+    }
+
+    protected void doPush(File gitFolder, UserDetails userDetails, String remote, String branch) throws Exception {
+        Repository repository = new FileRepositoryBuilder().setGitDir(gitFolder).readEnvironment().build();
+        try {
+            Git git = new Git(repository);
+            PushCommand command = git.push();
+            configureCommand(command, userDetails);
+            command.setRemote(remote);
+            if (Strings.isNotBlank(branch)) {
+                command.add(branch);
+            }
+            for (PushResult result : command.call()) {
+                for (RemoteRefUpdate update : result.getRemoteUpdates()) {
+                    RemoteRefUpdate.Status status = update.getStatus();
+                    if (status != RemoteRefUpdate.Status.OK && status != RemoteRefUpdate.Status.UP_TO_DATE) {
+                        throw new IOException("Push of " + update.getRemoteName() + " to " + result.getURI() + " failed with status " + status + " " + update.getMessage());
+                    }
+                }
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Pushed " + result.getMessages() + " " + result.getURI() + " branch: " + branch);
+                }
+            }
+        } finally {
+            repository.close();
+        }
+    }
+
+    protected static String getKey(File gitFolder) {
+        try {
+            return gitFolder.getCanonicalPath();
+        } catch (IOException e) {
+            return gitFolder.getAbsolutePath();
+        }
+    }
+
+    /**
+     * The push state of a repository; guarded by the lock on {@link #pushes}
+     */
+    private static class RepositoryPush {
+        private final File gitFolder;
+        private UserDetails userDetails;
+        private String remote;
+        private String branch;
+        private String status = STATUS_IDLE;
+        private boolean scheduled;
+        private boolean running;
+        private boolean dirty;
+        private int pendingRequests;
+        private int attempts;
+        private long pushCount;
+        private Date lastPushTime;
+        private String lastError;
+
+        RepositoryPush(File gitFolder) {
+            this.gitFolder = gitFolder;
+        }
+
+        PushStatusDTO toDTO() {
+            return new PushStatusDTO(GitLockManager.getRepositoryLabel(gitFolder), status, pendingRequests, attempts, pushCount, lastPushTime, lastError);
+        }
+    }
+
+    private static class PushThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "forge-git-push-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
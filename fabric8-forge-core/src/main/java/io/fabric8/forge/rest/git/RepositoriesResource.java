@@ -18,7 +18,9 @@ package io.fabric8.forge.rest.git;
 import io.fabric8.forge.rest.main.GitUserHelper;
 import io.fabric8.forge.rest.main.ProjectFileSystem;
 import io.fabric8.forge.rest.main.RepositoryCache;
+import io.fabric8.forge.rest.git.dto.PushStatusDTO;
 import io.fabric8.forge.rest.main.UserDetails;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
 import io.fabric8.kubernetes.api.model.LocalObjectReference;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.client.KubernetesClient;
@@ -70,17 +72,21 @@ public class RepositoriesResource {
     private final ProjectFileSystem projectFileSystem;
     private final GitLockManager lockManager;
     private final KubernetesClient kubernetes;
+    private final MetricsRegistry metricsRegistry;
+    private final GitPushQueue pushQueue;
 
     @Context
     private HttpServletRequest request;
 
     @Inject
-    public RepositoriesResource(GitUserHelper gitUserHelper, RepositoryCache repositoryCache, ProjectFileSystem projectFileSystem, GitLockManager lockManager, KubernetesClient kubernetes) {
+    public RepositoriesResource(GitUserHelper gitUserHelper, RepositoryCache repositoryCache, ProjectFileSystem projectFileSystem, GitLockManager lockManager, KubernetesClient kubernetes, MetricsRegistry metricsRegistry, GitPushQueue pushQueue) {
         this.gitUserHelper = gitUserHelper;
         this.repositoryCache = repositoryCache;
         this.projectFileSystem = projectFileSystem;
         this.lockManager = lockManager;
         this.kubernetes = kubernetes;
+        this.metricsRegistry = metricsRegistry;
+        this.pushQueue = pushQueue;
     }
 
     @GET
@@ -92,7 +98,9 @@ public class RepositoriesResource {
     @GET
     public List<RepositoryDTO> getUserRepositories() {
         GitRepoClient repoClient = createGitRepoClient();
+        long start = System.nanoTime();
         List<RepositoryDTO> repositoryDTOs = repoClient.listRepositories();
+        metricsRegistry.timer("forge_git_repo_client", "operation", "listRepositories").updateSince(start);
         repositoryCache.updateUserRepositories(repositoryDTOs);
 
         for (RepositoryDTO repositoryDTO : repositoryDTOs) {
@@ -101,6 +109,12 @@ public class RepositoriesResource {
         return repositoryDTOs;
     }
 
+    @GET
+    @Path("pushStatus")
+    public List<PushStatusDTO> getPushStatuses() {
+        return pushQueue.getStatuses();
+    }
+
     @GET
     @Path("user/{name}")
     public RepositoryDTO getUserRepository(@PathParam("name") String name) {
@@ -126,7 +140,7 @@ public class RepositoriesResource {
         String cloneUrl = projectFileSystem.getCloneUrl(userId, repositoryName, userDetails);
         File gitFolder = new File(projectFolder, ".git");
         String remoteRepository = userId + "/" + repositoryName;
-        RepositoryResource resource = new RepositoryResource(projectFolder, gitFolder, userDetails, origin, branch, remoteRepository, lockManager, projectFileSystem, cloneUrl, objectId);
+        RepositoryResource resource = new RepositoryResource(projectFolder, gitFolder, userDetails, origin, branch, remoteRepository, lockManager, projectFileSystem, metricsRegistry, pushQueue, cloneUrl, objectId);
         try {
             String message = request.getParameter("message");
             if (Strings.isNotBlank(message)) {
@@ -153,7 +167,9 @@ public class RepositoriesResource {
 
         // lets get the BuildConfig
         OpenShiftClient osClient = kubernetes.adapt(OpenShiftClient.class).inNamespace(namespace);
+        long start = System.nanoTime();
         BuildConfig buildConfig = osClient.buildConfigs().withName(projectId).get();
+        metricsRegistry.timer("forge_kubernetes_request", "operation", "getBuildConfig").updateSince(start);
         if (buildConfig == null) {
             throw new NotFoundException("No BuildConfig for " + remoteRepository);
         }
@@ -191,10 +207,12 @@ public class RepositoriesResource {
         String cloneUrl = uri;
         File gitFolder = new File(projectFolder, ".git");
         LOG.debug("Cloning " + cloneUrl);
-        RepositoryResource resource = new RepositoryResource(projectFolder, gitFolder, userDetails, origin, branch, remoteRepository, lockManager, projectFileSystem, cloneUrl, objectId);
+        RepositoryResource resource = new RepositoryResource(projectFolder, gitFolder, userDetails, origin, branch, remoteRepository, lockManager, projectFileSystem, metricsRegistry, pushQueue, cloneUrl, objectId);
         if (sourceSecretName != null) {
             try {
+                start = System.nanoTime();
                 Secret secret = osClient.secrets().inNamespace(secretNamespace).withName(sourceSecretName).get();
+                metricsRegistry.timer("forge_kubernetes_request", "operation", "getSecret").updateSince(start);
                 if (secret != null) {
                     Map<String, String> data = secret.getData();
                     File privateKeyFile = createSshKeyFile(namespace, sourceSecretName, SSH_PRIVATE_KEY_DATA_KEY, data.get(SSH_PRIVATE_KEY_DATA_KEY));
@@ -15,16 +15,20 @@
  */
 package io.fabric8.forge.rest.git;
 
+import io.fabric8.forge.rest.git.dto.BatchResultDTO;
 import io.fabric8.forge.rest.git.dto.CommitDetail;
 import io.fabric8.forge.rest.git.dto.CommitInfo;
 import io.fabric8.forge.rest.git.dto.CommitTreeInfo;
 import io.fabric8.forge.rest.git.dto.DiffInfo;
+import io.fabric8.forge.rest.git.dto.FileChangeDTO;
 import io.fabric8.forge.rest.git.dto.FileDTO;
+import io.fabric8.forge.rest.git.dto.PushStatusDTO;
 import io.fabric8.forge.rest.git.dto.StatusDTO;
 import io.fabric8.forge.rest.main.GitHelpers;
 import io.fabric8.forge.rest.main.MD5Util;
 import io.fabric8.forge.rest.main.ProjectFileSystem;
 import io.fabric8.forge.rest.main.UserDetails;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
 import io.fabric8.utils.Files;
 import io.fabric8.utils.IOHelpers;
 import io.fabric8.utils.Strings;
@@ -38,6 +42,7 @@ import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.ListBranchCommand;
 import org.eclipse.jgit.api.PullCommand;
 import org.eclipse.jgit.api.PushCommand;
+import org.eclipse.jgit.api.RmCommand;
 import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.NoHeadException;
@@ -68,6 +73,7 @@ import org.gitective.core.filter.commit.CommitListFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.FormParam;
 import javax.ws.rs.GET;
@@ -77,21 +83,26 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.xml.bind.DatatypeConverter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static io.fabric8.forge.rest.main.GitHelpers.configureCommand;
 import static io.fabric8.forge.rest.main.GitHelpers.disableSslCertificateChecks;
@@ -110,6 +121,8 @@ public class RepositoryResource {
     private final String remoteRepository;
     private final GitLockManager lockManager;
     private final ProjectFileSystem projectFileSystem;
+    private final MetricsRegistry metricsRegistry;
+    private final GitPushQueue pushQueue;
     private final String origin;
     private final String cloneUrl;
     private final String branch;
@@ -117,13 +130,15 @@ public class RepositoryResource {
     private String message;
     private String objectId;
 
-    public RepositoryResource(File basedir, File gitFolder, UserDetails userDetails, String origin, String branch, String remoteRepository, GitLockManager lockManager, ProjectFileSystem projectFileSystem, String cloneUrl, String objectId) throws IOException, GitAPIException {
+    public RepositoryResource(File basedir, File gitFolder, UserDetails userDetails, String origin, String branch, String remoteRepository, GitLockManager lockManager, ProjectFileSystem projectFileSystem, MetricsRegistry metricsRegistry, GitPushQueue pushQueue, String cloneUrl, String objectId) throws IOException, GitAPIException {
         this.basedir = basedir;
         this.gitFolder = gitFolder;
         this.userDetails = userDetails;
         this.remoteRepository = remoteRepository;
         this.lockManager = lockManager;
         this.projectFileSystem = projectFileSystem;
+        this.metricsRegistry = metricsRegistry;
+        this.pushQueue = pushQueue;
         this.origin = origin;
         this.cloneUrl = cloneUrl;
         this.branch = branch;
@@ -675,6 +690,197 @@ public class RepositoryResource {
         });
     }
 
+    /**
+     * Applies a list of file writes, moves, deletes and directory creations under a single lock
+     * creating a single commit and push
+     */
+    @POST
+    @Path("batch")
+    @Consumes({"application/json", "text/json"})
+    public BatchResultDTO batch(@QueryParam("message") String message, final List<FileChangeDTO> changes) throws Exception {
+        if (Strings.isNotBlank(message)) {
+            this.message = message;
+        }
+        validateFileChanges(changes);
+        return gitWriteOperation(new GitOperation<BatchResultDTO>() {
+            @Override
+            public BatchResultDTO call(Git git, GitContext context) throws Exception {
+                return doBatch(git, changes, null);
+            }
+        });
+    }
+
+    /**
+     * Applies a batch of changes where each entry of the zip body is streamed straight into the file
+     * of the same path along with removing any paths in the <code>rm</code> query parameter;
+     * creating a single commit and push
+     */
+    @POST
+    @Path("batch")
+    @Consumes("application/zip")
+    public BatchResultDTO batchZip(@QueryParam("message") String message, @QueryParam("rm") List<String> removePaths, final InputStream body) throws Exception {
+        if (Strings.isNotBlank(message)) {
+            this.message = message;
+        }
+        final List<FileChangeDTO> changes = new ArrayList<>();
+        if (removePaths != null) {
+            for (String removePath : removePaths) {
+                changes.add(new FileChangeDTO(FileChangeDTO.DELETE, removePath));
+            }
+        }
+        validateFileChanges(changes);
+        return gitWriteOperation(new GitOperation<BatchResultDTO>() {
+            @Override
+            public BatchResultDTO call(Git git, GitContext context) throws Exception {
+                return doBatch(git, changes, body);
+            }
+        });
+    }
+
+    protected void validateFileChanges(List<FileChangeDTO> changes) {
+        if (changes == null) {
+            return;
+        }
+        for (FileChangeDTO change : changes) {
+            String operation = change.getOperation();
+            if (Strings.isNullOrBlank(change.getPath())) {
+                throw new BadRequestException("No path for change " + change);
+            }
+            if (FileChangeDTO.MOVE.equals(operation)) {
+                if (Strings.isNullOrBlank(change.getOldPath())) {
+                    throw new BadRequestException("No oldPath for change " + change);
+                }
+            } else if (!FileChangeDTO.WRITE.equals(operation) && !FileChangeDTO.DELETE.equals(operation) && !FileChangeDTO.MKDIR.equals(operation)) {
+                throw new BadRequestException("Unknown operation for change " + change);
+            }
+        }
+    }
+
+    protected BatchResultDTO doBatch(Git git, List<FileChangeDTO> changes, InputStream zipBody) throws Exception {
+        List<StatusDTO> statuses = new ArrayList<>();
+        Set<String> addPatterns = new LinkedHashSet<>();
+        Set<String> rmPatterns = new LinkedHashSet<>();
+        if (changes != null) {
+            for (FileChangeDTO change : changes) {
+                applyFileChange(change, statuses, addPatterns, rmPatterns);
+            }
+        }
+        if (zipBody != null) {
+            ZipInputStream zip = new ZipInputStream(zipBody);
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String path = entry.getName();
+                File file = getBatchFile(path);
+                if (entry.isDirectory()) {
+                    file.mkdirs();
+                } else {
+                    boolean exists = file.exists();
+                    writeStream(file, zip);
+                    addPatterns.add(getFilePattern(path));
+                    statuses.add(new StatusDTO(path, exists ? "updated" : "created"));
+                }
+                zip.closeEntry();
+            }
+        }
+
+        if (!rmPatterns.isEmpty()) {
+            RmCommand rm = git.rm();
+            for (String pattern : rmPatterns) {
+                rm.addFilepattern(pattern);
+            }
+            rm.call();
+        }
+        if (!addPatterns.isEmpty()) {
+            AddCommand add = git.add();
+            for (String pattern : addPatterns) {
+                add.addFilepattern(pattern);
+            }
+            add.call();
+        }
+
+        CommitInfo commitInfo = null;
+        if (!statuses.isEmpty() && hasGitChanges(git)) {
+            if (Strings.isNullOrBlank(message)) {
+                message = "Changed " + statuses.size() + " file(s)";
+            }
+            CommitCommand commit = git.commit().setAll(true).setAuthor(personIdent).setMessage(message);
+            commitInfo = createCommitInfo(commitThenPush(git, commit));
+        }
+        return new BatchResultDTO(commitInfo, statuses);
+    }
+
+    protected void applyFileChange(FileChangeDTO change, List<StatusDTO> statuses, Set<String> addPatterns, Set<String> rmPatterns) throws IOException {
+        String operation = change.getOperation();
+        String path = change.getPath();
+        File file = getBatchFile(path);
+        if (FileChangeDTO.WRITE.equals(operation)) {
+            boolean exists = file.exists();
+            byte[] contents;
+            String content = change.getContent();
+            if (content == null) {
+                contents = new byte[0];
+            } else if (FileChangeDTO.BASE64_ENCODING.equals(change.getEncoding())) {
+                contents = DatatypeConverter.parseBase64Binary(content);
+            } else {
+                contents = content.getBytes("UTF-8");
+            }
+            file.getParentFile().mkdirs();
+            Files.writeToFile(file, contents);
+            addPatterns.add(getFilePattern(path));
+            statuses.add(new StatusDTO(path, exists ? "updated" : "created"));
+        } else if (FileChangeDTO.MOVE.equals(operation)) {
+            String oldPath = change.getOldPath();
+            File oldFile = getBatchFile(oldPath);
+            if (oldFile.exists()) {
+                File parentFile = file.getParentFile();
+                parentFile.mkdirs();
+                if (!oldFile.renameTo(file)) {
+                    throw new IOException("Could not move " + oldFile + " to " + file + ". Maybe a file permission issue?");
+                }
+                rmPatterns.add(getFilePattern(oldPath));
+                addPatterns.add(getFilePattern(path));
+                statuses.add(new StatusDTO(path, "moved"));
+            }
+        } else if (FileChangeDTO.DELETE.equals(operation)) {
+            if (file.exists()) {
+                Files.recursiveDelete(file);
+                rmPatterns.add(getFilePattern(path));
+                statuses.add(new StatusDTO(path, "removed"));
+            }
+        } else if (FileChangeDTO.MKDIR.equals(operation)) {
+            if (!file.exists()) {
+                file.mkdirs();
+                statuses.add(new StatusDTO(path, "created"));
+            }
+        }
+    }
+
+    /**
+     * Returns the file for the given path, failing if the path is outside of the working directory
+     * or inside the <code>.git</code> folder
+     */
+    protected File getBatchFile(String path) throws IOException {
+        File file = getRelativeFile(path);
+        String basePath = basedir.getCanonicalPath() + File.separator;
+        String filePath = file.getCanonicalPath();
+        String gitPath = basePath + ".git";
+        if (!filePath.startsWith(basePath) || filePath.equals(gitPath) || filePath.startsWith(gitPath + File.separator)) {
+            throw new BadRequestException("Invalid path " + path);
+        }
+        return file;
+    }
+
+    protected static void writeStream(File file, InputStream in) throws IOException {
+        file.getParentFile().mkdirs();
+        byte[] buffer = new byte[8192];
+        try (OutputStream out = new FileOutputStream(file)) {
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+        }
+    }
+
     @POST
     @Path("removeProject")
     public Response remove() throws Exception {
@@ -702,6 +908,12 @@ public class RepositoryResource {
         }
     }
 
+    @GET
+    @Path("pushStatus")
+    public PushStatusDTO pushStatus() {
+        return pushQueue.getStatus(gitFolder);
+    }
+
     @GET
     @Path("listBranches")
     public List<String> listBranches() throws Exception {
@@ -754,7 +966,9 @@ public class RepositoryResource {
 
             @Override
             public T call() throws Exception {
+                long start = System.nanoTime();
                 projectFileSystem.cloneRepoIfNotExist(userDetails, basedir, cloneUrl);
+                start = recordStage("clone", start);
 
                 FileRepositoryBuilder builder = new FileRepositoryBuilder();
                 Repository repository = builder.setGitDir(gitFolder)
@@ -779,6 +993,7 @@ public class RepositoryResource {
                 } catch (NoHeadException e) {
                     hasHead = false;
                 }
+                start = recordStage("open", start);
                 if (hasHead) {
                     // lets stash any local changes just in case..
                     try {
@@ -790,20 +1005,31 @@ public class RepositoryResource {
                             LOG.error("Cause: " + cause, cause);
                         }
                     }
+                    start = recordStage("stash", start);
                 }
 
                 checkoutBranch(git, context);
+                start = recordStage("checkout", start);
                 if (context.isRequirePull()) {
                     doPull(git, context);
+                    start = recordStage("pull", start);
                 }
 
                 T result = operation.call(git, context);
+                start = recordStage("operation", start);
 
                 if (Strings.isNullOrBlank(message)) {
                     message = "";
                 }
                 if (context.isRequireCommit() && hasGitChanges(git)) {
-                    doAddCommitAndPushFiles(git, userDetails, personIdent, branch, origin, message, isPushOnCommit());
+                    doAddCommitAndPushFiles(git, userDetails, personIdent, branch, origin, message, false);
+                    start = recordStage("commit", start);
+                    if (isPushOnCommit()) {
+                        GitHelpers.doPush(git, userDetails, branch, origin);
+                        recordStage("push", start);
+                    } else {
+                        scheduleAsyncPush();
+                    }
                 }
                 return result;
             }
@@ -811,6 +1037,15 @@ public class RepositoryResource {
         });
     }
 
+    /**
+     * Records the time taken by the given stage of a git operation and returns the start time of the next stage
+     */
+    protected long recordStage(String stage, long start) {
+        long now = System.nanoTime();
+        metricsRegistry.timer("forge_git_stage", "stage", stage).update(now - start);
+        return now;
+    }
+
     protected boolean hasGitChanges(Git git) throws GitAPIException {
         Status status = git.status().call();
         return anySetsNotEmpty(status.getAdded(), status.getChanged(), status.getModified(), status.getRemoved(), status.getUntracked());
@@ -890,16 +1125,27 @@ public class RepositoryResource {
                     LOG.debug("Pushed " + result.getMessages() + " " + result.getURI() + " branch: " + branch + " updates: " + toString(result.getRemoteUpdates()));
                 }
             }
+        } else {
+            scheduleAsyncPush();
         }
         return answer;
     }
 
+    /**
+     * If pushes are asynchronous lets queue a push of the commits we just made
+     */
+    protected void scheduleAsyncPush() {
+        if (!isPushOnCommit() && pushQueue.isEnabled()) {
+            pushQueue.schedulePush(gitFolder, userDetails, getRemote(), branch);
+        }
+    }
+
     protected File getRelativeFile(String path) {
         return new File(basedir, trimLeadingSlash(path));
     }
 
     protected boolean isPushOnCommit() {
-        return true;
+        return !pushQueue.isEnabled();
     }
 
     public CommitInfo createCommitInfo(RevCommit entry) {
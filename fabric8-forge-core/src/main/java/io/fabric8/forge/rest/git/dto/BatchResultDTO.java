@@ -0,0 +1,50 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.git.dto;
+
+import java.util.List;
+
+/**
+ * Represents the result of applying a batch of file changes as a single commit
+ */
+public class BatchResultDTO extends GitDTOSupport {
+    private final CommitInfo commit;
+    private final List<StatusDTO> changes;
+
+    public BatchResultDTO(CommitInfo commit, List<StatusDTO> changes) {
+        this.commit = commit;
+        this.changes = changes;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResultDTO{" +
+                "commit=" + commit +
+                ", changes=" + changes +
+                '}';
+    }
+
+    /**
+     * Returns the commit which was created or null if the batch did not change anything
+     */
+    public CommitInfo getCommit() {
+        return commit;
+    }
+
+    public List<StatusDTO> getChanges() {
+        return changes;
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.git.dto;
+
+/**
+ * Represents a single file change within a batch of changes which are committed and pushed together
+ */
+public class FileChangeDTO extends GitDTOSupport {
+    public static final String WRITE = "write";
+    public static final String MOVE = "move";
+    public static final String DELETE = "delete";
+    public static final String MKDIR = "mkdir";
+
+    public static final String BASE64_ENCODING = "base64";
+
+    private String operation;
+    private String path;
+    private String oldPath;
+    private String content;
+    private String encoding;
+
+    public FileChangeDTO() {
+    }
+
+    public FileChangeDTO(String operation, String path) {
+        this.operation = operation;
+        this.path = path;
+    }
+
+    @Override
+    public String toString() {
+        return "FileChangeDTO{" +
+                "operation='" + operation + '\'' +
+                ", path='" + path + '\'' +
+                ", oldPath='" + oldPath + '\'' +
+                '}';
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the path of the file being moved for a {@link #MOVE} operation
+     */
+    public String getOldPath() {
+        return oldPath;
+    }
+
+    public void setOldPath(String oldPath) {
+        this.oldPath = oldPath;
+    }
+
+    /**
+     * Returns the new content of the file for a {@link #WRITE} operation
+     */
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    /**
+     * Returns the encoding of the content which is either blank for text or {@link #BASE64_ENCODING} for binary content
+     */
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+}
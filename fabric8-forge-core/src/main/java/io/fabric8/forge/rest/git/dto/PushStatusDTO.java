@@ -0,0 +1,87 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.git.dto;
+
+import java.util.Date;
+
+/**
+ * Represents the status of the asynchronous pushes of a local repository to its remote
+ */
+public class PushStatusDTO extends GitDTOSupport {
+    private final String repository;
+    private final String status;
+    private final int pendingRequests;
+    private final int attempts;
+    private final long pushCount;
+    private final Date lastPushTime;
+    private final String lastError;
+
+    public PushStatusDTO(String repository, String status, int pendingRequests, int attempts, long pushCount, Date lastPushTime, String lastError) {
+        this.repository = repository;
+        this.status = status;
+        this.pendingRequests = pendingRequests;
+        this.attempts = attempts;
+        this.pushCount = pushCount;
+        this.lastPushTime = lastPushTime;
+        this.lastError = lastError;
+    }
+
+    @Override
+    public String toString() {
+        return "PushStatusDTO{" +
+                "repository='" + repository + '\'' +
+                ", status='" + status + '\'' +
+                ", pendingRequests=" + pendingRequests +
+                ", attempts=" + attempts +
+                ", pushCount=" + pushCount +
+                ", lastError='" + lastError + '\'' +
+                '}';
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the number of push requests which have not yet been pushed
+     */
+    public int getPendingRequests() {
+        return pendingRequests;
+    }
+
+    /**
+     * Returns the number of failed attempts since the last successful push
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public long getPushCount() {
+        return pushCount;
+    }
+
+    public Date getLastPushTime() {
+        return lastPushTime;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -16,7 +16,6 @@
 package io.fabric8.forge.rest.main;
 
 import io.fabric8.forge.rest.CommandsResource;
-import io.fabric8.forge.rest.dto.CommandInfoDTO;
 import io.fabric8.forge.rest.dto.ExecutionRequest;
 import io.fabric8.forge.rest.hooks.CommandCompletePostProcessor;
 import io.fabric8.forge.rest.producer.FurnaceProducer;
@@ -31,7 +30,6 @@ import javax.ws.rs.core.Response;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,11 +44,14 @@ public class ForgeInitialiser {
     private static final transient Logger LOG = LoggerFactory.getLogger(ForgeInitialiser.class);
     public static final String DEFAULT_ARCHETYPES_VERSION = "2.2.34";
 
+    private final WarmupManager warmupManager;
+
     /**
      * @param addOnDir the directory where Forge addons will be stored
      */
     @Inject
-    public ForgeInitialiser(@ConfigProperty(name = "FORGE_ADDON_DIRECTORY", defaultValue = "./addon-repository") String addOnDir, FurnaceProducer furnaceProducer) {
+    public ForgeInitialiser(@ConfigProperty(name = "FORGE_ADDON_DIRECTORY", defaultValue = "./addon-repository") String addOnDir, FurnaceProducer furnaceProducer, WarmupManager warmupManager) {
+        this.warmupManager = warmupManager;
         java.util.logging.Logger out = java.util.logging.Logger.getLogger(this.getClass().getName());
         out.info("Logging to JUL to test the configuration");
 
@@ -68,17 +69,10 @@ public class ForgeInitialiser {
     }
 
     public void preloadCommands(CommandsResource commandsResource)  {
+        // lets load the commands, camel catalog, archetypes and JAXB contexts in parallel in the background
         LOG.info("Preloading commands");
-        List<CommandInfoDTO> commands = Collections.EMPTY_LIST;
-        try {
-            commands = commandsResource.getCommands();
-            LOG.info("Loaded " + commands.size() + " commands");
-        } catch (Exception e) {
-            LOG.error("Failed to preload commands! " + e, e);
-        }
+        warmupManager.start(commandsResource);
 
-        // lets try preload the archetypes
-        LOG.info("Preloading archetypes");
         String tempDir = "/tmp/startupNewProject";
         try {
             File file = File.createTempFile("startupNewProject", "tmp");
@@ -88,7 +82,6 @@ public class ForgeInitialiser {
         } catch (IOException e) {
             LOG.error("Failed to create temp directory: " + e, e);
         }
-        LOG.info("Preloaded archetypes!");
 
         boolean precreateProjects = false;
         if (precreateProjects) {
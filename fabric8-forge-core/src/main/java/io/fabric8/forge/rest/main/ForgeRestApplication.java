@@ -16,7 +16,10 @@
 package io.fabric8.forge.rest.main;
 
 import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+import io.fabric8.forge.rest.MetricsResource;
+import io.fabric8.forge.rest.ReadinessResource;
 import io.fabric8.forge.rest.RootResource;
+import io.fabric8.forge.rest.metrics.RequestMetricsFilter;
 import org.apache.cxf.feature.LoggingFeature;
 import io.fabric8.forge.rest.CommandsResource;
 import io.fabric8.forge.rest.git.RepositoriesResource;
@@ -42,6 +45,15 @@ public class ForgeRestApplication extends Application {
     @Inject
     RepositoriesResource repositoriesResource;
 
+    @Inject
+    ReadinessResource readinessResource;
+
+    @Inject
+    MetricsResource metricsResource;
+
+    @Inject
+    RequestMetricsFilter requestMetricsFilter;
+
     private boolean preloaded = false;
 
     @Override
@@ -56,6 +68,9 @@ public class ForgeRestApplication extends Application {
                         rootResource,
                         commandsResource,
                         repositoriesResource,
+                        readinessResource,
+                        metricsResource,
+                        requestMetricsFilter,
                         new JacksonJsonProvider(),
 /*
                         new SwaggerFeature(),
@@ -19,6 +19,7 @@ import io.fabric8.forge.rest.Constants;
 import io.fabric8.forge.rest.dto.ExecutionRequest;
 import io.fabric8.forge.rest.dto.ExecutionResult;
 import io.fabric8.forge.rest.hooks.CommandCompletePostProcessor;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
 import io.fabric8.forge.rest.ui.RestUIContext;
 import io.fabric8.kubernetes.api.Controller;
 import io.fabric8.kubernetes.api.KubernetesHelper;
@@ -26,6 +27,7 @@ import io.fabric8.kubernetes.api.ServiceNames;
 import io.fabric8.kubernetes.api.builds.Builds;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.openshift.api.model.BuildConfig;
+import io.fabric8.openshift.client.OpenShiftClient;
 import io.fabric8.repo.git.CreateRepositoryDTO;
 import io.fabric8.repo.git.GitRepoClient;
 import io.fabric8.repo.git.RepositoryDTO;
@@ -33,13 +35,14 @@ import io.fabric8.utils.IOHelpers;
 import org.apache.deltaspike.core.api.config.ConfigProperty;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.InitCommand;
-import org.eclipse.jgit.lib.PersonIdent;
 import org.jboss.forge.addon.ui.controller.CommandController;
 import org.jboss.forge.furnace.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.NotAuthorizedException;
 import java.io.File;
@@ -47,33 +50,72 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static io.fabric8.utils.cxf.JsonHelper.toJson;
 
 /**
  * For new projects; lets git add, git commit, git push otherwise lets git add/commit/push any new/udpated changes
+ * <p/>
+ * The steps to publish a new project are run as a {@link TaskGraph} so that the local commit happens while the remote
+ * repository is created and the BuildConfig is created while the code is pushed.
  */
 // TODO we should try add this into the ConfigureDevOpsStep.execute() block instead!
+@Singleton
 public class GitCommandCompletePostProcessor implements CommandCompletePostProcessor {
     private static final transient Logger LOG = LoggerFactory.getLogger(GitCommandCompletePostProcessor.class);
     public static final String DEFAULT_JENKINS_SEED_JOB = "seed";
+
+    public static final String STEP_GIT_INIT = "gitInit";
+    public static final String STEP_CREATE_REPOSITORY = "createRepository";
+    public static final String STEP_BUILD_CONFIG = "buildConfig";
+    public static final String STEP_PUSH = "push";
+    public static final String STEP_WEB_HOOKS = "webHooks";
+
+    protected static final long PUBLISH_TIMEOUT_MILLIS = 5 * 60 * 1000L;
+
     private final KubernetesClient kubernetes;
     private final GitUserHelper gitUserHelper;
     private final ProjectFileSystem projectFileSystem;
+    private final MetricsRegistry metricsRegistry;
     private final String jenkinsSeedJob;
     private final boolean createOpenShiftBuildResources;
+    private final Executor executor;
 
     @Inject
     public GitCommandCompletePostProcessor(KubernetesClient kubernetes,
                                            GitUserHelper gitUserHelper,
                                            ProjectFileSystem projectFileSystem,
+                                           MetricsRegistry metricsRegistry,
                                            @ConfigProperty(name = "JENKINS_SEED_JOB", defaultValue = DEFAULT_JENKINS_SEED_JOB) String jenkinsSeedJob,
                                            @ConfigProperty(name = "OPENSHIFT_CREATE_BUILD_ON_PROJECT_CREATE", defaultValue = "false") boolean createOpenShiftBuildResources) {
+        this(kubernetes, gitUserHelper, projectFileSystem, metricsRegistry, jenkinsSeedJob, createOpenShiftBuildResources,
+                Executors.newFixedThreadPool(4, new PublishThreadFactory()));
+    }
+
+    public GitCommandCompletePostProcessor(KubernetesClient kubernetes, GitUserHelper gitUserHelper, ProjectFileSystem projectFileSystem,
+                                           MetricsRegistry metricsRegistry, String jenkinsSeedJob, boolean createOpenShiftBuildResources,
+                                           Executor executor) {
         this.kubernetes = kubernetes;
         this.gitUserHelper = gitUserHelper;
         this.projectFileSystem = projectFileSystem;
+        this.metricsRegistry = metricsRegistry;
         this.jenkinsSeedJob = jenkinsSeedJob;
         this.createOpenShiftBuildResources = createOpenShiftBuildResources;
+        this.executor = executor;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
     }
 
     @Override
@@ -106,15 +148,11 @@ public class GitCommandCompletePostProcessor implements CommandCompletePostProce
         String user = userDetails.getUser();
         String address = userDetails.getAddress();
         String internalAddress = userDetails.getInternalAddress();
-        String branch = userDetails.getBranch();
-        String origin = projectFileSystem.getRemote();
 
         try {
             if (name.equals(Constants.PROJECT_NEW_COMMAND)) {
                 GitHelpers.disableSslCertificateChecks();
 
-                PersonIdent personIdent = userDetails.createPersonIdent();
-
                 String targetLocation = projectFileSystem.getUserProjectFolderLocation(userDetails);
                 String named = null;
                 List<Map<String, String>> inputList = executionRequest.getInputList();
@@ -133,54 +171,18 @@ public class GitCommandCompletePostProcessor implements CommandCompletePostProce
                     if (!basedir.isDirectory() || !basedir.exists()) {
                         LOG.warn("Generated project folder does not exist: " + basedir.getAbsolutePath());
                     } else {
-                        InitCommand initCommand = Git.init();
-                        initCommand.setDirectory(basedir);
-                        Git git = initCommand.call();
-                        LOG.info("Initialised an empty git configuration repo at {}", basedir.getAbsolutePath());
-
-                        // lets create the repository
-                        GitRepoClient repoClient = userDetails.createRepoClient();
-                        CreateRepositoryDTO createRepository = new CreateRepositoryDTO();
-                        createRepository.setName(named);
-
-                        String fullName = null;
-                        RepositoryDTO repository = repoClient.createRepository(createRepository);
-                        if (repository != null) {
-                            if (LOG.isDebugEnabled()) {
-                                LOG.debug("Got repository: " + toJson(repository));
-                            }
-                            fullName = repository.getFullName();
-                        }
-                        if (Strings.isNullOrEmpty(fullName)) {
-                            fullName = user + "/" + named;
-                        }
                         String htmlUrl = address + user + "/" + named;
-                        String remoteUrl = internalAddress + user + "/" + named + ".git";
-                        //results.appendOut("Created git repository " + fullName + " at: " + htmlUrl);
-                        String cloneUrl =  htmlUrl + ".git";
-
-                        results.setOutputProperty("fullName", fullName);
-                        results.setOutputProperty("cloneUrl", remoteUrl);
-                        results.setOutputProperty("htmlUrl", htmlUrl);
-
-                        // now lets import the code and publish
-                        LOG.info("Using remoteUrl: " + remoteUrl + " and remote name " + origin);
-                        GitHelpers.configureBranch(git, branch, origin, remoteUrl);
-
-                        addDummyFileToEmptyFolders(basedir);
                         String message = ExecutionRequest.createCommitMessage(name, executionRequest);
-                        LOG.info("Commiting and pushing to: " + remoteUrl + " and remote name " + origin);
-                        GitHelpers.doAddCommitAndPushFiles(git, userDetails, personIdent, branch, origin, message, isPushOnCommit());
-
                         String namespace = firstNotBlank(context.getProjectName(), executionRequest.getNamespace());
                         String projectName = firstNotBlank(named, context.getProjectName(), executionRequest.getProjectName());
-                        results.setProjectName(projectName);
-                        createBuildConfig(context, namespace, projectName, cloneUrl);
 
-                        LOG.info("Creating any pending webhooks");
-                        registerWebHooks(context);
+                        String fullName = publishNewProject(context, userDetails, basedir, named, message, namespace, projectName);
+                        //results.appendOut("Created git repository " + fullName + " at: " + htmlUrl);
 
-                        LOG.info("Done creating webhooks!");
+                        results.setOutputProperty("fullName", fullName);
+                        results.setOutputProperty("cloneUrl", createRemoteUrl(internalAddress, user, named));
+                        results.setOutputProperty("htmlUrl", htmlUrl);
+                        results.setProjectName(projectName);
                     }
                 }
             } else {
@@ -200,6 +202,114 @@ public class GitCommandCompletePostProcessor implements CommandCompletePostProce
         return null;
     }
 
+    /**
+     * Initialises the git repository of a new project, creates the remote repository, pushes the code to it and
+     * creates the BuildConfig and webhooks; the steps which do not depend on each other run concurrently.
+     * <p/>
+     * The BuildConfig is only created once the remote repository exists and is deleted again if a later step fails.
+     *
+     * @return the full name of the remote repository
+     */
+    protected String publishNewProject(final RestUIContext context, final UserDetails userDetails, final File basedir, final String named,
+                                       final String message, final String namespace, final String projectName) throws Exception {
+        final String user = userDetails.getUser();
+        final String branch = userDetails.getBranch();
+        final String origin = projectFileSystem.getRemote();
+        final String remoteUrl = createRemoteUrl(userDetails.getInternalAddress(), user, named);
+        final String cloneUrl = userDetails.getAddress() + user + "/" + named + ".git";
+        final AtomicReference<Git> gitReference = new AtomicReference<>();
+        final AtomicReference<String> fullNameReference = new AtomicReference<>();
+        final AtomicBoolean buildConfigCreated = new AtomicBoolean();
+
+        TaskGraph graph = new TaskGraph("projectNew", executor, metricsRegistry);
+        graph.add(STEP_GIT_INIT, new TaskGraph.Task() {
+            @Override
+            public void run() throws Exception {
+                InitCommand initCommand = Git.init();
+                initCommand.setDirectory(basedir);
+                Git git = initCommand.call();
+                LOG.info("Initialised an empty git configuration repo at {}", basedir.getAbsolutePath());
+
+                LOG.info("Using remoteUrl: " + remoteUrl + " and remote name " + origin);
+                GitHelpers.configureBranch(git, branch, origin, remoteUrl);
+
+                addDummyFileToEmptyFolders(basedir);
+                GitHelpers.doAddCommitAndPushFiles(git, userDetails, userDetails.createPersonIdent(), branch, origin, message, false);
+                gitReference.set(git);
+            }
+        });
+        graph.add(STEP_CREATE_REPOSITORY, new TaskGraph.Task() {
+            @Override
+            public void run() throws Exception {
+                GitRepoClient repoClient = userDetails.createRepoClient();
+                CreateRepositoryDTO createRepository = new CreateRepositoryDTO();
+                createRepository.setName(named);
+
+                RepositoryDTO repository = repoClient.createRepository(createRepository);
+                if (repository != null) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Got repository: " + toJson(repository));
+                    }
+                    fullNameReference.set(repository.getFullName());
+                }
+            }
+        });
+        graph.add(STEP_BUILD_CONFIG, new TaskGraph.Task() {
+            @Override
+            public void run() throws Exception {
+                createBuildConfig(context, namespace, projectName, cloneUrl);
+                buildConfigCreated.set(true);
+            }
+        }, STEP_CREATE_REPOSITORY);
+        graph.add(STEP_PUSH, new TaskGraph.Task() {
+            @Override
+            public void run() throws Exception {
+                if (isPushOnCommit()) {
+                    LOG.info("Pushing to: " + remoteUrl + " and remote name " + origin);
+                    push(gitReference.get(), userDetails, branch, origin);
+                }
+            }
+        }, STEP_GIT_INIT, STEP_CREATE_REPOSITORY);
+        graph.add(STEP_WEB_HOOKS, new TaskGraph.Task() {
+            @Override
+            public void run() throws Exception {
+                LOG.info("Creating any pending webhooks");
+                registerWebHooks(context);
+            }
+        }, STEP_PUSH, STEP_BUILD_CONFIG);
+
+        try {
+            graph.execute(PUBLISH_TIMEOUT_MILLIS);
+        } catch (Exception e) {
+            if (buildConfigCreated.get()) {
+                try {
+                    deleteBuildConfig(namespace, projectName);
+                } catch (Exception deleteError) {
+                    LOG.warn("Failed to delete the BuildConfig of project " + projectName + " in namespace " + namespace + ": " + deleteError, deleteError);
+                }
+            }
+            throw e;
+        }
+        LOG.info("Published project " + projectName + " in " + graph.getElapsedMillis() + " millis with step timings " + graph.getDurations());
+
+        String fullName = fullNameReference.get();
+        if (Strings.isNullOrEmpty(fullName)) {
+            fullName = user + "/" + named;
+        }
+        return fullName;
+    }
+
+    /**
+     * Returns the URL the code of a new project is pushed to
+     */
+    protected String createRemoteUrl(String internalAddress, String user, String named) {
+        return internalAddress + user + "/" + named + ".git";
+    }
+
+    protected void push(Git git, UserDetails userDetails, String branch, String origin) throws Exception {
+        GitHelpers.doPush(git, userDetails, branch, origin);
+    }
+
     protected void createBuildConfig(RestUIContext context, String namespace, String projectName, String cloneUrl) throws Exception {
         LOG.info("Creating a BuildConfig for namespace: " + namespace + " project: " + projectName);
         String jenkinsUrl = getJenkinsServiceUrl(namespace);
@@ -209,6 +319,11 @@ public class GitCommandCompletePostProcessor implements CommandCompletePostProce
         controller.applyBuildConfig(buildConfig, "from project " + projectName);
     }
 
+    protected void deleteBuildConfig(String namespace, String projectName) throws Exception {
+        LOG.info("Deleting the BuildConfig for namespace: " + namespace + " project: " + projectName);
+        kubernetes.adapt(OpenShiftClient.class).buildConfigs().inNamespace(namespace).withName(projectName).delete();
+    }
+
     protected String getJenkinsServiceUrl(String namespace) {
         return KubernetesHelper.getServiceURL(kubernetes, ServiceNames.JENKINS, namespace, "http", true);
     }
@@ -253,4 +368,15 @@ public class GitCommandCompletePostProcessor implements CommandCompletePostProce
         LOG.warn("Caught: " + e, e);
         throw new RuntimeException(e);
     }
+
+    private static class PublishThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "forge-project-publish-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -151,18 +151,22 @@ public class GitHelpers {
         }
 
         if (pushOnCommit) {
-            PushCommand push = git.push();
-            configureCommand(push, userDetails);
-            Iterable<PushResult> results = push.setRemote(origin).call();
-            for (PushResult result : results) {
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("Pushed " + result.getMessages() + " " + result.getURI() + " branch: " + branch + " updates: " + toString(result.getRemoteUpdates()));
-                }
-            }
+            doPush(git, userDetails, branch, origin);
         }
         return answer;
     }
 
+    public static void doPush(Git git, UserDetails userDetails, String branch, String origin) throws GitAPIException {
+        PushCommand push = git.push();
+        configureCommand(push, userDetails);
+        Iterable<PushResult> results = push.setRemote(origin).call();
+        for (PushResult result : results) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Pushed " + result.getMessages() + " " + result.getURI() + " branch: " + branch + " updates: " + toString(result.getRemoteUpdates()));
+            }
+        }
+    }
+
     public static void doAddCommitAndPushFiles(Git git, UserDetails userDetails, PersonIdent personIdent, String branch, String origin, String message, boolean pushOnCommit) throws GitAPIException {
         git.add().addFilepattern(".").call();
         doCommitAndPush(git, message, userDetails, personIdent, branch, origin, pushOnCommit);
@@ -15,6 +15,8 @@
  */
 package io.fabric8.forge.rest.main;
 
+import io.fabric8.forge.rest.dto.WorkflowSyncStatusDTO;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
 import io.fabric8.repo.git.GitRepoClient;
 import io.fabric8.repo.git.RepositoryDTO;
 import io.fabric8.utils.Files;
@@ -23,6 +25,7 @@ import org.apache.deltaspike.core.api.config.ConfigProperty;
 import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.PullCommand;
+import org.eclipse.jgit.api.PullResult;
 import org.eclipse.jgit.api.errors.NoHeadException;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Repository;
@@ -51,16 +54,20 @@ public class ProjectFileSystem {
     private final String remote;
     private final String jenkinsWorkflowGitUrl;
     private final ScheduledExecutorService executorService = Executors.newScheduledThreadPool(2);
+    private final WorkflowSyncScheduler workflowSyncScheduler;
 
     @Inject
     public ProjectFileSystem(RepositoryCache repositoryCache,
+                             MetricsRegistry metricsRegistry,
                              @ConfigProperty(name = "PROJECT_FOLDER", defaultValue = "/tmp/fabric8-forge") String rootProjectFolder,
                              @ConfigProperty(name = "GIT_REMOTE_BRANCH_NAME", defaultValue = "origin") String remote,
-                             @ConfigProperty(name = "JENKINS_WORKFLOW_GIT_REPOSITORY") String jenkinsWorkflowGitUrl) {
+                             @ConfigProperty(name = "JENKINS_WORKFLOW_GIT_REPOSITORY") String jenkinsWorkflowGitUrl,
+                             @ConfigProperty(name = "JENKINS_WORKFLOW_MIN_REFRESH_INTERVAL", defaultValue = "60000") long workflowMinRefreshMillis) {
         this.repositoryCache = repositoryCache;
         this.rootProjectFolder = rootProjectFolder;
         this.remote = remote;
         this.jenkinsWorkflowGitUrl = jenkinsWorkflowGitUrl;
+        this.workflowSyncScheduler = new WorkflowSyncScheduler(metricsRegistry, executorService, workflowMinRefreshMillis);
         LOG.info("Using jenkins workflow library: " + this.jenkinsWorkflowGitUrl);
     }
 
@@ -121,19 +128,20 @@ public class ProjectFileSystem {
         return projectFolder;
     }
 
+    /**
+     * Clones or pulls the jenkins workflow library in the background; concurrent requests are collapsed into
+     * a single sync and requests within <code>JENKINS_WORKFLOW_MIN_REFRESH_INTERVAL</code> millis of the last sync are ignored
+     */
     public void asyncCloneOrPullJenkinsWorkflows(final UserDetails userDetails) {
         final File folder = getJenkinsWorkflowFolder();
         if (Strings.isNotBlank(jenkinsWorkflowGitUrl)) {
-            executorService.execute(new Runnable() {
+            workflowSyncScheduler.requestSync(new Runnable() {
                 @Override
                 public void run() {
-                    try {
-                        LOG.debug("Cloning or pulling jenkins workflow repo from " + jenkinsWorkflowGitUrl + " to " + folder);
-                        UserDetails anonymous = userDetails.createAnonymousDetails();
-                        cloneOrPullRepo(anonymous, folder, jenkinsWorkflowGitUrl, null, null);
-                    } catch (Exception e) {
-                        LOG.error("Failed to clone jenkins workflow repo from : " + jenkinsWorkflowGitUrl + ". " + e, e);
-                    }
+                    LOG.debug("Cloning or pulling jenkins workflow repo from " + jenkinsWorkflowGitUrl + " to " + folder);
+                    UserDetails anonymous = userDetails.createAnonymousDetails();
+                    // pull failures must fail the sync so they show up in its status and metrics
+                    cloneOrPullRepo(anonymous, folder, jenkinsWorkflowGitUrl, null, null, false);
                 }
             });
         } else {
@@ -141,6 +149,10 @@ public class ProjectFileSystem {
         }
     }
 
+    public WorkflowSyncStatusDTO getJenkinsWorkflowSyncStatus() {
+        return workflowSyncScheduler.getStatus();
+    }
+
     public String getCloneUrl(String user, String repositoryName, UserDetails userDetails) {
         GitRepoClient repoClient = userDetails.createRepoClient();
         RepositoryDTO dto = repositoryCache.getOrFindUserRepository(user, repositoryName, repoClient);
@@ -169,13 +181,27 @@ public class ProjectFileSystem {
     }
 
     public File cloneOrPullRepo(UserDetails userDetails, File projectFolder, String cloneUrl, File sshPrivateKey, File sshPublicKey) {
+        return cloneOrPullRepo(userDetails, projectFolder, cloneUrl, sshPrivateKey, sshPublicKey, true);
+    }
+
+    /**
+     * Clones the repository or pulls it if it already exists; if <code>ignorePullFailures</code> is false a failed
+     * pull is thrown rather than logged and ignored
+     */
+    public File cloneOrPullRepo(UserDetails userDetails, File projectFolder, String cloneUrl, File sshPrivateKey, File sshPublicKey, boolean ignorePullFailures) {
         File gitFolder = new File(projectFolder, ".git");
         CredentialsProvider credentialsProvider = userDetails.createCredentialsProvider();
         if (!Files.isDirectory(gitFolder) || !Files.isDirectory(projectFolder)) {
             // lets clone the git repository!
             cloneRepo(projectFolder, cloneUrl, credentialsProvider, sshPrivateKey, sshPublicKey, this.remote);
-        } else {
+        } else if (ignorePullFailures) {
             doPull(gitFolder, credentialsProvider, userDetails.getBranch(), userDetails.createPersonIdent(), userDetails);
+        } else {
+            try {
+                pull(gitFolder, userDetails.getBranch(), userDetails.createPersonIdent(), userDetails);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to pull the git repository at " + projectFolder + " due: " + e.getMessage(), e);
+            }
         }
         return projectFolder;
     }
@@ -210,59 +236,69 @@ public class ProjectFileSystem {
 
     protected void doPull(File gitFolder, CredentialsProvider cp, String branch, PersonIdent personIdent, UserDetails userDetails) {
         try {
-            FileRepositoryBuilder builder = new FileRepositoryBuilder();
-            Repository repository = builder.setGitDir(gitFolder)
-                    .readEnvironment() // scan environment GIT_* variables
-                    .findGitDir() // scan up the file system tree
-                    .build();
+            pull(gitFolder, branch, personIdent, userDetails);
+        } catch (Throwable e) {
+            LOG.error("Failed to pull from the remote git repo with credentials " + cp + " due: " + e.getMessage() + ". This exception is ignored.", e);
+        }
+    }
 
-            Git git = new Git(repository);
+    /**
+     * Pulls the repository with a rebase, throwing an exception if the pull fails or is not successful
+     */
+    protected void pull(File gitFolder, String branch, PersonIdent personIdent, UserDetails userDetails) throws Exception {
+        FileRepositoryBuilder builder = new FileRepositoryBuilder();
+        Repository repository = builder.setGitDir(gitFolder)
+                .readEnvironment() // scan environment GIT_* variables
+                .findGitDir() // scan up the file system tree
+                .build();
 
-            File projectFolder = repository.getDirectory();
+        Git git = new Git(repository);
 
-            StoredConfig config = repository.getConfig();
-            String url = config.getString("remote", remote, "url");
-            if (Strings.isNullOrBlank(url)) {
-                LOG.warn("No remote repository url for " + branch + " defined for the git repository at " + projectFolder.getCanonicalPath() + " so cannot pull");
-                //return;
-            }
-            String mergeUrl = config.getString("branch", branch, "merge");
-            if (Strings.isNullOrBlank(mergeUrl)) {
-                LOG.warn("No merge spec for branch." + branch + ".merge in the git repository at " + projectFolder.getCanonicalPath() + " so not doing a pull");
-                //return;
-            }
+        File projectFolder = repository.getDirectory();
+
+        StoredConfig config = repository.getConfig();
+        String url = config.getString("remote", remote, "url");
+        if (Strings.isNullOrBlank(url)) {
+            LOG.warn("No remote repository url for " + branch + " defined for the git repository at " + projectFolder.getCanonicalPath() + " so cannot pull");
+            //return;
+        }
+        String mergeUrl = config.getString("branch", branch, "merge");
+        if (Strings.isNullOrBlank(mergeUrl)) {
+            LOG.warn("No merge spec for branch." + branch + ".merge in the git repository at " + projectFolder.getCanonicalPath() + " so not doing a pull");
+            //return;
+        }
 
-            // lets trash any failed changes
-            LOG.info("Stashing local changes to the repo");
-            boolean hasHead = true;
+        // lets trash any failed changes
+        LOG.info("Stashing local changes to the repo");
+        boolean hasHead = true;
+        try {
+            git.log().all().call();
+            hasHead = git.getRepository().getAllRefs().containsKey("HEAD");
+        } catch (NoHeadException e) {
+            hasHead = false;
+        }
+        if (hasHead) {
+            // lets stash any local changes just in case..
             try {
-                git.log().all().call();
-                hasHead = git.getRepository().getAllRefs().containsKey("HEAD");
-            } catch (NoHeadException e) {
-                hasHead = false;
-            }
-            if (hasHead) {
-                // lets stash any local changes just in case..
-                try {
-                    git.stashCreate().setPerson(personIdent).setWorkingDirectoryMessage("Stash before a write").setRef("HEAD").call();
-                } catch (Throwable e) {
-                    LOG.error("Failed to stash changes: " + e, e);
-                    Throwable cause = e.getCause();
-                    if (cause != null && cause != e) {
-                        LOG.error("Cause: " + cause, cause);
-                    }
+                git.stashCreate().setPerson(personIdent).setWorkingDirectoryMessage("Stash before a write").setRef("HEAD").call();
+            } catch (Throwable e) {
+                LOG.error("Failed to stash changes: " + e, e);
+                Throwable cause = e.getCause();
+                if (cause != null && cause != e) {
+                    LOG.error("Cause: " + cause, cause);
                 }
             }
+        }
 
-            //LOG.info("Resetting the repo");
-            //git.reset().setMode(ResetCommand.ResetType.HARD).call();
+        //LOG.info("Resetting the repo");
+        //git.reset().setMode(ResetCommand.ResetType.HARD).call();
 
-            LOG.info("Performing a pull in git repository " + projectFolder.getCanonicalPath() + " on remote URL: " + url);
-            PullCommand pull = git.pull();
-            GitHelpers.configureCommand(pull, userDetails);
-            pull.setRebase(true).call();
-        } catch (Throwable e) {
-            LOG.error("Failed to pull from the remote git repo with credentials " + cp + " due: " + e.getMessage() + ". This exception is ignored.", e);
+        LOG.info("Performing a pull in git repository " + projectFolder.getCanonicalPath() + " on remote URL: " + url);
+        PullCommand pull = git.pull();
+        GitHelpers.configureCommand(pull, userDetails);
+        PullResult result = pull.setRebase(true).call();
+        if (!result.isSuccessful()) {
+            throw new IllegalStateException("Pull of git repository " + projectFolder.getCanonicalPath() + " was not successful: " + result);
         }
     }
 
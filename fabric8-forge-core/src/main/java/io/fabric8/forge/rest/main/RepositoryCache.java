@@ -15,27 +15,79 @@
  */
 package io.fabric8.forge.rest.main;
 
+import io.fabric8.forge.rest.metrics.Counter;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
+import io.fabric8.forge.rest.metrics.Timer;
 import io.fabric8.repo.git.GitRepoClient;
 import io.fabric8.repo.git.RepositoryDTO;
+import org.apache.deltaspike.core.api.config.ConfigProperty;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
+ * A bounded cache of the user repositories keyed by their full name (<code>owner/name</code>).
+ * <p/>
+ * Entries are evicted in least recently used order once the cache holds more than <code>maxEntries</code> and expire
+ * <code>ttlMillis</code> after they were loaded. A miss lists all the repositories of the user and caches all of them;
+ * concurrent misses for the same user share a single listing.
  */
 @Singleton
 public class RepositoryCache {
-    private Map<String,RepositoryDTO> userCache = new ConcurrentHashMap<>();
+    private final MetricsRegistry metricsRegistry;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, CacheEntry> userCache;
+    private final ConcurrentHashMap<String, FutureTask<List<RepositoryDTO>>> loads = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter sharedLoads;
+    private final Timer loadTimer;
+
+    @Inject
+    public RepositoryCache(MetricsRegistry metricsRegistry,
+                           @ConfigProperty(name = "FORGE_REPOSITORY_CACHE_SIZE", defaultValue = "1000") int maxEntries,
+                           @ConfigProperty(name = "FORGE_REPOSITORY_CACHE_TTL", defaultValue = "300000") long ttlMillis) {
+        this.metricsRegistry = metricsRegistry;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.hits = metricsRegistry.counter("forge_cache_hits", "cache", "repository");
+        this.misses = metricsRegistry.counter("forge_cache_misses", "cache", "repository");
+        this.evictions = metricsRegistry.counter("forge_cache_evictions", "cache", "repository");
+        this.sharedLoads = metricsRegistry.counter("forge_cache_shared_loads", "cache", "repository");
+        this.loadTimer = metricsRegistry.timer("forge_cache_load", "cache", "repository");
+        this.userCache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                if (size() > RepositoryCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
 
     /**
      * Updates the cache of all user repositories
      */
     public void updateUserRepositories(List<RepositoryDTO> repositoryDTOs) {
-        for (RepositoryDTO repositoryDTO : repositoryDTOs) {
-            String fullName = repositoryDTO.getFullName();
-            userCache.put(fullName, repositoryDTO);
+        long now = currentTimeMillis();
+        synchronized (userCache) {
+            for (RepositoryDTO repositoryDTO : repositoryDTOs) {
+                String fullName = repositoryDTO.getFullName();
+                if (fullName != null) {
+                    userCache.put(fullName, new CacheEntry(repositoryDTO, now));
+                }
+            }
         }
     }
 
@@ -44,19 +96,133 @@ public class RepositoryCache {
     }
 
     public RepositoryDTO getUserRepository(String fullName) {
-        return userCache.get(fullName);
+        synchronized (userCache) {
+            CacheEntry entry = userCache.get(fullName);
+            if (entry == null) {
+                return null;
+            }
+            if (ttlMillis > 0 && currentTimeMillis() - entry.loadedAt > ttlMillis) {
+                userCache.remove(fullName);
+                return null;
+            }
+            return entry.repository;
+        }
+    }
+
+    /**
+     * Removes the given repository from the cache so that the next lookup queries the git repository again
+     */
+    public void invalidate(String user, String repository) {
+        synchronized (userCache) {
+            userCache.remove(user + "/" + repository);
+        }
+    }
+
+    public void clear() {
+        synchronized (userCache) {
+            userCache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (userCache) {
+            return userCache.size();
+        }
     }
 
     /**
      * Attempts to use the cache or performs a query for all the users repositories if its not present
      */
-    public RepositoryDTO getOrFindUserRepository(String user, String repositoryName, GitRepoClient repoClient) {
+    public RepositoryDTO getOrFindUserRepository(String user, String repositoryName, final GitRepoClient repoClient) {
         RepositoryDTO repository = getUserRepository(user, repositoryName);
-        if (repository == null) {
-            List<RepositoryDTO> repositoryDTOs = repoClient.listRepositories();
-            updateUserRepositories(repositoryDTOs);
-            repository = getUserRepository(user, repositoryName);
+        if (repository != null) {
+            hits.increment();
+            return repository;
+        }
+        misses.increment();
+        List<RepositoryDTO> repositoryDTOs = loadUserRepositories(user, new Callable<List<RepositoryDTO>>() {
+            @Override
+            public List<RepositoryDTO> call() throws Exception {
+                long start = System.nanoTime();
+                List<RepositoryDTO> answer = repoClient.listRepositories();
+                metricsRegistry.timer("forge_git_repo_client", "operation", "listRepositories").updateSince(start);
+                return answer;
+            }
+        });
+        // look in the listing itself in case the entry was evicted in the meantime
+        String fullName = user + "/" + repositoryName;
+        if (repositoryDTOs != null) {
+            for (RepositoryDTO repositoryDTO : repositoryDTOs) {
+                if (fullName.equals(repositoryDTO.getFullName())) {
+                    return repositoryDTO;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lists the repositories of the given user and caches them; if a listing for the user is already in flight
+     * then its result is used instead of querying again
+     */
+    protected List<RepositoryDTO> loadUserRepositories(String user, Callable<List<RepositoryDTO>> lister) {
+        FutureTask<List<RepositoryDTO>> task = new FutureTask<>(lister);
+        FutureTask<List<RepositoryDTO>> inFlight = loads.putIfAbsent(user, task);
+        if (inFlight != null) {
+            sharedLoads.increment();
+            return awaitLoad(inFlight);
+        }
+        long start = System.nanoTime();
+        try {
+            task.run();
+            List<RepositoryDTO> repositoryDTOs = awaitLoad(task);
+            if (repositoryDTOs != null) {
+                updateUserRepositories(repositoryDTOs);
+            }
+            return repositoryDTOs;
+        } finally {
+            loads.remove(user, task);
+            loadTimer.updateSince(start);
+        }
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private static List<RepositoryDTO> awaitLoad(FutureTask<List<RepositoryDTO>> task) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Failed to list the user repositories: " + cause, cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class CacheEntry {
+        private final RepositoryDTO repository;
+        private final long loadedAt;
+
+        CacheEntry(RepositoryDTO repository, long loadedAt) {
+            this.repository = repository;
+            this.loadedAt = loadedAt;
         }
-        return repository;
     }
 }
@@ -0,0 +1,242 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.main;
+
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A small graph of named steps with explicit dependencies; each step is started on the executor as soon as all the
+ * steps it depends on have completed so that independent steps run concurrently.
+ * <p/>
+ * If a step fails then no further steps are started, the steps already running are allowed to complete and
+ * {@link #execute(long)} throws the first failure. The duration of each step is recorded in the
+ * <code>forge_task_graph_step</code> timer.
+ */
+public class TaskGraph {
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+
+    /**
+     * A step of the graph
+     */
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private final String name;
+    private final Executor executor;
+    private final MetricsRegistry metricsRegistry;
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private boolean started;
+    private int finished;
+    private Throwable failure;
+    private long elapsedNanos;
+
+    public TaskGraph(String name, Executor executor, MetricsRegistry metricsRegistry) {
+        this.name = name;
+        this.executor = executor;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskGraph{" +
+                "name='" + name + '\'' +
+                ", steps=" + nodes.keySet() +
+                '}';
+    }
+
+    /**
+     * Adds a step which is started once all the given steps have completed; the dependencies must already have been
+     * added which also means the graph cannot contain cycles
+     */
+    public synchronized TaskGraph add(String stepName, Task task, String... dependencies) {
+        if (started) {
+            throw new IllegalStateException("Cannot add step " + stepName + " to " + name + " as it has already been started");
+        }
+        if (nodes.containsKey(stepName)) {
+            throw new IllegalArgumentException("Step " + stepName + " is already defined in " + name);
+        }
+        Node node = new Node(stepName, task, dependencies.length);
+        for (String dependency : dependencies) {
+            Node dependencyNode = nodes.get(dependency);
+            if (dependencyNode == null) {
+                throw new IllegalArgumentException("Step " + stepName + " depends on unknown step " + dependency + " in " + name);
+            }
+            dependencyNode.dependents.add(node);
+        }
+        nodes.put(stepName, node);
+        return this;
+    }
+
+    /**
+     * Runs all the steps and waits for them to complete
+     *
+     * @throws TimeoutException if the steps did not complete within the timeout
+     */
+    public void execute(long timeoutMillis) throws Exception {
+        long start = System.nanoTime();
+        List<Node> ready = new ArrayList<>();
+        synchronized (this) {
+            if (started) {
+                throw new IllegalStateException(name + " has already been started");
+            }
+            started = true;
+            for (Node node : nodes.values()) {
+                if (node.remaining == 0) {
+                    node.state = State.RUNNING;
+                    ready.add(node);
+                }
+            }
+        }
+        dispatch(ready);
+
+        synchronized (this) {
+            long end = System.currentTimeMillis() + timeoutMillis;
+            while (finished < nodes.size()) {
+                long remaining = end - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new TimeoutException("Timed out after " + timeoutMillis + " millis waiting for " + name + " steps " + getUnfinishedSteps());
+                }
+                wait(remaining);
+            }
+            elapsedNanos = System.nanoTime() - start;
+            if (failure instanceof Exception) {
+                throw (Exception) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure != null) {
+                throw new IllegalStateException(failure);
+            }
+        }
+    }
+
+    /**
+     * Returns the duration in milliseconds of each step which has completed in the order the steps were added
+     */
+    public synchronized Map<String, Long> getDurations() {
+        Map<String, Long> answer = new LinkedHashMap<>();
+        for (Node node : nodes.values()) {
+            if (node.durationNanos >= 0) {
+                answer.put(node.name, TimeUnit.NANOSECONDS.toMillis(node.durationNanos));
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the wall clock time in milliseconds it took to run all the steps
+     */
+    public synchronized long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    private void dispatch(List<Node> ready) {
+        for (final Node node : ready) {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        runStep(node);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                completed(node, e, 0);
+            }
+        }
+    }
+
+    private void runStep(Node node) {
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            node.task.run();
+        } catch (Throwable e) {
+            error = e;
+        }
+        long duration = System.nanoTime() - start;
+        metricsRegistry.timer("forge_task_graph_step", "graph", name, "step", node.name,
+                "outcome", error == null ? OUTCOME_SUCCESS : OUTCOME_FAILURE).update(duration);
+        completed(node, error, duration);
+    }
+
+    private void completed(Node node, Throwable error, long durationNanos) {
+        List<Node> ready = new ArrayList<>();
+        synchronized (this) {
+            node.durationNanos = durationNanos;
+            node.state = State.FINISHED;
+            finished++;
+            if (error != null && failure == null) {
+                failure = error;
+                // lets not start anything else
+                for (Node other : nodes.values()) {
+                    if (other.state == State.PENDING) {
+                        other.state = State.SKIPPED;
+                        finished++;
+                    }
+                }
+            }
+            if (failure == null) {
+                for (Node dependent : node.dependents) {
+                    if (--dependent.remaining == 0) {
+                        dependent.state = State.RUNNING;
+                        ready.add(dependent);
+                    }
+                }
+            }
+            notifyAll();
+        }
+        dispatch(ready);
+    }
+
+    private List<String> getUnfinishedSteps() {
+        List<String> answer = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            if (node.state != State.FINISHED && node.state != State.SKIPPED) {
+                answer.add(node.name);
+            }
+        }
+        return answer;
+    }
+
+    private enum State {
+        PENDING, RUNNING, FINISHED, SKIPPED
+    }
+
+    private static class Node {
+        private final String name;
+        private final Task task;
+        private final List<Node> dependents = new ArrayList<>();
+        private int remaining;
+        private State state = State.PENDING;
+        private long durationNanos = -1;
+
+        Node(String name, Task task, int remaining) {
+            this.name = name;
+            this.task = task;
+            this.remaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.main;
+
+import io.fabric8.forge.rest.CommandsResource;
+import io.fabric8.forge.rest.dto.CommandInfoDTO;
+import io.fabric8.forge.rest.dto.WarmupStageDTO;
+import io.fabric8.forge.rest.dto.WarmupStatusDTO;
+import io.fabric8.forge.rest.producer.FurnaceProducer;
+import io.fabric8.utils.Strings;
+import org.apache.deltaspike.core.api.config.ConfigProperty;
+import org.jboss.forge.furnace.Furnace;
+import org.jboss.forge.furnace.addons.AddonRegistry;
+import org.jboss.forge.furnace.services.Imported;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms up Forge on startup by running a number of independent stages concurrently on a bounded
+ * thread pool; such as loading the command metadata, the Camel catalog, the archetype catalogs and the JAXB contexts.
+ * <p/>
+ * The stages which live inside addons are exposed by the addon as a {@link Callable} service which we look up by class name.
+ * <p/>
+ * Each stage has a deadline; a stage which fails or does not complete before its deadline is marked as
+ * degraded so that Forge still becomes ready and the work is just done lazily by the first request which needs it.
+ */
+@Singleton
+public class WarmupManager {
+    private static final transient Logger LOG = LoggerFactory.getLogger(WarmupManager.class);
+
+    public static final String STAGE_COMMANDS = "commands";
+    public static final String STAGE_CAMEL_CATALOG = "camel-catalog";
+    public static final String STAGE_ARCHETYPE_CATALOGS = "archetype-catalogs";
+    public static final String STAGE_JAXB_CONTEXTS = "jaxb-contexts";
+    public static final String DEFAULT_STAGES = STAGE_COMMANDS + "," + STAGE_CAMEL_CATALOG + "," + STAGE_ARCHETYPE_CATALOGS + "," + STAGE_JAXB_CONTEXTS;
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_SKIPPED = "SKIPPED";
+    public static final String STATUS_TIMED_OUT = "TIMED_OUT";
+
+    private static final Map<String, String> addonStageServices = new LinkedHashMap<>();
+
+    static {
+        addonStageServices.put(STAGE_CAMEL_CATALOG, "io.fabric8.forge.camel.commands.project.helper.CamelCatalogWarmup");
+        addonStageServices.put(STAGE_ARCHETYPE_CATALOGS, "io.fabric8.forge.camel.commands.project.archetype.ArchetypeCatalogWarmup");
+        addonStageServices.put(STAGE_JAXB_CONTEXTS, "io.fabric8.forge.camel.commands.project.helper.CamelJaxbWarmup");
+    }
+
+    private final FurnaceProducer furnaceProducer;
+    private final boolean enabled;
+    private final int threads;
+    private final long stageTimeoutMillis;
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+    private ScheduledExecutorService deadlines;
+    private long startTime;
+    private long endTime;
+    private boolean started;
+
+    @Inject
+    public WarmupManager(FurnaceProducer furnaceProducer,
+                         @ConfigProperty(name = "FORGE_WARMUP_ENABLED", defaultValue = "true") boolean enabled,
+                         @ConfigProperty(name = "FORGE_WARMUP_THREADS", defaultValue = "4") int threads,
+                         @ConfigProperty(name = "FORGE_WARMUP_STAGES", defaultValue = DEFAULT_STAGES) String stageNames,
+                         @ConfigProperty(name = "FORGE_WARMUP_STAGE_TIMEOUT", defaultValue = "120000") long stageTimeoutMillis) {
+        this.furnaceProducer = furnaceProducer;
+        this.enabled = enabled;
+        this.threads = Math.max(1, threads);
+        this.stageTimeoutMillis = stageTimeoutMillis;
+        if (Strings.isNotBlank(stageNames)) {
+            for (String stageName : stageNames.split(",")) {
+                String name = stageName.trim();
+                if (name.length() > 0) {
+                    stages.put(name, new Stage(name));
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the warm up stages in the background; this method returns immediately
+     */
+    public void start(final CommandsResource commandsResource) {
+        synchronized (stages) {
+            if (started) {
+                return;
+            }
+            started = true;
+            startTime = System.currentTimeMillis();
+            if (!enabled || stages.isEmpty()) {
+                LOG.info("Startup warm up is disabled");
+                endTime = startTime;
+                return;
+            }
+            deadlines = Executors.newSingleThreadScheduledExecutor(new WarmupThreadFactory("forge-warmup-deadline-"));
+        }
+        LOG.info("Starting warm up of stages " + stages.keySet() + " using " + threads + " thread(s) with a timeout of " + stageTimeoutMillis + " millis per stage");
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threads, stages.size()), new WarmupThreadFactory("forge-warmup-"));
+        for (final Stage stage : stages.values()) {
+            final Callable<String> task = createStageTask(stage.name, commandsResource);
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    runStage(stage, task);
+                }
+            });
+        }
+        // lets allow the threads to terminate once the stages are done
+        executorService.shutdown();
+    }
+
+    public WarmupStatusDTO getStatus() {
+        synchronized (stages) {
+            List<WarmupStageDTO> list = new ArrayList<>();
+            int completed = 0;
+            boolean degraded = false;
+            for (Stage stage : stages.values()) {
+                list.add(stage.toDTO());
+                if (stage.isFinished()) {
+                    completed++;
+                }
+                if (stage.isDegraded()) {
+                    degraded = true;
+                }
+            }
+            boolean ready = started && (!enabled || completed == stages.size());
+            long elapsed = 0;
+            if (started) {
+                elapsed = (endTime > 0 ? endTime : System.currentTimeMillis()) - startTime;
+            }
+            return new WarmupStatusDTO(enabled, ready, degraded, completed, stages.size(), elapsed, list);
+        }
+    }
+
+    public boolean isReady() {
+        return getStatus().isReady();
+    }
+
+    protected Callable<String> createStageTask(String name, final CommandsResource commandsResource) {
+        if (STAGE_COMMANDS.equals(name)) {
+            return new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    List<CommandInfoDTO> commands = commandsResource.getCommands();
+                    return "Loaded " + commands.size() + " commands";
+                }
+            };
+        }
+        final String serviceName = addonStageServices.get(name);
+        if (serviceName == null) {
+            return null;
+        }
+        return new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                Callable<?> service = lookupAddonStage(serviceName);
+                if (service == null) {
+                    return null;
+                }
+                Object answer = service.call();
+                return answer != null ? answer.toString() : null;
+            }
+        };
+    }
+
+    protected Callable<?> lookupAddonStage(String serviceName) {
+        Furnace furnace = furnaceProducer.getFurnace();
+        if (furnace == null) {
+            return null;
+        }
+        AddonRegistry addonRegistry = furnace.getAddonRegistry();
+        Imported<Object> imported = addonRegistry.getServices(serviceName);
+        if (imported == null || imported.isUnsatisfied()) {
+            LOG.info("No warm up service " + serviceName + " is available");
+            return null;
+        }
+        Object service = imported.get();
+        if (service instanceof Callable) {
+            return (Callable<?>) service;
+        }
+        LOG.warn("Warm up service " + serviceName + " does not implement Callable: " + service);
+        return null;
+    }
+
+    protected void runStage(final Stage stage, Callable<String> task) {
+        if (task == null) {
+            LOG.warn("Unknown warm up stage " + stage.name);
+            stageFinished(stage, STATUS_SKIPPED, "Unknown warm up stage");
+            return;
+        }
+        ScheduledFuture<?> deadline = null;
+        synchronized (stages) {
+            stage.status = STATUS_RUNNING;
+            stage.startTime = System.currentTimeMillis();
+            stage.thread = Thread.currentThread();
+            if (stageTimeoutMillis > 0 && deadlines != null) {
+                deadline = deadlines.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        stageTimedOut(stage);
+                    }
+                }, stageTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        try {
+            LOG.debug("Starting warm up stage " + stage.name);
+            String message = task.call();
+            if (message == null) {
+                stageFinished(stage, STATUS_SKIPPED, "Not available");
+            } else {
+                stageFinished(stage, STATUS_COMPLETED, message);
+            }
+        } catch (Throwable e) {
+            stageFinished(stage, STATUS_FAILED, e.toString(), e);
+        } finally {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            synchronized (stages) {
+                stage.thread = null;
+                // clear any interrupt from the deadline so it does not leak into the next stage run by this thread
+                Thread.interrupted();
+            }
+        }
+    }
+
+    protected void stageTimedOut(Stage stage) {
+        synchronized (stages) {
+            if (stageFinished(stage, STATUS_TIMED_OUT, "Did not complete within " + stageTimeoutMillis + " millis") && stage.thread != null) {
+                // lets give a blocked stage the chance to give up
+                stage.thread.interrupt();
+            }
+        }
+    }
+
+    protected boolean stageFinished(Stage stage, String status, String message) {
+        return stageFinished(stage, status, message, null);
+    }
+
+    /**
+     * Records the outcome of the stage unless it has already finished; such as a stage completing after its deadline
+     *
+     * @return true if the outcome was recorded
+     */
+    protected boolean stageFinished(Stage stage, String status, String message, Throwable cause) {
+        synchronized (stages) {
+            if (stage.isFinished()) {
+                LOG.debug("Ignoring " + status + " of warm up stage " + stage.name + " as it is already " + stage.status);
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            stage.status = status;
+            stage.message = message;
+            if (stage.startTime > 0) {
+                stage.durationMillis = now - stage.startTime;
+            }
+            if (stage.isDegraded()) {
+                LOG.warn("Warm up stage " + stage.name + " is degraded as it " + status + " after " + stage.durationMillis + " millis: " + message, cause);
+            } else {
+                LOG.info("Warm up stage " + stage.name + " " + status + " in " + stage.durationMillis + " millis: " + message);
+            }
+
+            boolean allFinished = true;
+            for (Stage s : stages.values()) {
+                if (!s.isFinished()) {
+                    allFinished = false;
+                    break;
+                }
+            }
+            if (allFinished) {
+                endTime = now;
+                LOG.info("Warm up completed in " + (endTime - startTime) + " millis");
+                if (deadlines != null) {
+                    deadlines.shutdownNow();
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The mutable state of a stage; guarded by the stages map
+     */
+    private static class Stage {
+        private final String name;
+        private String status = STATUS_PENDING;
+        private String message;
+        private long startTime;
+        private long durationMillis;
+        private Thread thread;
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        boolean isFinished() {
+            return STATUS_COMPLETED.equals(status) || STATUS_SKIPPED.equals(status) || isDegraded();
+        }
+
+        boolean isDegraded() {
+            return STATUS_FAILED.equals(status) || STATUS_TIMED_OUT.equals(status);
+        }
+
+        WarmupStageDTO toDTO() {
+            long duration = durationMillis;
+            if (STATUS_RUNNING.equals(status)) {
+                duration = System.currentTimeMillis() - startTime;
+            }
+            return new WarmupStageDTO(name, status, duration, message);
+        }
+    }
+
+    private static class WarmupThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        WarmupThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.main;
+
+import io.fabric8.forge.rest.dto.WorkflowSyncStatusDTO;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the clone or pull of the Jenkins workflow library in the background so that at most one sync is in flight
+ * at a time and a new sync is only started if the last one started at least <code>minIntervalMillis</code> ago.
+ * <p/>
+ * Requests which arrive while a sync is running or too soon after the last one are dropped, as pipeline lookups
+ * can use the checkout as it is.
+ */
+public class WorkflowSyncScheduler {
+    private static final transient Logger LOG = LoggerFactory.getLogger(WorkflowSyncScheduler.class);
+
+    public static final String RESULT_SUCCESS = "success";
+    public static final String RESULT_FAILURE = "failure";
+
+    private final MetricsRegistry metricsRegistry;
+    private final Executor executor;
+    private final long minIntervalMillis;
+    private boolean syncing;
+    private long lastStarted;
+    private long syncCount;
+    private long requestCount;
+    private long skippedCount;
+    private Date lastSyncTime;
+    private long lastDurationMillis;
+    private String lastResult;
+    private String lastError;
+
+    public WorkflowSyncScheduler(MetricsRegistry metricsRegistry, Executor executor, long minIntervalMillis) {
+        this.metricsRegistry = metricsRegistry;
+        this.executor = executor;
+        this.minIntervalMillis = Math.max(0, minIntervalMillis);
+    }
+
+    /**
+     * Requests the given sync to be run in the background unless one is already running or ran recently
+     *
+     * @return true if the sync was scheduled
+     */
+    public boolean requestSync(final Runnable sync) {
+        metricsRegistry.counter("forge_workflow_sync_requests").increment();
+        synchronized (this) {
+            requestCount++;
+            long now = System.currentTimeMillis();
+            String skipReason = null;
+            if (syncing) {
+                skipReason = "in_flight";
+            } else if (lastStarted > 0 && now - lastStarted < minIntervalMillis) {
+                skipReason = "too_recent";
+            }
+            if (skipReason != null) {
+                skippedCount++;
+                metricsRegistry.counter("forge_workflow_sync_skipped", "reason", skipReason).increment();
+                return false;
+            }
+            syncing = true;
+            lastStarted = now;
+        }
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    runSync(sync);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Could not schedule the jenkins workflow sync: " + e, e);
+            synchronized (this) {
+                syncing = false;
+                lastStarted = 0;
+                notifyAll();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    public synchronized WorkflowSyncStatusDTO getStatus() {
+        return new WorkflowSyncStatusDTO(syncing, syncCount, requestCount, skippedCount, lastSyncTime, lastDurationMillis, lastResult, lastError);
+    }
+
+    /**
+     * Waits until no sync is running
+     *
+     * @return true if no sync was running within the timeout
+     */
+    public synchronized boolean waitUntilIdle(long timeoutMillis) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeoutMillis;
+        while (syncing) {
+            long remaining = end - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Runs the sync recording its outcome; the sync is marked as finished even if it fails with an {@link Error}
+     * which is rethrown after the failure is recorded
+     */
+    protected void runSync(Runnable sync) {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            sync.run();
+        } catch (Throwable e) {
+            failure = e;
+            LOG.error("Failed to sync the jenkins workflow library: " + e, e);
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        } finally {
+            long nanos = System.nanoTime() - start;
+            String result = failure == null ? RESULT_SUCCESS : RESULT_FAILURE;
+            metricsRegistry.timer("forge_workflow_sync", "outcome", result).update(nanos);
+            synchronized (this) {
+                syncing = false;
+                syncCount++;
+                lastSyncTime = new Date();
+                lastDurationMillis = nanos / 1000000L;
+                lastResult = result;
+                lastError = failure != null ? failure.toString() : null;
+                notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A monotonically increasing count of some event such as a cache hit
+ */
+public class Counter {
+    private final String name;
+    private final Map<String, String> labels;
+    private final AtomicLong count = new AtomicLong();
+
+    public Counter(String name, Map<String, String> labels) {
+        this.name = name;
+        this.labels = labels;
+    }
+
+    @Override
+    public String toString() {
+        return "Counter{" +
+                "name='" + name + '\'' +
+                ", labels=" + labels +
+                ", count=" + count +
+                '}';
+    }
+
+    public void increment() {
+        count.incrementAndGet();
+    }
+
+    public void increment(long delta) {
+        count.addAndGet(delta);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.metrics;
+
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A registry of the metrics recorded by fabric8-forge
+ */
+@Singleton
+public class MetricsRegistry {
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the timer for the given name and optional label name and value pairs, creating it if required
+     */
+    public Timer timer(String name, String... labelNamesAndValues) {
+        String key = createKey(name, labelNamesAndValues);
+        Timer answer = timers.get(key);
+        if (answer == null) {
+            answer = new Timer(name, createLabels(labelNamesAndValues));
+            Timer old = timers.putIfAbsent(key, answer);
+            if (old != null) {
+                answer = old;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the counter for the given name and optional label name and value pairs, creating it if required
+     */
+    public Counter counter(String name, String... labelNamesAndValues) {
+        String key = createKey(name, labelNamesAndValues);
+        Counter answer = counters.get(key);
+        if (answer == null) {
+            answer = new Counter(name, createLabels(labelNamesAndValues));
+            Counter old = counters.putIfAbsent(key, answer);
+            if (old != null) {
+                answer = old;
+            }
+        }
+        return answer;
+    }
+
+    public List<Timer> getTimers() {
+        return new ArrayList<>(timers.values());
+    }
+
+    public List<Counter> getCounters() {
+        return new ArrayList<>(counters.values());
+    }
+
+    protected static String createKey(String name, String... labelNamesAndValues) {
+        if (labelNamesAndValues.length == 0) {
+            return name;
+        }
+        StringBuilder builder = new StringBuilder(name);
+        for (String text : labelNamesAndValues) {
+            builder.append('\u0000');
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+
+    protected static Map<String, String> createLabels(String... labelNamesAndValues) {
+        if (labelNamesAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be specified as name and value pairs");
+        }
+        if (labelNamesAndValues.length == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> answer = new LinkedHashMap<>();
+        for (int i = 0; i < labelNamesAndValues.length; i += 2) {
+            answer.put(labelNamesAndValues[i], labelNamesAndValues[i + 1]);
+        }
+        return Collections.unmodifiableMap(answer);
+    }
+}
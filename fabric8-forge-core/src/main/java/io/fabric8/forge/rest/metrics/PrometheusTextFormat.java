@@ -0,0 +1,143 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the metrics in a {@link MetricsRegistry} using the
+ * <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">Prometheus text exposition format</a>.
+ * <p/>
+ * Timers are written as histograms in seconds along with a gauge of the maximum duration and counters
+ * are written with a <code>_total</code> suffix.
+ */
+public class PrometheusTextFormat {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    public static void write(Writer writer, MetricsRegistry registry) throws IOException {
+        List<Timer> timers = registry.getTimers();
+        Collections.sort(timers, new Comparator<Timer>() {
+            @Override
+            public int compare(Timer t1, Timer t2) {
+                return t1.getName().compareTo(t2.getName());
+            }
+        });
+        String lastName = null;
+        for (Timer timer : timers) {
+            String name = timer.getName() + "_seconds";
+            if (!name.equals(lastName)) {
+                writer.write("# TYPE " + name + " histogram\n");
+                lastName = name;
+            }
+            Map<String, String> labels = timer.getLabels();
+            long cumulative = 0;
+            for (int i = 0; i < Timer.BUCKETS_MILLIS.length; i++) {
+                cumulative += timer.getBucketCount(i);
+                writeSample(writer, name + "_bucket", labels, "le", formatSeconds(Timer.BUCKETS_MILLIS[i]), Long.toString(cumulative));
+            }
+            writeSample(writer, name + "_bucket", labels, "le", "+Inf", Long.toString(timer.getCount()));
+            writeSample(writer, name + "_sum", labels, null, null, Double.toString(timer.getTotalMillis() / 1000.0));
+            writeSample(writer, name + "_count", labels, null, null, Long.toString(timer.getCount()));
+        }
+
+        lastName = null;
+        for (Timer timer : timers) {
+            String name = timer.getName() + "_seconds_max";
+            if (!name.equals(lastName)) {
+                writer.write("# TYPE " + name + " gauge\n");
+                lastName = name;
+            }
+            writeSample(writer, name, timer.getLabels(), null, null, Double.toString(timer.getMaxMillis() / 1000.0));
+        }
+
+        List<Counter> counters = registry.getCounters();
+        Collections.sort(counters, new Comparator<Counter>() {
+            @Override
+            public int compare(Counter c1, Counter c2) {
+                return c1.getName().compareTo(c2.getName());
+            }
+        });
+        lastName = null;
+        for (Counter counter : counters) {
+            String name = counter.getName() + "_total";
+            if (!name.equals(lastName)) {
+                writer.write("# TYPE " + name + " counter\n");
+                lastName = name;
+            }
+            writeSample(writer, name, counter.getLabels(), null, null, Long.toString(counter.getCount()));
+        }
+        writer.flush();
+    }
+
+    protected static void writeSample(Writer writer, String name, Map<String, String> labels, String extraLabel, String extraValue, String value) throws IOException {
+        writer.write(name);
+        if (!labels.isEmpty() || extraLabel != null) {
+            writer.write('{');
+            boolean first = true;
+            for (Map.Entry<String, String> entry : labels.entrySet()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                first = false;
+                writeLabel(writer, entry.getKey(), entry.getValue());
+            }
+            if (extraLabel != null) {
+                if (!first) {
+                    writer.write(',');
+                }
+                writeLabel(writer, extraLabel, extraValue);
+            }
+            writer.write('}');
+        }
+        writer.write(' ');
+        writer.write(value);
+        writer.write('\n');
+    }
+
+    protected static void writeLabel(Writer writer, String name, String value) throws IOException {
+        writer.write(name);
+        writer.write("=\"");
+        if (value != null) {
+            for (int i = 0, size = value.length(); i < size; i++) {
+                char ch = value.charAt(i);
+                switch (ch) {
+                    case '\\':
+                        writer.write("\\\\");
+                        break;
+                    case '"':
+                        writer.write("\\\"");
+                        break;
+                    case '\n':
+                        writer.write("\\n");
+                        break;
+                    default:
+                        writer.write(ch);
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    protected static String formatSeconds(long millis) {
+        return Double.toString(millis / 1000.0);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.metrics;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+/**
+ * Records the latency of every JAX-RS request by resource method along with a count of the responses
+ * by status code class
+ */
+@Provider
+@Singleton
+public class RequestMetricsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+    private static final String START_PROPERTY = RequestMetricsFilter.class.getName() + ".start";
+
+    private final MetricsRegistry metricsRegistry;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Inject
+    public RequestMetricsFilter(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        requestContext.setProperty(START_PROPERTY, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        Object start = requestContext.getProperty(START_PROPERTY);
+        String endpoint = getEndpoint();
+        String method = requestContext.getMethod();
+        if (start instanceof Long) {
+            metricsRegistry.timer("forge_http_request", "endpoint", endpoint, "method", method).updateSince((Long) start);
+        }
+        String status = (responseContext.getStatus() / 100) + "xx";
+        metricsRegistry.counter("forge_http_responses", "endpoint", endpoint, "method", method, "status", status).increment();
+    }
+
+    /**
+     * Returns the resource class and method which handled the request so that the number of endpoints
+     * is bounded by the number of resource methods rather than the number of request URIs
+     */
+    protected String getEndpoint() {
+        Method resourceMethod = resourceInfo != null ? resourceInfo.getResourceMethod() : null;
+        if (resourceMethod == null) {
+            return "unknown";
+        }
+        return resourceInfo.getResourceClass().getSimpleName() + "." + resourceMethod.getName();
+    }
+}
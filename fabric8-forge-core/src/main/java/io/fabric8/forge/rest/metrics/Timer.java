@@ -0,0 +1,119 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.metrics;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the count, total, maximum and a histogram of durations of some operation
+ */
+public class Timer {
+    /**
+     * The upper bounds in milliseconds of the histogram buckets
+     */
+    public static final long[] BUCKETS_MILLIS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000};
+
+    private final String name;
+    private final Map<String, String> labels;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS_MILLIS.length);
+
+    public Timer(String name, Map<String, String> labels) {
+        this.name = name;
+        this.labels = labels;
+    }
+
+    @Override
+    public String toString() {
+        return "Timer{" +
+                "name='" + name + '\'' +
+                ", labels=" + labels +
+                ", count=" + count +
+                ", totalMillis=" + getTotalMillis() +
+                '}';
+    }
+
+    /**
+     * Records the time elapsed since the given value of {@link System#nanoTime()}
+     */
+    public void updateSince(long startNanos) {
+        update(System.nanoTime() - startNanos);
+    }
+
+    public void update(long duration, TimeUnit unit) {
+        update(unit.toNanos(duration));
+    }
+
+    public void update(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+        for (int i = 0; i < BUCKETS_MILLIS.length; i++) {
+            if (nanos <= TimeUnit.MILLISECONDS.toNanos(BUCKETS_MILLIS[i])) {
+                buckets.incrementAndGet(i);
+                break;
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    public double getTotalMillis() {
+        return totalNanos.get() / 1000000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1000000.0;
+    }
+
+    public double getMeanMillis() {
+        long n = count.get();
+        return n > 0 ? getTotalMillis() / n : 0;
+    }
+
+    /**
+     * Returns the number of durations which were no larger than the bucket at the given index
+     * but larger than the previous bucket
+     */
+    public long getBucketCount(int index) {
+        return buckets.get(index);
+    }
+}
@@ -15,28 +15,50 @@
  */
 package io.fabric8.forge.rest.producer;
 
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
+import io.fabric8.forge.rest.metrics.Timer;
+import org.jboss.forge.addon.convert.ConverterFactory;
+import org.jboss.forge.addon.resource.ResourceFactory;
 import org.jboss.forge.addon.ui.command.CommandFactory;
 import org.jboss.forge.addon.ui.controller.CommandControllerFactory;
 import org.jboss.forge.furnace.Furnace;
 import org.jboss.forge.furnace.addons.AddonRegistry;
 import org.jboss.forge.furnace.repositories.AddonRepositoryMode;
 import org.jboss.forge.furnace.se.FurnaceFactory;
+import org.jboss.forge.furnace.services.Imported;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
 import java.io.File;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
+/**
+ * Starts Furnace and resolves the Furnace services used on the request path once; they are
+ * resolved again whenever the version of the addon registry changes
+ */
 @ApplicationScoped
 public class FurnaceProducer {
+	private static final transient Logger LOG = LoggerFactory.getLogger(FurnaceProducer.class);
+
+	@Inject
+	private MetricsRegistry metricsRegistry;
 
 	private Furnace furnace;
 
-	private CommandFactory commandFactory;
+	private volatile long registryVersion = -1;
+
+	private volatile CommandFactory commandFactory;
+
+	private volatile CommandControllerFactory controllerFactory;
 
-	private CommandControllerFactory controllerFactory;
+	private volatile ResourceFactory resourceFactory;
+
+	private volatile ConverterFactory converterFactory;
 
 	public void setup(File repoDir) {
 		furnace = FurnaceFactory.getInstance(Thread.currentThread()
@@ -51,10 +73,51 @@ public class FurnaceProducer {
 			throw new RuntimeException("Furnace failed to start.", e);
 		}
 
+		resolveServices();
+	}
+
+	/**
+	 * Resolves the services again if the addon registry has changed since they were last resolved
+	 */
+	protected void checkRegistryVersion() {
+		if (furnace != null && furnace.getAddonRegistry().getVersion() != registryVersion) {
+			resolveServices();
+		}
+	}
+
+	protected synchronized void resolveServices() {
 		AddonRegistry addonRegistry = furnace.getAddonRegistry();
-		commandFactory = addonRegistry.getServices(CommandFactory.class).get();
-		controllerFactory = (CommandControllerFactory) addonRegistry
-				.getServices(CommandControllerFactory.class.getName()).get();
+		long version = addonRegistry.getVersion();
+		if (version == registryVersion) {
+			return;
+		}
+		long start = System.nanoTime();
+		commandFactory = lookupService(addonRegistry, CommandFactory.class);
+		controllerFactory = lookupService(addonRegistry, CommandControllerFactory.class);
+		resourceFactory = lookupService(addonRegistry, ResourceFactory.class);
+		converterFactory = lookupService(addonRegistry, ConverterFactory.class);
+		registryVersion = version;
+		LOG.info("Resolved Furnace services for addon registry version " + version + " in "
+				+ ((System.nanoTime() - start) / 1000000) + " millis");
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <T> T lookupService(AddonRegistry addonRegistry, Class<T> type) {
+		Timer timer = metricsRegistry.timer("forge_service_lookup", "service", type.getSimpleName());
+		long start = System.nanoTime();
+		try {
+			// lets use the class name so we find services exported by any addon
+			Imported<T> imported = (Imported<T>) addonRegistry.getServices(type.getName());
+			try {
+				return imported.get();
+			} catch (Exception e) {
+				// lets try one more time - might work this time?
+				LOG.warn("Failed to resolve " + type.getName() + " so retrying: " + e, e);
+				return imported.get();
+			}
+		} finally {
+			timer.updateSince(start);
+		}
 	}
 
 	@Produces
@@ -64,14 +127,26 @@ public class FurnaceProducer {
 
 	@Produces
 	public CommandFactory getCommandFactory() {
+		checkRegistryVersion();
 		return commandFactory;
 	}
 
 	@Produces
 	public CommandControllerFactory getControllerFactory() {
+		checkRegistryVersion();
 		return controllerFactory;
 	}
 
+	public ResourceFactory getResourceFactory() {
+		checkRegistryVersion();
+		return resourceFactory;
+	}
+
+	public ConverterFactory getConverterFactory() {
+		checkRegistryVersion();
+		return converterFactory;
+	}
+
 	@PreDestroy
 	public void destroy() {
 		furnace.stop();
@@ -0,0 +1,118 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.git;
+
+import io.fabric8.forge.rest.git.dto.PushStatusDTO;
+import io.fabric8.forge.rest.main.UserDetails;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
+import io.fabric8.utils.Files;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the asynchronous push queue using a local bare repository as the remote
+ */
+public class GitPushQueueTest {
+    protected File testDir;
+    protected File remoteDir;
+    protected File workDir;
+    protected Git git;
+    protected UserDetails userDetails = new UserDetails("http://localhost/", "http://localhost/", "forge", "secret", "forge@example.com");
+    protected GitPushQueue pushQueue;
+
+    @Before
+    public void init() throws Exception {
+        testDir = java.nio.file.Files.createTempDirectory("git-push-queue").toFile();
+        remoteDir = new File(testDir, "remote.git");
+        workDir = new File(testDir, "work");
+        Git.init().setBare(true).setDirectory(remoteDir).call().getRepository().close();
+        git = Git.cloneRepository().setURI(remoteDir.toURI().toString()).setDirectory(workDir).call();
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+        if (pushQueue != null) {
+            pushQueue.destroy();
+        }
+        if (git != null) {
+            git.getRepository().close();
+        }
+        Files.recursiveDelete(testDir);
+    }
+
+    @Test
+    public void testBurstOfCommitsIsCoalescedIntoOnePush() throws Exception {
+        pushQueue = new GitPushQueue(new MetricsRegistry(), true, 500, 3, 10);
+        File gitFolder = git.getRepository().getDirectory();
+
+        RevCommit last = null;
+        for (int i = 0; i < 3; i++) {
+            last = commitFile("file" + i + ".txt", "content " + i);
+            pushQueue.schedulePush(gitFolder, userDetails, "origin", "master");
+        }
+
+        assertThat(pushQueue.waitUntilIdle(30000)).isTrue();
+
+        PushStatusDTO status = pushQueue.getStatus(gitFolder);
+        assertThat(status.getStatus()).isEqualTo(GitPushQueue.STATUS_IDLE);
+        assertThat(status.getPushCount()).isEqualTo(1);
+        assertThat(status.getPendingRequests()).isEqualTo(0);
+        assertThat(getRemoteMaster()).isEqualTo(last.getId());
+    }
+
+    @Test
+    public void testFailedPushIsRetriedThenReported() throws Exception {
+        pushQueue = new GitPushQueue(new MetricsRegistry(), true, 0, 2, 10);
+        File gitFolder = git.getRepository().getDirectory();
+        commitFile("file.txt", "content");
+
+        Files.recursiveDelete(remoteDir);
+        pushQueue.schedulePush(gitFolder, userDetails, "origin", "master");
+
+        assertThat(pushQueue.waitUntilIdle(30000)).isTrue();
+
+        PushStatusDTO status = pushQueue.getStatus(gitFolder);
+        assertThat(status.getStatus()).isEqualTo(GitPushQueue.STATUS_FAILED);
+        assertThat(status.getAttempts()).isEqualTo(3);
+        assertThat(status.getPushCount()).isEqualTo(0);
+        assertThat(status.getLastError()).isNotEmpty();
+    }
+
+    protected RevCommit commitFile(String name, String content) throws Exception {
+        Files.writeToFile(new File(workDir, name), content.getBytes());
+        git.add().addFilepattern(name).call();
+        return git.commit().setAuthor(userDetails.createPersonIdent()).setMessage("Added " + name).call();
+    }
+
+    protected ObjectId getRemoteMaster() throws Exception {
+        Repository repository = new FileRepositoryBuilder().setGitDir(remoteDir).build();
+        try {
+            return repository.resolve("refs/heads/master");
+        } finally {
+            repository.close();
+        }
+    }
+}
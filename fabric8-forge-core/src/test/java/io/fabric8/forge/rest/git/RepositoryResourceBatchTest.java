@@ -0,0 +1,191 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.git;
+
+import io.fabric8.forge.rest.git.dto.BatchResultDTO;
+import io.fabric8.forge.rest.git.dto.FileChangeDTO;
+import io.fabric8.forge.rest.git.dto.StatusDTO;
+import io.fabric8.forge.rest.main.UserDetails;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
+import io.fabric8.utils.Files;
+import io.fabric8.utils.IOHelpers;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.BadRequestException;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Tests the batch endpoint of {@link RepositoryResource} using a local bare repository as the remote
+ */
+public class RepositoryResourceBatchTest {
+    protected File testDir;
+    protected File remoteDir;
+    protected File workDir;
+    protected Git git;
+    protected UserDetails userDetails = new UserDetails("http://localhost/", "http://localhost/", "forge", "secret", "forge@example.com");
+    protected MetricsRegistry metricsRegistry = new MetricsRegistry();
+    protected RepositoryResource resource;
+
+    @Before
+    public void init() throws Exception {
+        testDir = java.nio.file.Files.createTempDirectory("repository-batch").toFile();
+        remoteDir = new File(testDir, "remote.git");
+        workDir = new File(testDir, "work");
+        Git.init().setBare(true).setDirectory(remoteDir).call().getRepository().close();
+        git = Git.cloneRepository().setURI(remoteDir.toURI().toString()).setDirectory(workDir).call();
+
+        Files.writeToFile(new File(workDir, "old.txt"), "old".getBytes("UTF-8"));
+        Files.writeToFile(new File(workDir, "obsolete.txt"), "obsolete".getBytes("UTF-8"));
+        git.add().addFilepattern(".").call();
+        git.commit().setAuthor(userDetails.createPersonIdent()).setMessage("Initial import").call();
+        git.push().setRemote("origin").call();
+
+        GitPushQueue pushQueue = new GitPushQueue(metricsRegistry, false, 0, 0, 1);
+        resource = new RepositoryResource(workDir, git.getRepository().getDirectory(), userDetails, "origin", "master",
+                remoteDir.toURI().toString(), new GitLockManager(metricsRegistry), null, metricsRegistry, pushQueue,
+                remoteDir.toURI().toString(), null);
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+        if (git != null) {
+            git.getRepository().close();
+        }
+        Files.recursiveDelete(testDir);
+    }
+
+    @Test
+    public void testMixedBatchCreatesOneCommit() throws Exception {
+        ObjectId before = getRemoteMaster();
+
+        FileChangeDTO write = new FileChangeDTO(FileChangeDTO.WRITE, "src/main/resources/hello.txt");
+        write.setContent("Hello");
+        FileChangeDTO binary = new FileChangeDTO(FileChangeDTO.WRITE, "data.bin");
+        binary.setContent("AAEC");
+        binary.setEncoding(FileChangeDTO.BASE64_ENCODING);
+        FileChangeDTO move = new FileChangeDTO(FileChangeDTO.MOVE, "new.txt");
+        move.setOldPath("old.txt");
+        FileChangeDTO delete = new FileChangeDTO(FileChangeDTO.DELETE, "obsolete.txt");
+        FileChangeDTO mkdir = new FileChangeDTO(FileChangeDTO.MKDIR, "docs");
+        List<FileChangeDTO> changes = Arrays.asList(write, binary, move, delete, mkdir);
+
+        resource.setMessage("Batch of changes");
+        resource.validateFileChanges(changes);
+        BatchResultDTO result = resource.doBatch(git, changes, null);
+
+        assertThat(result.getCommit()).isNotNull();
+        assertThat(result.getCommit().getShortMessage()).isEqualTo("Batch of changes");
+        assertThat(operations(result)).containsExactly("src/main/resources/hello.txt:created", "data.bin:created", "new.txt:moved", "obsolete.txt:removed", "docs:created");
+
+        assertThat(IOHelpers.readFully(new File(workDir, "src/main/resources/hello.txt"))).isEqualTo("Hello");
+        assertThat(java.nio.file.Files.readAllBytes(new File(workDir, "data.bin").toPath())).isEqualTo(new byte[]{0, 1, 2});
+        assertThat(new File(workDir, "old.txt")).doesNotExist();
+        assertThat(new File(workDir, "new.txt")).exists();
+        assertThat(new File(workDir, "obsolete.txt")).doesNotExist();
+        assertThat(git.status().call().isClean()).isTrue();
+
+        // only the one commit was pushed on top of the initial import
+        ObjectId after = getRemoteMaster();
+        assertThat(after.getName()).isEqualTo(result.getCommit().getSha());
+        RevWalk walk = new RevWalk(git.getRepository());
+        try {
+            RevCommit commit = walk.parseCommit(after);
+            assertThat(commit.getParentCount()).isEqualTo(1);
+            assertThat(commit.getParent(0).getId()).isEqualTo(before);
+        } finally {
+            walk.dispose();
+        }
+    }
+
+    @Test
+    public void testBatchWithoutChangesDoesNotCommit() throws Exception {
+        List<FileChangeDTO> changes = Arrays.asList(new FileChangeDTO(FileChangeDTO.DELETE, "does-not-exist.txt"));
+        BatchResultDTO result = resource.doBatch(git, changes, null);
+        assertThat(result.getCommit()).isNull();
+        assertThat(result.getChanges()).isEmpty();
+    }
+
+    @Test
+    public void testPathsOutsideOfTheWorkingDirectoryAreRejected() throws Exception {
+        for (String path : Arrays.asList("../x", "src/../../x", ".git/config", ".git")) {
+            FileChangeDTO write = new FileChangeDTO(FileChangeDTO.WRITE, path);
+            write.setContent("evil");
+            try {
+                resource.doBatch(git, Arrays.asList(write), null);
+                fail("Expected path " + path + " to be rejected");
+            } catch (BadRequestException e) {
+                assertThat(e.getMessage()).contains(path);
+            }
+        }
+        FileChangeDTO move = new FileChangeDTO(FileChangeDTO.MOVE, "stolen.txt");
+        move.setOldPath("../outside.txt");
+        try {
+            resource.doBatch(git, Arrays.asList(move), null);
+            fail("Expected the old path to be rejected");
+        } catch (BadRequestException e) {
+            assertThat(e.getMessage()).contains("../outside.txt");
+        }
+        assertThat(new File(testDir, "x")).doesNotExist();
+    }
+
+    @Test
+    public void testInvalidChangesAreRejected() throws Exception {
+        FileChangeDTO move = new FileChangeDTO(FileChangeDTO.MOVE, "new.txt");
+        try {
+            resource.validateFileChanges(Arrays.asList(move));
+            fail("Expected a move without an oldPath to be rejected");
+        } catch (BadRequestException e) {
+            assertThat(e.getMessage()).contains("No oldPath");
+        }
+        try {
+            resource.validateFileChanges(Arrays.asList(new FileChangeDTO("chmod", "new.txt")));
+            fail("Expected an unknown operation to be rejected");
+        } catch (BadRequestException e) {
+            assertThat(e.getMessage()).contains("Unknown operation");
+        }
+    }
+
+    protected static List<String> operations(BatchResultDTO result) {
+        List<String> answer = new ArrayList<>();
+        for (StatusDTO status : result.getChanges()) {
+            answer.add(status.getFile() + ":" + status.getOperation());
+        }
+        return answer;
+    }
+
+    protected ObjectId getRemoteMaster() throws Exception {
+        Repository repository = new FileRepositoryBuilder().setGitDir(remoteDir).build();
+        try {
+            return repository.resolve("refs/heads/master");
+        } finally {
+            repository.close();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.main;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
+import io.fabric8.forge.rest.ui.RestUIContext;
+import io.fabric8.utils.Files;
+import io.fabric8.utils.IOHelpers;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests publishing a new project using a local bare repository as the remote and a mock HTTP server in place of Gogs
+ */
+public class GitCommandCompletePostProcessorTest {
+    protected static final long LATENCY_MILLIS = 300;
+    protected static final Pattern NAME_PATTERN = Pattern.compile("\"name\"\\s*:\\s*\"([^\"]+)\"");
+
+    protected File testDir;
+    protected HttpServer gogs;
+    protected AtomicInteger createdRepositories = new AtomicInteger();
+    protected MetricsRegistry metricsRegistry = new MetricsRegistry();
+    protected ExecutorService executor = Executors.newFixedThreadPool(4);
+    protected UserDetails userDetails;
+    protected ProjectFileSystem projectFileSystem;
+
+    @Before
+    public void init() throws Exception {
+        testDir = java.nio.file.Files.createTempDirectory("git-command-complete").toFile();
+        gogs = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        gogs.createContext("/api/v1/user/repos", new CreateRepositoryHandler());
+        gogs.start();
+        String address = "http://localhost:" + gogs.getAddress().getPort() + "/";
+        userDetails = new UserDetails(address, address, "forge", "secret", "forge@example.com");
+        projectFileSystem = new ProjectFileSystem(new RepositoryCache(metricsRegistry, 100, 60000), metricsRegistry,
+                testDir.getAbsolutePath(), "origin", null, 60000);
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+        executor.shutdownNow();
+        if (gogs != null) {
+            gogs.stop(0);
+        }
+        Files.recursiveDelete(testDir);
+    }
+
+    @Test
+    public void testIndependentStepsRunConcurrently() throws Exception {
+        // lets warm up jgit and the REST client so the timings below only measure the pipeline
+        publish(new MockPostProcessor(executor), "warmup");
+
+        Executor sameThread = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        MockPostProcessor sequential = new MockPostProcessor(sameThread);
+        long sequentialMillis = publish(sequential, "sequential");
+
+        MockPostProcessor parallel = new MockPostProcessor(executor);
+        long parallelMillis = publish(parallel, "parallel");
+
+        assertThat(createdRepositories.get()).isEqualTo(3);
+        assertThat(sequential.buildConfigs.get()).isEqualTo(1);
+        assertThat(parallel.buildConfigs.get()).isEqualTo(1);
+        assertThat(parallel.webHooks.get()).isEqualTo(1);
+        assertThat(metricsRegistry.timer("forge_task_graph_step", "graph", "projectNew", "step", GitCommandCompletePostProcessor.STEP_PUSH, "outcome", TaskGraph.OUTCOME_SUCCESS).getCount()).isEqualTo(3);
+
+        // the BuildConfig is created while the code is pushed rather than after it
+        assertThat(parallelMillis).isLessThan(sequentialMillis - LATENCY_MILLIS / 2);
+    }
+
+    @Test
+    public void testWebHooksAreNotRegisteredIfThePushFails() throws Exception {
+        MockPostProcessor processor = new MockPostProcessor(executor) {
+            @Override
+            protected String createRemoteUrl(String internalAddress, String user, String named) {
+                return new File(testDir, "does-not-exist.git").toURI().toString();
+            }
+        };
+        File basedir = createProject("broken");
+        try {
+            processor.publishNewProject(null, userDetails, basedir, "broken", "Initial import", "default", "broken");
+            throw new AssertionError("Expected the push to fail");
+        } catch (Exception e) {
+            // expected
+        }
+        // the BuildConfig created while pushing is deleted again
+        assertThat(processor.buildConfigs.get()).isEqualTo(1);
+        assertThat(processor.deletedBuildConfigs.get()).isEqualTo(1);
+        assertThat(processor.webHooks.get()).isEqualTo(0);
+        assertThat(metricsRegistry.timer("forge_task_graph_step", "graph", "projectNew", "step", GitCommandCompletePostProcessor.STEP_PUSH, "outcome", TaskGraph.OUTCOME_FAILURE).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testBuildConfigIsNotCreatedIfTheRepositoryIsNotCreated() throws Exception {
+        MockPostProcessor processor = new MockPostProcessor(executor);
+        File basedir = createProject("failing");
+        try {
+            processor.publishNewProject(null, userDetails, basedir, "failing", "Initial import", "default", "failing");
+            throw new AssertionError("Expected the repository creation to fail");
+        } catch (Exception e) {
+            // expected
+        }
+        assertThat(createdRepositories.get()).isEqualTo(1);
+        assertThat(processor.buildConfigs.get()).isEqualTo(0);
+        assertThat(processor.deletedBuildConfigs.get()).isEqualTo(0);
+        assertThat(processor.webHooks.get()).isEqualTo(0);
+    }
+
+    /**
+     * Publishes a new project and asserts the remote repository contains the commit
+     *
+     * @return the wall clock time in milliseconds
+     */
+    protected long publish(MockPostProcessor processor, String named) throws Exception {
+        File basedir = createProject(named);
+        File remoteDir = new File(testDir, "remote/forge/" + named + ".git");
+        Git.init().setBare(true).setDirectory(remoteDir).call().getRepository().close();
+
+        long start = System.currentTimeMillis();
+        String fullName = processor.publishNewProject(null, userDetails, basedir, named, "Initial import of " + named, "default", named);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertThat(fullName).isEqualTo("forge/" + named);
+        assertThat(new File(basedir, "src/test/java/.gitkeep")).exists();
+        Repository repository = new FileRepositoryBuilder().setGitDir(remoteDir).build();
+        try {
+            ObjectId master = repository.resolve("refs/heads/master");
+            assertThat(master).isNotNull();
+            RevWalk walk = new RevWalk(repository);
+            RevCommit commit = walk.parseCommit(master);
+            assertThat(commit.getFullMessage()).isEqualTo("Initial import of " + named);
+            walk.dispose();
+        } finally {
+            repository.close();
+        }
+        return elapsed;
+    }
+
+    protected File createProject(String named) throws IOException {
+        File basedir = new File(testDir, "user/forge/" + named);
+        new File(basedir, "src/test/java").mkdirs();
+        IOHelpers.writeFully(new File(basedir, "pom.xml"), "<project><artifactId>" + named + "</artifactId></project>\n");
+        File mainClass = new File(basedir, "src/main/java/Main.java");
+        mainClass.getParentFile().mkdirs();
+        IOHelpers.writeFully(mainClass, "public class Main {}\n");
+        return basedir;
+    }
+
+    protected class MockPostProcessor extends GitCommandCompletePostProcessor {
+        protected final AtomicInteger buildConfigs = new AtomicInteger();
+        protected final AtomicInteger deletedBuildConfigs = new AtomicInteger();
+        protected final AtomicInteger webHooks = new AtomicInteger();
+
+        public MockPostProcessor(Executor executor) {
+            super(null, null, projectFileSystem, metricsRegistry, DEFAULT_JENKINS_SEED_JOB, false, executor);
+        }
+
+        @Override
+        protected String createRemoteUrl(String internalAddress, String user, String named) {
+            return new File(testDir, "remote/" + user + "/" + named + ".git").toURI().toString();
+        }
+
+        @Override
+        protected void push(Git git, UserDetails userDetails, String branch, String origin) throws Exception {
+            // simulates pushing to a remote git server
+            Thread.sleep(LATENCY_MILLIS);
+            super.push(git, userDetails, branch, origin);
+        }
+
+        @Override
+        protected void createBuildConfig(RestUIContext context, String namespace, String projectName, String cloneUrl) throws Exception {
+            // simulates the round trip to the OpenShift API
+            Thread.sleep(LATENCY_MILLIS);
+            buildConfigs.incrementAndGet();
+        }
+
+        @Override
+        protected void deleteBuildConfig(String namespace, String projectName) throws Exception {
+            deletedBuildConfigs.incrementAndGet();
+        }
+
+        @Override
+        protected void registerWebHooks(RestUIContext context) {
+            webHooks.incrementAndGet();
+        }
+    }
+
+    protected class CreateRepositoryHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                String body = IOHelpers.readFully(exchange.getRequestBody());
+                Matcher matcher = NAME_PATTERN.matcher(body);
+                String name = matcher.find() ? matcher.group(1) : "unknown";
+                createdRepositories.incrementAndGet();
+                Thread.sleep(LATENCY_MILLIS);
+                if (name.startsWith("failing")) {
+                    exchange.sendResponseHeaders(500, -1);
+                    return;
+                }
+
+                byte[] json = ("{\"id\":" + createdRepositories.get() + ",\"name\":\"" + name + "\",\"full_name\":\"forge/" + name + "\"}").getBytes("UTF-8");
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(201, json.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(json);
+                out.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.sendResponseHeaders(500, -1);
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+}
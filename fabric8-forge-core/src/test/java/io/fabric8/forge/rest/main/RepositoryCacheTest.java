@@ -0,0 +1,171 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.main;
+
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
+import io.fabric8.repo.git.GitRepoClient;
+import io.fabric8.repo.git.RepositoryDTO;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Tests that the repository cache is bounded, expires entries and collapses concurrent misses into one listing
+ */
+public class RepositoryCacheTest {
+    protected ExecutorService executor = Executors.newFixedThreadPool(5);
+    protected MetricsRegistry metricsRegistry = new MetricsRegistry();
+
+    @After
+    public void cleanUp() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneListing() throws Exception {
+        final RepositoryCache cache = new RepositoryCache(metricsRegistry, 100, 60000);
+        final CountDownLatch release = new CountDownLatch(1);
+        final StubRepoClient repoClient = new StubRepoClient(release, "james/foo", "james/bar");
+
+        List<Future<RepositoryDTO>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(executor.submit(new Callable<RepositoryDTO>() {
+                @Override
+                public RepositoryDTO call() throws Exception {
+                    return cache.getOrFindUserRepository("james", "foo", repoClient);
+                }
+            }));
+        }
+        // give the other lookups a chance to join the listing in flight
+        Thread.sleep(200);
+        release.countDown();
+        for (Future<RepositoryDTO> future : futures) {
+            RepositoryDTO repository = future.get(10, TimeUnit.SECONDS);
+            assertThat(repository).isNotNull();
+            assertThat(repository.getFullName()).isEqualTo("james/foo");
+        }
+
+        assertThat(repoClient.listings.get()).isEqualTo(1);
+        // the whole listing is cached
+        assertThat(cache.getOrFindUserRepository("james", "bar", repoClient).getFullName()).isEqualTo("james/bar");
+        assertThat(repoClient.listings.get()).isEqualTo(1);
+        assertThat(metricsRegistry.counter("forge_cache_misses", "cache", "repository").getCount()).isEqualTo(5);
+        assertThat(metricsRegistry.counter("forge_cache_shared_loads", "cache", "repository").getCount()).isEqualTo(4);
+        assertThat(metricsRegistry.counter("forge_cache_hits", "cache", "repository").getCount()).isEqualTo(1);
+        assertThat(metricsRegistry.timer("forge_cache_load", "cache", "repository").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws Exception {
+        RepositoryCache cache = new RepositoryCache(metricsRegistry, 2, 60000);
+        cache.updateUserRepositories(repositories("james/a", "james/b"));
+        assertThat(cache.getUserRepository("james", "a")).isNotNull();
+
+        cache.updateUserRepositories(repositories("james/c"));
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getUserRepository("james", "a")).isNotNull();
+        assertThat(cache.getUserRepository("james", "b")).isNull();
+        assertThat(cache.getUserRepository("james", "c")).isNotNull();
+        assertThat(metricsRegistry.counter("forge_cache_evictions", "cache", "repository").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEntriesExpire() throws Exception {
+        final AtomicInteger now = new AtomicInteger(1000);
+        RepositoryCache cache = new RepositoryCache(metricsRegistry, 100, 500) {
+            @Override
+            protected long currentTimeMillis() {
+                return now.get();
+            }
+        };
+        StubRepoClient repoClient = new StubRepoClient(null, "james/foo");
+        assertThat(cache.getOrFindUserRepository("james", "foo", repoClient)).isNotNull();
+        now.addAndGet(400);
+        assertThat(cache.getOrFindUserRepository("james", "foo", repoClient)).isNotNull();
+        assertThat(repoClient.listings.get()).isEqualTo(1);
+
+        now.addAndGet(200);
+        assertThat(cache.getOrFindUserRepository("james", "foo", repoClient)).isNotNull();
+        assertThat(repoClient.listings.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFailedListingIsNotCached() throws Exception {
+        RepositoryCache cache = new RepositoryCache(metricsRegistry, 100, 60000);
+        StubRepoClient repoClient = new StubRepoClient(null, "james/foo");
+        repoClient.failure = new IllegalStateException("Gogs is down");
+        try {
+            cache.getOrFindUserRepository("james", "foo", repoClient);
+            fail("Expected the listing to fail");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage()).isEqualTo("Gogs is down");
+        }
+        repoClient.failure = null;
+        assertThat(cache.getOrFindUserRepository("james", "foo", repoClient)).isNotNull();
+        assertThat(repoClient.listings.get()).isEqualTo(2);
+    }
+
+    protected static List<RepositoryDTO> repositories(String... fullNames) {
+        List<RepositoryDTO> answer = new ArrayList<>();
+        for (String fullName : fullNames) {
+            RepositoryDTO repository = new RepositoryDTO();
+            repository.setFullName(fullName);
+            answer.add(repository);
+        }
+        return answer;
+    }
+
+    protected static class StubRepoClient extends GitRepoClient {
+        private final CountDownLatch release;
+        private final String[] fullNames;
+        private final AtomicInteger listings = new AtomicInteger();
+        private volatile RuntimeException failure;
+
+        public StubRepoClient(CountDownLatch release, String... fullNames) {
+            super("http://localhost:3000", "james", "secret");
+            this.release = release;
+            this.fullNames = fullNames;
+        }
+
+        @Override
+        public List<RepositoryDTO> listRepositories() {
+            listings.incrementAndGet();
+            if (release != null) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return repositories(fullNames);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.main;
+
+import io.fabric8.forge.rest.CommandsResource;
+import io.fabric8.forge.rest.dto.WarmupStageDTO;
+import io.fabric8.forge.rest.dto.WarmupStatusDTO;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the state transitions of the warm up stages and the resulting readiness
+ */
+public class WarmupManagerTest {
+    protected final Map<String, Callable<String>> tasks = new HashMap<>();
+    protected final CountDownLatch release = new CountDownLatch(1);
+
+    @After
+    public void cleanUp() {
+        release.countDown();
+    }
+
+    @Test
+    public void testReadyOnceAllStagesComplete() throws Exception {
+        tasks.put("a", completes("Loaded a"));
+        tasks.put("b", blocksUntilReleased());
+        WarmupManager warmupManager = createWarmupManager("a,b", 0);
+
+        assertThat(warmupManager.isReady()).isFalse();
+        assertThat(stage(warmupManager.getStatus(), "a").getStatus()).isEqualTo(WarmupManager.STATUS_PENDING);
+
+        warmupManager.start(null);
+        waitForStage(warmupManager, "a", WarmupManager.STATUS_COMPLETED);
+        waitForStage(warmupManager, "b", WarmupManager.STATUS_RUNNING);
+        WarmupStatusDTO status = warmupManager.getStatus();
+        assertThat(status.isReady()).isFalse();
+        assertThat(status.getCompletedStages()).isEqualTo(1);
+
+        release.countDown();
+        status = waitUntilReady(warmupManager);
+        assertThat(status.isDegraded()).isFalse();
+        assertThat(status.getCompletedStages()).isEqualTo(2);
+        assertThat(stage(status, "b").getStatus()).isEqualTo(WarmupManager.STATUS_COMPLETED);
+        assertThat(stage(status, "b").getMessage()).isEqualTo("Released");
+    }
+
+    @Test
+    public void testFailedStageIsDegradedButReady() throws Exception {
+        tasks.put("a", completes("Loaded a"));
+        tasks.put("b", new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                throw new NoClassDefFoundError("org/apache/camel/Missing");
+            }
+        });
+        WarmupManager warmupManager = createWarmupManager("a,b,unknown", 0);
+        warmupManager.start(null);
+
+        WarmupStatusDTO status = waitUntilReady(warmupManager);
+        assertThat(status.isDegraded()).isTrue();
+        assertThat(stage(status, "a").getStatus()).isEqualTo(WarmupManager.STATUS_COMPLETED);
+        assertThat(stage(status, "b").getStatus()).isEqualTo(WarmupManager.STATUS_FAILED);
+        assertThat(stage(status, "b").getMessage()).contains("Missing");
+        assertThat(stage(status, "unknown").getStatus()).isEqualTo(WarmupManager.STATUS_SKIPPED);
+    }
+
+    @Test
+    public void testStageWhichMissesItsDeadlineTimesOut() throws Exception {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        tasks.put("slow", new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                    return "Released";
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            }
+        });
+        WarmupManager warmupManager = createWarmupManager("slow", 200);
+        warmupManager.start(null);
+
+        WarmupStatusDTO status = waitUntilReady(warmupManager);
+        assertThat(status.isDegraded()).isTrue();
+        assertThat(stage(status, "slow").getStatus()).isEqualTo(WarmupManager.STATUS_TIMED_OUT);
+        assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // the failure of the interrupted stage does not replace the time out
+        Thread.sleep(100);
+        assertThat(stage(warmupManager.getStatus(), "slow").getStatus()).isEqualTo(WarmupManager.STATUS_TIMED_OUT);
+    }
+
+    @Test
+    public void testReadyWhenDisabled() throws Exception {
+        WarmupManager warmupManager = new WarmupManager(null, false, 1, "a", 0);
+        assertThat(warmupManager.isReady()).isFalse();
+
+        warmupManager.start(null);
+        WarmupStatusDTO status = warmupManager.getStatus();
+        assertThat(status.isReady()).isTrue();
+        assertThat(status.isDegraded()).isFalse();
+    }
+
+    protected WarmupManager createWarmupManager(String stageNames, long stageTimeoutMillis) {
+        return new WarmupManager(null, true, 2, stageNames, stageTimeoutMillis) {
+            @Override
+            protected Callable<String> createStageTask(String name, CommandsResource commandsResource) {
+                return tasks.get(name);
+            }
+        };
+    }
+
+    protected Callable<String> completes(final String message) {
+        return new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return message;
+            }
+        };
+    }
+
+    protected Callable<String> blocksUntilReleased() {
+        return new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                release.await(10, TimeUnit.SECONDS);
+                return "Released";
+            }
+        };
+    }
+
+    protected static WarmupStatusDTO waitUntilReady(WarmupManager warmupManager) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        WarmupStatusDTO status = warmupManager.getStatus();
+        while (!status.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = warmupManager.getStatus();
+        }
+        assertThat(status.isReady()).describedAs("ready " + status).isTrue();
+        return status;
+    }
+
+    protected static void waitForStage(WarmupManager warmupManager, String name, String expectedStatus) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!expectedStatus.equals(stage(warmupManager.getStatus(), name).getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(stage(warmupManager.getStatus(), name).getStatus()).isEqualTo(expectedStatus);
+    }
+
+    protected static WarmupStageDTO stage(WarmupStatusDTO status, String name) {
+        for (WarmupStageDTO stage : status.getStages()) {
+            if (stage.getName().equals(name)) {
+                return stage;
+            }
+        }
+        throw new AssertionError("No stage " + name + " in " + status);
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.main;
+
+import io.fabric8.forge.rest.dto.WorkflowSyncStatusDTO;
+import io.fabric8.forge.rest.metrics.MetricsRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that the jenkins workflow syncs are collapsed and rate limited
+ */
+public class WorkflowSyncSchedulerTest {
+    protected ExecutorService executor = Executors.newFixedThreadPool(2);
+    protected MetricsRegistry metricsRegistry = new MetricsRegistry();
+    protected AtomicInteger syncs = new AtomicInteger();
+
+    @After
+    public void cleanUp() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentRequestsAreCollapsedIntoOneSync() throws Exception {
+        WorkflowSyncScheduler scheduler = new WorkflowSyncScheduler(metricsRegistry, executor, 0);
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable sync = new Runnable() {
+            @Override
+            public void run() {
+                syncs.incrementAndGet();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        assertThat(scheduler.requestSync(sync)).isTrue();
+        for (int i = 0; i < 5; i++) {
+            assertThat(scheduler.requestSync(sync)).isFalse();
+        }
+        release.countDown();
+        assertThat(scheduler.waitUntilIdle(10000)).isTrue();
+
+        WorkflowSyncStatusDTO status = scheduler.getStatus();
+        assertThat(syncs.get()).isEqualTo(1);
+        assertThat(status.getSyncCount()).isEqualTo(1);
+        assertThat(status.getRequestCount()).isEqualTo(6);
+        assertThat(status.getSkippedCount()).isEqualTo(5);
+        assertThat(status.getLastResult()).isEqualTo(WorkflowSyncScheduler.RESULT_SUCCESS);
+        assertThat(status.getLastSyncTime()).isNotNull();
+        assertThat(metricsRegistry.timer("forge_workflow_sync", "outcome", "success").getCount()).isEqualTo(1);
+        assertThat(metricsRegistry.counter("forge_workflow_sync_skipped", "reason", "in_flight").getCount()).isEqualTo(5);
+
+        // a sync is allowed again once the previous one completed
+        assertThat(scheduler.requestSync(sync)).isTrue();
+        assertThat(scheduler.waitUntilIdle(10000)).isTrue();
+        assertThat(syncs.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRequestsWithinTheMinimumIntervalAreSkipped() throws Exception {
+        WorkflowSyncScheduler scheduler = new WorkflowSyncScheduler(metricsRegistry, executor, 60000);
+        Runnable sync = new Runnable() {
+            @Override
+            public void run() {
+                syncs.incrementAndGet();
+                throw new IllegalStateException("Cannot pull");
+            }
+        };
+
+        assertThat(scheduler.requestSync(sync)).isTrue();
+        assertThat(scheduler.waitUntilIdle(10000)).isTrue();
+        assertThat(scheduler.requestSync(sync)).isFalse();
+
+        WorkflowSyncStatusDTO status = scheduler.getStatus();
+        assertThat(syncs.get()).isEqualTo(1);
+        assertThat(status.getLastResult()).isEqualTo(WorkflowSyncScheduler.RESULT_FAILURE);
+        assertThat(status.getLastError()).contains("Cannot pull");
+        assertThat(metricsRegistry.counter("forge_workflow_sync_skipped", "reason", "too_recent").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSyncFailingWithAnErrorIsFinished() throws Exception {
+        WorkflowSyncScheduler scheduler = new WorkflowSyncScheduler(metricsRegistry, executor, 0);
+        Runnable sync = new Runnable() {
+            @Override
+            public void run() {
+                syncs.incrementAndGet();
+                throw new NoClassDefFoundError("org/eclipse/jgit/Missing");
+            }
+        };
+
+        assertThat(scheduler.requestSync(sync)).isTrue();
+        assertThat(scheduler.waitUntilIdle(10000)).isTrue();
+
+        WorkflowSyncStatusDTO status = scheduler.getStatus();
+        assertThat(status.isSyncing()).isFalse();
+        assertThat(status.getLastResult()).isEqualTo(WorkflowSyncScheduler.RESULT_FAILURE);
+        assertThat(status.getLastError()).contains("Missing");
+        assertThat(metricsRegistry.timer("forge_workflow_sync", "outcome", "failure").getCount()).isEqualTo(1);
+
+        // the next request is not skipped as in flight
+        assertThat(scheduler.requestSync(sync)).isTrue();
+        assertThat(scheduler.waitUntilIdle(10000)).isTrue();
+        assertThat(syncs.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.metrics;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class PrometheusTextFormatTest {
+    @Test
+    public void testWriteTimersAndCounters() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        Timer timer = registry.timer("forge_git_stage", "stage", "pull");
+        timer.update(3, TimeUnit.MILLISECONDS);
+        timer.update(200, TimeUnit.MILLISECONDS);
+        registry.counter("forge_cache_hits", "cache", "repository").increment();
+        registry.counter("forge_cache_hits", "cache", "repository").increment();
+
+        StringWriter writer = new StringWriter();
+        PrometheusTextFormat.write(writer, registry);
+        String text = writer.toString();
+
+        assertThat(text).contains("# TYPE forge_git_stage_seconds histogram\n");
+        assertThat(text).contains("forge_git_stage_seconds_bucket{stage=\"pull\",le=\"0.001\"} 0\n");
+        assertThat(text).contains("forge_git_stage_seconds_bucket{stage=\"pull\",le=\"0.005\"} 1\n");
+        assertThat(text).contains("forge_git_stage_seconds_bucket{stage=\"pull\",le=\"0.25\"} 2\n");
+        assertThat(text).contains("forge_git_stage_seconds_bucket{stage=\"pull\",le=\"+Inf\"} 2\n");
+        assertThat(text).contains("forge_git_stage_seconds_count{stage=\"pull\"} 2\n");
+        assertThat(text).contains("forge_git_stage_seconds_max{stage=\"pull\"} 0.2\n");
+        assertThat(text).contains("# TYPE forge_cache_hits_total counter\n");
+        assertThat(text).contains("forge_cache_hits_total{cache=\"repository\"} 2\n");
+    }
+
+    @Test
+    public void testEscapeLabelValues() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("forge_test", "path", "a\"b\\c\nd").increment();
+
+        StringWriter writer = new StringWriter();
+        PrometheusTextFormat.write(writer, registry);
+
+        assertThat(writer.toString()).contains("forge_test_total{path=\"a\\\"b\\\\c\\nd\"} 1\n");
+    }
+}